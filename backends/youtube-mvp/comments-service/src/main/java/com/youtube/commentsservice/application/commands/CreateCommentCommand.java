@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.util.Locale;
+
 @Getter
 @Builder
 @AllArgsConstructor
@@ -13,5 +15,7 @@ public class CreateCommentCommand {
     private String authorId;
     private String parentId;
     private String text;
+    /** Language of the comment, used to pick the profanity dictionaries; null if unknown. */
+    private Locale locale;
 }
 
@@ -0,0 +1,24 @@
+package com.youtube.commentsservice.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentPageDto {
+    private List<CommentDto> items;
+    
+    // Pass back to fetch the next page; null on the last page
+    private String continuationToken;
+    
+    // Approximate, maintained incrementally as comments are created and deleted
+    private long totalCount;
+}
@@ -3,7 +3,6 @@ package com.youtube.commentsservice.application.queries;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
-import org.springframework.data.domain.Pageable;
 
 @Getter
 @Builder
@@ -11,6 +10,6 @@ import org.springframework.data.domain.Pageable;
 public class GetCommentsQuery {
     private String videoId;
     private String parentId; // null for top-level comments
-    private Pageable pageable;
+    private String continuationToken; // null for the first page
+    private int limit;
 }
-
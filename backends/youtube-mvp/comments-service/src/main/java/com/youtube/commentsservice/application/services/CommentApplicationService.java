@@ -4,18 +4,24 @@ import com.youtube.commentsservice.application.commands.AddReactionCommand;
 import com.youtube.commentsservice.application.commands.CreateCommentCommand;
 import com.youtube.commentsservice.application.commands.DeleteCommentCommand;
 import com.youtube.commentsservice.application.dto.CommentDto;
+import com.youtube.commentsservice.application.dto.CommentPageDto;
+import com.youtube.commentsservice.application.dto.ReactionSummaryDto;
 import com.youtube.commentsservice.application.mappers.CommentMapper;
+import com.youtube.commentsservice.application.queries.GetCommentsQuery;
 import com.youtube.commentsservice.domain.entities.Comment;
 import com.youtube.commentsservice.domain.repositories.CommentRepository;
+import com.youtube.commentsservice.domain.repositories.ReactionRepository;
 import com.youtube.commentsservice.domain.services.*;
+import com.youtube.commentsservice.domain.valueobjects.CommentSlice;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
@@ -23,7 +29,15 @@ import java.util.Optional;
 @Transactional
 public class CommentApplicationService {
     
+    // Reaction types become JSON property names in the counter documents
+    private static final Pattern REACTION_TYPE = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+    private static final int MAX_PAGE_SIZE = 100;
+    
     private final CommentRepository commentRepository;
+    private final ReactionRepository reactionRepository;
+    private final ReactionCounterPort reactionCounterPort;
+    private final CommentCountPort commentCountPort;
+    private final HotThreadCachePort hotThreadCachePort;
     private final ProfanityFilterPort profanityFilterPort;
     private final IdempotencyCheckerPort idempotencyCheckerPort;
     private final EventPublisherPort eventPublisherPort;
@@ -43,7 +57,7 @@ public class CommentApplicationService {
         }
         
         // Profanity filter
-        String filteredText = profanityFilterPort.filterProfanity(command.getText());
+        String filteredText = profanityFilterPort.filterProfanity(command.getText(), command.getLocale());
         if (filteredText != command.getText()) {
             log.warn("Profanity detected and filtered for author: {}", command.getAuthorId());
         }
@@ -61,14 +75,15 @@ public class CommentApplicationService {
         
         // Store idempotency result
         idempotencyCheckerPort.storeResult(command.getIdempotencyKey(), saved.getId(), 3600);
+        adjustCount(saved, 1);
         
         // Publish domain event
         eventPublisherPort.publishCommentCreated(comment.toCreatedEvent());
+        hotThreadCachePort.onCommentCreated(saved);
         
         // Broadcast to Web PubSub
         try {
-            broadcastPort.broadcastCommentCreated(command.getVideoId(), 
-                    jsonFromComment(saved));
+            broadcastPort.broadcastCommentCreated(saved);
         } catch (Exception e) {
             log.error("Failed to broadcast comment creation", e);
         }
@@ -87,11 +102,16 @@ public class CommentApplicationService {
             throw new SecurityException("Unauthorized to delete this comment");
         }
         
+        if (!comment.isActive()) {
+            return; // Already deleted; must not be counted out twice
+        }
         comment.delete();
         commentRepository.save(comment);
+        adjustCount(comment, -1);
         
         // Publish domain event
         eventPublisherPort.publishCommentDeleted(comment.toDeletedEvent());
+        hotThreadCachePort.onCommentDeleted(comment);
         
         // Broadcast
         try {
@@ -101,40 +121,79 @@ public class CommentApplicationService {
         }
     }
     
+    /**
+     * Records the user's reaction and buffers a counter increment; the comment document
+     * itself is not written, its counts are aggregated asynchronously.
+     */
     public void addReaction(AddReactionCommand command) {
-        log.info("Adding reaction {} to comment: {}", command.getReactionType(), command.getCommentId());
+        log.debug("Adding reaction {} to comment: {}", command.getReactionType(), command.getCommentId());
+        validateReactionType(command.getReactionType());
         
         Comment comment = commentRepository.findById(command.getCommentId())
                 .orElseThrow(() -> new IllegalArgumentException("Comment not found"));
+        if (!comment.isActive()) {
+            throw new IllegalStateException("Cannot react to a " + comment.getStatus() + " comment");
+        }
         
-        comment.addReaction(command.getReactionType(), command.getUserId());
-        comment.updateETag();
-        commentRepository.save(comment);
+        // Only a reaction that was actually recorded is counted, so repeated requests are no-ops
+        if (reactionRepository.add(command.getCommentId(), command.getUserId(), command.getReactionType())) {
+            reactionCounterPort.increment(command.getCommentId(), command.getReactionType(), 1);
+        }
     }
     
     public void removeReaction(String commentId, String userId, String reactionType) {
-        log.info("Removing reaction {} from comment: {}", reactionType, commentId);
+        log.debug("Removing reaction {} from comment: {}", reactionType, commentId);
+        validateReactionType(reactionType);
         
+        if (reactionRepository.remove(commentId, userId, reactionType)) {
+            reactionCounterPort.increment(commentId, reactionType, -1);
+        }
+    }
+    
+    /**
+     * Reaction counts as last aggregated onto the comment, most frequent first.
+     */
+    @Transactional(readOnly = true)
+    public List<ReactionSummaryDto> getReactionSummary(String commentId) {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new IllegalArgumentException("Comment not found"));
         
-        comment.removeReaction(reactionType, userId);
-        comment.updateETag();
-        commentRepository.save(comment);
+        if (comment.getReactions() == null) {
+            return List.of();
+        }
+        return commentMapper.mapReactions(comment.getReactions()).values().stream()
+                .sorted(Comparator.comparingInt(ReactionSummaryDto::getCount).reversed())
+                .toList();
     }
     
+    /**
+     * One page of top-level comments (most reacted first) or of replies (oldest first).
+     * Pages are keyset-paged with the returned continuation token, and the total is the
+     * incrementally maintained count, so no page recounts the thread.
+     */
     @Transactional(readOnly = true)
-    public Page<CommentDto> getComments(String videoId, String parentId, PageRequest pageRequest) {
-        log.info("Getting comments for video: {}, parent: {}", videoId, parentId);
-        
-        Page<Comment> comments;
-        if (parentId == null) {
-            comments = commentRepository.findByVideoIdAndParentIdIsNull(videoId, pageRequest);
+    public CommentPageDto getComments(GetCommentsQuery query) {
+        log.info("Getting comments for video: {}, parent: {}", query.getVideoId(), query.getParentId());
+        int limit = Math.max(1, Math.min(MAX_PAGE_SIZE, query.getLimit()));
+        
+        CommentSlice slice;
+        long totalCount;
+        if (query.getParentId() == null) {
+            slice = commentRepository.findTopLevelByVideoId(query.getVideoId(), query.getContinuationToken(), limit);
+            totalCount = commentCountPort.getThreadCount(query.getVideoId(),
+                    () -> commentRepository.countActiveTopLevelByVideoId(query.getVideoId()));
         } else {
-            comments = commentRepository.findByParentId(parentId, pageRequest);
+            slice = commentRepository.findReplies(query.getVideoId(), query.getParentId(),
+                    query.getContinuationToken(), limit);
+            totalCount = commentCountPort.getReplyCount(query.getParentId(),
+                    () -> commentRepository.countActiveReplies(query.getVideoId(), query.getParentId()));
         }
         
-        return comments.map(commentMapper::toDto);
+        return CommentPageDto.builder()
+                .items(slice.getComments().stream().map(commentMapper::toDto).toList())
+                .continuationToken(slice.getContinuationToken())
+                .totalCount(totalCount)
+                .build();
     }
     
     @Transactional(readOnly = true)
@@ -143,12 +202,18 @@ public class CommentApplicationService {
                 .map(commentMapper::toDto);
     }
     
-    private String jsonFromComment(Comment comment) {
-        return String.format(
-                "{\"id\":\"%s\",\"videoId\":\"%s\",\"authorId\":\"%s\",\"text\":\"%s\",\"parentId\":\"%s\",\"createdAt\":\"%s\"}",
-                comment.getId(), comment.getVideoId(), comment.getAuthorId(), 
-                comment.getText(), comment.getParentId(), comment.getCreatedAt()
-        );
+    private void adjustCount(Comment comment, long delta) {
+        if (comment.isReply()) {
+            commentCountPort.adjustReplyCount(comment.getParentId(), delta);
+        } else {
+            commentCountPort.adjustThreadCount(comment.getVideoId(), delta);
+        }
+    }
+    
+    private void validateReactionType(String reactionType) {
+        if (reactionType == null || !REACTION_TYPE.matcher(reactionType).matches()) {
+            throw new IllegalArgumentException("Invalid reaction type");
+        }
     }
 }
 
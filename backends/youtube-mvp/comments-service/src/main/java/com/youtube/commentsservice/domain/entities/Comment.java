@@ -58,27 +58,21 @@ public class Comment {
         return comment;
     }
 
-    public void addReaction(String type, String userId) {
-        if (status != CommentStatus.ACTIVE) {
-            throw new IllegalStateException("Cannot react to a " + status + " comment");
-        }
-        
-        reactions.computeIfAbsent(type, k -> new ReactionCount(type, 0, new HashMap<>()))
-                .addUserReaction(userId);
-        totalReactionCount++;
-        updatedAt = Instant.now();
-    }
-
-    public void removeReaction(String type, String userId) {
-        ReactionCount reactionCount = reactions.get(type);
-        if (reactionCount != null) {
-            reactionCount.removeUserReaction(userId);
-            if (reactionCount.getCount() == 0) {
-                reactions.remove(type);
+    /**
+     * Replaces the reaction counts with totals aggregated from the reaction counters.
+     */
+    public void applyReactionCounts(Map<String, Long> counts) {
+        Map<String, ReactionCount> aggregated = new HashMap<>();
+        long total = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            int count = (int) Math.min(Integer.MAX_VALUE, Math.max(0L, entry.getValue()));
+            if (count > 0) {
+                aggregated.put(entry.getKey(), new ReactionCount(entry.getKey(), count));
+                total += count;
             }
-            totalReactionCount--;
-            updatedAt = Instant.now();
         }
+        this.reactions = aggregated;
+        this.totalReactionCount = (int) Math.min(Integer.MAX_VALUE, total);
     }
 
     public void incrementReplyCount() {
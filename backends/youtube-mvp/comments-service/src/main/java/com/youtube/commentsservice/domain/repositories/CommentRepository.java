@@ -1,10 +1,12 @@
 package com.youtube.commentsservice.domain.repositories;
 
 import com.youtube.commentsservice.domain.entities.Comment;
+import com.youtube.commentsservice.domain.valueobjects.CommentSlice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -19,9 +21,22 @@ public interface CommentRepository {
     
     Page<Comment> findByVideoId(String videoId, Pageable pageable);
     
-    Page<Comment> findByVideoIdAndParentIdIsNull(String videoId, Pageable pageable);
-    
-    Page<Comment> findByParentId(String parentId, Pageable pageable);
+    /**
+     * Top-level comments of a video, most reacted first
+     * @param videoId the video ID
+     * @param continuationToken token from the previous page, null for the first page
+     * @param limit maximum comments in the page
+     */
+    CommentSlice findTopLevelByVideoId(String videoId, String continuationToken, int limit);
+    
+    /**
+     * Replies to a comment, oldest first, read from the video's partition
+     * @param videoId the video ID of the parent comment
+     * @param parentId the parent comment ID
+     * @param continuationToken token from the previous page, null for the first page
+     * @param limit maximum replies in the page
+     */
+    CommentSlice findReplies(String videoId, String parentId, String continuationToken, int limit);
     
     List<Comment> findByAuthorId(String authorId);
     
@@ -31,6 +46,18 @@ public interface CommentRepository {
     
     long countByVideoId(String videoId);
     
+    long countActiveTopLevelByVideoId(String videoId);
+    
+    long countActiveReplies(String videoId, String parentId);
+    
     List<Comment> findHotThreadsByVideoId(String videoId, int limit);
+    
+    /**
+     * Overwrite a comment's reaction counts with aggregated totals
+     * @param commentId the comment ID
+     * @param counts total count per reaction type
+     * @return the updated comment, empty if it does not exist
+     */
+    Optional<Comment> updateReactionCounts(String commentId, Map<String, Long> counts);
 }
 
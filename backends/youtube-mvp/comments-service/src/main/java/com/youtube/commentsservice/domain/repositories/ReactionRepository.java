@@ -0,0 +1,26 @@
+package com.youtube.commentsservice.domain.repositories;
+
+/**
+ * Domain repository for per-user reactions, stored apart from the comment they target
+ * Implemented by infrastructure layer
+ */
+public interface ReactionRepository {
+    
+    /**
+     * Record a user's reaction to a comment
+     * @param commentId the comment ID
+     * @param userId the reacting user
+     * @param type the reaction type
+     * @return true if recorded, false if the user had already reacted with this type
+     */
+    boolean add(String commentId, String userId, String type);
+    
+    /**
+     * Remove a user's reaction from a comment
+     * @param commentId the comment ID
+     * @param userId the reacting user
+     * @param type the reaction type
+     * @return true if removed, false if the user had not reacted with this type
+     */
+    boolean remove(String commentId, String userId, String type);
+}
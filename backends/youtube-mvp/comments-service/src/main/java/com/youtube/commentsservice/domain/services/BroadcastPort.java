@@ -1,5 +1,7 @@
 package com.youtube.commentsservice.domain.services;
 
+import com.youtube.commentsservice.domain.entities.Comment;
+
 /**
  * Port for broadcasting real-time updates via Web PubSub
  * Implemented by infrastructure layer
@@ -8,10 +10,9 @@ public interface BroadcastPort {
     
     /**
      * Broadcast comment created event to connected clients
-     * @param videoId the video ID
-     * @param commentJson JSON representation of the comment
+     * @param comment the created comment
      */
-    void broadcastCommentCreated(String videoId, String commentJson);
+    void broadcastCommentCreated(Comment comment);
     
     /**
      * Broadcast comment deleted event to connected clients
@@ -20,4 +21,3 @@ public interface BroadcastPort {
      */
     void broadcastCommentDeleted(String videoId, String commentId);
 }
-
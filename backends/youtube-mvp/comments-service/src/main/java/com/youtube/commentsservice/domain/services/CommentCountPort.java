@@ -0,0 +1,41 @@
+package com.youtube.commentsservice.domain.services;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Port for approximate comment counts, adjusted as comments are created and deleted
+ * instead of being recomputed on every read
+ * Implemented by infrastructure layer using Redis
+ */
+public interface CommentCountPort {
+    
+    /**
+     * Adjust the number of top-level comments on a video
+     * @param videoId the video ID
+     * @param delta the change, negative for deleted comments
+     */
+    void adjustThreadCount(String videoId, long delta);
+    
+    /**
+     * Adjust the number of replies to a comment
+     * @param parentId the parent comment ID
+     * @param delta the change, negative for deleted replies
+     */
+    void adjustReplyCount(String parentId, long delta);
+    
+    /**
+     * Get the number of top-level comments on a video
+     * @param videoId the video ID
+     * @param recount full count, used only when no count is stored yet
+     * @return the approximate count
+     */
+    long getThreadCount(String videoId, LongSupplier recount);
+    
+    /**
+     * Get the number of replies to a comment
+     * @param parentId the parent comment ID
+     * @param recount full count, used only when no count is stored yet
+     * @return the approximate count
+     */
+    long getReplyCount(String parentId, LongSupplier recount);
+}
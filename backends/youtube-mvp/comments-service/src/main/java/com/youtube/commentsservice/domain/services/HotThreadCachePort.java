@@ -0,0 +1,28 @@
+package com.youtube.commentsservice.domain.services;
+
+import com.youtube.commentsservice.domain.entities.Comment;
+
+/**
+ * Port for keeping the cached top threads of popular videos up to date
+ * Implemented by infrastructure layer using Redis and an in-memory tier
+ */
+public interface HotThreadCachePort {
+    
+    /**
+     * Apply a newly created comment to its video's cached top threads
+     * @param comment the created comment
+     */
+    void onCommentCreated(Comment comment);
+    
+    /**
+     * Apply a deleted comment to its video's cached top threads
+     * @param comment the comment in its deleted state
+     */
+    void onCommentDeleted(Comment comment);
+    
+    /**
+     * Apply new aggregated reaction counts, which may move the comment within the top threads
+     * @param comment the comment with its updated counts
+     */
+    void onReactionCountsChanged(Comment comment);
+}
@@ -1,5 +1,7 @@
 package com.youtube.commentsservice.domain.services;
 
+import java.util.Locale;
+
 /**
  * Port for profanity filtering service
  * Implemented by infrastructure layer
@@ -13,11 +15,26 @@ public interface ProfanityFilterPort {
      */
     boolean containsProfanity(String text);
     
+    /**
+     * Check if text contains profanity, including terms specific to its locale
+     * @param text the text to check
+     * @param locale the locale of the text, or null if unknown
+     * @return true if profanity detected, false otherwise
+     */
+    boolean containsProfanity(String text, Locale locale);
+    
     /**
      * Filter profanity from text
      * @param text the text to filter
      * @return filtered text
      */
     String filterProfanity(String text);
+    
+    /**
+     * Filter profanity from text, including terms specific to its locale
+     * @param text the text to filter
+     * @param locale the locale of the text, or null if unknown
+     * @return filtered text
+     */
+    String filterProfanity(String text, Locale locale);
 }
-
@@ -0,0 +1,17 @@
+package com.youtube.commentsservice.domain.services;
+
+/**
+ * Port for comment reaction counters
+ * Implemented by infrastructure layer as buffered, sharded counters whose totals are
+ * aggregated onto the comment asynchronously
+ */
+public interface ReactionCounterPort {
+    
+    /**
+     * Adjust the count of a reaction type on a comment
+     * @param commentId the comment ID
+     * @param type the reaction type
+     * @param delta the change, negative for removed reactions
+     */
+    void increment(String commentId, String type, long delta);
+}
@@ -0,0 +1,21 @@
+package com.youtube.commentsservice.domain.valueobjects;
+
+import com.youtube.commentsservice.domain.entities.Comment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of comments and the opaque token to fetch the page after it, null on the last page.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentSlice {
+    private List<Comment> comments;
+    private String continuationToken;
+    
+    public boolean hasNext() {
+        return continuationToken != null;
+    }
+}
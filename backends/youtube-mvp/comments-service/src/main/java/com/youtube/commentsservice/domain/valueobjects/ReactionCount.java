@@ -6,10 +6,10 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-
+/**
+ * Aggregated count of one reaction type on a comment. Who reacted is kept in separate
+ * per-user reaction records, not on the comment.
+ */
 @Getter
 @Setter
 @Builder
@@ -18,27 +18,4 @@ import java.util.Set;
 public class ReactionCount {
     private String type;
     private int count;
-    private Map<String, String> userReactions; // userId -> timestamp
-
-    public void addUserReaction(String userId) {
-        if (!userReactions.containsKey(userId)) {
-            userReactions.put(userId, java.time.Instant.now().toString());
-            count++;
-        }
-    }
-
-    public void removeUserReaction(String userId) {
-        if (userReactions.remove(userId) != null) {
-            count--;
-        }
-    }
-
-    public boolean hasUserReaction(String userId) {
-        return userReactions.containsKey(userId);
-    }
-
-    public Set<String> getUserIds() {
-        return new HashSet<>(userReactions.keySet());
-    }
 }
-
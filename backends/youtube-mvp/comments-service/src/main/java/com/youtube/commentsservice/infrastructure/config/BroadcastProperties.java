@@ -0,0 +1,37 @@
+package com.youtube.commentsservice.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the batched real-time broadcast of comment events to Web PubSub video groups.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "comments.broadcast")
+public class BroadcastProperties {
+    
+    /**
+     * Longest an event waits in its video's queue before being sent.
+     */
+    private Duration flushInterval = Duration.ofMillis(100);
+    
+    /**
+     * Events per envelope; a video's queue reaching this size is sent without waiting.
+     */
+    private int maxBatchEvents = 50;
+    
+    /**
+     * Events queued per video; beyond this the oldest new-comment events are dropped and only
+     * counted in the next envelope.
+     */
+    private int maxQueuedEvents = 500;
+    
+    /**
+     * Threads sending envelopes; each video has at most one send in flight.
+     */
+    private int senderThreads = 4;
+}
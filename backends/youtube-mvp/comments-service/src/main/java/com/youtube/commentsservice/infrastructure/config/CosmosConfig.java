@@ -2,6 +2,8 @@ package com.youtube.commentsservice.infrastructure.config;
 
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosClientBuilder;
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosDatabase;
 import com.azure.spring.data.cosmos.config.AbstractCosmosConfiguration;
 import com.azure.spring.data.cosmos.config.CosmosConfig;
 import com.azure.spring.data.cosmos.repository.config.EnableCosmosRepositories;
@@ -31,6 +33,30 @@ public class CosmosConfig extends AbstractCosmosConfiguration {
                 .buildClient();
     }
     
+    @Bean
+    public CosmosContainer commentContainer(CosmosClient cosmosClient,
+                                            @Value("${azure.cosmos.container:comments}") String containerName) {
+        // Created with its indexing policy by the CommentDocument repository
+        return cosmosClient.getDatabase(databaseName).getContainer(containerName);
+    }
+    
+    @Bean
+    public CosmosContainer reactionRecordContainer(CosmosClient cosmosClient, ReactionProperties properties) {
+        // Partitioned by record id so a viral comment's reactions spread over all partitions
+        return container(cosmosClient, properties.getRecordsContainer(), "/id");
+    }
+    
+    @Bean
+    public CosmosContainer reactionCounterContainer(CosmosClient cosmosClient, ReactionProperties properties) {
+        return container(cosmosClient, properties.getCountersContainer(), "/commentId");
+    }
+    
+    private CosmosContainer container(CosmosClient cosmosClient, String name, String partitionKeyPath) {
+        CosmosDatabase database = cosmosClient.getDatabase(databaseName);
+        database.createContainerIfNotExists(name, partitionKeyPath);
+        return database.getContainer(name);
+    }
+    
     @Override
     protected String getDatabaseName() {
         return databaseName;
@@ -0,0 +1,50 @@
+package com.youtube.commentsservice.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the cached first page of top-level comments of popular videos.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "comments.hot-threads")
+public class HotThreadCacheProperties {
+    
+    private boolean enabled = true;
+    
+    /**
+     * Top threads kept per video; first-page requests up to this size are served from the cache.
+     */
+    private int threads = 50;
+    
+    /**
+     * How long an instance serves its in-memory copy before re-reading Redis, which bounds
+     * how stale it is to changes made through other instances.
+     */
+    private Duration localTtl = Duration.ofSeconds(2);
+    
+    /**
+     * Lifetime of a video's threads in Redis before they are reloaded from Cosmos DB,
+     * which corrects any drift from missed incremental updates.
+     */
+    private Duration redisTtl = Duration.ofMinutes(10);
+    
+    /**
+     * Videos held in memory per instance; the least viewed is evicted first.
+     */
+    private int maxLocalVideos = 1000;
+    
+    /**
+     * Videos held in Redis; the least popular, by decayed view count, are evicted first.
+     */
+    private int maxRedisVideos = 20000;
+    
+    /**
+     * How often view counts are published, unpopular videos evicted and popularity decayed.
+     */
+    private Duration maintenanceInterval = Duration.ofSeconds(30);
+}
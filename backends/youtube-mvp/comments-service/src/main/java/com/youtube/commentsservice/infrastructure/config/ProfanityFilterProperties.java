@@ -0,0 +1,43 @@
+package com.youtube.commentsservice.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Profanity dictionaries, reloaded when the bound configuration changes (e.g. an App
+ * Configuration refresh) without restarting the service.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "comments.profanity")
+public class ProfanityFilterProperties {
+    
+    /**
+     * Terms by locale, keyed by language tag ({@code en}, or {@code "[pt-br]"} in YAML to keep the
+     * hyphen). Case, diacritics and leetspeak are ignored and terms match whole words; a leading
+     * or trailing {@code *} also matches words that end or start with the term.
+     */
+    private Map<String, List<String>> dictionaries = new HashMap<>();
+    
+    /**
+     * Locales whose dictionaries apply to every comment, in addition to the comment's own locale.
+     */
+    private List<String> defaultLocales = new ArrayList<>(List.of("en"));
+    
+    /**
+     * Read digits and look-alike symbols as letters ("sp4m" matches "spam").
+     */
+    private boolean leetspeak = true;
+    
+    /**
+     * How often the bound dictionaries are compared with the compiled ones.
+     */
+    private Duration reloadInterval = Duration.ofSeconds(30);
+}
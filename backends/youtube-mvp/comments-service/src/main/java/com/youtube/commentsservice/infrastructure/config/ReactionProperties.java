@@ -0,0 +1,53 @@
+package com.youtube.commentsservice.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Storage and write-behind settings for comment reactions.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "comments.reactions")
+public class ReactionProperties {
+    
+    /**
+     * Container holding one record per (comment, user, reaction type).
+     */
+    private String recordsContainer = "comment-reactions";
+    
+    /**
+     * Container holding the sharded reaction counters, partitioned by comment.
+     */
+    private String countersContainer = "comment-reaction-counters";
+    
+    /**
+     * Counter shards per comment; each flush increments one shard, picked at random, so
+     * concurrent flushes from different instances rarely land on the same document.
+     */
+    private int shardCount = 8;
+    
+    /**
+     * How often buffered counter increments are flushed to the shards.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+    
+    /**
+     * How often shard totals of recently changed comments are aggregated onto the comment.
+     */
+    private Duration aggregateInterval = Duration.ofSeconds(5);
+    
+    /**
+     * Attempts to aggregate a comment's counts before it is left for the next aggregation.
+     */
+    private int maxAggregateAttempts = 3;
+    
+    /**
+     * Move reactions kept on comment documents by earlier versions to reaction records and
+     * counter shards at startup; see {@code LegacyReactionMigration}.
+     */
+    private boolean migrateLegacy = true;
+}
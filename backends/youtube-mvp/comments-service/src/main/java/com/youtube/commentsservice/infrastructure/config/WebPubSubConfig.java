@@ -11,9 +11,11 @@ public class WebPubSubConfig {
     
     @Bean
     public WebPubSubServiceClient webPubSubClient(
-            @Value("${azure.webpubsub.connection-string}") String connectionString) {
+            @Value("${azure.webpubsub.connection-string}") String connectionString,
+            @Value("${azure.webpubsub.hub:videos}") String hub) {
         return new WebPubSubServiceClientBuilder()
                 .connectionString(connectionString)
+                .hub(hub)
                 .buildClient();
     }
 }
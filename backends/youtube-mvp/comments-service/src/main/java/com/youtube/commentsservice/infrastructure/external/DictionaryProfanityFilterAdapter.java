@@ -0,0 +1,123 @@
+package com.youtube.commentsservice.infrastructure.external;
+
+import com.youtube.commentsservice.domain.services.ProfanityFilterPort;
+import com.youtube.commentsservice.infrastructure.config.ProfanityFilterProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Profanity filter over the per-locale dictionaries in {@link ProfanityFilterProperties}, each
+ * compiled into a {@link ProfanityMatcher} together with the default locales' terms.
+ *
+ * <p>The bound properties are checked periodically and, when they differ from what was compiled,
+ * all matchers are rebuilt and swapped in with a single write, so a check always sees one
+ * consistent dictionary set. A dictionary that fails to compile leaves the previous set in place.</p>
+ */
+@Slf4j
+@Service
+public class DictionaryProfanityFilterAdapter implements ProfanityFilterPort {
+    
+    private final ProfanityFilterProperties properties;
+    private volatile Dictionaries dictionaries;
+    
+    public DictionaryProfanityFilterAdapter(ProfanityFilterProperties properties) {
+        this.properties = properties;
+        this.dictionaries = compile(Source.of(properties));
+    }
+    
+    @Override
+    public boolean containsProfanity(String text) {
+        return dictionaries.defaults().matches(text);
+    }
+    
+    @Override
+    public boolean containsProfanity(String text, Locale locale) {
+        return dictionaries.forLocale(locale).matches(text);
+    }
+    
+    @Override
+    public String filterProfanity(String text) {
+        return dictionaries.defaults().mask(text);
+    }
+    
+    @Override
+    public String filterProfanity(String text, Locale locale) {
+        return dictionaries.forLocale(locale).mask(text);
+    }
+    
+    /**
+     * Recompiles the dictionaries if their configuration changed since the last compilation.
+     */
+    @Scheduled(fixedDelayString = "${comments.profanity.reload-interval:PT30S}")
+    public void reload() {
+        Source source = Source.of(properties);
+        if (source.equals(dictionaries.source())) {
+            return;
+        }
+        try {
+            dictionaries = compile(source);
+        } catch (RuntimeException e) {
+            log.error("Failed to compile profanity dictionaries, keeping the previous ones", e);
+        }
+    }
+    
+    private static Dictionaries compile(Source source) {
+        List<String> defaultTerms = new ArrayList<>();
+        for (String locale : source.defaultLocales()) {
+            defaultTerms.addAll(source.dictionaries().getOrDefault(locale, List.of()));
+        }
+        
+        Map<String, ProfanityMatcher> byLocale = new HashMap<>();
+        for (Map.Entry<String, List<String>> dictionary : source.dictionaries().entrySet()) {
+            if (source.defaultLocales().contains(dictionary.getKey())) {
+                continue;
+            }
+            List<String> terms = new ArrayList<>(defaultTerms);
+            terms.addAll(dictionary.getValue());
+            byLocale.put(dictionary.getKey(), ProfanityMatcher.compile(terms, source.leetspeak()));
+        }
+        ProfanityMatcher defaults = ProfanityMatcher.compile(defaultTerms, source.leetspeak());
+        
+        log.info("Compiled profanity dictionaries: {} default terms, locales {}",
+                defaults.termCount(), source.dictionaries().keySet());
+        return new Dictionaries(source, defaults, Map.copyOf(byLocale));
+    }
+    
+    private record Dictionaries(Source source, ProfanityMatcher defaults, Map<String, ProfanityMatcher> byLocale) {
+        
+        ProfanityMatcher forLocale(Locale locale) {
+            if (locale == null) {
+                return defaults;
+            }
+            ProfanityMatcher matcher = byLocale.get(locale.toLanguageTag().toLowerCase(Locale.ROOT));
+            if (matcher == null) {
+                matcher = byLocale.get(locale.getLanguage());
+            }
+            return matcher != null ? matcher : defaults;
+        }
+    }
+    
+    /**
+     * Copy of the configuration a {@link Dictionaries} was compiled from, with locales lower-cased.
+     */
+    private record Source(Map<String, List<String>> dictionaries, List<String> defaultLocales, boolean leetspeak) {
+        
+        static Source of(ProfanityFilterProperties properties) {
+            Map<String, List<String>> dictionaries = new HashMap<>();
+            properties.getDictionaries().forEach((locale, terms) -> dictionaries
+                    .computeIfAbsent(locale.toLowerCase(Locale.ROOT), key -> new ArrayList<>())
+                    .addAll(terms != null ? terms : List.of()));
+            List<String> defaultLocales = properties.getDefaultLocales().stream()
+                    .map(locale -> locale.toLowerCase(Locale.ROOT))
+                    .toList();
+            return new Source(dictionaries, defaultLocales, properties.isLeetspeak());
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.youtube.commentsservice.infrastructure.external;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Dictionary matcher for profanity: an Aho-Corasick automaton over normalised text, so a comment
+ * is checked against every term in a single pass whatever the size of the dictionary.
+ *
+ * <p>Text and terms are normalised the same way, one character at a time: compatibility
+ * decomposition with the diacritics dropped, lower case, and optionally leetspeak digits and
+ * symbols mapped to letters, so "SP4M" and an accented "spam" both match "spam". Format
+ * characters (zero-width spaces, soft hyphens) and combining marks are ignored, and every run of
+ * other characters that are not letters or digits becomes a single separator.</p>
+ *
+ * <p>Terms match whole words: each is compiled with a separator on both sides and the text is
+ * read as if it had one at each end, so "class" does not match "ass". A leading or trailing
+ * {@code *} drops that boundary, e.g. {@code spam*} also matches "spammers".</p>
+ *
+ * <p>Instances are immutable and thread-safe. {@link #matches} does not allocate, so clean text,
+ * the common case, costs one table lookup and one transition per character.</p>
+ */
+public final class ProfanityMatcher {
+    
+    private static final char SKIP = 0;
+    private static final char SEPARATOR = ' ';
+    private static final char WILDCARD = '*';
+    private static final char[] FOLD = foldTable();
+    private static final char[] FOLD_LEETSPEAK = leetspeakTable(FOLD);
+    
+    private final char[] fold;
+    private final int termCount;
+    
+    // Trie edges in compressed rows: the edges of state s are [edgeStart[s], edgeStart[s + 1]), sorted by label
+    private final int[] edgeStart;
+    private final char[] edgeLabel;
+    private final int[] edgeTarget;
+    private final int[] fail;
+    
+    // Term ending at a state, packed as (symbols << 2) | (leading boundary << 1) | trailing boundary; 0 if none
+    private final int[] output;
+    
+    // Nearest state on the failure chain that has an output, or -1
+    private final int[] outputLink;
+    
+    private ProfanityMatcher(char[] fold, int termCount, int[] edgeStart, char[] edgeLabel, int[] edgeTarget,
+                             int[] fail, int[] output, int[] outputLink) {
+        this.fold = fold;
+        this.termCount = termCount;
+        this.edgeStart = edgeStart;
+        this.edgeLabel = edgeLabel;
+        this.edgeTarget = edgeTarget;
+        this.fail = fail;
+        this.output = output;
+        this.outputLink = outputLink;
+    }
+    
+    /**
+     * Compiles a matcher for the given terms. Terms that normalise to nothing are ignored.
+     */
+    public static ProfanityMatcher compile(Collection<String> terms, boolean leetspeak) {
+        char[] fold = leetspeak ? FOLD_LEETSPEAK : FOLD;
+        
+        // Sorted, distinct keys let the trie be built by extending the previous key's path
+        TreeSet<String> keys = new TreeSet<>();
+        for (String term : terms) {
+            String key = key(term, fold);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        
+        int capacity = 1;
+        int longest = 0;
+        for (String key : keys) {
+            capacity += key.length();
+            longest = Math.max(longest, key.length());
+        }
+        char[] label = new char[capacity];
+        int[] firstChild = new int[capacity];
+        int[] lastChild = new int[capacity];
+        int[] nextSibling = new int[capacity];
+        int[] output = new int[capacity];
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(nextSibling, -1);
+        
+        int states = 1;
+        int[] path = new int[longest + 1];
+        String previous = "";
+        for (String key : keys) {
+            int shared = 0;
+            int limit = Math.min(previous.length(), key.length());
+            while (shared < limit && previous.charAt(shared) == key.charAt(shared)) {
+                shared++;
+            }
+            int state = path[shared];
+            for (int i = shared; i < key.length(); i++) {
+                int child = states++;
+                label[child] = key.charAt(i);
+                if (firstChild[state] < 0) {
+                    firstChild[state] = child;
+                } else {
+                    nextSibling[lastChild[state]] = child;
+                }
+                lastChild[state] = child;
+                path[i + 1] = child;
+                state = child;
+            }
+            boolean leading = key.charAt(0) == SEPARATOR;
+            boolean trailing = key.length() > 1 && key.charAt(key.length() - 1) == SEPARATOR;
+            output[state] = key.length() << 2 | (leading ? 2 : 0) | (trailing ? 1 : 0);
+            previous = key;
+        }
+        
+        int[] edgeStart = new int[states + 1];
+        char[] edgeLabel = new char[states - 1];
+        int[] edgeTarget = new int[states - 1];
+        int edges = 0;
+        for (int state = 0; state < states; state++) {
+            edgeStart[state] = edges;
+            for (int child = firstChild[state]; child >= 0; child = nextSibling[child]) {
+                edgeLabel[edges] = label[child];
+                edgeTarget[edges++] = child;
+            }
+        }
+        edgeStart[states] = edges;
+        
+        ProfanityMatcher matcher = new ProfanityMatcher(fold, keys.size(), edgeStart, edgeLabel, edgeTarget,
+                new int[states], Arrays.copyOf(output, states), new int[states]);
+        matcher.link(states);
+        return matcher;
+    }
+    
+    /**
+     * Whether the text contains any term.
+     */
+    public boolean matches(CharSequence text) {
+        return text != null && scan(text, null, null);
+    }
+    
+    /**
+     * Returns the text with every character of every matched term replaced by {@code *}, or the
+     * same instance if nothing matched.
+     */
+    public String mask(String text) {
+        if (!matches(text)) {
+            return text;
+        }
+        char[] masked = text.toCharArray();
+        scan(text, masked, new int[text.length() + 2]);
+        return new String(masked);
+    }
+    
+    public int termCount() {
+        return termCount;
+    }
+    
+    /**
+     * Runs the automaton over the normalised text. Without {@code masked} it stops at the first
+     * match; otherwise it masks every match, using {@code origins} to map each normalised symbol
+     * back to the index of the character it came from.
+     */
+    private boolean scan(CharSequence text, char[] masked, int[] origins) {
+        int state = step(0, SEPARATOR);
+        int position = 0;
+        boolean separated = true;
+        boolean found = false;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char symbol = i < length ? fold[text.charAt(i)] : SEPARATOR;
+            if (symbol == SKIP || (symbol == SEPARATOR && separated)) {
+                continue;
+            }
+            separated = symbol == SEPARATOR;
+            state = step(state, symbol);
+            position++;
+            if (origins != null) {
+                origins[position] = i;
+            }
+            if (output[state] == 0 && outputLink[state] < 0) {
+                continue;
+            }
+            if (masked == null) {
+                return true;
+            }
+            found = true;
+            for (int match = output[state] != 0 ? state : outputLink[state]; match >= 0; match = outputLink[match]) {
+                mask(output[match], position, masked, origins);
+            }
+        }
+        return found;
+    }
+    
+    private static void mask(int term, int position, char[] masked, int[] origins) {
+        int symbols = term >>> 2;
+        boolean leading = (term & 2) != 0;
+        boolean trailing = (term & 1) != 0;
+        int first = position - symbols + 1 + (leading ? 1 : 0);
+        // Through any ignored characters between the last letter and the boundary
+        int end = trailing ? origins[position] : origins[position] + 1;
+        for (int i = origins[first]; i < end; i++) {
+            masked[i] = '*';
+        }
+    }
+    
+    private int step(int state, char symbol) {
+        while (true) {
+            int next = child(state, symbol);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+    
+    private int child(int state, char symbol) {
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = edgeLabel[mid];
+            if (label < symbol) {
+                low = mid + 1;
+            } else if (label > symbol) {
+                high = mid - 1;
+            } else {
+                return edgeTarget[mid];
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Computes failure and output links breadth-first, so every shallower state is done before
+     * the states that fail to it.
+     */
+    private void link(int states) {
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 0;
+        outputLink[0] = -1;
+        while (head < tail) {
+            int parent = queue[head++];
+            for (int edge = edgeStart[parent]; edge < edgeStart[parent + 1]; edge++) {
+                int state = edgeTarget[edge];
+                int fallback = 0;
+                if (parent != 0) {
+                    fallback = step(fail[parent], edgeLabel[edge]);
+                }
+                fail[state] = fallback;
+                outputLink[state] = output[fallback] != 0 ? fallback : outputLink[fallback];
+                queue[tail++] = state;
+            }
+        }
+    }
+    
+    /**
+     * Normalises a dictionary term into its trie key, with a separator at each end that must
+     * fall on a word boundary; null if nothing is left to match.
+     */
+    private static String key(String term, char[] fold) {
+        if (term == null) {
+            return null;
+        }
+        String trimmed = term.strip();
+        boolean leading = !trimmed.startsWith(String.valueOf(WILDCARD));
+        boolean trailing = !trimmed.endsWith(String.valueOf(WILDCARD));
+        
+        StringBuilder key = new StringBuilder(trimmed.length() + 2);
+        for (int i = 0; i < trimmed.length(); i++) {
+            char symbol = fold[trimmed.charAt(i)];
+            if (symbol == SKIP || (symbol == SEPARATOR && (key.isEmpty() || key.charAt(key.length() - 1) == SEPARATOR))) {
+                continue;
+            }
+            key.append(symbol);
+        }
+        if (!key.isEmpty() && key.charAt(key.length() - 1) == SEPARATOR) {
+            key.setLength(key.length() - 1);
+        }
+        if (key.isEmpty()) {
+            return null;
+        }
+        if (leading) {
+            key.insert(0, SEPARATOR);
+        }
+        if (trailing) {
+            key.append(SEPARATOR);
+        }
+        return key.toString();
+    }
+    
+    /**
+     * Maps every UTF-16 code unit to its normalised symbol, {@link #SEPARATOR} or {@link #SKIP}.
+     * Surrogates map to separators, so characters outside the Basic Multilingual Plane split words.
+     */
+    private static char[] foldTable() {
+        char[] table = new char[Character.MAX_VALUE + 1];
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            int type = Character.getType(ch);
+            if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                    || type == Character.COMBINING_SPACING_MARK || type == Character.FORMAT) {
+                table[c] = SKIP;
+            } else if (Character.isLetterOrDigit(ch)) {
+                table[c] = fold(ch);
+            } else {
+                table[c] = SEPARATOR;
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * The fold table with digits and look-alike symbols read as letters: "h4te" -> "hate".
+     */
+    private static char[] leetspeakTable(char[] fold) {
+        char[] table = Arrays.copyOf(fold, fold.length);
+        for (int c = 0; c < table.length; c++) {
+            char leet = leetspeak(table[c]);
+            if (leet != 0) {
+                table[c] = leet;
+            }
+        }
+        table['@'] = 'a';
+        table['$'] = 's';
+        return table;
+    }
+    
+    private static char fold(char ch) {
+        char lower = Character.toLowerCase(ch);
+        if (ch < 0x80) {
+            return lower;
+        }
+        // Base letter of the compatibility decomposition: e-acute -> "e", fullwidth "A" -> "a"
+        String decomposed = Normalizer.normalize(String.valueOf(ch), Normalizer.Form.NFKD);
+        char base = 0;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char part = decomposed.charAt(i);
+            if (Character.getType(part) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (base != 0) {
+                // Expands to several letters (ligatures): keep the character itself
+                return lower;
+            }
+            base = part;
+        }
+        return base != 0 ? Character.toLowerCase(base) : lower;
+    }
+    
+    private static char leetspeak(char symbol) {
+        return switch (symbol) {
+            case '0' -> 'o';
+            case '1' -> 'i';
+            case '3' -> 'e';
+            case '4' -> 'a';
+            case '5' -> 's';
+            case '7' -> 't';
+            default -> 0;
+        };
+    }
+}
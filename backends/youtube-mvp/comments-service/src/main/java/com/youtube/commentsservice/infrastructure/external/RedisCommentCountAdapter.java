@@ -0,0 +1,84 @@
+package com.youtube.commentsservice.infrastructure.external;
+
+import com.youtube.commentsservice.domain.services.CommentCountPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Comment counts kept in Redis. A count is seeded from a full count the first time it is
+ * read, then moved by INCRBY on every create and delete. Adjustments to a count that is not
+ * seeded are skipped, since the seeding count will include them; seeded counts expire so
+ * drift from lost adjustments is corrected by a periodic recount.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RedisCommentCountAdapter implements CommentCountPort {
+    
+    private static final String THREADS_PREFIX = "comment-count:video:";
+    private static final String REPLIES_PREFIX = "comment-count:replies:";
+    private static final Duration SEED_TTL = Duration.ofDays(7);
+    
+    private static final RedisScript<Long> INCREMENT_IF_SEEDED = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return redis.call('INCRBY', KEYS[1], ARGV[1]) end return nil",
+            Long.class);
+    
+    private final RedisTemplate<String, String> redisTemplate;
+    
+    @Override
+    public void adjustThreadCount(String videoId, long delta) {
+        adjust(THREADS_PREFIX + videoId, delta);
+    }
+    
+    @Override
+    public void adjustReplyCount(String parentId, long delta) {
+        adjust(REPLIES_PREFIX + parentId, delta);
+    }
+    
+    @Override
+    public long getThreadCount(String videoId, LongSupplier recount) {
+        return get(THREADS_PREFIX + videoId, recount);
+    }
+    
+    @Override
+    public long getReplyCount(String parentId, LongSupplier recount) {
+        return get(REPLIES_PREFIX + parentId, recount);
+    }
+    
+    private void adjust(String key, long delta) {
+        try {
+            redisTemplate.execute(INCREMENT_IF_SEEDED, List.of(key), String.valueOf(delta));
+        } catch (Exception e) {
+            // Counts are approximate; a lost adjustment is corrected when the count expires
+            log.warn("Failed to adjust comment count {}: {}", key, e.getMessage());
+        }
+    }
+    
+    private long get(String key, LongSupplier recount) {
+        try {
+            String stored = redisTemplate.opsForValue().get(key);
+            if (stored != null) {
+                return Math.max(0, Long.parseLong(stored));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read comment count {}: {}", key, e.getMessage());
+            return recount.getAsLong();
+        }
+        
+        long count = recount.getAsLong();
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(count), SEED_TTL);
+        } catch (Exception e) {
+            log.warn("Failed to seed comment count {}: {}", key, e.getMessage());
+        }
+        return count;
+    }
+}
@@ -1,48 +1,347 @@
 package com.youtube.commentsservice.infrastructure.messaging;
 
 import com.azure.messaging.webpubsub.WebPubSubServiceClient;
+import com.azure.messaging.webpubsub.models.WebPubSubContentType;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtube.commentsservice.domain.entities.Comment;
 import com.youtube.commentsservice.domain.services.BroadcastPort;
-import lombok.RequiredArgsConstructor;
+import com.youtube.commentsservice.infrastructure.config.BroadcastProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Adapter for broadcasting real-time updates via Azure Web PubSub
+ *
+ * <p>Events are queued per video group and sent asynchronously, so publishing never blocks the
+ * request that created or deleted the comment. A video's queue is sent as one envelope when it
+ * reaches {@code maxBatchEvents} or at the next flush, every {@code flushInterval}; each video has
+ * at most one send in flight, which keeps its events in order. The envelope is
+ * <pre>{"event":"commentBatch","videoId":"...","events":[...],"dropped":0}</pre>
+ * where each element of {@code events} is a {@code commentCreated} event carrying the comment's
+ * fields or a {@code commentDeleted} event carrying its {@code commentId}.</p>
+ *
+ * <p>When sending falls behind, a video's queue is capped at {@code maxQueuedEvents}: the oldest
+ * new-comment events are dropped and the next envelope reports how many in {@code dropped}, so
+ * clients can refetch instead of rendering every comment. Deletions are never dropped in favour
+ * of new comments. Broadcasting is best effort; a failed send is logged and not retried.</p>
+ *
+ * <p>Metrics: {@code comments.broadcast.queue.depth}, {@code comments.broadcast.batch.size},
+ * {@code comments.broadcast.send.latency}, {@code comments.broadcast.dropped} and
+ * {@code comments.broadcast.send.failures}.</p>
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class WebPubSubBroadcastAdapter implements BroadcastPort {
     
+    private static final String GROUP_PREFIX = "video-";
+    
     private final WebPubSubServiceClient pubSubClient;
+    private final JsonFactory jsonFactory;
+    private final BroadcastProperties properties;
+    private final ConcurrentHashMap<String, VideoQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService senders;
+    private final DistributionSummary batchSize;
+    private final Timer sendLatency;
+    private final Counter dropped;
+    private final Counter failures;
+    
+    public WebPubSubBroadcastAdapter(WebPubSubServiceClient pubSubClient,
+                                     ObjectMapper objectMapper,
+                                     BroadcastProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.pubSubClient = pubSubClient;
+        this.jsonFactory = objectMapper.getFactory();
+        this.properties = properties;
+        this.senders = Executors.newFixedThreadPool(Math.max(1, properties.getSenderThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "broadcast-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "broadcast-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushDue, interval, interval, TimeUnit.MILLISECONDS);
+        
+        Gauge.builder("comments.broadcast.queue.depth", queued, AtomicInteger::get)
+                .description("Events waiting to be broadcast, across all videos")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("comments.broadcast.batch.size")
+                .description("Events per broadcast envelope")
+                .register(meterRegistry);
+        this.sendLatency = Timer.builder("comments.broadcast.send.latency")
+                .description("Duration of a Web PubSub group send")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.dropped = Counter.builder("comments.broadcast.dropped")
+                .description("Events dropped because a video's broadcast queue was full")
+                .register(meterRegistry);
+        this.failures = Counter.builder("comments.broadcast.send.failures")
+                .description("Broadcast envelopes that could not be sent")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public void broadcastCommentCreated(Comment comment) {
+        enqueue(comment.getVideoId(), BroadcastEvent.created(comment));
+    }
     
     @Override
-    public void broadcastCommentCreated(String videoId, String commentJson) {
+    public void broadcastCommentDeleted(String videoId, String commentId) {
+        enqueue(videoId, BroadcastEvent.deleted(commentId));
+    }
+    
+    private void enqueue(String videoId, BroadcastEvent event) {
+        VideoQueue[] full = new VideoQueue[1];
+        // Enqueue inside compute so an idle queue cannot be removed between lookup and offer
+        queues.compute(videoId, (key, queue) -> {
+            VideoQueue target = queue != null ? queue : new VideoQueue(videoId);
+            if (target.offer(event)) {
+                full[0] = target;
+            }
+            return target;
+        });
+        if (full[0] != null) {
+            sendAsync(full[0]);
+        }
+    }
+    
+    /**
+     * Starts a send for every video with queued events and removes the queues of idle videos.
+     */
+    void flushDue() {
         try {
-            String hub = "videos";
-            String groupId = "video-" + videoId;
-            
-            pubSubClient.sendToGroup(groupId, commentJson, "application/json");
-            log.debug("Broadcasted comment created to group: {}", groupId);
+            for (VideoQueue queue : queues.values()) {
+                if (queue.claim()) {
+                    sendAsync(queue);
+                } else {
+                    queues.computeIfPresent(queue.videoId, (key, current) -> current.isIdle() ? null : current);
+                }
+            }
         } catch (Exception e) {
-            log.error("Failed to broadcast comment created event", e);
-            // Don't throw - broadcasting is best effort
+            log.error("Failed to schedule broadcasts", e);
         }
     }
     
-    @Override
-    public void broadcastCommentDeleted(String videoId, String commentId) {
+    /**
+     * Sends everything queued and not already being sent from the calling thread.
+     */
+    void sendPending() {
+        for (VideoQueue queue : queues.values()) {
+            while (queue.claim()) {
+                while (send(queue)) {
+                    // Another full batch was waiting
+                }
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void close() throws InterruptedException {
+        flusher.shutdownNow();
+        senders.shutdown();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+        sendPending();
+    }
+    
+    private void sendAsync(VideoQueue queue) {
         try {
-            String hub = "videos";
-            String groupId = "video-" + videoId;
-            String message = String.format("{\"event\":\"commentDeleted\",\"commentId\":\"%s\"}", commentId);
-            
-            pubSubClient.sendToGroup(groupId, message, "application/json");
-            log.debug("Broadcasted comment deleted to group: {}", groupId);
+            senders.execute(() -> {
+                if (send(queue)) {
+                    sendAsync(queue);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down: release the queue so close() sends what is left
+            queue.release();
+        }
+    }
+    
+    /**
+     * Sends one envelope of a claimed queue; returns true if the queue is still claimed because
+     * another full batch is already waiting, false once it has been released.
+     */
+    private boolean send(VideoQueue queue) {
+        Batch batch = queue.drain();
+        batchSize.record(batch.events().size());
+        try {
+            String envelope = envelope(queue.videoId, batch);
+            sendLatency.record(() -> pubSubClient.sendToGroup(GROUP_PREFIX + queue.videoId, envelope,
+                    WebPubSubContentType.APPLICATION_JSON));
+            log.debug("Broadcasted {} events to group: {}{}", batch.events().size(), GROUP_PREFIX, queue.videoId);
         } catch (Exception e) {
-            log.error("Failed to broadcast comment deleted event", e);
-            // Don't throw - broadcasting is best effort
+            failures.increment();
+            log.error("Failed to broadcast {} events for video {}", batch.events().size(), queue.videoId, e);
+        }
+        return queue.releaseOrContinue();
+    }
+    
+    String envelope(String videoId, Batch batch) throws IOException {
+        StringWriter writer = new StringWriter(128 * (batch.events().size() + 1));
+        try (JsonGenerator json = jsonFactory.createGenerator(writer)) {
+            json.writeStartObject();
+            json.writeStringField("event", "commentBatch");
+            json.writeStringField("videoId", videoId);
+            json.writeArrayFieldStart("events");
+            for (BroadcastEvent event : batch.events()) {
+                json.writeStartObject();
+                if (event.deleted()) {
+                    json.writeStringField("event", "commentDeleted");
+                    json.writeStringField("commentId", event.commentId());
+                } else {
+                    json.writeStringField("event", "commentCreated");
+                    json.writeStringField("id", event.commentId());
+                    json.writeStringField("videoId", videoId);
+                    json.writeStringField("authorId", event.authorId());
+                    json.writeStringField("parentId", event.parentId());
+                    json.writeStringField("text", event.text());
+                    json.writeStringField("createdAt", event.createdAt());
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeNumberField("dropped", batch.dropped());
+            json.writeEndObject();
+        }
+        return writer.toString();
+    }
+    
+    /**
+     * Snapshot of a comment event, taken when it is published.
+     */
+    record BroadcastEvent(boolean deleted, String commentId, String authorId, String parentId,
+                          String text, String createdAt) {
+        
+        static BroadcastEvent created(Comment comment) {
+            return new BroadcastEvent(false, comment.getId(), comment.getAuthorId(), comment.getParentId(),
+                    comment.getText(), comment.getCreatedAt() != null ? comment.getCreatedAt().toString() : null);
+        }
+        
+        static BroadcastEvent deleted(String commentId) {
+            return new BroadcastEvent(true, commentId, null, null, null, null);
+        }
+    }
+    
+    record Batch(List<BroadcastEvent> events, int dropped) {
+    }
+    
+    /**
+     * Events waiting for one video group. {@code sending} is set by whoever claims the queue for
+     * a send and cleared by that send, so at most one send per video is in flight.
+     */
+    private final class VideoQueue {
+        
+        private final String videoId;
+        private final ArrayDeque<BroadcastEvent> events = new ArrayDeque<>();
+        private int dropped;
+        private boolean sending;
+        
+        private VideoQueue(String videoId) {
+            this.videoId = videoId;
+        }
+        
+        /**
+         * Queues the event, making room under overload; returns true if the queue now holds a
+         * full batch and was claimed for sending by the caller.
+         */
+        synchronized boolean offer(BroadcastEvent event) {
+            if (events.size() >= Math.max(1, properties.getMaxQueuedEvents()) && !evictOldestCreated()) {
+                if (!event.deleted()) {
+                    drop();
+                    return false;
+                }
+                // Only deletions queued: drop the oldest
+                events.pollFirst();
+                queued.decrementAndGet();
+                drop();
+            }
+            events.addLast(event);
+            queued.incrementAndGet();
+            if (!sending && events.size() >= properties.getMaxBatchEvents()) {
+                sending = true;
+                return true;
+            }
+            return false;
+        }
+        
+        private boolean evictOldestCreated() {
+            Iterator<BroadcastEvent> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                if (!iterator.next().deleted()) {
+                    iterator.remove();
+                    queued.decrementAndGet();
+                    drop();
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private void drop() {
+            dropped++;
+            WebPubSubBroadcastAdapter.this.dropped.increment();
+        }
+        
+        synchronized boolean claim() {
+            if (sending || (events.isEmpty() && dropped == 0)) {
+                return false;
+            }
+            sending = true;
+            return true;
+        }
+        
+        synchronized Batch drain() {
+            int size = Math.min(events.size(), Math.max(1, properties.getMaxBatchEvents()));
+            List<BroadcastEvent> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(events.pollFirst());
+            }
+            queued.addAndGet(-size);
+            Batch drained = new Batch(batch, dropped);
+            dropped = 0;
+            return drained;
+        }
+        
+        synchronized boolean releaseOrContinue() {
+            if (events.size() >= properties.getMaxBatchEvents()) {
+                return true;
+            }
+            sending = false;
+            return false;
+        }
+        
+        synchronized void release() {
+            sending = false;
+        }
+        
+        synchronized boolean isIdle() {
+            return !sending && events.isEmpty() && dropped == 0;
         }
     }
 }
-
@@ -0,0 +1,33 @@
+package com.youtube.commentsservice.infrastructure.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position after the last comment of a page, handed to clients as an opaque continuation
+ * token. Top-level pages are ordered by (totalReactionCount, createdAt, id) descending and
+ * replies by (createdAt, id) ascending; the next page starts strictly after this position,
+ * so fetching it costs the same however deep into the thread it is.
+ */
+record CommentCursor(int totalReactionCount, Instant createdAt, String id) {
+    
+    static CommentCursor after(CommentDocument document) {
+        return new CommentCursor(document.getTotalReactionCount(), document.getCreatedAt(), document.getId());
+    }
+    
+    String encode() {
+        String raw = totalReactionCount + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static CommentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            return new CommentCursor(Integer.parseInt(parts[0]), Instant.parse(parts[1]), parts[2]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package com.youtube.commentsservice.infrastructure.persistence;
 
+import com.azure.cosmos.models.CompositePathSortOrder;
+import com.azure.spring.data.cosmos.core.mapping.CompositeIndex;
+import com.azure.spring.data.cosmos.core.mapping.CompositeIndexPath;
+import com.azure.spring.data.cosmos.core.mapping.Container;
+import com.azure.spring.data.cosmos.core.mapping.CosmosIndexingPolicy;
+import com.azure.spring.data.cosmos.core.mapping.PartitionKey;
 import com.youtube.commentsservice.domain.entities.Comment;
 import com.youtube.commentsservice.domain.entities.CommentStatus;
 import com.youtube.commentsservice.domain.valueobjects.ReactionCount;
@@ -19,11 +25,25 @@ import java.util.stream.Collectors;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Container(containerName = "${azure.cosmos.container:comments}")
+// Composite indexes serve the keyset-paged ORDER BYs of top-level comments and replies
+@CosmosIndexingPolicy(overwritePolicy = true, compositeIndexes = {
+        @CompositeIndex(paths = {
+                @CompositeIndexPath(path = "/totalReactionCount", order = CompositePathSortOrder.DESCENDING),
+                @CompositeIndexPath(path = "/createdAt", order = CompositePathSortOrder.DESCENDING),
+                @CompositeIndexPath(path = "/id", order = CompositePathSortOrder.DESCENDING)
+        }),
+        @CompositeIndex(paths = {
+                @CompositeIndexPath(path = "/createdAt", order = CompositePathSortOrder.ASCENDING),
+                @CompositeIndexPath(path = "/id", order = CompositePathSortOrder.ASCENDING)
+        })
+})
 public class CommentDocument {
     
     @Id
     private String id;
     
+    @PartitionKey
     private String videoId; // Partition key for Cosmos DB
     private String authorId;
     private String parentId;
@@ -14,13 +14,35 @@ public interface CosmosCommentDocumentRepository extends CosmosRepository<Commen
     Optional<CommentDocument> findByVideoIdAndParentId(@Param("videoId") String videoId, 
                                                         @Param("parentId") String parentId);
     
-    @Query(value = "SELECT * FROM c WHERE c.videoId = @videoId AND c.parentId = null ORDER BY c.totalReactionCount DESC OFFSET 0 LIMIT @limit")
-    List<CommentDocument> findTopLevelByVideoId(@Param("videoId") String videoId, 
+    @Query(value = "SELECT * FROM c WHERE c.videoId = @videoId AND c.parentId = null " +
+            "ORDER BY c.totalReactionCount DESC, c.createdAt DESC, c.id DESC OFFSET 0 LIMIT @limit")
+    List<CommentDocument> findTopLevelByVideoId(@Param("videoId") String videoId,
                                                   @Param("limit") int limit);
     
-    @Query(value = "SELECT * FROM c WHERE c.parentId = @parentId ORDER BY c.createdAt ASC OFFSET 0 LIMIT @limit")
-    List<CommentDocument> findRepliesByParentId(@Param("parentId") String parentId, 
-                                                 @Param("limit") int limit);
+    @Query(value = "SELECT * FROM c WHERE c.videoId = @videoId AND c.parentId = null AND " +
+            "(c.totalReactionCount < @reactions OR (c.totalReactionCount = @reactions AND " +
+            "(c.createdAt < @createdAt OR (c.createdAt = @createdAt AND c.id < @id)))) " +
+            "ORDER BY c.totalReactionCount DESC, c.createdAt DESC, c.id DESC OFFSET 0 LIMIT @limit")
+    List<CommentDocument> findTopLevelByVideoIdAfter(@Param("videoId") String videoId,
+                                                       @Param("reactions") int reactions,
+                                                       @Param("createdAt") Object createdAt,
+                                                       @Param("id") String id,
+                                                       @Param("limit") int limit);
+    
+    @Query(value = "SELECT * FROM c WHERE c.videoId = @videoId AND c.parentId = @parentId " +
+            "ORDER BY c.createdAt ASC, c.id ASC OFFSET 0 LIMIT @limit")
+    List<CommentDocument> findReplies(@Param("videoId") String videoId,
+                                      @Param("parentId") String parentId,
+                                      @Param("limit") int limit);
+    
+    @Query(value = "SELECT * FROM c WHERE c.videoId = @videoId AND c.parentId = @parentId AND " +
+            "(c.createdAt > @createdAt OR (c.createdAt = @createdAt AND c.id > @id)) " +
+            "ORDER BY c.createdAt ASC, c.id ASC OFFSET 0 LIMIT @limit")
+    List<CommentDocument> findRepliesAfter(@Param("videoId") String videoId,
+                                           @Param("parentId") String parentId,
+                                           @Param("createdAt") Object createdAt,
+                                           @Param("id") String id,
+                                           @Param("limit") int limit);
     
     @Query(value = "SELECT VALUE COUNT(1) FROM c WHERE c.videoId = @videoId")
     long countByVideoId(@Param("videoId") String videoId);
@@ -33,11 +55,12 @@ public interface CosmosCommentDocumentRepository extends CosmosRepository<Commen
     @Query(value = "SELECT * FROM c WHERE c.authorId = @authorId")
     List<CommentDocument> findByAuthorId(@Param("authorId") String authorId);
     
-    @Query(value = "SELECT VALUE COUNT(1) FROM c WHERE c.videoId = @videoId AND c.parentId = null")
-    long countTopLevelByVideoId(@Param("videoId") String videoId);
+    @Query(value = "SELECT VALUE COUNT(1) FROM c WHERE c.videoId = @videoId AND c.parentId = null AND c.status = 'ACTIVE'")
+    long countActiveTopLevelByVideoId(@Param("videoId") String videoId);
     
-    @Query(value = "SELECT VALUE COUNT(1) FROM c WHERE c.parentId = @parentId")
-    long countByParentId(@Param("parentId") String parentId);
+    @Query(value = "SELECT VALUE COUNT(1) FROM c WHERE c.videoId = @videoId AND c.parentId = @parentId AND c.status = 'ACTIVE'")
+    long countActiveReplies(@Param("videoId") String videoId,
+                            @Param("parentId") String parentId);
     
     @Query(value = "SELECT * FROM c WHERE c.videoId = @videoId AND c.parentId = null ORDER BY c.totalReactionCount DESC OFFSET 0 LIMIT @limit")
     List<CommentDocument> findHotThreadsByVideoId(@Param("videoId") String videoId,
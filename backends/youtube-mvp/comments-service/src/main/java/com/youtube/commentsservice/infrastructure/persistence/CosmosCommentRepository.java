@@ -1,25 +1,51 @@
 package com.youtube.commentsservice.infrastructure.persistence;
 
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosPatchOperations;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.azure.spring.data.cosmos.core.convert.ObjectMapperFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.youtube.commentsservice.domain.entities.Comment;
 import com.youtube.commentsservice.domain.repositories.CommentRepository;
-import lombok.RequiredArgsConstructor;
+import com.youtube.commentsservice.domain.valueobjects.CommentSlice;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Repository
-@RequiredArgsConstructor
 public class CosmosCommentRepository implements CommentRepository {
     
+    private static final int NOT_FOUND = 404;
+    
     private final CosmosCommentDocumentRepository documentRepository;
+    private final HotThreadCache hotThreadCache;
+    private final CosmosContainer container;
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    
+    public CosmosCommentRepository(CosmosCommentDocumentRepository documentRepository,
+                                   HotThreadCache hotThreadCache,
+                                   @Qualifier("commentContainer") CosmosContainer container) {
+        this.documentRepository = documentRepository;
+        this.hotThreadCache = hotThreadCache;
+        this.container = container;
+    }
     
     @Override
     public Comment save(Comment comment) {
@@ -47,29 +73,32 @@ public class CosmosCommentRepository implements CommentRepository {
     }
     
     @Override
-    public Page<Comment> findByVideoIdAndParentIdIsNull(String videoId, Pageable pageable) {
-        List<CommentDocument> documents = documentRepository.findTopLevelByVideoId(
-                videoId, pageable.getPageSize());
-        
-        List<Comment> comments = documents.stream()
-                .map(CommentDocument::toEntity)
-                .collect(Collectors.toList());
-        
-        long total = documentRepository.countTopLevelByVideoId(videoId);
-        return new PageImpl<>(comments, pageable, total);
+    public CommentSlice findTopLevelByVideoId(String videoId, String continuationToken, int limit) {
+        // One extra document tells whether there is a next page
+        List<CommentDocument> documents;
+        if (continuationToken == null && hotThreadCache.serves(limit + 1)) {
+            documents = hotThreadCache.getTopThreads(videoId, limit + 1);
+        } else if (continuationToken == null) {
+            documents = documentRepository.findTopLevelByVideoId(videoId, limit + 1);
+        } else {
+            CommentCursor cursor = CommentCursor.decode(continuationToken);
+            documents = documentRepository.findTopLevelByVideoIdAfter(videoId, cursor.totalReactionCount(),
+                    storedValue(cursor.createdAt()), cursor.id(), limit + 1);
+        }
+        return toSlice(documents, limit);
     }
     
     @Override
-    public Page<Comment> findByParentId(String parentId, Pageable pageable) {
-        List<CommentDocument> documents = documentRepository.findRepliesByParentId(
-                parentId, pageable.getPageSize());
-        
-        List<Comment> comments = documents.stream()
-                .map(CommentDocument::toEntity)
-                .collect(Collectors.toList());
-        
-        long total = documentRepository.countByParentId(parentId);
-        return new PageImpl<>(comments, pageable, total);
+    public CommentSlice findReplies(String videoId, String parentId, String continuationToken, int limit) {
+        List<CommentDocument> documents;
+        if (continuationToken == null) {
+            documents = documentRepository.findReplies(videoId, parentId, limit + 1);
+        } else {
+            CommentCursor cursor = CommentCursor.decode(continuationToken);
+            documents = documentRepository.findRepliesAfter(videoId, parentId,
+                    storedValue(cursor.createdAt()), cursor.id(), limit + 1);
+        }
+        return toSlice(documents, limit);
     }
     
     @Override
@@ -95,11 +124,80 @@ public class CosmosCommentRepository implements CommentRepository {
         return documentRepository.countByVideoId(videoId);
     }
     
+    @Override
+    public long countActiveTopLevelByVideoId(String videoId) {
+        return documentRepository.countActiveTopLevelByVideoId(videoId);
+    }
+    
+    @Override
+    public long countActiveReplies(String videoId, String parentId) {
+        return documentRepository.countActiveReplies(videoId, parentId);
+    }
+    
     @Override
     public List<Comment> findHotThreadsByVideoId(String videoId, int limit) {
-        return documentRepository.findHotThreadsByVideoId(videoId, limit)
+        List<CommentDocument> documents = hotThreadCache.serves(limit)
+                ? hotThreadCache.getTopThreads(videoId, limit)
+                : documentRepository.findHotThreadsByVideoId(videoId, limit);
+        return documents.stream()
+                .map(CommentDocument::toEntity)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Patches only the reaction fields, so a concurrent edit, delete or reply count change of
+     * the comment is neither overwritten nor turned into a conflict.
+     */
+    @Override
+    public Optional<Comment> updateReactionCounts(String commentId, Map<String, Long> counts) {
+        Optional<String> videoId = findVideoId(commentId);
+        if (videoId.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        Comment aggregated = Comment.builder().build();
+        aggregated.applyReactionCounts(counts);
+        Map<String, ReactionDocument> reactions = new HashMap<>();
+        aggregated.getReactions().forEach((type, count) -> reactions.put(type, ReactionDocument.fromValueObject(count)));
+        CosmosPatchOperations operations = CosmosPatchOperations.create()
+                .set("/reactions", objectMapper.valueToTree(reactions))
+                .set("/totalReactionCount", aggregated.getTotalReactionCount());
+        try {
+            JsonNode patched = container.patchItem(commentId, new PartitionKey(videoId.get()), operations,
+                    JsonNode.class).getItem();
+            return Optional.of(objectMapper.convertValue(patched, CommentDocument.class).toEntity());
+        } catch (CosmosException e) {
+            if (e.getStatusCode() == NOT_FOUND) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+    
+    private Optional<String> findVideoId(String commentId) {
+        SqlQuerySpec query = new SqlQuerySpec("SELECT VALUE c.videoId FROM c WHERE c.id = @id",
+                List.of(new SqlParameter("@id", commentId)));
+        return container.queryItems(query, new CosmosQueryRequestOptions(), String.class)
                 .stream()
+                .findFirst();
+    }
+    
+    private static CommentSlice toSlice(List<CommentDocument> documents, int limit) {
+        boolean hasNext = documents.size() > limit;
+        List<CommentDocument> page = hasNext ? documents.subList(0, limit) : documents;
+        
+        List<Comment> comments = page.stream()
                 .map(CommentDocument::toEntity)
                 .collect(Collectors.toList());
+        String continuationToken = hasNext ? CommentCursor.after(page.get(limit - 1)).encode() : null;
+        return new CommentSlice(comments, continuationToken);
+    }
+    
+    /**
+     * The timestamp as it is serialized in comment documents, so the keyset comparison
+     * matches the stored createdAt values.
+     */
+    private static Object storedValue(Instant instant) {
+        return ObjectMapperFactory.getObjectMapper().convertValue(instant, Object.class);
     }
 }
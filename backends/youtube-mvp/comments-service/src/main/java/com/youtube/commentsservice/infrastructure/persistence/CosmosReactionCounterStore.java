@@ -0,0 +1,159 @@
+package com.youtube.commentsservice.infrastructure.persistence;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.CosmosPatchItemRequestOptions;
+import com.azure.cosmos.models.CosmosPatchOperations;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.youtube.commentsservice.infrastructure.config.ReactionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sharded reaction counters in Cosmos DB. Each write increments one randomly chosen shard
+ * of the comment with a server-side patch, so writers neither read the counter first nor
+ * retry on ETag conflicts; reads sum the comment's shards within its partition.
+ *
+ * <p>Writes are idempotent: a shard keeps the ids of its last {@link #RECENT_WRITES} writes,
+ * and the patch only applies if its id is not among them. A write retried after a timeout
+ * that had in fact been applied is therefore not counted twice, provided it is retried to
+ * the same shard, with the same id, before the shard takes that many other writes.</p>
+ */
+@Slf4j
+@Component
+public class CosmosReactionCounterStore {
+    
+    /**
+     * Cosmos DB accepts at most 10 operations in one patch; two of them record the write id.
+     */
+    public static final int MAX_TYPES_PER_WRITE = 8;
+    
+    /**
+     * Write ids each shard remembers to recognise a retried write.
+     */
+    static final int RECENT_WRITES = 32;
+    
+    private static final int CONFLICT = 409;
+    private static final int NOT_FOUND = 404;
+    private static final int PRECONDITION_FAILED = 412;
+    
+    private final CosmosContainer container;
+    private final ReactionProperties properties;
+    
+    public CosmosReactionCounterStore(@Qualifier("reactionCounterContainer") CosmosContainer container,
+                                      ReactionProperties properties) {
+        this.container = container;
+        this.properties = properties;
+    }
+    
+    /**
+     * Prepares a write of the deltas (at most {@link #MAX_TYPES_PER_WRITE} types) to one
+     * shard of the comment's counters. A failed write is retried by passing the same
+     * {@link CounterWrite} to {@link #add} again.
+     */
+    public CounterWrite prepare(String commentId, Map<String, Long> deltas) {
+        if (deltas.size() > MAX_TYPES_PER_WRITE) {
+            throw new IllegalArgumentException("At most " + MAX_TYPES_PER_WRITE + " reaction types per write");
+        }
+        int shard = ThreadLocalRandom.current().nextInt(Math.max(1, properties.getShardCount()));
+        return new CounterWrite(commentId, shard, UUID.randomUUID().toString(), Map.copyOf(deltas));
+    }
+    
+    /**
+     * Applies the write unless the shard has already applied it; either all of its deltas
+     * are applied or none.
+     */
+    public void add(CounterWrite write) {
+        String id = ReactionCounterShardDocument.shardId(write.commentId(), write.shard());
+        PartitionKey partitionKey = new PartitionKey(write.commentId());
+        
+        CosmosPatchOperations operations = CosmosPatchOperations.create();
+        write.deltas().forEach((type, delta) -> operations.increment("/counts/" + type, delta));
+        operations.remove("/recentWrites/0");
+        operations.add("/recentWrites/-", write.writeId());
+        CosmosPatchItemRequestOptions patchOptions = new CosmosPatchItemRequestOptions();
+        patchOptions.setContentResponseOnWriteEnabled(false);
+        // Write ids are UUIDs, safe to inline
+        patchOptions.setFilterPredicate("FROM c WHERE NOT ARRAY_CONTAINS(c.recentWrites, '" + write.writeId() + "')");
+        
+        try {
+            patch(id, partitionKey, operations, patchOptions, write);
+            return;
+        } catch (CosmosException e) {
+            if (e.getStatusCode() != NOT_FOUND) {
+                throw e;
+            }
+        }
+        
+        // First write to this shard
+        List<String> recentWrites = new ArrayList<>(Collections.nCopies(RECENT_WRITES - 1, ""));
+        recentWrites.add(write.writeId());
+        ReactionCounterShardDocument document = ReactionCounterShardDocument.builder()
+                .id(id)
+                .commentId(write.commentId())
+                .shard(write.shard())
+                .counts(new HashMap<>(write.deltas()))
+                .recentWrites(recentWrites)
+                .build();
+        try {
+            container.createItem(document, partitionKey,
+                    new CosmosItemRequestOptions().setContentResponseOnWriteEnabled(false));
+        } catch (CosmosException e) {
+            if (e.getStatusCode() != CONFLICT) {
+                throw e;
+            }
+            // Another writer created the shard in the meantime
+            patch(id, partitionKey, operations, patchOptions, write);
+        }
+    }
+    
+    private void patch(String id, PartitionKey partitionKey, CosmosPatchOperations operations,
+                       CosmosPatchItemRequestOptions options, CounterWrite write) {
+        try {
+            container.patchItem(id, partitionKey, operations, options, ReactionCounterShardDocument.class);
+        } catch (CosmosException e) {
+            if (e.getStatusCode() != PRECONDITION_FAILED) {
+                throw e;
+            }
+            log.debug("Counter write {} of comment {} was already applied", write.writeId(), write.commentId());
+        }
+    }
+    
+    /**
+     * Sums the comment's shards into the total count per reaction type.
+     */
+    public Map<String, Long> totals(String commentId) {
+        SqlQuerySpec query = new SqlQuerySpec("SELECT * FROM c WHERE c.commentId = @commentId",
+                List.of(new SqlParameter("@commentId", commentId)));
+        CosmosQueryRequestOptions options = new CosmosQueryRequestOptions()
+                .setPartitionKey(new PartitionKey(commentId));
+        
+        Map<String, Long> totals = new HashMap<>();
+        container.queryItems(query, options, ReactionCounterShardDocument.class)
+                .forEach(shard -> {
+                    if (shard.getCounts() != null) {
+                        shard.getCounts().forEach((type, count) -> totals.merge(type, count, Long::sum));
+                    }
+                });
+        return totals;
+    }
+    
+    /**
+     * One write to one counter shard, identified so that retrying it is safe.
+     */
+    public record CounterWrite(String commentId, int shard, String writeId, Map<String, Long> deltas) {
+    }
+}
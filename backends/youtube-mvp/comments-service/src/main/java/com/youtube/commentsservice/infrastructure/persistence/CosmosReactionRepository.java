@@ -0,0 +1,63 @@
+package com.youtube.commentsservice.infrastructure.persistence;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.PartitionKey;
+import com.youtube.commentsservice.domain.repositories.ReactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Stores per-user reactions as individual records. Adding and removing are single point
+ * writes whose outcome tells whether the reaction actually changed, which is what keeps
+ * the counters exact under retries and duplicate requests.
+ */
+@Slf4j
+@Repository
+public class CosmosReactionRepository implements ReactionRepository {
+    
+    private static final int CONFLICT = 409;
+    private static final int NOT_FOUND = 404;
+    
+    private final CosmosContainer container;
+    
+    public CosmosReactionRepository(@Qualifier("reactionRecordContainer") CosmosContainer container) {
+        this.container = container;
+    }
+    
+    @Override
+    public boolean add(String commentId, String userId, String type) {
+        UserReactionDocument document = UserReactionDocument.create(commentId, userId, type);
+        try {
+            container.createItem(document, new PartitionKey(document.getId()), writeOptions());
+            return true;
+        } catch (CosmosException e) {
+            if (e.getStatusCode() == CONFLICT) {
+                log.debug("User {} already reacted {} to comment {}", userId, type, commentId);
+                return false;
+            }
+            throw e;
+        }
+    }
+    
+    @Override
+    public boolean remove(String commentId, String userId, String type) {
+        String id = UserReactionDocument.recordId(commentId, userId, type);
+        try {
+            container.deleteItem(id, new PartitionKey(id), writeOptions());
+            return true;
+        } catch (CosmosException e) {
+            if (e.getStatusCode() == NOT_FOUND) {
+                log.debug("User {} has no {} reaction on comment {}", userId, type, commentId);
+                return false;
+            }
+            throw e;
+        }
+    }
+    
+    private static CosmosItemRequestOptions writeOptions() {
+        return new CosmosItemRequestOptions().setContentResponseOnWriteEnabled(false);
+    }
+}
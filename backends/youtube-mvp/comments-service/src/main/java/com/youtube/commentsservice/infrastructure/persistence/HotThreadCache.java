@@ -0,0 +1,398 @@
+package com.youtube.commentsservice.infrastructure.persistence;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.azure.spring.data.cosmos.core.convert.ObjectMapperFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtube.commentsservice.domain.entities.Comment;
+import com.youtube.commentsservice.domain.services.HotThreadCachePort;
+import com.youtube.commentsservice.infrastructure.config.HotThreadCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * First page of top-level comments of popular videos, kept precomputed so the page every
+ * viewer loads is not re-queried from Cosmos DB.
+ *
+ * <p>Each video's top {@code threads} comments live in Redis as a sorted set ordered like
+ * the Cosmos query (reactions, then creation time and id, all descending) plus the comment
+ * documents. Created and deleted comments and new reaction counts are applied to it in
+ * place by Lua scripts; the set is only reloaded from Cosmos DB on a miss or after
+ * {@code redisTtl}. In front of Redis every instance keeps an in-memory copy for
+ * {@code localTtl}.</p>
+ *
+ * <p>Once a video has more comments than the cache holds, its set is marked partial: every
+ * comment outside the set must rank below every comment in it. An update that leaves a
+ * comment at the bottom of a partial set therefore drops it, since a comment that is not
+ * cached might rank above it, and trimming to {@code threads} makes the set partial.
+ * Requests are served only while the set covers them. An update racing with a reload can
+ * be missed, until the reload after {@code redisTtl}.</p>
+ *
+ * <p>Views are counted per video into a decayed popularity score; Redis holds at most
+ * {@code maxRedisVideos} videos and each instance {@code maxLocalVideos}, evicting the
+ * least popular.</p>
+ *
+ * <p>Metrics: {@code comments.hot_threads.requests} tagged {@code result} (local, redis,
+ * miss), {@code comments.hot_threads.hit.ratio}, and {@code comments.hot_threads.ru.saved},
+ * which is the number of hits times the average request charge measured on misses.</p>
+ */
+@Slf4j
+@Component
+public class HotThreadCache implements HotThreadCachePort {
+    
+    // Same ordering as CosmosCommentDocumentRepository.findTopLevelByVideoId
+    private static final String TOP_THREADS_QUERY = "SELECT * FROM c WHERE c.videoId = @videoId AND c.parentId = null "
+            + "ORDER BY c.totalReactionCount DESC, c.createdAt DESC, c.id DESC OFFSET 0 LIMIT @limit";
+    
+    private static final String POPULARITY_KEY = "hot-threads:popularity";
+    private static final String DECAY_LOCK_KEY = "hot-threads:decay-lock";
+    private static final String COMPLETE = "complete";
+    private static final String PARTIAL = "partial";
+    
+    // Sorted-set members are "<16-digit createdAt millis>:<id>", so equal scores order by time then id
+    private static final int MEMBER_ID_OFFSET = 18;
+    
+    private static final RedisScript<List> READ = new DefaultRedisScript<>("""
+            local mode = redis.call('GET', KEYS[4])
+            if not mode then return {} end
+            local result = {mode}
+            for _, member in ipairs(redis.call('ZREVRANGE', KEYS[1], 0, -1)) do
+              local json = redis.call('HGET', KEYS[2], string.sub(member, %d))
+              if json then table.insert(result, json) end
+            end
+            return result
+            """.formatted(MEMBER_ID_OFFSET), List.class);
+    
+    private static final RedisScript<Long> LOAD = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1], KEYS[2], KEYS[3])
+            for i = 3, #ARGV, 4 do
+              redis.call('ZADD', KEYS[1], ARGV[i + 2], ARGV[i + 1])
+              redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 3])
+              redis.call('HSET', KEYS[3], ARGV[i], ARGV[i + 1])
+            end
+            redis.call('SET', KEYS[4], ARGV[1], 'EX', ARGV[2])
+            for i = 1, 3 do redis.call('EXPIRE', KEYS[i], ARGV[2]) end
+            return 1
+            """, Long.class);
+    
+    private static final RedisScript<Long> UPSERT = new DefaultRedisScript<>("""
+            local mode = redis.call('GET', KEYS[4])
+            if not mode then return 0 end
+            local function remove(id, member)
+              redis.call('ZREM', KEYS[1], member)
+              redis.call('HDEL', KEYS[2], id)
+              redis.call('HDEL', KEYS[3], id)
+            end
+            local old = redis.call('HGET', KEYS[3], ARGV[1])
+            if old then redis.call('ZREM', KEYS[1], old) end
+            redis.call('ZADD', KEYS[1], ARGV[3], ARGV[2])
+            redis.call('HSET', KEYS[2], ARGV[1], ARGV[4])
+            redis.call('HSET', KEYS[3], ARGV[1], ARGV[2])
+            if mode == 'partial' and redis.call('ZCARD', KEYS[1]) > 1 and redis.call('ZRANK', KEYS[1], ARGV[2]) == 0 then
+              remove(ARGV[1], ARGV[2])
+              return 1
+            end
+            local excess = redis.call('ZCARD', KEYS[1]) - tonumber(ARGV[5])
+            if excess > 0 then
+              for _, member in ipairs(redis.call('ZRANGE', KEYS[1], 0, excess - 1)) do
+                remove(string.sub(member, %d), member)
+              end
+              redis.call('SET', KEYS[4], 'partial', 'KEEPTTL')
+            end
+            return 1
+            """.formatted(MEMBER_ID_OFFSET), Long.class);
+    
+    private final RedisTemplate<String, String> redisTemplate;
+    private final CosmosContainer container;
+    private final HotThreadCacheProperties properties;
+    // The mapper spring-data-cosmos reads and writes comment documents with
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final ConcurrentHashMap<String, LocalThreads> local = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+    private final Counter ruSaved;
+    private volatile double averageLoadCharge;
+    
+    public HotThreadCache(RedisTemplate<String, String> redisTemplate,
+                          @Qualifier("commentContainer") CosmosContainer container,
+                          HotThreadCacheProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.container = container;
+        this.properties = properties;
+        this.localHits = requests(meterRegistry, "local");
+        this.redisHits = requests(meterRegistry, "redis");
+        this.misses = requests(meterRegistry, "miss");
+        this.ruSaved = Counter.builder("comments.hot_threads.ru.saved")
+                .description("Request units not spent on Cosmos DB because top threads were served from the cache")
+                .register(meterRegistry);
+        Gauge.builder("comments.hot_threads.hit.ratio", this, HotThreadCache::hitRatio)
+                .description("Share of top-thread requests served from memory or Redis")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Whether a first page of {@code size} top-level comments can be served from the cache.
+     */
+    public boolean serves(int size) {
+        return properties.isEnabled() && size <= properties.getThreads();
+    }
+    
+    /**
+     * The video's top {@code size} top-level comments, from memory, Redis, or loaded from
+     * Cosmos DB into both.
+     */
+    public List<CommentDocument> getTopThreads(String videoId, int size) {
+        pendingViews.computeIfAbsent(videoId, key -> new LongAdder()).increment();
+        
+        LocalThreads cached = local.get(videoId);
+        if (cached != null && cached.isFresh(properties.getLocalTtl().toMillis()) && cached.covers(size)) {
+            cached.views.increment();
+            hit(localHits);
+            return cached.top(size);
+        }
+        
+        LocalThreads threads = readRedis(videoId);
+        if (threads != null && threads.covers(size)) {
+            hit(redisHits);
+        } else {
+            misses.increment();
+            threads = load(videoId);
+        }
+        if (cached != null) {
+            threads.views.add(cached.views.sum());
+        }
+        putLocal(videoId, threads);
+        return threads.top(size);
+    }
+    
+    @Override
+    public void onCommentCreated(Comment comment) {
+        apply(comment);
+    }
+    
+    @Override
+    public void onCommentDeleted(Comment comment) {
+        // Listings still show deleted comments, so the cached entry only changes state
+        apply(comment);
+    }
+    
+    @Override
+    public void onReactionCountsChanged(Comment comment) {
+        apply(comment);
+    }
+    
+    private void apply(Comment comment) {
+        if (!properties.isEnabled() || comment.isReply()) {
+            return;
+        }
+        String videoId = comment.getVideoId();
+        local.remove(videoId);
+        try {
+            CommentDocument document = CommentDocument.fromEntity(comment);
+            redisTemplate.execute(UPSERT, keys(videoId), document.getId(), member(document),
+                    score(document), objectMapper.writeValueAsString(document),
+                    String.valueOf(properties.getThreads()));
+        } catch (Exception e) {
+            // The entry is reloaded from Cosmos DB once its Redis TTL expires
+            log.warn("Failed to update cached top threads of video {}: {}", videoId, e.getMessage());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${comments.hot-threads.maintenance-interval:PT30S}")
+    public void maintain() {
+        try {
+            publishViews();
+            evictUnpopularVideos();
+            decayPopularity();
+        } catch (Exception e) {
+            log.warn("Hot thread cache maintenance failed: {}", e.getMessage());
+        }
+        long ttl = properties.getLocalTtl().toMillis();
+        local.values().removeIf(threads -> !threads.isFresh(ttl));
+    }
+    
+    private LocalThreads readRedis(String videoId) {
+        try {
+            List<?> result = redisTemplate.execute(READ, keys(videoId));
+            if (result == null || result.isEmpty()) {
+                return null;
+            }
+            List<CommentDocument> documents = new ArrayList<>(result.size() - 1);
+            for (Object json : result.subList(1, result.size())) {
+                documents.add(objectMapper.readValue((String) json, CommentDocument.class));
+            }
+            return new LocalThreads(documents, COMPLETE.equals(result.get(0)));
+        } catch (Exception e) {
+            log.warn("Failed to read cached top threads of video {}: {}", videoId, e.getMessage());
+            return null;
+        }
+    }
+    
+    private LocalThreads load(String videoId) {
+        int limit = properties.getThreads();
+        SqlQuerySpec query = new SqlQuerySpec(TOP_THREADS_QUERY, List.of(
+                new SqlParameter("@videoId", videoId), new SqlParameter("@limit", limit)));
+        CosmosQueryRequestOptions options = new CosmosQueryRequestOptions()
+                .setPartitionKey(new PartitionKey(videoId));
+        
+        List<CommentDocument> documents = new ArrayList<>();
+        double charge = 0;
+        for (FeedResponse<JsonNode> page : container.queryItems(query, options, JsonNode.class).iterableByPage()) {
+            charge += page.getRequestCharge();
+            for (JsonNode node : page.getResults()) {
+                documents.add(objectMapper.convertValue(node, CommentDocument.class));
+            }
+        }
+        averageLoadCharge = averageLoadCharge == 0 ? charge : 0.9 * averageLoadCharge + 0.1 * charge;
+        
+        LocalThreads threads = new LocalThreads(documents, documents.size() < limit);
+        try {
+            List<String> args = new ArrayList<>();
+            args.add(threads.complete ? COMPLETE : PARTIAL);
+            args.add(String.valueOf(properties.getRedisTtl().toSeconds()));
+            for (CommentDocument document : documents) {
+                args.add(document.getId());
+                args.add(member(document));
+                args.add(score(document));
+                args.add(objectMapper.writeValueAsString(document));
+            }
+            redisTemplate.execute(LOAD, keys(videoId), args.toArray());
+        } catch (Exception e) {
+            log.warn("Failed to cache top threads of video {}: {}", videoId, e.getMessage());
+        }
+        return threads;
+    }
+    
+    private void putLocal(String videoId, LocalThreads threads) {
+        if (!local.containsKey(videoId) && local.size() >= properties.getMaxLocalVideos()) {
+            local.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().views.sum()))
+                    .ifPresent(least -> local.remove(least.getKey(), least.getValue()));
+        }
+        local.put(videoId, threads);
+    }
+    
+    private void publishViews() {
+        for (Map.Entry<String, LongAdder> entry : pendingViews.entrySet()) {
+            long views = entry.getValue().sumThenReset();
+            if (views > 0) {
+                redisTemplate.opsForZSet().incrementScore(POPULARITY_KEY, entry.getKey(), views);
+            } else {
+                pendingViews.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    
+    private void evictUnpopularVideos() {
+        Long videos = redisTemplate.opsForZSet().zCard(POPULARITY_KEY);
+        long excess = videos == null ? 0 : videos - properties.getMaxRedisVideos();
+        if (excess <= 0) {
+            return;
+        }
+        Set<String> leastPopular = redisTemplate.opsForZSet().range(POPULARITY_KEY, 0, excess - 1);
+        if (leastPopular == null || leastPopular.isEmpty()) {
+            return;
+        }
+        for (String videoId : leastPopular) {
+            redisTemplate.delete(keys(videoId));
+        }
+        redisTemplate.opsForZSet().remove(POPULARITY_KEY, leastPopular.toArray());
+        log.debug("Evicted top threads of {} unpopular videos", leastPopular.size());
+    }
+    
+    private void decayPopularity() {
+        // Halve all view counts once per interval across instances, so popularity tracks recent views
+        Boolean acquired = redisTemplate.opsForValue()
+                .setIfAbsent(DECAY_LOCK_KEY, "1", properties.getMaintenanceInterval());
+        if (Boolean.TRUE.equals(acquired)) {
+            redisTemplate.opsForZSet().unionAndStore(POPULARITY_KEY, List.of(), POPULARITY_KEY,
+                    RedisZSetCommands.Aggregate.SUM, RedisZSetCommands.Weights.of(0.5));
+            redisTemplate.opsForZSet().removeRangeByScore(POPULARITY_KEY, 0, 0.5);
+        }
+    }
+    
+    private void hit(Counter counter) {
+        counter.increment();
+        ruSaved.increment(averageLoadCharge);
+    }
+    
+    private double hitRatio() {
+        double hits = localHits.count() + redisHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+    
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("comments.hot_threads.requests")
+                .description("First-page top thread requests by where they were served from")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    private static List<String> keys(String videoId) {
+        // Hash tag keeps a video's keys in one cluster slot, as the scripts require
+        String prefix = "hot-threads:{" + videoId + "}:";
+        return List.of(prefix + "rank", prefix + "items", prefix + "members", prefix + "loaded");
+    }
+    
+    private static String member(CommentDocument document) {
+        return String.format("%016d:%s", document.getCreatedAt().toEpochMilli(), document.getId());
+    }
+    
+    private static String score(CommentDocument document) {
+        return String.valueOf(document.getTotalReactionCount());
+    }
+    
+    /**
+     * One video's top threads as read from Redis or Cosmos DB, most reacted first.
+     */
+    private static final class LocalThreads {
+        
+        private final List<CommentDocument> documents;
+        private final boolean complete;
+        private final long fetchedAt = System.currentTimeMillis();
+        private final LongAdder views = new LongAdder();
+        
+        private LocalThreads(List<CommentDocument> documents, boolean complete) {
+            this.documents = documents;
+            this.complete = complete;
+        }
+        
+        private boolean isFresh(long ttlMillis) {
+            return System.currentTimeMillis() - fetchedAt < ttlMillis;
+        }
+        
+        private boolean covers(int size) {
+            return complete || documents.size() >= size;
+        }
+        
+        private List<CommentDocument> top(int size) {
+            return documents.subList(0, Math.min(size, documents.size()));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.youtube.commentsservice.infrastructure.persistence;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.PartitionKey;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.youtube.commentsservice.infrastructure.config.ReactionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves reactions stored on comment documents before per-user records and counter shards were
+ * introduced. For every comment with reactions it creates a {@link UserReactionDocument} per
+ * user in the comment's per-type user maps, so earlier reactors cannot react twice, and then a
+ * seed counter shard holding the comment's current counts, so the first aggregation does not
+ * replace them with the new reactions alone.
+ *
+ * <p>Runs at startup, before the instance reports ready and before the aggregator does anything.
+ * Every step is a create that treats a conflict as done, so instances starting together or a
+ * run interrupted half way are harmless. A marker document in the counters container records
+ * that the migration finished; later startups only read the marker.</p>
+ */
+@Slf4j
+@Component
+public class LegacyReactionMigration implements ApplicationRunner {
+    
+    static final String MARKER_ID = "migration:legacy-reactions";
+    static final int SEED_SHARD = -1;
+    
+    private static final String LEGACY_QUERY =
+            "SELECT c.id, c.reactions FROM c WHERE c.totalReactionCount > 0";
+    private static final int CONFLICT = 409;
+    private static final int NOT_FOUND = 404;
+    
+    private final CosmosContainer commentContainer;
+    private final CosmosContainer recordContainer;
+    private final CosmosContainer counterContainer;
+    private final ReactionProperties properties;
+    private volatile boolean complete;
+    
+    public LegacyReactionMigration(@Qualifier("commentContainer") CosmosContainer commentContainer,
+                                   @Qualifier("reactionRecordContainer") CosmosContainer recordContainer,
+                                   @Qualifier("reactionCounterContainer") CosmosContainer counterContainer,
+                                   ReactionProperties properties) {
+        this.commentContainer = commentContainer;
+        this.recordContainer = recordContainer;
+        this.counterContainer = counterContainer;
+        this.properties = properties;
+    }
+    
+    /**
+     * Whether legacy reactions have been moved, so shard totals are complete.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isMigrateLegacy() || markerExists()) {
+            complete = true;
+            return;
+        }
+        
+        log.info("Moving legacy comment reactions to reaction records and counter shards");
+        int comments = 0;
+        for (JsonNode comment : commentContainer.queryItems(LEGACY_QUERY, new CosmosQueryRequestOptions(), JsonNode.class)) {
+            migrate(comment);
+            comments++;
+        }
+        
+        Map<String, String> marker = Map.of("id", MARKER_ID, "commentId", MARKER_ID,
+                "completedAt", Instant.now().toString());
+        create(counterContainer, marker, MARKER_ID);
+        complete = true;
+        log.info("Moved legacy reactions of {} comments", comments);
+    }
+    
+    private void migrate(JsonNode comment) {
+        String commentId = comment.path("id").asText();
+        Map<String, Long> counts = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> reactions = comment.path("reactions").fields();
+        while (reactions.hasNext()) {
+            Map.Entry<String, JsonNode> reaction = reactions.next();
+            String type = reaction.getKey();
+            counts.put(type, reaction.getValue().path("count").asLong());
+            
+            Iterator<Map.Entry<String, JsonNode>> users = reaction.getValue().path("userReactions").fields();
+            while (users.hasNext()) {
+                Map.Entry<String, JsonNode> user = users.next();
+                UserReactionDocument record = UserReactionDocument.create(commentId, user.getKey(), type);
+                if (user.getValue().isTextual()) {
+                    record.setCreatedAt(user.getValue().asText());
+                }
+                create(recordContainer, record, record.getId());
+            }
+        }
+        
+        // Created last: once the seed exists the comment is done
+        ReactionCounterShardDocument seed = ReactionCounterShardDocument.builder()
+                .id(ReactionCounterShardDocument.shardId(commentId, SEED_SHARD))
+                .commentId(commentId)
+                .shard(SEED_SHARD)
+                .counts(counts)
+                .recentWrites(new ArrayList<>(Collections.nCopies(CosmosReactionCounterStore.RECENT_WRITES, "")))
+                .build();
+        create(counterContainer, seed, commentId);
+    }
+    
+    private boolean markerExists() {
+        try {
+            counterContainer.readItem(MARKER_ID, new PartitionKey(MARKER_ID), JsonNode.class);
+            return true;
+        } catch (CosmosException e) {
+            if (e.getStatusCode() == NOT_FOUND) {
+                return false;
+            }
+            throw e;
+        }
+    }
+    
+    private static <T> void create(CosmosContainer container, T item, String partitionKey) {
+        try {
+            container.createItem(item, new PartitionKey(partitionKey),
+                    new CosmosItemRequestOptions().setContentResponseOnWriteEnabled(false));
+        } catch (CosmosException e) {
+            if (e.getStatusCode() != CONFLICT) {
+                throw e;
+            }
+        }
+    }
+}
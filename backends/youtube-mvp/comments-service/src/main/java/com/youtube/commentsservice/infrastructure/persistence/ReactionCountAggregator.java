@@ -0,0 +1,102 @@
+package com.youtube.commentsservice.infrastructure.persistence;
+
+import com.youtube.commentsservice.domain.entities.Comment;
+import com.youtube.commentsservice.domain.repositories.CommentRepository;
+import com.youtube.commentsservice.domain.services.HotThreadCachePort;
+import com.youtube.commentsservice.infrastructure.config.ReactionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies the summed counter shards of recently changed comments onto the comment document,
+ * where listings and {@code ReactionSummaryDto}s read them. A comment is rewritten at most
+ * once per aggregation interval however many reactions it received in between.
+ */
+@Slf4j
+@Component
+public class ReactionCountAggregator {
+    
+    private final CosmosReactionCounterStore counterStore;
+    private final CommentRepository commentRepository;
+    private final HotThreadCachePort hotThreadCachePort;
+    private final LegacyReactionMigration legacyMigration;
+    private final ReactionProperties properties;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Counter aggregated;
+    private final Counter failures;
+    
+    public ReactionCountAggregator(CosmosReactionCounterStore counterStore,
+                                   CommentRepository commentRepository,
+                                   HotThreadCachePort hotThreadCachePort,
+                                   LegacyReactionMigration legacyMigration,
+                                   ReactionProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.counterStore = counterStore;
+        this.commentRepository = commentRepository;
+        this.hotThreadCachePort = hotThreadCachePort;
+        this.legacyMigration = legacyMigration;
+        this.properties = properties;
+        this.aggregated = Counter.builder("comments.reactions.aggregated")
+                .description("Comments whose reaction counts were refreshed from the counter shards")
+                .register(meterRegistry);
+        this.failures = Counter.builder("comments.reactions.aggregate.failures")
+                .description("Comments whose reaction counts could not be refreshed and were requeued")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Marks a comment whose counter shards changed for the next aggregation.
+     */
+    public void markDirty(String commentId) {
+        dirty.add(commentId);
+    }
+    
+    @Scheduled(fixedDelayString = "${comments.reactions.aggregate-interval:PT5S}")
+    public void aggregate() {
+        if (!legacyMigration.isComplete()) {
+            // Shard totals lack the legacy counts until their seed shards exist
+            return;
+        }
+        List<String> commentIds = new ArrayList<>(dirty);
+        for (String commentId : commentIds) {
+            dirty.remove(commentId);
+            if (aggregate(commentId)) {
+                aggregated.increment();
+            } else {
+                failures.increment();
+                dirty.add(commentId);
+            }
+        }
+    }
+    
+    private boolean aggregate(String commentId) {
+        int attempts = Math.max(1, properties.getMaxAggregateAttempts());
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try {
+                // Totals are re-read on every attempt; the write is absolute, so retrying is safe
+                Map<String, Long> totals = counterStore.totals(commentId);
+                Optional<Comment> updated = commentRepository.updateReactionCounts(commentId, totals);
+                if (updated.isPresent()) {
+                    hotThreadCachePort.onReactionCountsChanged(updated.get());
+                } else {
+                    log.debug("Comment {} no longer exists, dropping its reaction counts", commentId);
+                }
+                return true;
+            } catch (Exception e) {
+                log.warn("Attempt {} to aggregate reactions of comment {} failed: {}",
+                        attempt, commentId, e.getMessage());
+            }
+        }
+        return false;
+    }
+}
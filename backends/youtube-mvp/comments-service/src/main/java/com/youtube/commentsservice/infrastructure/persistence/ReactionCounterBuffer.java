@@ -0,0 +1,190 @@
+package com.youtube.commentsservice.infrastructure.persistence;
+
+import com.youtube.commentsservice.domain.services.ReactionCounterPort;
+import com.youtube.commentsservice.infrastructure.persistence.CosmosReactionCounterStore.CounterWrite;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for reaction counters. Increments are merged in memory per comment and
+ * reaction type, and each flush writes one delta per comment to the sharded counters, so a
+ * viral comment costs a counter write per flush interval rather than one per reaction.
+ *
+ * <p>Increments are {@link LongAdder}s, which stay cheap under thousands of concurrent
+ * reactors on the same comment. A flush takes each adder's value with
+ * {@link LongAdder#sumThenReset()}, which resets cell by cell with atomic swaps: increments
+ * racing with a flush end up in this flush or the next one, never in neither. Comments idle
+ * for a few flushes are evicted, and flushed once more on the following flush to pick up
+ * increments from threads that looked them up just before eviction.</p>
+ *
+ * <p>A failed counter write is kept and retried as it is, with the same shard and write id, so
+ * one that timed out after being applied is not counted again. Buffered increments not yet
+ * flushed are lost if the process dies; the per-user reaction records remain the source of
+ * truth for recounting.</p>
+ */
+@Slf4j
+@Component
+public class ReactionCounterBuffer implements ReactionCounterPort {
+    
+    private static final int IDLE_FLUSHES_BEFORE_EVICTION = 3;
+    
+    private final CosmosReactionCounterStore counterStore;
+    private final ReactionCountAggregator aggregator;
+    private final ConcurrentHashMap<String, PendingCounts> pending = new ConcurrentHashMap<>();
+    private List<PendingCounts> evicted = new ArrayList<>();
+    private final Counter buffered;
+    private final Counter writes;
+    private final Counter failures;
+    
+    public ReactionCounterBuffer(CosmosReactionCounterStore counterStore,
+                                 ReactionCountAggregator aggregator,
+                                 MeterRegistry meterRegistry) {
+        this.counterStore = counterStore;
+        this.aggregator = aggregator;
+        this.buffered = Counter.builder("comments.reactions.buffered")
+                .description("Reaction counter increments accepted into the write-behind buffer")
+                .register(meterRegistry);
+        this.writes = Counter.builder("comments.reactions.counter.writes")
+                .description("Merged counter deltas written to the counter shards")
+                .register(meterRegistry);
+        this.failures = Counter.builder("comments.reactions.counter.write.failures")
+                .description("Counter writes that failed and were put back into the buffer")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public void increment(String commentId, String type, long delta) {
+        pendingFor(commentId).add(type, delta);
+        buffered.increment();
+    }
+    
+    @Scheduled(fixedDelayString = "${comments.reactions.flush-interval:PT1S}")
+    public synchronized void flush() {
+        List<PendingCounts> lastEvicted = evicted;
+        evicted = new ArrayList<>();
+        for (PendingCounts counts : lastEvicted) {
+            write(counts);
+            if (!counts.failed.isEmpty()) {
+                evicted.add(counts);
+            }
+        }
+        
+        Iterator<PendingCounts> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            PendingCounts counts = iterator.next();
+            if (write(counts)) {
+                counts.idleFlushes = 0;
+            } else if (++counts.idleFlushes >= IDLE_FLUSHES_BEFORE_EVICTION
+                    && counts.failed.isEmpty()
+                    && pending.remove(counts.commentId, counts)) {
+                evicted.add(counts);
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        flush();
+    }
+    
+    private PendingCounts pendingFor(String commentId) {
+        PendingCounts counts = pending.get(commentId);
+        if (counts == null) {
+            counts = pending.computeIfAbsent(commentId, PendingCounts::new);
+        }
+        return counts;
+    }
+    
+    /**
+     * Retries the comment's failed writes and writes its accumulated deltas; returns false if
+     * there was nothing to write.
+     */
+    private boolean write(PendingCounts counts) {
+        List<CounterWrite> retries = counts.failed;
+        counts.failed = new ArrayList<>();
+        for (CounterWrite retry : retries) {
+            apply(counts, retry);
+        }
+        
+        Map<String, Long> deltas = counts.drain();
+        if (deltas.isEmpty() && retries.isEmpty()) {
+            return false;
+        }
+        
+        List<Map<String, Long>> chunks = new ArrayList<>();
+        Map<String, Long> chunk = new HashMap<>();
+        for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+            if (chunk.size() == CosmosReactionCounterStore.MAX_TYPES_PER_WRITE) {
+                chunks.add(chunk);
+                chunk = new HashMap<>();
+            }
+            chunk.put(delta.getKey(), delta.getValue());
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        
+        for (Map<String, Long> write : chunks) {
+            apply(counts, counterStore.prepare(counts.commentId, write));
+        }
+        aggregator.markDirty(counts.commentId);
+        return true;
+    }
+    
+    private void apply(PendingCounts counts, CounterWrite write) {
+        try {
+            counterStore.add(write);
+            writes.increment();
+        } catch (Exception e) {
+            log.warn("Failed to write reaction counters of comment {}, retrying on next flush: {}",
+                    counts.commentId, e.getMessage());
+            failures.increment();
+            counts.failed.add(write);
+        }
+    }
+    
+    private static final class PendingCounts {
+        
+        private final String commentId;
+        private final ConcurrentHashMap<String, LongAdder> byType = new ConcurrentHashMap<>();
+        // Only touched by the flush, which is synchronized
+        private List<CounterWrite> failed = new ArrayList<>();
+        private int idleFlushes;
+        
+        private PendingCounts(String commentId) {
+            this.commentId = commentId;
+        }
+        
+        private void add(String type, long delta) {
+            LongAdder adder = byType.get(type);
+            if (adder == null) {
+                adder = byType.computeIfAbsent(type, key -> new LongAdder());
+            }
+            adder.add(delta);
+        }
+        
+        private Map<String, Long> drain() {
+            Map<String, Long> deltas = new HashMap<>();
+            byType.forEach((type, adder) -> {
+                long delta = adder.sumThenReset();
+                if (delta != 0) {
+                    deltas.put(type, delta);
+                }
+            });
+            return deltas;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.youtube.commentsservice.infrastructure.persistence;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One shard of a comment's reaction counters. A comment's counts are the sum over its shards.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReactionCounterShardDocument {
+    
+    private String id;
+    private String commentId; // Partition key
+    private int shard;
+    
+    @Builder.Default
+    private Map<String, Long> counts = new HashMap<>();
+    
+    /**
+     * Ids of the last writes applied to this shard, oldest first; see {@link CosmosReactionCounterStore}.
+     */
+    @Builder.Default
+    private List<String> recentWrites = new ArrayList<>();
+    
+    public static String shardId(String commentId, int shard) {
+        return commentId + ":" + shard;
+    }
+}
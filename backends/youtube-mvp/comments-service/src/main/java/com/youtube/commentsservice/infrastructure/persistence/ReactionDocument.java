@@ -1,29 +1,26 @@
 package com.youtube.commentsservice.infrastructure.persistence;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.youtube.commentsservice.domain.valueobjects.ReactionCount;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.HashMap;
-import java.util.Map;
-
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true) // older documents also carry per-user maps
 public class ReactionDocument {
     
     private String type;
     private int count;
-    private Map<String, String> userReactions;
     
     public static ReactionDocument fromValueObject(ReactionCount vo) {
         return ReactionDocument.builder()
                 .type(vo.getType())
                 .count(vo.getCount())
-                .userReactions(new HashMap<>(vo.getUserReactions()))
                 .build();
     }
     
@@ -31,7 +28,6 @@ public class ReactionDocument {
         return ReactionCount.builder()
                 .type(this.type)
                 .count(this.count)
-                .userReactions(new HashMap<>(this.userReactions))
                 .build();
     }
 }
@@ -0,0 +1,46 @@
+package com.youtube.commentsservice.infrastructure.persistence;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * One user's reaction of one type to a comment. The id is derived from all three, so a
+ * repeated reaction collides with the existing record instead of being counted twice.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserReactionDocument {
+    
+    private String id; // Partition key
+    private String commentId;
+    private String userId;
+    private String type;
+    private String createdAt;
+    
+    public static UserReactionDocument create(String commentId, String userId, String type) {
+        return UserReactionDocument.builder()
+                .id(recordId(commentId, userId, type))
+                .commentId(commentId)
+                .userId(userId)
+                .type(type)
+                .createdAt(Instant.now().toString())
+                .build();
+    }
+    
+    public static String recordId(String commentId, String userId, String type) {
+        // Encoded so ids from the token subject cannot contain characters Cosmos rejects in ids
+        return encode(commentId) + ":" + encode(type) + ":" + encode(userId);
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -4,23 +4,27 @@ import com.youtube.commentsservice.application.commands.AddReactionCommand;
 import com.youtube.commentsservice.application.commands.CreateCommentCommand;
 import com.youtube.commentsservice.application.commands.DeleteCommentCommand;
 import com.youtube.commentsservice.application.dto.CommentDto;
+import com.youtube.commentsservice.application.dto.CommentPageDto;
+import com.youtube.commentsservice.application.dto.ReactionSummaryDto;
+import com.youtube.commentsservice.application.queries.GetCommentsQuery;
 import com.youtube.commentsservice.application.services.CommentApplicationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @Slf4j
@@ -37,6 +41,7 @@ public class CommentController {
     public ResponseEntity<CommentDto> createComment(
             @PathVariable String videoId,
             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = HttpHeaders.ACCEPT_LANGUAGE, required = false) String acceptLanguage,
             @Parameter(hidden = true) Authentication authentication,
             @Valid @RequestBody CreateCommentRequest request) {
         
@@ -49,6 +54,7 @@ public class CommentController {
                 .authorId(authorId)
                 .parentId(request.getParentId())
                 .text(request.getText())
+                .locale(preferredLocale(acceptLanguage))
                 .build();
         
         CommentDto comment = commentApplicationService.createComment(command);
@@ -59,18 +65,22 @@ public class CommentController {
     }
     
     @GetMapping
-    @Operation(summary = "List comments", description = "List comments for a video with pagination")
-    public ResponseEntity<Page<CommentDto>> getComments(
+    @Operation(summary = "List comments",
+            description = "List comments for a video; pass the returned continuationToken to get the next page")
+    public ResponseEntity<CommentPageDto> getComments(
             @PathVariable String videoId,
             @RequestParam(required = false) String parentId,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String continuationToken,
             @RequestParam(defaultValue = "20") int size) {
         
-        PageRequest pageable = PageRequest.of(page, size);
-        Page<CommentDto> comments = commentApplicationService.getComments(
-                videoId, parentId, pageable);
+        GetCommentsQuery query = GetCommentsQuery.builder()
+                .videoId(videoId)
+                .parentId(parentId)
+                .continuationToken(continuationToken)
+                .limit(size)
+                .build();
         
-        return ResponseEntity.ok(comments);
+        return ResponseEntity.ok(commentApplicationService.getComments(query));
     }
     
     @DeleteMapping("/{commentId}")
@@ -105,6 +115,12 @@ public class CommentController {
         return ResponseEntity.noContent().build();
     }
     
+    @GetMapping("/{commentId}/reactions")
+    @Operation(summary = "Get reaction counts", description = "Aggregated reaction counts of a comment")
+    public ResponseEntity<List<ReactionSummaryDto>> getReactions(@PathVariable String commentId) {
+        return ResponseEntity.ok(commentApplicationService.getReactionSummary(commentId));
+    }
+    
     @DeleteMapping("/{commentId}/reactions/{type}")
     @Operation(summary = "Remove a reaction", description = "Remove a reaction from a comment")
     public ResponseEntity<Void> removeReaction(
@@ -115,6 +131,25 @@ public class CommentController {
         commentApplicationService.removeReaction(commentId, authentication.getName(), type);
         return ResponseEntity.noContent().build();
     }
+    
+    /**
+     * The client's most preferred language from {@code Accept-Language}, or null if the header
+     * is absent, a wildcard or malformed.
+     */
+    static Locale preferredLocale(String acceptLanguage) {
+        if (acceptLanguage == null || acceptLanguage.isBlank()) {
+            return null;
+        }
+        try {
+            List<Locale.LanguageRange> ranges = Locale.LanguageRange.parse(acceptLanguage);
+            if (ranges.isEmpty() || ranges.get(0).getRange().startsWith("*")) {
+                return null;
+            }
+            return Locale.forLanguageTag(ranges.get(0).getRange());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
 
 @lombok.Data
@@ -128,6 +163,6 @@ class CreateCommentRequest {
 @lombok.Data
 class ReactionRequest {
     @NotBlank(message = "Reaction type is required")
+    @Pattern(regexp = "[A-Za-z0-9_-]{1,32}", message = "Reaction type must be 1-32 letters, digits, '_' or '-'")
     private String type;
 }
-
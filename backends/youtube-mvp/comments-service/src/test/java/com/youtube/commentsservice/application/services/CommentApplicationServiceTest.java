@@ -1,25 +1,38 @@
 package com.youtube.commentsservice.application.services;
 
+import com.youtube.commentsservice.application.commands.AddReactionCommand;
 import com.youtube.commentsservice.application.commands.CreateCommentCommand;
+import com.youtube.commentsservice.application.commands.DeleteCommentCommand;
 import com.youtube.commentsservice.application.dto.CommentDto;
+import com.youtube.commentsservice.application.dto.CommentPageDto;
+import com.youtube.commentsservice.application.mappers.CommentMapper;
+import com.youtube.commentsservice.application.queries.GetCommentsQuery;
 import com.youtube.commentsservice.domain.entities.Comment;
+import com.youtube.commentsservice.domain.entities.CommentStatus;
 import com.youtube.commentsservice.domain.repositories.CommentRepository;
+import com.youtube.commentsservice.domain.repositories.ReactionRepository;
 import com.youtube.commentsservice.domain.services.*;
+import com.youtube.commentsservice.domain.valueobjects.CommentSlice;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +53,21 @@ class CommentApplicationServiceTest {
     @Mock
     private BroadcastPort broadcastPort;
     
+    @Mock
+    private ReactionRepository reactionRepository;
+    
+    @Mock
+    private ReactionCounterPort reactionCounterPort;
+    
+    @Mock
+    private CommentCountPort commentCountPort;
+    
+    @Mock
+    private HotThreadCachePort hotThreadCachePort;
+    
+    @Spy
+    private CommentMapper commentMapper = Mappers.getMapper(CommentMapper.class);
+    
     @InjectMocks
     private CommentApplicationService applicationService;
     
@@ -67,7 +95,7 @@ class CommentApplicationServiceTest {
                 .build();
         
         when(idempotencyCheckerPort.checkDuplicate("key-123")).thenReturn(Optional.empty());
-        when(profanityFilterPort.filterProfanity(any())).thenReturn("Great video!");
+        when(profanityFilterPort.filterProfanity(any(), any())).thenReturn("Great video!");
         when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
         
         // When
@@ -78,6 +106,8 @@ class CommentApplicationServiceTest {
         assertThat(result.getId()).isEqualTo("comment-123");
         verify(idempotencyCheckerPort).storeResult("key-123", "comment-123", 3600);
         verify(eventPublisherPort).publishCommentCreated(any());
+        verify(commentCountPort).adjustThreadCount("video-456", 1);
+        verify(hotThreadCachePort).onCommentCreated(testComment);
     }
     
     @Test
@@ -98,7 +128,7 @@ class CommentApplicationServiceTest {
         
         // Then
         assertThat(result).isNotNull();
-        verify(profanityFilterPort, never()).filterProfanity(any());
+        verify(profanityFilterPort, never()).filterProfanity(any(), any());
         verify(commentRepository, never()).save(any());
     }
     
@@ -110,17 +140,149 @@ class CommentApplicationServiceTest {
                 .videoId("video-456")
                 .authorId("user-789")
                 .text("spam badword")
+                .locale(Locale.forLanguageTag("pt-BR"))
                 .build();
         
         when(idempotencyCheckerPort.checkDuplicate("key-123")).thenReturn(Optional.empty());
-        when(profanityFilterPort.filterProfanity("spam badword")).thenReturn("**** ****");
+        when(profanityFilterPort.filterProfanity("spam badword", Locale.forLanguageTag("pt-BR"))).thenReturn("**** ****");
         when(commentRepository.save(any(Comment.class))).thenReturn(testComment);
         
         // When
         applicationService.createComment(command);
         
         // Then
-        verify(profanityFilterPort).filterProfanity("spam badword");
+        verify(profanityFilterPort).filterProfanity("spam badword", Locale.forLanguageTag("pt-BR"));
+    }
+    
+    @Test
+    void addReaction_FirstReaction_IncrementsCounterWithoutSavingComment() {
+        // Given
+        AddReactionCommand command = new AddReactionCommand("comment-123", "user-1", "like");
+        when(commentRepository.findById("comment-123")).thenReturn(Optional.of(testComment));
+        when(reactionRepository.add("comment-123", "user-1", "like")).thenReturn(true);
+        
+        // When
+        applicationService.addReaction(command);
+        
+        // Then
+        verify(reactionCounterPort).increment("comment-123", "like", 1);
+        verify(commentRepository, never()).save(any());
+    }
+    
+    @Test
+    void addReaction_RepeatedReaction_DoesNotIncrementCounter() {
+        // Given
+        AddReactionCommand command = new AddReactionCommand("comment-123", "user-1", "like");
+        when(commentRepository.findById("comment-123")).thenReturn(Optional.of(testComment));
+        when(reactionRepository.add("comment-123", "user-1", "like")).thenReturn(false);
+        
+        // When
+        applicationService.addReaction(command);
+        
+        // Then
+        verify(reactionCounterPort, never()).increment(anyString(), anyString(), anyLong());
+    }
+    
+    @Test
+    void addReaction_DeletedComment_Throws() {
+        // Given
+        testComment.delete();
+        AddReactionCommand command = new AddReactionCommand("comment-123", "user-1", "like");
+        when(commentRepository.findById("comment-123")).thenReturn(Optional.of(testComment));
+        
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> applicationService.addReaction(command));
+        verify(reactionRepository, never()).add(anyString(), anyString(), anyString());
+    }
+    
+    @Test
+    void addReaction_InvalidType_Throws() {
+        // Given
+        AddReactionCommand command = new AddReactionCommand("comment-123", "user-1", "like/../x");
+        
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> applicationService.addReaction(command));
+        verifyNoInteractions(reactionRepository, reactionCounterPort);
+    }
+    
+    @Test
+    void removeReaction_Existing_DecrementsCounter() {
+        // Given
+        when(reactionRepository.remove("comment-123", "user-1", "like")).thenReturn(true);
+        
+        // When
+        applicationService.removeReaction("comment-123", "user-1", "like");
+        
+        // Then
+        verify(reactionCounterPort).increment("comment-123", "like", -1);
+        verify(commentRepository, never()).save(any());
+    }
+    
+    @Test
+    void removeReaction_Missing_DoesNotDecrementCounter() {
+        // Given
+        when(reactionRepository.remove("comment-123", "user-1", "like")).thenReturn(false);
+        
+        // When
+        applicationService.removeReaction("comment-123", "user-1", "like");
+        
+        // Then
+        verify(reactionCounterPort, never()).increment(anyString(), anyString(), anyLong());
+    }
+    
+    @Test
+    void getComments_TopLevel_ReturnsKeysetPageWithStoredCount() {
+        // Given
+        GetCommentsQuery query = GetCommentsQuery.builder()
+                .videoId("video-456")
+                .continuationToken("token-1")
+                .limit(500)
+                .build();
+        when(commentRepository.findTopLevelByVideoId("video-456", "token-1", 100))
+                .thenReturn(new CommentSlice(List.of(testComment), "token-2"));
+        when(commentCountPort.getThreadCount(eq("video-456"), any())).thenReturn(42L);
+        
+        // When
+        CommentPageDto page = applicationService.getComments(query);
+        
+        // Then
+        assertThat(page.getItems()).extracting(CommentDto::getId).containsExactly("comment-123");
+        assertThat(page.getContinuationToken()).isEqualTo("token-2");
+        assertThat(page.getTotalCount()).isEqualTo(42L);
+        verify(commentRepository, never()).countActiveTopLevelByVideoId(anyString());
+    }
+    
+    @Test
+    void getComments_Replies_QueriesVideoPartition() {
+        // Given
+        GetCommentsQuery query = GetCommentsQuery.builder()
+                .videoId("video-456")
+                .parentId("comment-123")
+                .limit(20)
+                .build();
+        when(commentRepository.findReplies("video-456", "comment-123", null, 20))
+                .thenReturn(new CommentSlice(List.of(), null));
+        when(commentCountPort.getReplyCount(eq("comment-123"), any())).thenReturn(0L);
+        
+        // When
+        CommentPageDto page = applicationService.getComments(query);
+        
+        // Then
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getContinuationToken()).isNull();
+    }
+    
+    @Test
+    void deleteComment_AlreadyDeleted_DoesNotCountTwice() {
+        // Given
+        testComment.delete();
+        when(commentRepository.findById("comment-123")).thenReturn(Optional.of(testComment));
+        
+        // When
+        applicationService.deleteComment(new DeleteCommentCommand("comment-123", "user-789"));
+        
+        // Then
+        verify(commentRepository, never()).save(any());
+        verifyNoInteractions(commentCountPort);
     }
 }
-
@@ -0,0 +1,79 @@
+package com.youtube.commentsservice.infrastructure.external;
+
+import com.youtube.commentsservice.infrastructure.config.ProfanityFilterProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DictionaryProfanityFilterAdapterTest {
+    
+    private ProfanityFilterProperties properties;
+    private DictionaryProfanityFilterAdapter adapter;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new ProfanityFilterProperties();
+        properties.setDictionaries(Map.of(
+                "en", List.of("spam*", "badword", "ass"),
+                "es", List.of("basura")));
+        adapter = new DictionaryProfanityFilterAdapter(properties);
+    }
+    
+    @Test
+    void containsProfanity_DisguisedTerm_ShouldMatch() {
+        // Leetspeak, case, a diacritic and a zero-width space
+        assertThat(adapter.containsProfanity("This is SP4M")).isTrue();
+        assertThat(adapter.containsProfanity("b\u00e4dword")).isTrue();
+        assertThat(adapter.containsProfanity("bad\u200bword")).isTrue();
+        assertThat(adapter.containsProfanity("Great video!")).isFalse();
+    }
+    
+    @Test
+    void containsProfanity_TermInsideWord_ShouldRespectWordBoundaries() {
+        assertThat(adapter.containsProfanity("A first class video")).isFalse();
+        assertThat(adapter.containsProfanity("Don't be an ass.")).isTrue();
+        assertThat(adapter.containsProfanity("Stop spamming")).isTrue();
+    }
+    
+    @Test
+    void filterProfanity_ShouldMaskOnlyMatchedCharacters() {
+        // When
+        String filtered = adapter.filterProfanity("Total sp@m, you ass! Classic.");
+        
+        // Then
+        assertThat(filtered).isEqualTo("Total ****, you ***! Classic.");
+    }
+    
+    @Test
+    void filterProfanity_Clean_ShouldReturnSameInstance() {
+        String text = "Great video!";
+        
+        assertThat(adapter.filterProfanity(text)).isSameAs(text);
+    }
+    
+    @Test
+    void filterProfanity_WithLocale_ShouldApplyLocaleAndDefaultDictionaries() {
+        assertThat(adapter.filterProfanity("es basura y spam", Locale.forLanguageTag("es-MX")))
+                .isEqualTo("es ****** y ****");
+        assertThat(adapter.filterProfanity("es basura", Locale.ENGLISH)).isEqualTo("es basura");
+    }
+    
+    @Test
+    void reload_ChangedDictionary_ShouldSwapMatchers() {
+        // Given
+        assertThat(adapter.containsProfanity("what a troll")).isFalse();
+        properties.setDictionaries(Map.of("en", List.of("troll")));
+        
+        // When
+        adapter.reload();
+        
+        // Then
+        assertThat(adapter.containsProfanity("what a troll")).isTrue();
+        assertThat(adapter.containsProfanity("badword")).isFalse();
+    }
+}
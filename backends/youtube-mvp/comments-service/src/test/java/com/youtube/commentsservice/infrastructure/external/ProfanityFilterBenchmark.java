@@ -0,0 +1,132 @@
+package com.youtube.commentsservice.infrastructure.external;
+
+import com.youtube.commentsservice.domain.services.ProfanityFilterPort;
+import com.youtube.commentsservice.infrastructure.config.ProfanityFilterProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * JMH benchmark for profanity checks on a typical comment across dictionary sizes.
+ * 
+ * <p>{@code dictionary} is {@link DictionaryProfanityFilterAdapter}; {@code naive} is the
+ * previous adapter's algorithm (a {@code String.contains} per term, then a {@code replaceAll}
+ * per term) over the same terms. {@link #clean} is the common case of a comment without any
+ * term, {@link #dirty} a comment that needs masking.</p>
+ * 
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="com.youtube.commentsservice.infrastructure.external.ProfanityFilterBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProfanityFilterBenchmark {
+    
+    private static final String CLEAN = "Great breakdown of the build, the part about cable management "
+            + "at 12:40 saved me a lot of time. Could you do a follow-up on cooling for small cases?";
+    
+    @Param({"10", "1000", "100000"})
+    public int terms;
+    
+    @Param({"dictionary", "naive"})
+    public String filter;
+    
+    private ProfanityFilterPort port;
+    private String dirty;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        // Terms of 6 to 10 letters from 'q'..'z', which the comment text never spells
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>(terms);
+        for (int i = 0; i < terms; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 6 + random.nextInt(5);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('q' + random.nextInt(10)));
+            }
+            words.add(word.toString());
+        }
+        dirty = CLEAN + " " + words.get(terms / 2) + "!";
+        
+        if ("naive".equals(filter)) {
+            port = new NaiveProfanityFilter(new HashSet<>(words));
+        } else {
+            ProfanityFilterProperties properties = new ProfanityFilterProperties();
+            properties.setDictionaries(Map.of("en", words));
+            port = new DictionaryProfanityFilterAdapter(properties);
+        }
+    }
+    
+    @Benchmark
+    public String clean() {
+        return port.filterProfanity(CLEAN);
+    }
+    
+    @Benchmark
+    public String dirty() {
+        return port.filterProfanity(dirty);
+    }
+    
+    /**
+     * The algorithm of the adapter {@link DictionaryProfanityFilterAdapter} replaced.
+     */
+    static class NaiveProfanityFilter implements ProfanityFilterPort {
+        
+        private final Set<String> words;
+        
+        NaiveProfanityFilter(Set<String> words) {
+            this.words = words;
+        }
+        
+        @Override
+        public boolean containsProfanity(String text) {
+            String lowercase = text.toLowerCase();
+            return words.stream().anyMatch(lowercase::contains);
+        }
+        
+        @Override
+        public boolean containsProfanity(String text, Locale locale) {
+            return containsProfanity(text);
+        }
+        
+        @Override
+        public String filterProfanity(String text) {
+            if (!containsProfanity(text)) {
+                return text;
+            }
+            String filtered = text;
+            for (String word : words) {
+                filtered = filtered.replaceAll("(?i)" + Pattern.quote(word), "****");
+            }
+            return filtered;
+        }
+        
+        @Override
+        public String filterProfanity(String text, Locale locale) {
+            return filterProfanity(text);
+        }
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(ProfanityFilterBenchmark.class.getSimpleName())
+            .forks(1)
+            .warmupIterations(3)
+            .measurementIterations(5)
+            .build();
+        
+        new Runner(opt).run();
+    }
+}
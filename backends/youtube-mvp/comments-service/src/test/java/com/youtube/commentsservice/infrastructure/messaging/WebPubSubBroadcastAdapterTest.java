@@ -0,0 +1,129 @@
+package com.youtube.commentsservice.infrastructure.messaging;
+
+import com.azure.messaging.webpubsub.WebPubSubServiceClient;
+import com.azure.messaging.webpubsub.models.WebPubSubContentType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtube.commentsservice.domain.entities.Comment;
+import com.youtube.commentsservice.domain.entities.CommentStatus;
+import com.youtube.commentsservice.infrastructure.config.BroadcastProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebPubSubBroadcastAdapterTest {
+    
+    @Mock
+    private WebPubSubServiceClient pubSubClient;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BroadcastProperties properties;
+    private WebPubSubBroadcastAdapter adapter;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new BroadcastProperties();
+        // Sends happen only when a test asks for them
+        properties.setFlushInterval(Duration.ofHours(1));
+        properties.setMaxBatchEvents(100);
+        adapter = new WebPubSubBroadcastAdapter(pubSubClient, objectMapper, properties, meterRegistry);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        adapter.close();
+    }
+    
+    @Test
+    void sendPending_EventsForSameVideo_ShouldSendOneEnvelopeInOrder() throws Exception {
+        // Given
+        adapter.broadcastCommentCreated(comment("comment-1", "He said \"hi\"\n</script>"));
+        adapter.broadcastCommentCreated(comment("comment-2", "Second"));
+        adapter.broadcastCommentDeleted("video-1", "comment-1");
+        
+        // When
+        adapter.sendPending();
+        
+        // Then
+        ArgumentCaptor<String> envelope = ArgumentCaptor.forClass(String.class);
+        verify(pubSubClient).sendToGroup(eq("video-video-1"), envelope.capture(), eq(WebPubSubContentType.APPLICATION_JSON));
+        JsonNode json = objectMapper.readTree(envelope.getValue());
+        assertThat(json.get("event").asText()).isEqualTo("commentBatch");
+        assertThat(json.get("dropped").asInt()).isZero();
+        assertThat(json.get("events")).hasSize(3);
+        assertThat(json.get("events").get(0).get("text").asText()).isEqualTo("He said \"hi\"\n</script>");
+        assertThat(json.get("events").get(1).get("id").asText()).isEqualTo("comment-2");
+        assertThat(json.get("events").get(2).get("event").asText()).isEqualTo("commentDeleted");
+        assertThat(meterRegistry.summary("comments.broadcast.batch.size").totalAmount()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("comments.broadcast.queue.depth").gauge().value()).isZero();
+    }
+    
+    @Test
+    void broadcast_QueueFull_ShouldDropOldestCommentsAndReportThem() throws Exception {
+        // Given
+        properties.setMaxQueuedEvents(2);
+        adapter.broadcastCommentCreated(comment("comment-1", "One"));
+        adapter.broadcastCommentDeleted("video-1", "comment-0");
+        adapter.broadcastCommentCreated(comment("comment-2", "Two"));
+        adapter.broadcastCommentCreated(comment("comment-3", "Three"));
+        
+        // When
+        adapter.sendPending();
+        
+        // Then
+        ArgumentCaptor<String> envelope = ArgumentCaptor.forClass(String.class);
+        verify(pubSubClient).sendToGroup(anyString(), envelope.capture(), any(WebPubSubContentType.class));
+        JsonNode json = objectMapper.readTree(envelope.getValue());
+        assertThat(json.get("dropped").asInt()).isEqualTo(2);
+        assertThat(json.get("events")).hasSize(2);
+        assertThat(json.get("events").get(0).get("commentId").asText()).isEqualTo("comment-0");
+        assertThat(json.get("events").get(1).get("id").asText()).isEqualTo("comment-3");
+        assertThat(meterRegistry.counter("comments.broadcast.dropped").count()).isEqualTo(2.0);
+    }
+    
+    @Test
+    void sendPending_SendFails_ShouldCountFailureAndNotThrow() {
+        // Given
+        doThrow(new RuntimeException("Service unavailable"))
+                .when(pubSubClient).sendToGroup(anyString(), anyString(), any(WebPubSubContentType.class));
+        adapter.broadcastCommentDeleted("video-1", "comment-1");
+        
+        // When
+        adapter.sendPending();
+        adapter.sendPending();
+        
+        // Then
+        verify(pubSubClient, times(1)).sendToGroup(anyString(), anyString(), any(WebPubSubContentType.class));
+        assertThat(meterRegistry.counter("comments.broadcast.send.failures").count()).isEqualTo(1.0);
+    }
+    
+    private static Comment comment(String id, String text) {
+        return Comment.builder()
+                .id(id)
+                .videoId("video-1")
+                .authorId("user-1")
+                .text(text)
+                .status(CommentStatus.ACTIVE)
+                .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .updatedAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .reactions(new HashMap<>())
+                .build();
+    }
+}
@@ -0,0 +1,234 @@
+package com.youtube.commentsservice.infrastructure.persistence;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.azure.cosmos.util.CosmosPagedIterable;
+import com.azure.spring.data.cosmos.core.convert.ObjectMapperFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.youtube.commentsservice.domain.entities.Comment;
+import com.youtube.commentsservice.domain.entities.CommentStatus;
+import com.youtube.commentsservice.infrastructure.config.HotThreadCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the hot thread cache's Lua scripts against a real Redis, one test per UPSERT branch.
+ */
+@Testcontainers
+class HotThreadCacheRedisTest {
+    
+    private static final String RANK_KEY = "hot-threads:{video-1}:rank";
+    private static final String ITEMS_KEY = "hot-threads:{video-1}:items";
+    private static final String LOADED_KEY = "hot-threads:{video-1}:loaded";
+    
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+    
+    private final CosmosContainer container = mock(CosmosContainer.class);
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private HotThreadCacheProperties properties;
+    private HotThreadCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        
+        properties = new HotThreadCacheProperties();
+        properties.setThreads(3);
+        // Every read goes to Redis, so the tests see what the scripts wrote
+        properties.setLocalTtl(Duration.ZERO);
+        cache = new HotThreadCache(redisTemplate, container, properties, new SimpleMeterRegistry());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+    
+    @Test
+    void onCommentCreated_VideoNotCached_ShouldNotCreateEntry() {
+        // When
+        cache.onCommentCreated(comment("comment-1", 5, 1));
+        
+        // Then
+        assertThat(redisTemplate.hasKey(RANK_KEY)).isFalse();
+        assertThat(redisTemplate.hasKey(ITEMS_KEY)).isFalse();
+    }
+    
+    @Test
+    void onCommentCreated_CompleteSetWithRoom_ShouldInsertInRankOrder() {
+        // Given
+        givenCosmosReturns(comment("comment-1", 4, 1), comment("comment-2", 1, 2));
+        cache.getTopThreads("video-1", 3);
+        
+        // When
+        cache.onCommentCreated(comment("comment-3", 2, 3));
+        
+        // Then
+        assertThat(cache.getTopThreads("video-1", 3)).extracting(CommentDocument::getId)
+                .containsExactly("comment-1", "comment-3", "comment-2");
+        assertThat(redisTemplate.opsForValue().get(LOADED_KEY)).isEqualTo("complete");
+        verify(container, times(1)).queryItems(any(SqlQuerySpec.class), any(CosmosQueryRequestOptions.class),
+                eq(JsonNode.class));
+    }
+    
+    @Test
+    void onReactionCountsChanged_CachedComment_ShouldMoveItWithoutDuplicating() {
+        // Given
+        givenCosmosReturns(comment("comment-1", 4, 1), comment("comment-2", 1, 2));
+        cache.getTopThreads("video-1", 3);
+        
+        // When
+        cache.onReactionCountsChanged(comment("comment-2", 9, 2));
+        
+        // Then
+        assertThat(cache.getTopThreads("video-1", 3)).extracting(CommentDocument::getId)
+                .containsExactly("comment-2", "comment-1");
+        assertThat(redisTemplate.opsForZSet().zCard(RANK_KEY)).isEqualTo(2L);
+    }
+    
+    @Test
+    void onCommentCreated_CompleteSetFull_ShouldTrimLowestAndMarkPartial() {
+        // Given
+        givenCosmosReturns(comment("comment-1", 4, 1), comment("comment-2", 1, 2));
+        cache.getTopThreads("video-1", 3);
+        cache.onCommentCreated(comment("comment-3", 3, 3));
+        
+        // When
+        cache.onCommentCreated(comment("comment-4", 2, 4));
+        
+        // Then
+        assertThat(redisTemplate.opsForValue().get(LOADED_KEY)).isEqualTo("partial");
+        assertThat(redisTemplate.opsForZSet().zCard(RANK_KEY)).isEqualTo(3L);
+        assertThat(redisTemplate.<String, String>opsForHash().keys(ITEMS_KEY))
+                .containsExactlyInAnyOrder("comment-1", "comment-3", "comment-4");
+        assertThat(redisTemplate.getExpire(LOADED_KEY)).isPositive();
+    }
+    
+    @Test
+    void onCommentCreated_PartialSetRankingAtBottom_ShouldDropIt() {
+        // Given
+        givenCosmosReturns(comment("comment-1", 4, 1), comment("comment-2", 3, 2), comment("comment-3", 2, 3));
+        cache.getTopThreads("video-1", 3);
+        assertThat(redisTemplate.opsForValue().get(LOADED_KEY)).isEqualTo("partial");
+        
+        // When
+        cache.onCommentCreated(comment("comment-4", 0, 4));
+        
+        // Then
+        assertThat(redisTemplate.<String, String>opsForHash().keys(ITEMS_KEY))
+                .containsExactlyInAnyOrder("comment-1", "comment-2", "comment-3");
+        assertThat(redisTemplate.opsForZSet().zCard(RANK_KEY)).isEqualTo(3L);
+    }
+    
+    @Test
+    void onReactionCountsChanged_PartialSetFallingToBottom_ShouldDropItAndMissNextRead() {
+        // Given
+        givenCosmosReturns(comment("comment-1", 4, 1), comment("comment-2", 3, 2), comment("comment-3", 2, 3));
+        cache.getTopThreads("video-1", 3);
+        
+        // When
+        cache.onReactionCountsChanged(comment("comment-1", 0, 1));
+        
+        // Then
+        assertThat(redisTemplate.<String, String>opsForHash().keys(ITEMS_KEY))
+                .containsExactlyInAnyOrder("comment-2", "comment-3");
+        // Two cached comments no longer cover a page of three, so the next read reloads
+        cache.getTopThreads("video-1", 3);
+        verify(container, times(2)).queryItems(any(SqlQuerySpec.class), any(CosmosQueryRequestOptions.class),
+                eq(JsonNode.class));
+    }
+    
+    @Test
+    void onCommentCreated_PartialSetRankingAboveBottom_ShouldInsertAndTrim() {
+        // Given
+        givenCosmosReturns(comment("comment-1", 4, 1), comment("comment-2", 3, 2), comment("comment-3", 2, 3));
+        cache.getTopThreads("video-1", 3);
+        
+        // When
+        cache.onCommentCreated(comment("comment-4", 5, 4));
+        
+        // Then
+        assertThat(cache.getTopThreads("video-1", 3)).extracting(CommentDocument::getId)
+                .containsExactly("comment-4", "comment-1", "comment-2");
+        assertThat(redisTemplate.<String, String>opsForHash().keys(ITEMS_KEY)).doesNotContain("comment-3");
+        assertThat(redisTemplate.opsForValue().get(LOADED_KEY)).isEqualTo("partial");
+    }
+    
+    @Test
+    void maintain_MoreVideosThanRedisHolds_ShouldEvictLeastViewed() {
+        // Given
+        properties.setMaxRedisVideos(1);
+        givenCosmosReturns(comment("comment-1", 1, 1));
+        cache.getTopThreads("video-1", 3);
+        cache.getTopThreads("video-1", 3);
+        cache.getTopThreads("video-2", 3);
+        assertThat(redisTemplate.hasKey("hot-threads:{video-2}:rank")).isTrue();
+        
+        // When
+        cache.maintain();
+        
+        // Then
+        assertThat(redisTemplate.hasKey("hot-threads:{video-2}:rank")).isFalse();
+        assertThat(redisTemplate.hasKey("hot-threads:{video-2}:loaded")).isFalse();
+        assertThat(redisTemplate.hasKey(RANK_KEY)).isTrue();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void givenCosmosReturns(Comment... comments) {
+        List<JsonNode> nodes = Arrays.stream(comments)
+                .map(comment -> (JsonNode) ObjectMapperFactory.getObjectMapper()
+                        .valueToTree(CommentDocument.fromEntity(comment)))
+                .toList();
+        FeedResponse<JsonNode> page = mock(FeedResponse.class);
+        when(page.getResults()).thenReturn(nodes);
+        CosmosPagedIterable<JsonNode> results = mock(CosmosPagedIterable.class);
+        when(results.iterableByPage()).thenReturn(List.of(page));
+        when(container.queryItems(any(SqlQuerySpec.class), any(CosmosQueryRequestOptions.class), eq(JsonNode.class)))
+                .thenReturn(results);
+    }
+    
+    private static Comment comment(String id, int reactions, int minute) {
+        Instant createdAt = Instant.parse("2024-01-01T00:00:00Z").plusSeconds(60L * minute);
+        return Comment.builder()
+                .id(id)
+                .videoId("video-1")
+                .authorId("user-1")
+                .text("First!")
+                .status(CommentStatus.ACTIVE)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .reactions(new HashMap<>())
+                .totalReactionCount(reactions)
+                .build();
+    }
+}
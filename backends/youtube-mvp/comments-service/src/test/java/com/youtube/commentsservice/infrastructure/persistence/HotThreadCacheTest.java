@@ -0,0 +1,93 @@
+package com.youtube.commentsservice.infrastructure.persistence;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.spring.data.cosmos.core.convert.ObjectMapperFactory;
+import com.youtube.commentsservice.domain.entities.Comment;
+import com.youtube.commentsservice.domain.entities.CommentStatus;
+import com.youtube.commentsservice.infrastructure.config.HotThreadCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotThreadCacheTest {
+    
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    
+    @Mock
+    private CosmosContainer container;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HotThreadCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        cache = new HotThreadCache(redisTemplate, container, new HotThreadCacheProperties(), meterRegistry);
+    }
+    
+    @Test
+    void getTopThreads_CachedInRedis_ShouldServeRepeatedLoadsFromMemory() throws Exception {
+        // Given
+        String json = ObjectMapperFactory.getObjectMapper().writeValueAsString(
+                CommentDocument.fromEntity(comment("comment-1", null)));
+        when(redisTemplate.execute(any(RedisScript.class), anyList())).thenReturn(List.of("complete", json));
+        
+        // When
+        List<CommentDocument> first = cache.getTopThreads("video-1", 21);
+        List<CommentDocument> second = cache.getTopThreads("video-1", 21);
+        
+        // Then
+        assertThat(first).extracting(CommentDocument::getId).containsExactly("comment-1");
+        assertThat(second).extracting(CommentDocument::getId).containsExactly("comment-1");
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList());
+        verifyNoInteractions(container);
+        assertThat(meterRegistry.counter("comments.hot_threads.requests", "result", "redis").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("comments.hot_threads.requests", "result", "local").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("comments.hot_threads.hit.ratio").gauge().value()).isEqualTo(1.0);
+    }
+    
+    @Test
+    void onCommentCreated_Reply_ShouldNotTouchCache() {
+        // When
+        cache.onCommentCreated(comment("reply-1", "comment-1"));
+        
+        // Then
+        verifyNoInteractions(redisTemplate);
+    }
+    
+    @Test
+    void serves_PageLargerThanCachedThreads_ShouldNotBeServed() {
+        // Then
+        assertThat(cache.serves(50)).isTrue();
+        assertThat(cache.serves(51)).isFalse();
+    }
+    
+    private static Comment comment(String id, String parentId) {
+        return Comment.builder()
+                .id(id)
+                .videoId("video-1")
+                .authorId("user-1")
+                .parentId(parentId)
+                .text("First!")
+                .status(CommentStatus.ACTIVE)
+                .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .updatedAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .reactions(new HashMap<>())
+                .build();
+    }
+}
@@ -0,0 +1,165 @@
+package com.youtube.commentsservice.infrastructure.persistence;
+
+import com.youtube.commentsservice.infrastructure.persistence.CosmosReactionCounterStore.CounterWrite;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Thousands of users reacting to one comment at once, with flushes running concurrently:
+ * the counters must end up exact while the store sees only a handful of merged writes,
+ * even when writes fail or time out after being applied.
+ */
+class ReactionCounterBufferLoadTest {
+    
+    private static final String COMMENT_ID = "viral-comment";
+    private static final int REACTORS = 5000;
+    
+    private final Map<String, LongAdder> storedCounts = new ConcurrentHashMap<>();
+    private final Set<String> appliedWrites = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger storeWrites = new AtomicInteger();
+    private CosmosReactionCounterStore counterStore;
+    private ReactionCountAggregator aggregator;
+    private ReactionCounterBuffer buffer;
+    
+    @BeforeEach
+    void setUp() {
+        counterStore = mock(CosmosReactionCounterStore.class);
+        aggregator = mock(ReactionCountAggregator.class);
+        when(counterStore.prepare(anyString(), anyMap())).thenAnswer(invocation ->
+                new CounterWrite(invocation.getArgument(0), 0, UUID.randomUUID().toString(), invocation.getArgument(1)));
+        doAnswer(invocation -> {
+            CounterWrite write = invocation.getArgument(0);
+            int attempt = storeWrites.incrementAndGet();
+            // Fail a couple of writes to exercise retrying them
+            if (attempt % 7 == 0) {
+                throw new RuntimeException("Request rate is large");
+            }
+            // Like the store, skip a write whose id was already applied
+            if (appliedWrites.add(write.writeId())) {
+                write.deltas().forEach((type, delta) -> storedCounts.computeIfAbsent(type, key -> new LongAdder()).add(delta));
+            }
+            if (attempt % 11 == 0) {
+                throw new RuntimeException("Request timed out");
+            }
+            return null;
+        }).when(counterStore).add(any(CounterWrite.class));
+        buffer = new ReactionCounterBuffer(counterStore, aggregator, new SimpleMeterRegistry());
+    }
+    
+    @Test
+    void concurrentReactorsOnOneComment_ShouldCountExactlyWithFewWrites() throws Exception {
+        // Given
+        Set<String> records = ConcurrentHashMap.newKeySet(); // stands in for the per-user records
+        ExecutorService reactors = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(REACTORS);
+        AtomicBoolean flushing = new AtomicBoolean(true);
+        Thread flusher = new Thread(() -> {
+            while (flushing.get()) {
+                buffer.flush();
+                sleep(5);
+            }
+        });
+        
+        // When
+        for (int i = 0; i < REACTORS; i++) {
+            String userId = "user-" + i;
+            int user = i;
+            reactors.submit(() -> {
+                try {
+                    start.await();
+                    react(records, userId, "like");
+                    react(records, userId, "like"); // retried request
+                    if (user % 5 < 2) {
+                        react(records, userId, "love");
+                    }
+                    if (user % 10 == 0) {
+                        unreact(records, userId, "like");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        flusher.start();
+        start.countDown();
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        flushing.set(false);
+        flusher.join();
+        reactors.shutdown();
+        drain();
+        
+        // Then
+        assertThat(storedCounts.get("like").sum()).isEqualTo(REACTORS - REACTORS / 10);
+        assertThat(storedCounts.get("love").sum()).isEqualTo(REACTORS * 2 / 5);
+        assertThat(storeWrites.get()).isLessThan(REACTORS / 10);
+        verify(aggregator, atLeastOnce()).markDirty(COMMENT_ID);
+    }
+    
+    @Test
+    void idleComment_ShouldBeEvictedAndStillCountLateIncrements() {
+        // Given
+        buffer.increment(COMMENT_ID, "like", 1);
+        buffer.flush();
+        
+        // When
+        for (int i = 0; i < 5; i++) {
+            buffer.flush();
+        }
+        buffer.increment(COMMENT_ID, "like", 1);
+        drain();
+        
+        // Then
+        assertThat(storedCounts.get("like").sum()).isEqualTo(2);
+    }
+    
+    private void react(Set<String> records, String userId, String type) {
+        if (records.add(userId + ":" + type)) {
+            buffer.increment(COMMENT_ID, type, 1);
+        }
+    }
+    
+    private void unreact(Set<String> records, String userId, String type) {
+        if (records.remove(userId + ":" + type)) {
+            buffer.increment(COMMENT_ID, type, -1);
+        }
+    }
+    
+    /**
+     * Flushes until failed writes put back into the buffer have been written too.
+     */
+    private void drain() {
+        for (int i = 0; i < 10; i++) {
+            buffer.flush();
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
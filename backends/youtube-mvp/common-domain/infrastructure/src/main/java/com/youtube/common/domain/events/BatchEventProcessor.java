@@ -0,0 +1,174 @@
+package com.youtube.common.domain.events;
+
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.youtube.common.domain.events.inbox.InboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch consumer engine on top of {@link EventProcessor}.
+ * 
+ * <p>Takes a whole receive batch from the broker and:
+ * <ul>
+ *   <li>dedupes it against the inbox with a single multi-key lookup</li>
+ *   <li>registers the remaining messages in the inbox with one batched insert</li>
+ *   <li>groups messages by session key (session ID, partition key or aggregate ID) so
+ *       messages of one key are handled in order, while different keys run concurrently
+ *       on a bounded worker pool</li>
+ *   <li>runs each message in its own transaction covering handler and inbox update</li>
+ * </ul>
+ * 
+ * <p>A failed message is recorded in the inbox in a separate transaction, after its own
+ * transaction has been rolled back.</p>
+ * 
+ * <p>The caller settles messages with the broker based on the returned {@link BatchResult}.
+ * After the first failure within a session key, the remaining messages of that key are
+ * reported as failed without being processed so that redelivery preserves order.</p>
+ */
+@Component
+public class BatchEventProcessor {
+    
+    private static final Logger log = LoggerFactory.getLogger(BatchEventProcessor.class);
+    
+    private final EventProcessor eventProcessor;
+    private final InboxRepository inboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate failureTemplate;
+    private final ExecutorService workers;
+    
+    public BatchEventProcessor(
+        EventProcessor eventProcessor,
+        InboxRepository inboxRepository,
+        PlatformTransactionManager transactionManager,
+        @Value("${inbox.consumer.max-concurrency:8}") int maxConcurrency
+    ) {
+        this.eventProcessor = eventProcessor;
+        this.inboxRepository = inboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.failureTemplate = new TransactionTemplate(transactionManager);
+        this.failureTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, maxConcurrency), runnable -> {
+            Thread thread = new Thread(runnable, "inbox-worker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Processes a batch of messages received from Azure Service Bus.
+     * 
+     * @param messages the received messages, in broker order
+     * @return which messages can be completed and which should be abandoned
+     */
+    public BatchResult process(List<ServiceBusReceivedMessage> messages) {
+        if (messages.isEmpty()) {
+            return new BatchResult(List.of(), List.of());
+        }
+        
+        // One inbox round-trip for the whole batch
+        Set<String> alreadyProcessed = inboxRepository.findProcessedIds(
+            messages.stream().map(ServiceBusReceivedMessage::getMessageId).toList());
+        
+        List<ServiceBusReceivedMessage> completed = Collections.synchronizedList(new ArrayList<>(messages.size()));
+        List<ServiceBusReceivedMessage> failed = Collections.synchronizedList(new ArrayList<>());
+        
+        Map<String, List<ServiceBusReceivedMessage>> bySessionKey = new LinkedHashMap<>();
+        for (ServiceBusReceivedMessage message : messages) {
+            if (alreadyProcessed.contains(message.getMessageId())) {
+                log.debug("Message {} already processed, skipping", message.getMessageId());
+                completed.add(message);
+            } else {
+                bySessionKey.computeIfAbsent(sessionKey(message), k -> new ArrayList<>()).add(message);
+            }
+        }
+        
+        List<String> pending = bySessionKey.values().stream()
+            .flatMap(List::stream)
+            .map(ServiceBusReceivedMessage::getMessageId)
+            .toList();
+        try {
+            inboxRepository.beginProcessAll(pending);
+        } catch (Exception e) {
+            log.error("Failed to register {} messages in the inbox, abandoning them", pending.size(), e);
+            bySessionKey.values().forEach(failed::addAll);
+            return new BatchResult(List.copyOf(completed), List.copyOf(failed));
+        }
+        
+        List<CompletableFuture<Void>> futures = new ArrayList<>(bySessionKey.size());
+        for (List<ServiceBusReceivedMessage> group : bySessionKey.values()) {
+            futures.add(CompletableFuture.runAsync(() -> processInOrder(group, completed, failed), workers));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        
+        return new BatchResult(List.copyOf(completed), List.copyOf(failed));
+    }
+    
+    private void processInOrder(List<ServiceBusReceivedMessage> group,
+                                List<ServiceBusReceivedMessage> completed,
+                                List<ServiceBusReceivedMessage> failed) {
+        for (int i = 0; i < group.size(); i++) {
+            ServiceBusReceivedMessage message = group.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> eventProcessor.processRegistered(message));
+                completed.add(message);
+            } catch (Exception e) {
+                log.error("Failed to process message {}, abandoning it and the rest of its session key", message.getMessageId(), e);
+                recordFailure(message, e);
+                failed.addAll(group.subList(i, group.size()));
+                return;
+            }
+        }
+    }
+    
+    private void recordFailure(ServiceBusReceivedMessage message, Exception cause) {
+        try {
+            failureTemplate.executeWithoutResult(status ->
+                inboxRepository.recordFailure(message.getMessageId(), cause.getMessage()));
+        } catch (Exception e) {
+            log.warn("Failed to record the failure of message {} in the inbox", message.getMessageId(), e);
+        }
+    }
+    
+    private static String sessionKey(ServiceBusReceivedMessage message) {
+        if (message.getSessionId() != null) {
+            return message.getSessionId();
+        }
+        if (message.getPartitionKey() != null) {
+            return message.getPartitionKey();
+        }
+        Object aggregateId = message.getApplicationProperties().get("aggregateId");
+        return aggregateId != null ? aggregateId.toString() : message.getMessageId();
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+    
+    /**
+     * Outcome of a batch: messages to complete and messages to abandon.
+     */
+    public record BatchResult(
+        List<ServiceBusReceivedMessage> completed,
+        List<ServiceBusReceivedMessage> failed
+    ) {}
+}
@@ -12,6 +12,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for processing events from Azure Service Bus with inbox idempotency.
@@ -27,6 +31,7 @@ public class EventProcessor {
     private final UnitOfWork unitOfWork;
     private final TraceProvider traceProvider;
     private final ObjectMapper objectMapper;
+    private final Map<String, EventReader> readers = new ConcurrentHashMap<>();
     
     public EventProcessor(
         InboxRepository inboxRepository,
@@ -73,29 +78,11 @@ public class EventProcessor {
             unitOfWork.begin();
             
             try {
-                // Get event type from message properties for proper deserialization
-                String eventType = (String) message.getApplicationProperties().get("eventType");
-                
-                // Deserialize event
-                DomainEvent event = deserializeEvent(message.getBody().toString(), eventType);
-                
-                // Resolve handler
-                EventRouter.EventHandler<DomainEvent> handler = eventRouter.resolveHandler(event);
-                if (handler == null) {
-                    throw new IllegalArgumentException("No handler found for event type: " + event.getEventType());
-                }
-                
-                // Handle event
-                handler.handle(event, correlationId);
+                handle(message, correlationId);
                 
                 // Commit transaction
                 unitOfWork.commit();
                 
-                // Mark as processed
-                inboxRepository.markProcessed(messageId);
-                
-                log.info("Successfully processed event {} with message ID {}", event.getEventType(), messageId);
-                
             } catch (Exception e) {
                 // Rollback transaction
                 unitOfWork.rollback(e);
@@ -116,42 +103,97 @@ public class EventProcessor {
         }
     }
     
-    private DomainEvent deserializeEvent(String payload, String eventType) {
+    /**
+     * Processes a message whose inbox row was already created by
+     * {@link InboxRepository#beginProcessAll}, in the caller's transaction.
+     * 
+     * <p>A failure is rethrown without being recorded: the caller's transaction is rolled back,
+     * so the caller records it with {@link InboxRepository#recordFailure} in a new one.</p>
+     * 
+     * @param message the Service Bus message
+     */
+    public void processRegistered(ServiceBusReceivedMessage message) {
+        String correlationId = message.getCorrelationId();
+        String traceparent = (String) message.getApplicationProperties().get("traceparent");
+        
+        Span span = traceProvider.startSpan("handle event", traceparent);
+        
         try {
-            // If eventType is provided, try to resolve the concrete event class
-            if (eventType != null && !eventType.isBlank()) {
-                Class<? extends DomainEvent> eventClass = resolveEventClass(eventType);
-                if (eventClass != null) {
-                    return objectMapper.readValue(payload, eventClass);
-                }
-                
-                // If not found in common-domain, try to deserialize using ObjectMapper's
-                // registered subtypes. ObjectMapper will use the registered subtypes
-                // if the JSON contains type information or if we use TypeReference.
-                // For now, try to deserialize as the registered subtype.
-                // Note: This requires services to register subtypes via ObjectMapper.registerSubtypes()
-            }
-            
-            // Fallback: Try to deserialize as generic DomainEvent
-            // This will work if ObjectMapper has registered subtypes and can infer the type
-            // from the JSON structure or if @JsonTypeInfo is present on DomainEvent
-            try {
-                return objectMapper.readValue(payload, DomainEvent.class);
-            } catch (Exception e) {
-                // If generic deserialization fails, try using a TypeReference approach
-                // or throw a more descriptive error
-                throw new RuntimeException(
-                    "Failed to deserialize event. EventType: " + eventType + 
-                    ". Make sure the event class is registered via ObjectMapper.registerSubtypes() " +
-                    "or add @JsonTypeInfo to DomainEvent base class.", e);
+            if (correlationId != null) {
+                CorrelationContext.setCorrelationId(correlationId);
             }
-        } catch (RuntimeException e) {
+            unitOfWork.begin();
+            handle(message, correlationId);
+        } catch (Exception e) {
+            log.error("Failed to process event with message ID {}", message.getMessageId(), e);
+            traceProvider.endSpan(span, e);
             throw e;
+        } finally {
+            traceProvider.endSpan(span);
+            CorrelationContext.clear();
+        }
+    }
+    
+    /**
+     * Deserializes the event, runs its handler and marks the message processed.
+     */
+    private void handle(ServiceBusReceivedMessage message, String correlationId) {
+        // Get event type from message properties for proper deserialization
+        String eventType = (String) message.getApplicationProperties().get("eventType");
+        
+        // Deserialize event
+        DomainEvent event = deserializeEvent(message.getBody().toString(), eventType);
+        
+        // Resolve handler
+        EventRouter.EventHandler<DomainEvent> handler = eventRouter.resolveHandler(event);
+        if (handler == null) {
+            throw new IllegalArgumentException("No handler found for event type: " + event.getEventType());
+        }
+        
+        // Handle event
+        handler.handle(event, correlationId);
+        
+        // Mark as processed
+        inboxRepository.markProcessed(message.getMessageId());
+        
+        log.info("Successfully processed event {} with message ID {}", event.getEventType(), message.getMessageId());
+    }
+    
+    private DomainEvent deserializeEvent(String payload, String eventType) {
+        EventReader eventReader = readerFor(eventType);
+        try {
+            return eventReader.reader().readValue(payload);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to deserialize event: " + eventType, e);
+            if (eventReader.resolved()) {
+                throw new RuntimeException("Failed to deserialize event: " + eventType, e);
+            }
+            // Generic DomainEvent deserialization only works if ObjectMapper has registered
+            // subtypes or if @JsonTypeInfo is present on DomainEvent
+            throw new RuntimeException(
+                "Failed to deserialize event. EventType: " + eventType + 
+                ". Make sure the event class is registered via ObjectMapper.registerSubtypes() " +
+                "or add @JsonTypeInfo to DomainEvent base class.", e);
         }
     }
     
+    /**
+     * Returns the cached reader for an event type, resolving the event class on first use.
+     * Avoids the class lookup and reader construction on every message.
+     */
+    private EventReader readerFor(String eventType) {
+        String key = eventType != null ? eventType : "";
+        return readers.computeIfAbsent(key, type -> {
+            Class<? extends DomainEvent> eventClass = type.isBlank() ? null : resolveEventClass(type);
+            if (eventClass != null) {
+                return new EventReader(objectMapper.readerFor(eventClass), true);
+            }
+            // Fallback: deserialize as generic DomainEvent via registered subtypes
+            return new EventReader(objectMapper.readerFor(DomainEvent.class), false);
+        });
+    }
+    
+    private record EventReader(ObjectReader reader, boolean resolved) {}
+    
     /**
      * Resolves the concrete event class from event type.
      * Uses reflection to load classes from common-domain event contracts.
@@ -3,7 +3,10 @@ package com.youtube.common.domain.events.inbox;
 import com.youtube.common.domain.persistence.entity.InboxMessage;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository interface for inbox messages.
@@ -20,6 +23,21 @@ public interface InboxRepository {
      */
     boolean beginProcess(String messageId);
     
+    /**
+     * Registers a batch of received messages, inserting an inbox row for each one that has none yet.
+     * Rows of earlier, failed attempts are left as they are so the message can be processed again.
+     * 
+     * <p>The default implementation calls {@link #beginProcess} per message;
+     * JPA-backed implementations override it with one lookup and one batched insert.</p>
+     * 
+     * @param messageIds the message IDs of the batch, none of them processed yet
+     */
+    default void beginProcessAll(Collection<String> messageIds) {
+        for (String messageId : messageIds) {
+            beginProcess(messageId);
+        }
+    }
+    
     /**
      * Marks a message as successfully processed.
      * 
@@ -43,6 +61,17 @@ public interface InboxRepository {
      */
     Optional<InboxMessage> findById(String messageId);
     
+    /**
+     * Deletes up to {@code limit} messages processed before the cutoff, oldest first.
+     * The cutoff must be older than the broker's redelivery window, otherwise a late
+     * duplicate would no longer be recognised.
+     * 
+     * @param cutoff messages processed before this instant are deleted
+     * @param limit maximum number of rows deleted in this call
+     * @return number of rows deleted
+     */
+    int purgeProcessedBefore(Instant cutoff, int limit);
+    
     /**
      * Checks if a message has been processed.
      * 
@@ -50,5 +79,25 @@ public interface InboxRepository {
      * @return true if processed, false otherwise
      */
     boolean isProcessed(String messageId);
+    
+    /**
+     * Returns which of the given messages have already been processed.
+     * Lets batch consumers dedupe a whole receive batch with one lookup.
+     * 
+     * <p>The default implementation calls {@link #isProcessed} per message;
+     * JPA-backed implementations override it with a single {@code IN (...)} query.</p>
+     * 
+     * @param messageIds the message IDs to check
+     * @return the subset of IDs that are already processed
+     */
+    default Set<String> findProcessedIds(Collection<String> messageIds) {
+        Set<String> processed = new HashSet<>();
+        for (String messageId : messageIds) {
+            if (isProcessed(messageId)) {
+                processed.add(messageId);
+            }
+        }
+        return processed;
+    }
 }
 
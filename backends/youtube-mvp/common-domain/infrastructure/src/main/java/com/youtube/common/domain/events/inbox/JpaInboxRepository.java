@@ -2,11 +2,17 @@ package com.youtube.common.domain.events.inbox;
 
 import com.youtube.common.domain.persistence.entity.InboxMessage;
 import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * JPA implementation of InboxRepository.
@@ -43,6 +49,35 @@ public abstract class JpaInboxRepository implements InboxRepository {
         }
     }
     
+    @Override
+    @Transactional
+    public void beginProcessAll(Collection<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return;
+        }
+        
+        Set<String> known = new HashSet<>(entityManager.createQuery(
+                "SELECT m.messageId FROM " + entityClass.getSimpleName() + " m WHERE m.messageId IN :ids", String.class)
+            .setParameter("ids", messageIds)
+            .getResultList());
+        
+        // Send the inserts as one JDBC batch on flush
+        entityManager.unwrap(Session.class).setJdbcBatchSize(messageIds.size());
+        Instant now = Instant.now();
+        for (String messageId : new LinkedHashSet<>(messageIds)) {
+            if (known.contains(messageId)) {
+                continue;
+            }
+            InboxMessage message = createInboxMessage();
+            message.setMessageId(messageId);
+            message.setFirstSeenAt(now);
+            message.setAttempts(1);
+            message.setLastAttemptAt(now);
+            entityManager.persist(message);
+        }
+        entityManager.flush();
+    }
+    
     @Override
     @Transactional
     public void markProcessed(String messageId) {
@@ -63,6 +98,25 @@ public abstract class JpaInboxRepository implements InboxRepository {
         }
     }
     
+    @Override
+    @Transactional
+    public int purgeProcessedBefore(Instant cutoff, int limit) {
+        String jpql = "SELECT m.messageId FROM " + entityClass.getSimpleName() +
+                     " m WHERE m.processedAt < :cutoff ORDER BY m.processedAt ASC";
+        
+        List<String> ids = entityManager.createQuery(jpql, String.class)
+            .setParameter("cutoff", cutoff)
+            .setMaxResults(limit)
+            .getResultList();
+        
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createQuery("DELETE FROM " + entityClass.getSimpleName() + " m WHERE m.messageId IN :ids")
+            .setParameter("ids", ids)
+            .executeUpdate();
+    }
+    
     @Override
     public Optional<InboxMessage> findById(String messageId) {
         InboxMessage message = entityManager.find(entityClass, messageId);
@@ -75,6 +129,20 @@ public abstract class JpaInboxRepository implements InboxRepository {
         return message.map(InboxMessage::isProcessed).orElse(false);
     }
     
+    @Override
+    public Set<String> findProcessedIds(Collection<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return Set.of();
+        }
+        
+        String jpql = "SELECT m.messageId FROM " + entityClass.getSimpleName() +
+                     " m WHERE m.messageId IN :ids AND m.processedAt IS NOT NULL";
+        
+        return new HashSet<>(entityManager.createQuery(jpql, String.class)
+            .setParameter("ids", messageIds)
+            .getResultList());
+    }
+    
     /**
      * Creates a new instance of the InboxMessage entity.
      * Subclasses should override this to return their specific entity type.
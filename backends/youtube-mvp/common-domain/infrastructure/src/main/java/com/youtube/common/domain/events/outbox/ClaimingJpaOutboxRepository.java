@@ -0,0 +1,165 @@
+package com.youtube.common.domain.events.outbox;
+
+import com.github.f4b6a3.ulid.UlidCreator;
+import com.youtube.common.domain.persistence.entity.OutboxEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Claim-based JPA implementation of OutboxRepository for services running several dispatcher replicas.
+ * 
+ * <p>Differences from {@link JpaOutboxRepository}:
+ * <ul>
+ *   <li>{@link #append} writes all events with a single JDBC batch insert on the current transaction's connection</li>
+ *   <li>{@link #fetchPendingBatch} claims rows with {@code SELECT ... FOR UPDATE SKIP LOCKED} and stamps a lease
+ *       ({@code claimed_by}, {@code claimed_until}), so replicas drain disjoint slices concurrently and a claimed
+ *       row stays invisible to other replicas while it is being published</li>
+ *   <li>claims are made per aggregate: a replica claims the oldest pending row of an aggregate together with
+ *       the rows queued behind it, and no other replica can claim any row of that aggregate until the oldest
+ *       is dispatched, so two replicas never publish events of the same aggregate concurrently or out of order</li>
+ * </ul>
+ * 
+ * <p>A row whose dispatch failed is retried once both its lease and its backoff
+ * ({@code next_attempt_at}) have expired. Rows claimed by a replica that crashed are
+ * picked up again once the lease expires. Only the oldest pending row of an aggregate is
+ * claimable, so while it is leased or backing off the later events of that aggregate wait.</p>
+ * 
+ * <p>The outbox table needs two extra columns (not mapped on the entity) and partial indexes on pending rows:</p>
+ * <pre>{@code
+ * ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(64);
+ * ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMPTZ;
+ * CREATE INDEX IF NOT EXISTS ix_outbox_pending ON outbox_events (created_at) WHERE dispatched_at IS NULL AND parked_at IS NULL;
+ * CREATE INDEX IF NOT EXISTS ix_outbox_pending_aggregate ON outbox_events (aggregate_id, created_at, id) WHERE dispatched_at IS NULL AND parked_at IS NULL;
+ * }</pre>
+ */
+public abstract class ClaimingJpaOutboxRepository extends JpaOutboxRepository {
+    
+    private static final Duration DEFAULT_LEASE_DURATION = Duration.ofSeconds(30);
+    
+    protected final String tableName;
+    protected final Duration leaseDuration;
+    private final String ownerId = UlidCreator.getUlid().toString();
+    
+    protected ClaimingJpaOutboxRepository(EntityManager entityManager, Class<? extends OutboxEvent> entityClass,
+                                          String tableName) {
+        this(entityManager, entityClass, tableName, DEFAULT_LEASE_DURATION);
+    }
+    
+    protected ClaimingJpaOutboxRepository(EntityManager entityManager, Class<? extends OutboxEvent> entityClass,
+                                          String tableName, Duration leaseDuration) {
+        this(entityManager, entityClass, tableName, leaseDuration, OutboxRetryPolicy.DEFAULT);
+    }
+    
+    protected ClaimingJpaOutboxRepository(EntityManager entityManager, Class<? extends OutboxEvent> entityClass,
+                                          String tableName, OutboxRetryPolicy retryPolicy) {
+        this(entityManager, entityClass, tableName, DEFAULT_LEASE_DURATION, retryPolicy);
+    }
+    
+    protected ClaimingJpaOutboxRepository(EntityManager entityManager, Class<? extends OutboxEvent> entityClass,
+                                          String tableName, Duration leaseDuration, OutboxRetryPolicy retryPolicy) {
+        super(entityManager, entityClass, retryPolicy);
+        this.tableName = tableName;
+        this.leaseDuration = leaseDuration;
+    }
+    
+    @Override
+    @Transactional
+    public void append(List<OutboxEventData> events, String correlationId, String causationId, String traceparent) {
+        if (events.isEmpty()) {
+            return;
+        }
+        
+        Timestamp now = Timestamp.from(Instant.now());
+        String sql = OutboxClaimSql.insert(tableName, payloadPlaceholder());
+        
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (OutboxEventData eventData : events) {
+                    ps.setString(1, UlidCreator.getMonotonicUlid().toString());
+                    ps.setString(2, eventData.eventType());
+                    ps.setString(3, eventData.aggregateType());
+                    ps.setString(4, eventData.aggregateId());
+                    ps.setString(5, eventData.payloadJson());
+                    ps.setString(6, correlationId);
+                    ps.setString(7, causationId);
+                    ps.setString(8, traceparent);
+                    ps.setTimestamp(9, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+    }
+    
+    @Override
+    @Transactional
+    public List<OutboxEvent> fetchPendingBatch(int limit) {
+        Instant now = Instant.now();
+        
+        @SuppressWarnings("unchecked")
+        List<Object[]> heads = entityManager.createNativeQuery(OutboxClaimSql.selectClaimable(tableName))
+            .setParameter(1, Timestamp.from(now))
+            .setParameter(2, Timestamp.from(now))
+            .setParameter(3, limit)
+            .getResultList();
+        
+        if (heads.isEmpty()) {
+            return List.of();
+        }
+        
+        // Claim whole aggregates: each claimed head brings the events queued behind it
+        List<String> ids = new ArrayList<>();
+        List<String> aggregateIds = new ArrayList<>();
+        for (Object[] head : heads) {
+            if (head[1] == null) {
+                ids.add((String) head[0]);
+            } else {
+                aggregateIds.add((String) head[1]);
+            }
+        }
+        if (!aggregateIds.isEmpty() && ids.size() < limit) {
+            Query aggregates = entityManager.createNativeQuery(OutboxClaimSql.selectAggregates(tableName, aggregateIds.size()));
+            for (int i = 0; i < aggregateIds.size(); i++) {
+                aggregates.setParameter(i + 1, aggregateIds.get(i));
+            }
+            aggregates.setParameter(aggregateIds.size() + 1, limit - ids.size());
+            @SuppressWarnings("unchecked")
+            List<String> aggregateRows = aggregates.getResultList();
+            ids.addAll(aggregateRows);
+        }
+        
+        Query lease = entityManager.createNativeQuery(OutboxClaimSql.lease(tableName, ids.size()))
+            .setParameter(1, ownerId)
+            .setParameter(2, Timestamp.from(now.plus(leaseDuration)));
+        for (int i = 0; i < ids.size(); i++) {
+            lease.setParameter(i + 3, ids.get(i));
+        }
+        lease.executeUpdate();
+        
+        String jpql = "SELECT e FROM " + entityClass.getSimpleName() +
+                     " e WHERE e.id IN :ids ORDER BY e.createdAt ASC, e.id ASC";
+        
+        @SuppressWarnings("unchecked")
+        List<OutboxEvent> result = entityManager.createQuery(jpql)
+            .setParameter("ids", ids)
+            .getResultList();
+        return result;
+    }
+    
+    /**
+     * SQL placeholder for the JSON payload column.
+     * Defaults to a PostgreSQL {@code jsonb} cast; override for databases without {@code jsonb}.
+     */
+    protected String payloadPlaceholder() {
+        return "CAST(? AS jsonb)";
+    }
+}
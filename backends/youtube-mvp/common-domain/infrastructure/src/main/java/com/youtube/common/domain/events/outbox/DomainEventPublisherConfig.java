@@ -16,9 +16,19 @@ import org.springframework.context.annotation.Configuration;
  * events to various message brokers (Service Bus, Kafka, etc.).</p>
  */
 @Configuration
-@EnableConfigurationProperties({DomainEventPublisherProperties.class})
+@EnableConfigurationProperties({DomainEventPublisherProperties.class, OutboxDispatcherProperties.class,
+    OutboxRetryProperties.class})
 public class DomainEventPublisherConfig {
 
+    /**
+     * Retry policy for failed dispatches, bound from {@code outbox.retry.*}.
+     * Services pass it to their {@link JpaOutboxRepository}.
+     */
+    @Bean
+    public OutboxRetryPolicy outboxRetryPolicy(OutboxRetryProperties properties) {
+        return properties.toPolicy();
+    }
+
     /**
      * Creates ServiceBusMessagePublisher bean for Azure Service Bus.
      * 
@@ -44,6 +44,11 @@ public class DomainEventPublisherProperties {
      * Default: true
      */
     private boolean useTopic = true;
+    
+    /**
+     * Kafka producer settings (used when {@code type} is "kafka").
+     */
+    private final Kafka kafka = new Kafka();
 
     public String getConnectionString() {
         return connectionString;
@@ -92,5 +97,114 @@ public class DomainEventPublisherProperties {
     public void setType(String type) {
         this.type = type;
     }
+
+    public Kafka getKafka() {
+        return kafka;
+    }
+    
+    /**
+     * Kafka producer settings. The topic is taken from {@code topic-name}.
+     */
+    public static class Kafka {
+        
+        /**
+         * Comma-separated list of bootstrap servers.
+         * Default: "localhost:9092"
+         */
+        private String bootstrapServers = "localhost:9092";
+        
+        /**
+         * Producer client ID.
+         * Default: "outbox-publisher"
+         */
+        private String clientId = "outbox-publisher";
+        
+        /**
+         * Time the producer waits to fill a batch before sending it.
+         * Default: 5 (milliseconds)
+         */
+        private int lingerMs = 5;
+        
+        /**
+         * Maximum size of one per-partition producer batch in bytes.
+         * Default: 131072
+         */
+        private int batchSize = 131072;
+        
+        /**
+         * Compression codec: "none", "gzip", "snappy", "lz4" or "zstd".
+         * Default: "lz4"
+         */
+        private String compressionType = "lz4";
+        
+        /**
+         * Maximum unacknowledged requests per connection. Must be at most 5 to keep
+         * ordering with idempotence enabled.
+         * Default: 5
+         */
+        private int maxInFlightRequestsPerConnection = 5;
+        
+        /**
+         * Upper bound on the time to report success or failure of a send, including retries.
+         * Default: 120000 (milliseconds)
+         */
+        private int deliveryTimeoutMs = 120000;
+
+        public String getBootstrapServers() {
+            return bootstrapServers;
+        }
+
+        public void setBootstrapServers(String bootstrapServers) {
+            this.bootstrapServers = bootstrapServers;
+        }
+
+        public String getClientId() {
+            return clientId;
+        }
+
+        public void setClientId(String clientId) {
+            this.clientId = clientId;
+        }
+
+        public int getLingerMs() {
+            return lingerMs;
+        }
+
+        public void setLingerMs(int lingerMs) {
+            this.lingerMs = lingerMs;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public String getCompressionType() {
+            return compressionType;
+        }
+
+        public void setCompressionType(String compressionType) {
+            this.compressionType = compressionType;
+        }
+
+        public int getMaxInFlightRequestsPerConnection() {
+            return maxInFlightRequestsPerConnection;
+        }
+
+        public void setMaxInFlightRequestsPerConnection(int maxInFlightRequestsPerConnection) {
+            this.maxInFlightRequestsPerConnection = maxInFlightRequestsPerConnection;
+        }
+
+        public int getDeliveryTimeoutMs() {
+            return deliveryTimeoutMs;
+        }
+
+        public void setDeliveryTimeoutMs(int deliveryTimeoutMs) {
+            this.deliveryTimeoutMs = deliveryTimeoutMs;
+        }
+    }
 }
 
@@ -5,6 +5,8 @@ import com.youtube.common.domain.persistence.entity.OutboxEvent;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,12 +21,25 @@ import java.util.Optional;
  */
 public abstract class JpaOutboxRepository implements OutboxRepository {
     
+    private static final Logger log = LoggerFactory.getLogger(JpaOutboxRepository.class);
+    
     protected final EntityManager entityManager;
     protected final Class<? extends OutboxEvent> entityClass;
+    protected final OutboxRetryPolicy retryPolicy;
     
     protected JpaOutboxRepository(EntityManager entityManager, Class<? extends OutboxEvent> entityClass) {
+        this(entityManager, entityClass, OutboxRetryPolicy.DEFAULT);
+    }
+    
+    /**
+     * @param retryPolicy the retry policy applied by {@link #markFailed}, usually the
+     *                    {@code outbox.retry.*} bean
+     */
+    protected JpaOutboxRepository(EntityManager entityManager, Class<? extends OutboxEvent> entityClass,
+                                  OutboxRetryPolicy retryPolicy) {
         this.entityManager = entityManager;
         this.entityClass = entityClass;
+        this.retryPolicy = retryPolicy;
     }
     
     @Override
@@ -51,11 +66,22 @@ public abstract class JpaOutboxRepository implements OutboxRepository {
     @Override
     @Transactional
     public List<OutboxEvent> fetchPendingBatch(int limit) {
-        // Use SELECT ... FOR UPDATE SKIP LOCKED for concurrent processing
-        String jpql = "SELECT e FROM " + entityClass.getSimpleName() + 
-                     " e WHERE e.dispatchedAt IS NULL ORDER BY e.createdAt ASC";
+        // Plain PESSIMISTIC_WRITE lock: concurrent replicas block on the same rows.
+        // Use ClaimingJpaOutboxRepository for SKIP LOCKED claims across replicas.
+        // An event is held back while an earlier pending event of its aggregate is backing off,
+        // so per-aggregate order survives failures; parked events no longer hold it back.
+        String entityName = entityClass.getSimpleName();
+        String jpql = "SELECT e FROM " + entityName + 
+                     " e WHERE e.dispatchedAt IS NULL AND e.parkedAt IS NULL" +
+                     " AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now)" +
+                     " AND NOT EXISTS (SELECT o.id FROM " + entityName + " o" +
+                     " WHERE o.aggregateId = e.aggregateId AND o.dispatchedAt IS NULL AND o.parkedAt IS NULL" +
+                     " AND o.nextAttemptAt > :now" +
+                     " AND (o.createdAt < e.createdAt OR (o.createdAt = e.createdAt AND o.id < e.id)))" +
+                     " ORDER BY e.createdAt ASC, e.id ASC";
         
         Query query = entityManager.createQuery(jpql, entityClass)
+            .setParameter("now", Instant.now())
             .setMaxResults(limit)
             .setLockMode(LockModeType.PESSIMISTIC_WRITE);
         
@@ -75,16 +101,84 @@ public abstract class JpaOutboxRepository implements OutboxRepository {
         }
     }
     
+    @Override
+    @Transactional
+    public void markDispatchedBatch(List<String> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        
+        String jpql = "UPDATE " + entityClass.getSimpleName() +
+                     " e SET e.dispatchedAt = :now, e.brokerMessageId = e.id WHERE e.id IN :ids";
+        
+        entityManager.createQuery(jpql)
+            .setParameter("now", Instant.now())
+            .setParameter("ids", eventIds)
+            .executeUpdate();
+    }
+    
     @Override
     @Transactional
     public void markFailed(String eventId, String error) {
         OutboxEvent event = entityManager.find(entityClass, eventId);
         if (event != null) {
+            Instant now = Instant.now();
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
             event.setError(error != null && error.length() > 4000 ? error.substring(0, 4000) : error);
+            if (retryPolicy.shouldPark(attempts)) {
+                event.setParkedAt(now);
+                log.warn("Parked outbox event {} after {} failed attempts", eventId, attempts);
+            } else {
+                event.setNextAttemptAt(now.plus(retryPolicy.backoffFor(attempts)));
+            }
             entityManager.merge(event);
         }
     }
     
+    @Override
+    @Transactional
+    public int purgeDispatchedBefore(Instant cutoff, int limit) {
+        String jpql = "SELECT e.id FROM " + entityClass.getSimpleName() +
+                     " e WHERE e.dispatchedAt < :cutoff ORDER BY e.dispatchedAt ASC";
+        
+        List<String> ids = entityManager.createQuery(jpql, String.class)
+            .setParameter("cutoff", cutoff)
+            .setMaxResults(limit)
+            .getResultList();
+        return deleteByIds(ids);
+    }
+    
+    @Override
+    @Transactional
+    public int archiveDispatchedBefore(Instant cutoff, int limit, OutboxArchiver archiver) {
+        String jpql = "SELECT e FROM " + entityClass.getSimpleName() +
+                     " e WHERE e.dispatchedAt < :cutoff ORDER BY e.dispatchedAt ASC";
+        
+        @SuppressWarnings("unchecked")
+        List<OutboxEvent> events = entityManager.createQuery(jpql)
+            .setParameter("cutoff", cutoff)
+            .setMaxResults(limit)
+            .getResultList();
+        
+        if (events.isEmpty()) {
+            return 0;
+        }
+        
+        // Archive first: if the sink fails the transaction rolls back and nothing is deleted
+        archiver.archive(events);
+        return deleteByIds(events.stream().map(OutboxEvent::getId).toList());
+    }
+    
+    private int deleteByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createQuery("DELETE FROM " + entityClass.getSimpleName() + " e WHERE e.id IN :ids")
+            .setParameter("ids", ids)
+            .executeUpdate();
+    }
+    
     @Override
     public Optional<OutboxEvent> findById(String eventId) {
         OutboxEvent event = entityManager.find(entityClass, eventId);
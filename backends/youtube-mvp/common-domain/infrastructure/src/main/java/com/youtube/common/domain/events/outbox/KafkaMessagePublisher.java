@@ -1,132 +1,147 @@
 package com.youtube.common.domain.events.outbox;
 
 import com.youtube.common.domain.persistence.entity.OutboxEvent;
-
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Kafka implementation of MessagePublisher.
  * 
- * <p>This is a sample implementation showing how to add Kafka support.
- * To use this implementation:
- * 1. Add Kafka dependencies to your service's pom.xml:
- *    <dependency>
- *        <groupId>org.apache.kafka</groupId>
- *        <artifactId>kafka-clients</artifactId>
- *    </dependency>
- * 
- * 2. Create a configuration class to provide KafkaProducer bean:
- *    <pre>{@code
- *    @Configuration
- *    @ConditionalOnProperty(name = "outbox.domain-event-publisher.backend.type", havingValue = "kafka")
- *    public class KafkaConfig {
- *        @Bean
- *        public KafkaProducer<String, String> kafkaProducer(KafkaProperties props) {
- *            Properties producerProps = new Properties();
- *            producerProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, props.getBootstrapServers());
- *            producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
- *            producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
- *            // Add other Kafka producer configurations
- *            return new KafkaProducer<>(producerProps);
- *        }
- *    }
- *    }</pre>
+ * <p>Enabled with {@code outbox.domain-event-publisher.backend.type=kafka}; the producer is
+ * built by {@link KafkaMessagePublisherConfig} with idempotence, {@code linger.ms}/batch
+ * tuning and compression from {@code outbox.domain-event-publisher.backend.kafka.*}.</p>
  * 
- * 3. Configure in application-common.yml:
- *    <pre>{@code
- *    outbox:
- *      dispatcher:
- *        backend:
- *          type: kafka
- *          bootstrap-servers: localhost:9092
- *          topic-name: domain-events
- *    }</pre>
+ * <p>Records are keyed by the event's partition key (aggregate ID), so all events of one
+ * aggregate land on the same partition in order. Batch publishing is asynchronous: every
+ * record is handed to the producer without waiting, and the returned future completes once
+ * the broker has acknowledged all of them, which is when the dispatcher marks them dispatched.
+ * With idempotence enabled, retries cannot reorder or duplicate records within a partition.</p>
  * 
- * 4. Register as a @Bean with @ConditionalOnProperty:
- *    <pre>{@code
- *    @Bean
- *    @ConditionalOnProperty(name = "outbox.domain-event-publisher.backend.type", havingValue = "kafka")
- *    public MessagePublisher kafkaMessagePublisher(KafkaProducer<String, String> producer) {
- *        return new KafkaMessagePublisher(producer, topicName);
- *    }
- *    }</pre>
+ * <p>Header values for {@code eventType} and {@code aggregateType} come from a small byte
+ * cache, as the set of distinct values is tiny compared to the number of events.</p>
  */
-// @Component  // Uncomment when Kafka dependencies are available
-// @ConditionalOnProperty(name = "outbox.domain-event-publisher.backend.type", havingValue = "kafka")
-// @ConditionalOnBean(KafkaProducer.class)
 public class KafkaMessagePublisher implements MessagePublisher {
     
     private static final Logger log = LoggerFactory.getLogger(KafkaMessagePublisher.class);
     
-    // Uncomment when Kafka dependencies are available:
-    // private final KafkaProducer<String, String> producer;
+    private static final int MAX_CACHED_HEADER_VALUES = 1024;
+    
+    private final Producer<String, String> producer;
     private final String topicName;
+    private final Map<String, byte[]> headerValueCache = new ConcurrentHashMap<>();
     
-    // Uncomment when Kafka dependencies are available:
-    /*
-    public KafkaMessagePublisher(KafkaProducer<String, String> producer, String topicName) {
+    public KafkaMessagePublisher(Producer<String, String> producer, String topicName) {
         this.producer = producer;
         this.topicName = topicName;
     }
-    */
-    
-    // Constructor for sample purposes (remove when implementing):
-    public KafkaMessagePublisher(String topicName) {
-        this.topicName = topicName;
-    }
     
     @Override
     public void publish(OutboxEvent event) {
         try {
-            // Uncomment when Kafka dependencies are available:
-            /*
-            ProducerRecord<String, String> record = new ProducerRecord<>(topicName, 
-                event.getAggregateId(), // Use aggregate ID as partition key
-                event.getPayloadJson()  // Event payload as message value
-            );
-            
-            // Add headers for correlation, tracing, and metadata
-            List<org.apache.kafka.common.header.Header> headers = new ArrayList<>();
-            headers.add(new RecordHeader("X-Correlation-Id", 
-                event.getCorrelationId().getBytes(StandardCharsets.UTF_8)));
-            headers.add(new RecordHeader("traceparent", 
-                event.getTraceparent().getBytes(StandardCharsets.UTF_8)));
-            headers.add(new RecordHeader("eventType", 
-                event.getEventType().getBytes(StandardCharsets.UTF_8)));
-            headers.add(new RecordHeader("aggregateType", 
-                event.getAggregateType().getBytes(StandardCharsets.UTF_8)));
-            headers.add(new RecordHeader("aggregateId", 
-                event.getAggregateId().getBytes(StandardCharsets.UTF_8)));
-            
-            record.headers().addAll(headers);
-            
-            // Publish to Kafka (synchronous for reliability)
-            producer.send(record).get(); // Use .get() for synchronous send
+            // Single-event path is synchronous for reliability
+            producer.send(toRecord(event)).get();
             log.debug("Published event {} to Kafka topic {}", event.getId(), topicName);
-            */
-            
-            // Sample implementation placeholder:
-            log.debug("KafkaMessagePublisher.publish() called for event {}", event.getId());
-            throw new UnsupportedOperationException(
-                "Kafka support requires Kafka dependencies. See class javadoc for setup instructions."
-            );
-            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagePublishException("Interrupted while publishing event to Kafka: " + event.getId(), e);
+        } catch (ExecutionException e) {
+            throw new MessagePublishException("Failed to publish event to Kafka: " + event.getId(), e.getCause());
         } catch (Exception e) {
             throw new MessagePublishException("Failed to publish event to Kafka: " + event.getId(), e);
         }
     }
     
+    @Override
+    public void publishBatch(List<OutboxEvent> events) {
+        try {
+            publishBatchAsync(events).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof MessagePublishException publishException) {
+                throw publishException;
+            }
+            throw new MessagePublishException("Failed to publish event batch to Kafka", e.getCause());
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Void> publishBatchAsync(List<OutboxEvent> events) {
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            CompletableFuture<Void> ack = new CompletableFuture<>();
+            acks[i] = ack;
+            try {
+                producer.send(toRecord(event), (metadata, exception) -> {
+                    if (exception != null) {
+                        ack.completeExceptionally(new MessagePublishException(
+                            "Failed to publish event to Kafka: " + event.getId(), exception));
+                    } else {
+                        ack.complete(null);
+                    }
+                });
+            } catch (Exception e) {
+                ack.completeExceptionally(new MessagePublishException(
+                    "Failed to publish event to Kafka: " + event.getId(), e));
+            }
+        }
+        return CompletableFuture.allOf(acks);
+    }
+    
+    private ProducerRecord<String, String> toRecord(OutboxEvent event) {
+        // Partition by aggregate ID to keep per-aggregate ordering
+        ProducerRecord<String, String> record =
+            new ProducerRecord<>(topicName, event.getPartitionKey(), event.getPayloadJson());
+        
+        Headers headers = record.headers();
+        headers.add("messageId", utf8(event.getId()));
+        addHeader(headers, "X-Correlation-Id", utf8(event.getCorrelationId()));
+        addHeader(headers, "traceparent", utf8(event.getTraceparent()));
+        addHeader(headers, "eventType", cached(event.getEventType()));
+        addHeader(headers, "aggregateType", cached(event.getAggregateType()));
+        addHeader(headers, "aggregateId", utf8(event.getAggregateId()));
+        return record;
+    }
+    
+    private static void addHeader(Headers headers, String key, byte[] value) {
+        if (value != null) {
+            headers.add(key, value);
+        }
+    }
+    
+    private byte[] cached(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = headerValueCache.get(value);
+        if (bytes == null) {
+            bytes = utf8(value);
+            // Bounded: stop caching if an unexpected number of distinct values shows up
+            if (headerValueCache.size() < MAX_CACHED_HEADER_VALUES) {
+                headerValueCache.putIfAbsent(value, bytes);
+            }
+        }
+        // Kafka serializes headers without mutating them, so sharing the array is safe
+        return bytes;
+    }
+    
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+    
     @Override
     public String getBrokerMessageId(OutboxEvent event) {
-        // Kafka doesn't provide a message ID before sending.
-        // After send, you could extract it from the RecordMetadata.
-        // For now, we use the outbox event ID as a reference.
+        // Kafka has no message ID; the outbox event ID travels in the "messageId" header
         return event.getId();
     }
 }
-
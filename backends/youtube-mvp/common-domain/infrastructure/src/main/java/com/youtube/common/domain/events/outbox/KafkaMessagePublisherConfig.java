@@ -0,0 +1,74 @@
+package com.youtube.common.domain.events.outbox;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configures the Kafka MessagePublisher backend.
+ * 
+ * <p>Kept separate from {@link DomainEventPublisherConfig} because kafka-clients is an
+ * optional dependency: services that publish to Kafka add it themselves.</p>
+ * 
+ * <p>The producer is idempotent with {@code acks=all}, so broker-side retries never
+ * duplicate or reorder events within a partition.</p>
+ */
+@Configuration
+@ConditionalOnClass(name = "org.apache.kafka.clients.producer.KafkaProducer")
+@ConditionalOnProperty(name = "outbox.domain-event-publisher.enabled", havingValue = "true")
+@ConditionalOnProperty(name = "outbox.domain-event-publisher.backend.type", havingValue = "kafka")
+@EnableConfigurationProperties(DomainEventPublisherProperties.class)
+public class KafkaMessagePublisherConfig {
+    
+    /**
+     * Creates the Kafka producer used by the outbox publisher.
+     */
+    @Bean(destroyMethod = "close")
+    public Producer<String, String> outboxKafkaProducer(DomainEventPublisherProperties props) {
+        return new KafkaProducer<>(producerConfig(props.getKafka()));
+    }
+    
+    /**
+     * Creates KafkaMessagePublisher bean.
+     */
+    @Bean
+    public MessagePublisher kafkaMessagePublisher(Producer<String, String> outboxKafkaProducer,
+                                                  DomainEventPublisherProperties props) {
+        if (props.getTopicName() == null || props.getTopicName().isBlank()) {
+            throw new IllegalArgumentException(
+                "topic-name must be configured in outbox.domain-event-publisher.backend.* properties"
+            );
+        }
+        return new KafkaMessagePublisher(outboxKafkaProducer, props.getTopicName());
+    }
+    
+    static Map<String, Object> producerConfig(DomainEventPublisherProperties.Kafka kafka) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers());
+        config.put(ProducerConfig.CLIENT_ID_CONFIG, kafka.getClientId());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        
+        // Idempotent producer: exactly-once per partition across retries
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION,
+            Math.min(5, Math.max(1, kafka.getMaxInFlightRequestsPerConnection())));
+        config.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, kafka.getDeliveryTimeoutMs());
+        
+        // Throughput tuning
+        config.put(ProducerConfig.LINGER_MS_CONFIG, kafka.getLingerMs());
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, kafka.getBatchSize());
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, kafka.getCompressionType());
+        return config;
+    }
+}
@@ -2,6 +2,9 @@ package com.youtube.common.domain.events.outbox;
 
 import com.youtube.common.domain.persistence.entity.OutboxEvent;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Abstraction for publishing domain events to message brokers.
  * 
@@ -19,6 +22,46 @@ public interface MessagePublisher {
      */
     void publish(OutboxEvent event);
     
+    /**
+     * Publishes a batch of domain events to the message broker.
+     * 
+     * <p>Events must be sent in list order for any given partition key. The call either
+     * succeeds for the whole list or throws; callers treat a failure as "none acknowledged"
+     * and rely on consumer-side inbox idempotency for any events that did reach the broker.</p>
+     * 
+     * <p>The default implementation publishes one event at a time. Brokers with native
+     * batching (e.g. Service Bus {@code ServiceBusMessageBatch}) should override this.</p>
+     * 
+     * @param events the outbox events to publish, in dispatch order
+     * @throws MessagePublishException if publishing fails
+     */
+    default void publishBatch(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            publish(event);
+        }
+    }
+    
+    /**
+     * Publishes a batch of domain events without blocking the caller.
+     * 
+     * <p>The returned future completes when the broker has acknowledged every event in the
+     * list, or completes exceptionally with a {@link MessagePublishException}. Dispatchers use
+     * it to keep several batches in flight and acknowledge each one in the outbox as it completes.</p>
+     * 
+     * <p>The default implementation runs {@link #publishBatch} on the calling thread.</p>
+     * 
+     * @param events the outbox events to publish, in dispatch order
+     * @return a future completing on broker acknowledgement
+     */
+    default CompletableFuture<Void> publishBatchAsync(List<OutboxEvent> events) {
+        try {
+            publishBatch(events);
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
     /**
      * Gets the message ID returned by the broker after publishing.
      * This can be used for tracking and idempotency.
@@ -0,0 +1,23 @@
+package com.youtube.common.domain.events.outbox;
+
+import com.youtube.common.domain.persistence.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Sink for dispatched outbox events that are about to be removed by the retention job.
+ * 
+ * <p>Provide a bean of this type (e.g. writing to Blob Storage or an archive table) to
+ * archive rows instead of simply purging them. Archiving runs inside the delete
+ * transaction, so a failing sink leaves the rows in place for the next run.</p>
+ */
+@FunctionalInterface
+public interface OutboxArchiver {
+    
+    /**
+     * Archives a chunk of dispatched events.
+     * 
+     * @param events the events to archive, oldest first
+     */
+    void archive(List<OutboxEvent> events);
+}
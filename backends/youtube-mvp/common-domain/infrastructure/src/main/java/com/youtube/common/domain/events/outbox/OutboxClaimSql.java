@@ -0,0 +1,82 @@
+package com.youtube.common.domain.events.outbox;
+
+import java.util.Collections;
+
+/**
+ * Native SQL used by {@link ClaimingJpaOutboxRepository}.
+ * 
+ * <p>Kept in one place so the repository and the claim benchmark run exactly the same statements.
+ * All statements use JDBC-style {@code ?} placeholders.</p>
+ */
+final class OutboxClaimSql {
+    
+    private OutboxClaimSql() {
+    }
+    
+    /**
+     * Batch insert of a new outbox row.
+     * Parameters: id, event_type, aggregate_type, aggregate_id, payload_json, correlation_id,
+     * causation_id, traceparent, created_at.
+     */
+    static String insert(String tableName, String payloadPlaceholder) {
+        return "INSERT INTO " + tableName + " (id, event_type, aggregate_type, aggregate_id, payload_json, " +
+               "correlation_id, causation_id, traceparent, created_at) " +
+               "VALUES (?, ?, ?, ?, " + payloadPlaceholder + ", ?, ?, ?, ?)";
+    }
+    
+    /**
+     * Selects the IDs of the oldest claimable rows, skipping rows another replica is claiming right now
+     * as well as parked rows and rows still backing off after a failure.
+     * 
+     * <p>A row is only claimable while it is the oldest pending row of its aggregate, so a later event
+     * is never published while an earlier one of the same aggregate is leased or backing off.
+     * Parked rows no longer hold their aggregate back. Rows inserted in one batch share
+     * {@code created_at}, so ties are broken by their monotonic ULID.</p>
+     * Returns the ID and aggregate ID of each row.
+     * Parameters: now (lease expiry), now (next attempt), limit.
+     */
+    static String selectClaimable(String tableName) {
+        return "SELECT e.id, e.aggregate_id FROM " + tableName + " e" +
+               " WHERE e.dispatched_at IS NULL AND e.parked_at IS NULL" +
+               " AND (e.claimed_until IS NULL OR e.claimed_until < ?)" +
+               " AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= ?)" +
+               " AND NOT EXISTS (SELECT 1 FROM " + tableName + " o" +
+               " WHERE o.aggregate_id = e.aggregate_id" +
+               " AND o.dispatched_at IS NULL AND o.parked_at IS NULL" +
+               " AND (o.created_at < e.created_at OR (o.created_at = e.created_at AND o.id < e.id)))" +
+               " ORDER BY e.created_at, e.id LIMIT ? FOR UPDATE SKIP LOCKED";
+    }
+    
+    /**
+     * Selects the pending rows of aggregates whose oldest pending row was just claimed, in order, so
+     * the replica holding an aggregate's oldest row also takes the events queued behind it. No other
+     * replica can claim these rows while that oldest row is pending, so they are locked without skipping.
+     * Parameters: one parameter per aggregate ID, then limit.
+     */
+    static String selectAggregates(String tableName, int aggregateCount) {
+        return "SELECT id FROM " + tableName +
+               " WHERE dispatched_at IS NULL AND parked_at IS NULL" +
+               " AND aggregate_id IN (" + placeholders(aggregateCount) + ")" +
+               " ORDER BY created_at, id LIMIT ? FOR UPDATE";
+    }
+    
+    /**
+     * Stamps a lease on the selected rows.
+     * Parameters: claimed_by, claimed_until, then one parameter per ID.
+     */
+    static String lease(String tableName, int idCount) {
+        return "UPDATE " + tableName + " SET claimed_by = ?, claimed_until = ? WHERE id IN (" + placeholders(idCount) + ")";
+    }
+    
+    /**
+     * Bulk acknowledgement of dispatched rows.
+     * Parameters: dispatched_at, then one parameter per ID.
+     */
+    static String acknowledge(String tableName, int idCount) {
+        return "UPDATE " + tableName + " SET dispatched_at = ?, broker_message_id = id WHERE id IN (" + placeholders(idCount) + ")";
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -11,6 +11,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Background worker that dispatches outbox events to message brokers.
@@ -20,10 +22,14 @@ import java.time.Duration;
  * - MessagePublisher bean is available
  * - OutboxRepository bean is available
  * - Property {@code outbox.domain-event-publisher.enabled} is true (default: true)
+ * - Property {@code outbox.domain-event-publisher.dispatcher.mode} is {@code sequential} (default)
+ * 
+ * <p>See {@link PipelinedOutboxDispatcher} for the lane-parallel, batch-acknowledged mode.</p>
  */
 @Component
 @ConditionalOnBean({MessagePublisher.class, OutboxRepository.class})
 @ConditionalOnProperty(name = "outbox.domain-event-publisher.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnProperty(name = "outbox.domain-event-publisher.dispatcher.mode", havingValue = "sequential", matchIfMissing = true)
 public class OutboxDispatcher {
     
     private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
@@ -70,8 +76,12 @@ public class OutboxDispatcher {
             
             log.info("Dispatching {} outbox events", events.size());
             
-            // Publish each event
+            // Publish each event; after a failure the rest of that aggregate waits for the retry
+            Set<String> failedAggregates = new HashSet<>();
             for (OutboxEvent event : events) {
+                if (event.getPartitionKey() != null && failedAggregates.contains(event.getPartitionKey())) {
+                    continue;
+                }
                 try {
                     messagePublisher.publish(event);
                     String brokerMessageId = messagePublisher.getBrokerMessageId(event);
@@ -80,9 +90,11 @@ public class OutboxDispatcher {
                 } catch (MessagePublisher.MessagePublishException e) {
                     log.error("Failed to dispatch event {}", event.getId(), e);
                     outboxRepository.markFailed(event.getId(), truncate(e.getMessage(), 3900));
+                    addFailedAggregate(failedAggregates, event);
                 } catch (Exception e) {
                     log.error("Unexpected error dispatching event {}", event.getId(), e);
                     outboxRepository.markFailed(event.getId(), truncate(e.getMessage(), 3900));
+                    addFailedAggregate(failedAggregates, event);
                 }
             }
             
@@ -95,6 +107,13 @@ public class OutboxDispatcher {
             traceProvider.endSpan(span);
         }
     }
+    
+    private static void addFailedAggregate(Set<String> failedAggregates, OutboxEvent event) {
+        if (event.getPartitionKey() != null) {
+            failedAggregates.add(event.getPartitionKey());
+        }
+    }
+    
     private static String truncate(String s, int max) {
         if (s == null) return null;
         return s.length() <= max ? s : s.substring(0, max);
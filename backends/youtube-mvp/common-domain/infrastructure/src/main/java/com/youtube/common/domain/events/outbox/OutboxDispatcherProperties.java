@@ -0,0 +1,86 @@
+package com.youtube.common.domain.events.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the outbox dispatcher worker.
+ * 
+ * <p>Selects between the sequential {@link OutboxDispatcher} (default) and the
+ * {@link PipelinedOutboxDispatcher}, and tunes the pipelined mode.</p>
+ */
+@ConfigurationProperties(prefix = "outbox.domain-event-publisher.dispatcher")
+public class OutboxDispatcherProperties {
+    
+    /**
+     * Dispatcher mode: "sequential" or "pipelined".
+     * Default: "sequential"
+     */
+    private String mode = "sequential";
+    
+    /**
+     * Maximum number of pending events claimed per poll (pipelined mode only).
+     * Default: 100
+     */
+    private int fetchSize = 100;
+    
+    /**
+     * Number of parallel lanes (pipelined mode only). Events are hashed into lanes by
+     * partition key, so all events of one aggregate always travel through the same lane.
+     * Default: 4
+     */
+    private int lanes = 4;
+    
+    /**
+     * Maximum number of events handed to the broker in one publish call and acknowledged
+     * with one bulk update (pipelined mode only).
+     * Default: 50
+     */
+    private int publishBatchSize = 50;
+    
+    /**
+     * Maximum number of back-to-back polls in a single scheduled run while the backlog
+     * is non-empty (pipelined mode only). Bounds how long one run can hold the scheduler thread.
+     * Default: 50
+     */
+    private int maxDrainIterations = 50;
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    public void setLanes(int lanes) {
+        this.lanes = lanes;
+    }
+
+    public int getPublishBatchSize() {
+        return publishBatchSize;
+    }
+
+    public void setPublishBatchSize(int publishBatchSize) {
+        this.publishBatchSize = publishBatchSize;
+    }
+
+    public int getMaxDrainIterations() {
+        return maxDrainIterations;
+    }
+
+    public void setMaxDrainIterations(int maxDrainIterations) {
+        this.maxDrainIterations = maxDrainIterations;
+    }
+}
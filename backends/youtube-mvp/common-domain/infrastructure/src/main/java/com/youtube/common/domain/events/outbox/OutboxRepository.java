@@ -2,6 +2,7 @@ package com.youtube.common.domain.events.outbox;
 
 import com.youtube.common.domain.persistence.entity.OutboxEvent;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,8 +23,11 @@ public interface OutboxRepository {
     void append(List<OutboxEventData> events, String correlationId, String causationId, String traceparent);
     
     /**
-     * Finds pending outbox events (not yet dispatched).
-     * Uses SELECT ... FOR UPDATE SKIP LOCKED for concurrent processing.
+     * Finds pending outbox events (not yet dispatched, not parked, and due for an attempt),
+     * oldest first. An event is not returned while an earlier pending event of the same
+     * aggregate is backing off, so a failure never lets later events of that aggregate overtake it.
+     * Implementations that support several dispatcher replicas should claim rows
+     * (e.g. SELECT ... FOR UPDATE SKIP LOCKED plus a lease) so replicas do not overlap.
      * 
      * @param limit maximum number of events to fetch
      * @return list of pending events
@@ -38,14 +42,53 @@ public interface OutboxRepository {
      */
     void markDispatched(String eventId, String brokerMessageId);
     
+    /**
+     * Marks a batch of events as dispatched in a single round-trip.
+     * The broker message ID of each event is set to its outbox event ID,
+     * matching what the bundled publishers report.
+     * 
+     * <p>The default implementation falls back to one {@link #markDispatched} call per event.
+     * JPA-backed implementations override this with a bulk {@code UPDATE ... WHERE id IN (...)}.</p>
+     * 
+     * @param eventIds the IDs of the events that were acknowledged by the broker
+     */
+    default void markDispatchedBatch(List<String> eventIds) {
+        for (String eventId : eventIds) {
+            markDispatched(eventId, eventId);
+        }
+    }
+    
     /**
      * Marks an event as failed.
+     * Increments the attempt counter and schedules the next attempt with exponential
+     * backoff, or parks the event as a poison message once retries are exhausted.
      * 
      * @param eventId the event ID
      * @param error the error message
      */
     void markFailed(String eventId, String error);
     
+    /**
+     * Deletes up to {@code limit} events dispatched before the cutoff, oldest first.
+     * Intended to be called repeatedly in bounded chunks by a retention job.
+     * 
+     * @param cutoff events dispatched before this instant are deleted
+     * @param limit maximum number of rows deleted in this call
+     * @return number of rows deleted
+     */
+    int purgeDispatchedBefore(Instant cutoff, int limit);
+    
+    /**
+     * Hands up to {@code limit} events dispatched before the cutoff to the archiver,
+     * then deletes them in the same transaction.
+     * 
+     * @param cutoff events dispatched before this instant are archived
+     * @param limit maximum number of rows archived in this call
+     * @param archiver the archive sink
+     * @return number of rows archived and deleted
+     */
+    int archiveDispatchedBefore(Instant cutoff, int limit, OutboxArchiver archiver);
+    
     /**
      * Finds an outbox event by ID.
      * 
@@ -0,0 +1,51 @@
+package com.youtube.common.domain.events.outbox;
+
+import java.time.Duration;
+
+/**
+ * Retry policy for failed outbox dispatches.
+ * 
+ * <p>After the n-th failure an event becomes eligible again after
+ * {@code initialBackoff * 2^(n-1)}, capped at {@code maxBackoff}. Once
+ * {@code maxAttempts} failures are recorded the event is parked as a poison message
+ * and skipped by the dispatcher until an operator resets it.</p>
+ * 
+ * <p>Configured through {@code outbox.retry.*} ({@link OutboxRetryProperties}).</p>
+ * 
+ * @param maxAttempts failures after which an event is parked
+ * @param initialBackoff delay after the first failure
+ * @param maxBackoff upper bound for the delay
+ */
+public record OutboxRetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+    
+    /**
+     * Default policy: 10 attempts, 5 s initial backoff, capped at 30 min.
+     */
+    public static final OutboxRetryPolicy DEFAULT =
+        new OutboxRetryPolicy(10, Duration.ofSeconds(5), Duration.ofMinutes(30));
+    
+    /**
+     * Computes the delay before the next attempt.
+     * 
+     * @param attempts number of failures recorded so far (1 after the first failure)
+     * @return the backoff delay
+     */
+    public Duration backoffFor(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        long millis = initialBackoff.toMillis() << exponent;
+        if (millis <= 0 || millis > maxBackoff.toMillis()) {
+            return maxBackoff;
+        }
+        return Duration.ofMillis(millis);
+    }
+    
+    /**
+     * Checks whether an event with the given number of failures should be parked.
+     * 
+     * @param attempts number of failures recorded so far
+     * @return true if the event has exhausted its retries
+     */
+    public boolean shouldPark(int attempts) {
+        return attempts >= maxAttempts;
+    }
+}
@@ -0,0 +1,66 @@
+package com.youtube.common.domain.events.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for retrying failed outbox dispatches.
+ * 
+ * <p>Bound into the {@link OutboxRetryPolicy} bean that services pass to their
+ * {@link JpaOutboxRepository}.</p>
+ */
+@ConfigurationProperties(prefix = "outbox.retry")
+public class OutboxRetryProperties {
+    
+    /**
+     * Failures after which an event is parked as a poison message.
+     * Default: 10
+     */
+    private int maxAttempts = OutboxRetryPolicy.DEFAULT.maxAttempts();
+    
+    /**
+     * Delay after the first failure; doubled after each further failure.
+     * Default: 5 seconds
+     */
+    private Duration initialBackoff = OutboxRetryPolicy.DEFAULT.initialBackoff();
+    
+    /**
+     * Upper bound for the delay between attempts.
+     * Default: 30 minutes
+     */
+    private Duration maxBackoff = OutboxRetryPolicy.DEFAULT.maxBackoff();
+    
+    /**
+     * Builds the retry policy described by these properties.
+     * 
+     * @return the retry policy
+     */
+    public OutboxRetryPolicy toPolicy() {
+        return new OutboxRetryPolicy(maxAttempts, initialBackoff, maxBackoff);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+}
@@ -0,0 +1,232 @@
+package com.youtube.common.domain.events.outbox;
+
+import com.youtube.common.domain.persistence.entity.OutboxEvent;
+import com.youtube.common.domain.services.tracing.TraceProvider;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipelined variant of {@link OutboxDispatcher} for high write rates.
+ * 
+ * <p>Each poll claims a batch of pending events and hashes them into N lanes by
+ * partition key (aggregate ID), so per-aggregate ordering is preserved while different
+ * aggregates are published in parallel. Each lane hands its events to
+ * {@link MessagePublisher#publishBatchAsync} in chunks, one chunk at a time, and acknowledges
+ * every chunk with a single {@link OutboxRepository#markDispatchedBatch} call once the broker
+ * has confirmed it; the lanes keep the broker busy in parallel. While the claimed batch comes
+ * back full the dispatcher polls again immediately instead of waiting for the next tick.</p>
+ * 
+ * <p>If a chunk fails, its events are marked failed and the rest of that lane is left
+ * pending for the next poll, so later events of the same aggregate never overtake it.</p>
+ * 
+ * <p>This component is only enabled when:
+ * - MessagePublisher bean is available
+ * - OutboxRepository bean is available
+ * - Property {@code outbox.domain-event-publisher.enabled} is true (default: true)
+ * - Property {@code outbox.domain-event-publisher.dispatcher.mode} is {@code pipelined}
+ * 
+ * <p>Metrics: {@code outbox.dispatch.lag} (age of the oldest claimed event),
+ * {@code outbox.dispatch.batch.size} and {@code outbox.dispatch.publish.latency}.</p>
+ */
+@Component
+@ConditionalOnBean({MessagePublisher.class, OutboxRepository.class})
+@ConditionalOnProperty(name = "outbox.domain-event-publisher.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnProperty(name = "outbox.domain-event-publisher.dispatcher.mode", havingValue = "pipelined")
+public class PipelinedOutboxDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(PipelinedOutboxDispatcher.class);
+    
+    private final OutboxRepository outboxRepository;
+    private final MessagePublisher messagePublisher;
+    private final TraceProvider traceProvider;
+    private final OutboxDispatcherProperties properties;
+    private final ExecutorService laneExecutor;
+    
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final DistributionSummary batchSizeSummary;
+    private final Timer publishLatency;
+    
+    private volatile boolean enabled = true;
+    
+    public PipelinedOutboxDispatcher(
+        OutboxRepository outboxRepository,
+        MessagePublisher messagePublisher,
+        TraceProvider traceProvider,
+        OutboxDispatcherProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.messagePublisher = messagePublisher;
+        this.traceProvider = traceProvider;
+        this.properties = properties;
+        
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.laneExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getLanes()), runnable -> {
+            Thread thread = new Thread(runnable, "outbox-lane-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        Gauge.builder("outbox.dispatch.lag", lagMillis, AtomicLong::get)
+            .description("Age in milliseconds of the oldest pending outbox event seen by the last poll")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("outbox.dispatch.batch.size")
+            .description("Number of events per broker publish call")
+            .register(meterRegistry);
+        this.publishLatency = Timer.builder("outbox.dispatch.publish.latency")
+            .description("Latency from handing a chunk to the broker until its bulk acknowledgement")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Scheduled task that drains the outbox.
+     * Keeps polling without delay while each poll returns a full batch.
+     */
+    @Scheduled(fixedDelayString = "${outbox.domain-event-publisher.interval:5000}")
+    public void dispatchPendingEvents() {
+        if (!enabled) {
+            return;
+        }
+        
+        Span span = traceProvider.startSpan("publish outbox batch");
+        
+        try {
+            int fetchSize = properties.getFetchSize();
+            int iterations = 0;
+            boolean drained;
+            do {
+                List<OutboxEvent> events = outboxRepository.fetchPendingBatch(fetchSize);
+                updateLag(events);
+                
+                if (events.isEmpty()) {
+                    log.debug("No pending outbox events to dispatch");
+                    return;
+                }
+                
+                boolean allLanesSucceeded = dispatchInLanes(events);
+                log.debug("Dispatched poll of {} outbox events", events.size());
+                
+                // Stop draining after a failure so a broken broker is not hammered in a tight loop
+                drained = events.size() < fetchSize || !allLanesSucceeded;
+                iterations++;
+            } while (enabled && !drained && iterations < properties.getMaxDrainIterations());
+            
+        } catch (Exception e) {
+            log.error("Error during outbox dispatch", e);
+            traceProvider.endSpan(span, e);
+        } finally {
+            traceProvider.endSpan(span);
+        }
+    }
+    
+    private boolean dispatchInLanes(List<OutboxEvent> events) {
+        int laneCount = Math.max(1, properties.getLanes());
+        List<List<OutboxEvent>> lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        // Events arrive ordered by createdAt, so each lane stays ordered per aggregate
+        for (OutboxEvent event : events) {
+            lanes.get(laneFor(event, laneCount)).add(event);
+        }
+        
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(laneCount);
+        for (List<OutboxEvent> lane : lanes) {
+            if (!lane.isEmpty()) {
+                futures.add(CompletableFuture.supplyAsync(() -> dispatchLane(lane), laneExecutor));
+            }
+        }
+        
+        boolean allSucceeded = true;
+        for (CompletableFuture<Boolean> future : futures) {
+            allSucceeded &= future.join();
+        }
+        return allSucceeded;
+    }
+    
+    private boolean dispatchLane(List<OutboxEvent> lane) {
+        int chunkSize = Math.max(1, properties.getPublishBatchSize());
+        
+        // One chunk in flight per lane: a chunk is only sent once the previous one is confirmed,
+        // so a failed chunk is never overtaken by a later one that the broker accepts
+        for (int from = 0; from < lane.size(); from += chunkSize) {
+            List<OutboxEvent> chunk = lane.subList(from, Math.min(from + chunkSize, lane.size()));
+            Timer.Sample sample = Timer.start();
+            try {
+                messagePublisher.publishBatchAsync(chunk).join();
+                outboxRepository.markDispatchedBatch(chunk.stream().map(OutboxEvent::getId).toList());
+                sample.stop(publishLatency);
+                batchSizeSummary.record(chunk.size());
+            } catch (Exception e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                log.error("Failed to dispatch outbox batch of {} events starting at {}", chunk.size(), chunk.get(0).getId(), cause);
+                for (OutboxEvent event : chunk) {
+                    outboxRepository.markFailed(event.getId(), truncate(cause.getMessage(), 3900));
+                }
+                // Leave the remainder of the lane pending to keep per-aggregate order
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int laneFor(OutboxEvent event, int laneCount) {
+        String key = event.getPartitionKey() != null ? event.getPartitionKey() : event.getId();
+        return Math.floorMod(key.hashCode(), laneCount);
+    }
+    
+    private void updateLag(List<OutboxEvent> events) {
+        if (events.isEmpty() || events.get(0).getCreatedAt() == null) {
+            lagMillis.set(0);
+            return;
+        }
+        lagMillis.set(Math.max(0, Duration.between(events.get(0).getCreatedAt(), Instant.now()).toMillis()));
+    }
+    
+    private static String truncate(String s, int max) {
+        if (s == null) return null;
+        return s.length() <= max ? s : s.substring(0, max);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        enabled = false;
+        laneExecutor.shutdown();
+    }
+    
+    /**
+     * Enables the dispatcher.
+     */
+    public void enable() {
+        this.enabled = true;
+    }
+    
+    /**
+     * Disables the dispatcher.
+     */
+    public void disable() {
+        this.enabled = false;
+    }
+}
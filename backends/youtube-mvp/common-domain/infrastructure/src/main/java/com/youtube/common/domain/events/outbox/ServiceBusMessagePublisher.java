@@ -1,11 +1,17 @@
 package com.youtube.common.domain.events.outbox;
 
 import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
 import com.azure.messaging.servicebus.ServiceBusSenderClient;
 import com.youtube.common.domain.persistence.entity.OutboxEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Azure Service Bus implementation of MessagePublisher.
  */
@@ -22,29 +28,90 @@ public class ServiceBusMessagePublisher implements MessagePublisher {
     @Override
     public void publish(OutboxEvent event) {
         try {
-            ServiceBusMessage message = new ServiceBusMessage(event.getPayloadJson());
-            
-            // Set message properties
-            message.setMessageId(event.getId());
-            message.setCorrelationId(event.getCorrelationId());
-            message.getApplicationProperties().put("traceparent", event.getTraceparent());
-            message.getApplicationProperties().put("eventType", event.getEventType());
-            message.getApplicationProperties().put("aggregateType", event.getAggregateType());
-            message.getApplicationProperties().put("aggregateId", event.getAggregateId());
-            
-            // Set partition key if available
-            if (event.getPartitionKey() != null) {
-                message.setPartitionKey(event.getPartitionKey());
-            }
-            
             // Publish to Service Bus
-            sender.sendMessage(message);
+            sender.sendMessage(toMessage(event));
             log.debug("Published event {} to Service Bus", event.getId());
         } catch (Exception e) {
             throw new MessagePublishException("Failed to publish event to Service Bus: " + event.getId(), e);
         }
     }
     
+    /**
+     * Publishes events as native {@link ServiceBusMessageBatch}es.
+     *
+     * <p>Partitioned entities reject batches that mix partition keys, so events are grouped
+     * by partition key first (preserving per-key order) and each group is packed into as
+     * few size-limited batches as possible.</p>
+     */
+    @Override
+    public void publishBatch(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        
+        Map<String, List<OutboxEvent>> byPartitionKey = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            byPartitionKey.computeIfAbsent(event.getPartitionKey(), k -> new ArrayList<>()).add(event);
+        }
+        
+        for (List<OutboxEvent> group : byPartitionKey.values()) {
+            sendGroup(group);
+        }
+    }
+    
+    private void sendGroup(List<OutboxEvent> group) {
+        OutboxEvent current = group.get(0);
+        try {
+            ServiceBusMessageBatch batch = sender.createMessageBatch();
+            for (OutboxEvent event : group) {
+                current = event;
+                ServiceBusMessage message = toMessage(event);
+                if (batch.tryAddMessage(message)) {
+                    continue;
+                }
+                if (batch.getCount() == 0) {
+                    throw new MessagePublishException(
+                        "Event " + event.getId() + " exceeds the maximum Service Bus batch size");
+                }
+                
+                // Batch is full: flush it and start a new one with the current message
+                sender.sendMessages(batch);
+                log.debug("Published batch of {} events to Service Bus", batch.getCount());
+                batch = sender.createMessageBatch();
+                if (!batch.tryAddMessage(message)) {
+                    throw new MessagePublishException(
+                        "Event " + event.getId() + " exceeds the maximum Service Bus batch size");
+                }
+            }
+            if (batch.getCount() > 0) {
+                sender.sendMessages(batch);
+                log.debug("Published batch of {} events to Service Bus", batch.getCount());
+            }
+        } catch (MessagePublishException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MessagePublishException("Failed to publish event batch to Service Bus at event: " + current.getId(), e);
+        }
+    }
+    
+    private ServiceBusMessage toMessage(OutboxEvent event) {
+        ServiceBusMessage message = new ServiceBusMessage(event.getPayloadJson());
+        
+        // Set message properties
+        message.setMessageId(event.getId());
+        message.setCorrelationId(event.getCorrelationId());
+        message.getApplicationProperties().put("traceparent", event.getTraceparent());
+        message.getApplicationProperties().put("eventType", event.getEventType());
+        message.getApplicationProperties().put("aggregateType", event.getAggregateType());
+        message.getApplicationProperties().put("aggregateId", event.getAggregateId());
+        
+        // Set partition key if available
+        if (event.getPartitionKey() != null) {
+            message.setPartitionKey(event.getPartitionKey());
+        }
+        return message;
+    }
+    
     @Override
     public String getBrokerMessageId(OutboxEvent event) {
         // Service Bus message ID is set via message.setMessageId()
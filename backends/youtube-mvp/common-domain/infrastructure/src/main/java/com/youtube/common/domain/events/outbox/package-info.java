@@ -9,7 +9,10 @@
  * <ul>
  *   <li>{@link com.youtube.common.domain.events.outbox.OutboxRepository} - Repository interface</li>
  *   <li>{@link com.youtube.common.domain.events.outbox.JpaOutboxRepository} - JPA implementation</li>
+ *   <li>{@link com.youtube.common.domain.events.outbox.ClaimingJpaOutboxRepository} - Batch-insert, SKIP LOCKED lease-claim implementation</li>
  *   <li>{@link com.youtube.common.domain.events.outbox.OutboxDispatcher} - Background dispatcher worker</li>
+ *   <li>{@link com.youtube.common.domain.events.outbox.PipelinedOutboxDispatcher} - Lane-parallel, batch-acknowledged dispatcher</li>
+ *   <li>{@link com.youtube.common.domain.events.outbox.KafkaMessagePublisher} - Kafka backend with async, idempotent batched sends</li>
  * </ul>
  */
 package com.youtube.common.domain.events.outbox;
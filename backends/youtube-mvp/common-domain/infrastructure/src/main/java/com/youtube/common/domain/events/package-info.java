@@ -5,6 +5,7 @@
  * <ul>
  *   <li>{@link com.youtube.common.domain.events.EventPublisher} - Publishes events using transactional outbox</li>
  *   <li>{@link com.youtube.common.domain.events.EventProcessor} - Consumes events with inbox idempotency</li>
+ *   <li>{@link com.youtube.common.domain.events.BatchEventProcessor} - Batched, per-key concurrent consumer engine</li>
  *   <li>{@link com.youtube.common.domain.events.EventRouter} - Routes events to handlers</li>
  * </ul>
  * 
@@ -12,6 +13,7 @@
  * <ul>
  *   <li>{@link com.youtube.common.domain.events.outbox} - Transactional outbox pattern</li>
  *   <li>{@link com.youtube.common.domain.events.inbox} - Inbox pattern for idempotent processing</li>
+ *   <li>{@link com.youtube.common.domain.events.retention} - Outbox/inbox retention and compaction</li>
  * </ul>
  */
 package com.youtube.common.domain.events;
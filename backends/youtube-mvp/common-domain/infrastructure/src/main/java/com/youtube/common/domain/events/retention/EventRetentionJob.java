@@ -0,0 +1,111 @@
+package com.youtube.common.domain.events.retention;
+
+import com.youtube.common.domain.events.inbox.InboxRepository;
+import com.youtube.common.domain.events.outbox.OutboxArchiver;
+import com.youtube.common.domain.events.outbox.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.function.IntSupplier;
+
+/**
+ * Background job that compacts the outbox and inbox tables.
+ * 
+ * <p>Dispatched outbox events older than {@code outbox.retention.outbox-retention} are
+ * purged, or handed to an {@link OutboxArchiver} first when such a bean exists. Processed
+ * inbox messages older than {@code outbox.retention.inbox-retention} are purged. Deletes run
+ * in bounded chunks, one transaction each, so the job never holds long locks and the pending
+ * working set of both tables stays small enough to remain in the database buffer cache.</p>
+ * 
+ * <p>This component is only enabled when:
+ * - OutboxRepository bean is available
+ * - Property {@code outbox.retention.enabled} is true (default: false)
+ */
+@Component
+@ConditionalOnBean(OutboxRepository.class)
+@ConditionalOnProperty(name = "outbox.retention.enabled", havingValue = "true")
+@EnableConfigurationProperties(EventRetentionProperties.class)
+public class EventRetentionJob {
+    
+    private static final Logger log = LoggerFactory.getLogger(EventRetentionJob.class);
+    
+    private final OutboxRepository outboxRepository;
+    private final ObjectProvider<InboxRepository> inboxRepository;
+    private final ObjectProvider<OutboxArchiver> outboxArchiver;
+    private final EventRetentionProperties properties;
+    
+    private final Counter outboxPurged;
+    private final Counter inboxPurged;
+    
+    public EventRetentionJob(
+        OutboxRepository outboxRepository,
+        ObjectProvider<InboxRepository> inboxRepository,
+        ObjectProvider<OutboxArchiver> outboxArchiver,
+        EventRetentionProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.inboxRepository = inboxRepository;
+        this.outboxArchiver = outboxArchiver;
+        this.properties = properties;
+        this.outboxPurged = Counter.builder("outbox.retention.purged")
+            .description("Dispatched outbox events removed by the retention job")
+            .register(meterRegistry);
+        this.inboxPurged = Counter.builder("inbox.retention.purged")
+            .description("Processed inbox messages removed by the retention job")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Scheduled compaction run.
+     * Runs every 5 minutes by default.
+     */
+    @Scheduled(fixedDelayString = "${outbox.retention.interval:300000}")
+    public void compact() {
+        Instant now = Instant.now();
+        
+        try {
+            Instant outboxCutoff = now.minus(properties.getOutboxRetention());
+            OutboxArchiver archiver = outboxArchiver.getIfAvailable();
+            int outboxRows = drain(() -> archiver != null
+                ? outboxRepository.archiveDispatchedBefore(outboxCutoff, properties.getChunkSize(), archiver)
+                : outboxRepository.purgeDispatchedBefore(outboxCutoff, properties.getChunkSize()));
+            outboxPurged.increment(outboxRows);
+            
+            InboxRepository inbox = inboxRepository.getIfAvailable();
+            int inboxRows = 0;
+            if (inbox != null) {
+                Instant inboxCutoff = now.minus(properties.getInboxRetention());
+                inboxRows = drain(() -> inbox.purgeProcessedBefore(inboxCutoff, properties.getChunkSize()));
+                inboxPurged.increment(inboxRows);
+            }
+            
+            if (outboxRows > 0 || inboxRows > 0) {
+                log.info("Retention removed {} outbox events and {} inbox messages", outboxRows, inboxRows);
+            }
+        } catch (Exception e) {
+            log.error("Error during outbox/inbox retention", e);
+        }
+    }
+    
+    private int drain(IntSupplier chunk) {
+        int total = 0;
+        for (int i = 0; i < properties.getMaxChunksPerRun(); i++) {
+            int removed = chunk.getAsInt();
+            total += removed;
+            if (removed < properties.getChunkSize()) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,83 @@
+package com.youtube.common.domain.events.retention;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the outbox/inbox retention job.
+ */
+@ConfigurationProperties(prefix = "outbox.retention")
+public class EventRetentionProperties {
+    
+    /**
+     * Whether the retention job runs.
+     * Default: false
+     */
+    private boolean enabled = false;
+    
+    /**
+     * How long dispatched outbox events are kept before they are purged or archived.
+     * Default: 7 days
+     */
+    private Duration outboxRetention = Duration.ofDays(7);
+    
+    /**
+     * How long processed inbox messages are kept for duplicate detection.
+     * Must exceed the broker's redelivery window.
+     * Default: 14 days
+     */
+    private Duration inboxRetention = Duration.ofDays(14);
+    
+    /**
+     * Rows deleted per transaction. Small chunks keep locks and WAL bursts short.
+     * Default: 1000
+     */
+    private int chunkSize = 1000;
+    
+    /**
+     * Maximum number of chunks per table per run, bounding the work of a single run.
+     * Default: 100
+     */
+    private int maxChunksPerRun = 100;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getOutboxRetention() {
+        return outboxRetention;
+    }
+
+    public void setOutboxRetention(Duration outboxRetention) {
+        this.outboxRetention = outboxRetention;
+    }
+
+    public Duration getInboxRetention() {
+        return inboxRetention;
+    }
+
+    public void setInboxRetention(Duration inboxRetention) {
+        this.inboxRetention = inboxRetention;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxChunksPerRun() {
+        return maxChunksPerRun;
+    }
+
+    public void setMaxChunksPerRun(int maxChunksPerRun) {
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+}
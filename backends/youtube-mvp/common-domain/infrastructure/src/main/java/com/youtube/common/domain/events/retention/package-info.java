@@ -0,0 +1,10 @@
+/**
+ * Retention and compaction for the outbox and inbox tables.
+ * 
+ * <p>Components:
+ * <ul>
+ *   <li>{@link com.youtube.common.domain.events.retention.EventRetentionJob} - Chunked purge/archive background job</li>
+ *   <li>{@link com.youtube.common.domain.events.retention.EventRetentionProperties} - Retention windows and chunking</li>
+ * </ul>
+ */
+package com.youtube.common.domain.events.retention;
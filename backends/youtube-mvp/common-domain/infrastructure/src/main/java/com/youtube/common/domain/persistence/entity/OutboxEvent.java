@@ -116,6 +116,26 @@ public abstract class OutboxEvent {
     @Column(name = "error", length = 4000)
     private String error;
 
+    /**
+     * Number of failed dispatch attempts.
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    /**
+     * Earliest time the next dispatch attempt may run (exponential backoff after a failure).
+     * Null if the event has never failed.
+     */
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    /**
+     * Timestamp when the event was parked as a poison message after exhausting its retries.
+     * Parked events are no longer dispatched.
+     */
+    @Column(name = "parked_at")
+    private Instant parkedAt;
+
     /**
      * Sets the created timestamp before persisting if not already set.
      */
@@ -183,6 +203,15 @@ public abstract class OutboxEvent {
         return error != null && !error.isBlank();
     }
 
+    /**
+     * Checks if this event has been parked as a poison message.
+     * 
+     * @return true if parkedAt is not null, false otherwise
+     */
+    public boolean isParked() {
+        return parkedAt != null;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -206,6 +235,8 @@ public abstract class OutboxEvent {
                 ", createdAt=" + createdAt +
                 ", dispatchedAt=" + dispatchedAt +
                 ", hasError=" + hasError() +
+                ", attempts=" + attempts +
+                ", parked=" + isParked() +
                 '}';
     }
 }
@@ -0,0 +1,86 @@
+package com.youtube.common.domain.persistence.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-process tier of the idempotency store.
+ * 
+ * <p>See {@link TieredHttpIdempotencyRepository}.</p>
+ */
+@ConfigurationProperties(prefix = "idempotency.cache")
+public class IdempotencyCacheProperties {
+    
+    /**
+     * Whether the in-process cache sits in front of the configured repository.
+     * Default: true
+     */
+    private boolean enabled = true;
+    
+    /**
+     * Upper bound on the cached response bytes held in memory.
+     * Default: 16777216 (16 MiB)
+     */
+    private long maximumWeightBytes = 16L * 1024 * 1024;
+    
+    /**
+     * How long a stored response stays in the in-process cache. Kept well below the
+     * backing store TTL (24 hours for Redis).
+     * Default: 10m
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+    
+    /**
+     * How long a lookup miss is remembered. A remembered miss hides a response stored by
+     * another instance until it expires, so keep this short; zero disables negative caching.
+     * Default: 0s
+     */
+    private Duration negativeTtl = Duration.ZERO;
+    
+    /**
+     * Responses with larger bodies are only kept in the backing store.
+     * Default: 65536
+     */
+    private int maxBodyBytes = 64 * 1024;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumWeightBytes() {
+        return maximumWeightBytes;
+    }
+
+    public void setMaximumWeightBytes(long maximumWeightBytes) {
+        this.maximumWeightBytes = maximumWeightBytes;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    public void setNegativeTtl(Duration negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+}
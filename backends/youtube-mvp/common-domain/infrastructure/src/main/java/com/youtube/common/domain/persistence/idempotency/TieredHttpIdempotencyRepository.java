@@ -0,0 +1,100 @@
+package com.youtube.common.domain.persistence.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Two-tier HttpIdempotencyRepository: a bounded in-process cache in front of a shared store.
+ * 
+ * <p>Retries of the same request usually land on the instance that served the original,
+ * so most hits are answered from memory without a Redis or database round-trip. The cache
+ * is bounded by total response bytes and entries expire after {@code ttl}; the backing
+ * repository remains the source of truth across instances.</p>
+ * 
+ * <p>Misses can optionally be remembered for {@code negativeTtl}. A stored response always
+ * replaces a remembered miss for the same key and hash on this instance.</p>
+ */
+public class TieredHttpIdempotencyRepository implements HttpIdempotencyRepository {
+    
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+    
+    /** Sentinel for a remembered miss. */
+    private static final StoredResponse MISS = new StoredResponse(0, null);
+    
+    private final HttpIdempotencyRepository delegate;
+    private final Cache<CacheKey, StoredResponse> cache;
+    private final boolean negativeCaching;
+    private final int maxBodyBytes;
+    
+    public TieredHttpIdempotencyRepository(HttpIdempotencyRepository delegate, IdempotencyCacheProperties properties) {
+        this.delegate = delegate;
+        this.negativeCaching = !properties.getNegativeTtl().isZero() && !properties.getNegativeTtl().isNegative();
+        this.maxBodyBytes = properties.getMaxBodyBytes();
+        
+        long ttlNanos = properties.getTtl().toNanos();
+        long negativeTtlNanos = properties.getNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(properties.getMaximumWeightBytes())
+            .weigher((CacheKey key, StoredResponse value) ->
+                ENTRY_OVERHEAD_BYTES + key.idempotencyKey().length() * 2 + (value.body() != null ? value.body().length : 0))
+            .expireAfter(new Expiry<CacheKey, StoredResponse>() {
+                @Override
+                public long expireAfterCreate(CacheKey key, StoredResponse value, long currentTime) {
+                    return value == MISS ? negativeTtlNanos : ttlNanos;
+                }
+                
+                @Override
+                public long expireAfterUpdate(CacheKey key, StoredResponse value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+                
+                @Override
+                public long expireAfterRead(CacheKey key, StoredResponse value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+    
+    @Override
+    public Optional<StoredResponse> findByIdempotencyKeyAndRequestHash(String key, byte[] hash) {
+        CacheKey cacheKey = new CacheKey(key, ByteBuffer.wrap(hash));
+        StoredResponse cached = cache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached == MISS ? Optional.empty() : Optional.of(cached);
+        }
+        
+        Optional<StoredResponse> stored = delegate.findByIdempotencyKeyAndRequestHash(key, hash);
+        if (stored.isPresent()) {
+            cacheIfSmall(cacheKey, stored.get());
+        } else if (negativeCaching) {
+            cache.put(cacheKey, MISS);
+        }
+        return stored;
+    }
+    
+    @Override
+    public void storeResponse(String key, byte[] requestHash, int status, byte[] body) {
+        delegate.storeResponse(key, requestHash, status, body);
+        
+        CacheKey cacheKey = new CacheKey(key, ByteBuffer.wrap(requestHash.clone()));
+        cache.invalidate(cacheKey);
+        cacheIfSmall(cacheKey, new StoredResponse(status, body));
+    }
+    
+    private void cacheIfSmall(CacheKey cacheKey, StoredResponse response) {
+        if (response.body() == null || response.body().length <= maxBodyBytes) {
+            cache.put(cacheKey, response);
+        }
+    }
+    
+    /**
+     * Key of one cached entry; {@link ByteBuffer} gives content-based equality for the hash.
+     */
+    private record CacheKey(String idempotencyKey, ByteBuffer requestHash) {}
+}
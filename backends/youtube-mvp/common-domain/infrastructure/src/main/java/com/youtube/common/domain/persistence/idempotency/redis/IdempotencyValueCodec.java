@@ -0,0 +1,61 @@
+package com.youtube.common.domain.persistence.idempotency.redis;
+
+import com.youtube.common.domain.persistence.idempotency.HttpIdempotencyRepository.StoredResponse;
+
+/**
+ * Compact binary encoding of stored idempotency responses.
+ * 
+ * <p>Layout: {@code [version:1][status:2][body:n]}. The body is stored as raw bytes, so
+ * no Base64 or JSON work is needed on either path. The version byte is never {@code '{'},
+ * which lets readers tell these values apart from the older JSON format.</p>
+ */
+public final class IdempotencyValueCodec {
+    
+    static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 3;
+    
+    private IdempotencyValueCodec() {}
+    
+    /**
+     * Encodes a response.
+     * 
+     * @param status the HTTP status code (0-65535)
+     * @param body the response body, may be null
+     * @return the encoded value
+     */
+    public static byte[] encode(int status, byte[] body) {
+        int bodyLength = body != null ? body.length : 0;
+        byte[] value = new byte[HEADER_BYTES + bodyLength];
+        value[0] = VERSION;
+        value[1] = (byte) (status >>> 8);
+        value[2] = (byte) status;
+        if (bodyLength > 0) {
+            System.arraycopy(body, 0, value, HEADER_BYTES, bodyLength);
+        }
+        return value;
+    }
+    
+    /**
+     * Decodes a value written by {@link #encode}.
+     * 
+     * @param value the encoded value
+     * @return the stored response
+     * @throws IllegalArgumentException if the value is not in this format
+     */
+    public static StoredResponse decode(byte[] value) {
+        if (!isBinary(value)) {
+            throw new IllegalArgumentException("Not a binary idempotency value");
+        }
+        int status = ((value[1] & 0xFF) << 8) | (value[2] & 0xFF);
+        byte[] body = new byte[value.length - HEADER_BYTES];
+        System.arraycopy(value, HEADER_BYTES, body, 0, body.length);
+        return new StoredResponse(status, body);
+    }
+    
+    /**
+     * Checks whether a value uses this encoding (as opposed to the older JSON format).
+     */
+    public static boolean isBinary(byte[] value) {
+        return value != null && value.length >= HEADER_BYTES && value[0] == VERSION;
+    }
+}
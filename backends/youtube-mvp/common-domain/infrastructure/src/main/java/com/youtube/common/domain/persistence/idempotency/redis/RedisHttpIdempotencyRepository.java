@@ -7,9 +7,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Base64;
 import java.util.Optional;
@@ -22,7 +26,8 @@ import java.util.Optional;
  * 
  * <p>Stores idempotency records in Redis with a TTL of 24 hours.
  * Redis key format: "idempotency:{key}:{base64(hash)}"
- * Value format: JSON with status and base64-encoded body.</p>
+ * Value format: binary, see {@link IdempotencyValueCodec}. Values written in the older
+ * JSON format (status and base64-encoded body) are still readable until they expire.</p>
  */
 @Repository
 @ConditionalOnBean(StringRedisTemplate.class)
@@ -46,15 +51,19 @@ public class RedisHttpIdempotencyRepository implements HttpIdempotencyRepository
     
     @Override
     public Optional<StoredResponse> findByIdempotencyKeyAndRequestHash(String key, byte[] hash) {
-        String redisKey = buildRedisKey(key, hash);
-        String json = redisTemplate.opsForValue().get(redisKey);
+        byte[] redisKey = buildRedisKey(key, hash);
+        byte[] value = redisTemplate.execute(
+            (RedisCallback<byte[]>) connection -> connection.stringCommands().get(redisKey));
         
-        if (json == null || json.isEmpty()) {
+        if (value == null || value.length == 0) {
             return Optional.empty();
         }
         
         try {
-            return parseStoredResponse(json);
+            if (IdempotencyValueCodec.isBinary(value)) {
+                return Optional.of(IdempotencyValueCodec.decode(value));
+            }
+            return parseStoredResponse(new String(value, StandardCharsets.UTF_8));
         } catch (Exception e) {
             log.warn("Failed to parse stored response for key {}", key, e);
             return Optional.empty();
@@ -63,28 +72,27 @@ public class RedisHttpIdempotencyRepository implements HttpIdempotencyRepository
     
     @Override
     public void storeResponse(String key, byte[] requestHash, int status, byte[] body) {
-        String redisKey = buildRedisKey(key, requestHash);
+        byte[] redisKey = buildRedisKey(key, requestHash);
         
         try {
-            String json = serializeResponse(status, body);
-            redisTemplate.opsForValue().set(redisKey, json, TTL);
+            byte[] value = IdempotencyValueCodec.encode(status, body);
+            redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                .set(redisKey, value, Expiration.from(TTL), RedisStringCommands.SetOption.upsert()));
         } catch (Exception e) {
             log.error("Failed to store idempotency response for key {}", key, e);
             throw new RuntimeException("Failed to store idempotency response", e);
         }
     }
     
-    private String buildRedisKey(String idempotencyKey, byte[] hash) {
+    private byte[] buildRedisKey(String idempotencyKey, byte[] hash) {
+        // Key format unchanged so entries written before the binary value format stay reachable
         String hashBase64 = Base64.getEncoder().encodeToString(hash);
-        return KEY_PREFIX + idempotencyKey + ":" + hashBase64;
-    }
-    
-    private String serializeResponse(int status, byte[] body) throws Exception {
-        String bodyBase64 = body != null ? Base64.getEncoder().encodeToString(body) : null;
-        ResponseData data = new ResponseData(status, bodyBase64);
-        return objectMapper.writeValueAsString(data);
+        return (KEY_PREFIX + idempotencyKey + ":" + hashBase64).getBytes(StandardCharsets.UTF_8);
     }
     
+    /**
+     * Reads a value in the older JSON format.
+     */
     private Optional<StoredResponse> parseStoredResponse(String json) throws Exception {
         ResponseData data = objectMapper.readValue(json, ResponseData.class);
         byte[] body = data.body() != null ? Base64.getDecoder().decode(data.body()) : null;
@@ -92,7 +100,7 @@ public class RedisHttpIdempotencyRepository implements HttpIdempotencyRepository
     }
     
     /**
-     * Internal data class for JSON serialization.
+     * Internal data class for the older JSON format.
      */
     private record ResponseData(int status, String body) {}
 }
@@ -18,9 +18,18 @@ public final class Hashing {
      * @throws RuntimeException if SHA-256 algorithm is not available
      */
     public static byte[] sha256(byte[] input) {
+        return newSha256().digest(input);
+    }
+
+    /**
+     * Creates a SHA-256 digest for incremental hashing of data that is not in one array.
+     * 
+     * @return a new MessageDigest instance
+     * @throws RuntimeException if SHA-256 algorithm is not available
+     */
+    public static MessageDigest newSha256() {
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            return md.digest(input);
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("SHA-256 algorithm not available", e);
         }
@@ -3,19 +3,27 @@ package com.youtube.common.domain.web;
 import com.youtube.common.domain.persistence.idempotency.HttpIdempotencyRepository;
 import com.youtube.common.domain.utils.Hashing;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpMethod;
 import org.springframework.util.StreamUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
 import org.springframework.web.util.ContentCachingResponseWrapper;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 
 /**
  * Filter for handling HTTP idempotency using the Idempotency-Key header.
@@ -29,12 +37,17 @@ import java.nio.charset.StandardCharsets;
  * 
  * <p>Only applies to state-changing HTTP methods: POST, PUT, PATCH.</p>
  * 
+ * <p>The request hash is computed over the raw bytes of method, URI and body as the body is
+ * read, without decoding the body into a String. The body is buffered once and replayed to
+ * the rest of the chain.</p>
+ * 
  * @see <a href="https://datatracker.ietf.org/doc/html/draft-ietf-httpapi-idempotency-key-header">HTTP Idempotency Key Header</a>
  */
 public class IdempotencyFilter extends OncePerRequestFilter {
     
     private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
     private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final byte SEPARATOR = '|';
     
     private final HttpIdempotencyRepository repository;
     
@@ -65,18 +78,20 @@ public class IdempotencyFilter extends OncePerRequestFilter {
             return;
         }
         
-        // Read request body (need to wrap for reading)
-        ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(request);
-        byte[] body = wrappedRequest.getContentAsByteArray();
-        if (body.length == 0) {
-            // Try to read from input stream if not cached
-            body = StreamUtils.copyToByteArray(request.getInputStream());
+        // Request signature: SHA-256 over method + "|" + URI + "|" + body, streamed while reading
+        MessageDigest digest = Hashing.newSha256();
+        digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+        digest.update(SEPARATOR);
+        digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+        digest.update(SEPARATOR);
+        byte[] body;
+        try (DigestInputStream in = new DigestInputStream(request.getInputStream(), digest)) {
+            body = StreamUtils.copyToByteArray(in);
         }
+        byte[] requestHash = digest.digest();
         
-        // Create request signature: method + URI + body
-        String signature = request.getMethod() + "|" + request.getRequestURI() + "|" 
-            + new String(body, StandardCharsets.UTF_8);
-        byte[] requestHash = Hashing.sha256(signature);
+        // Downstream handlers read the buffered body instead of the consumed stream
+        CachedBodyRequest wrappedRequest = new CachedBodyRequest(request, body);
         
         // Check if we have a cached response
         var storedResponseOpt = repository.findByIdempotencyKeyAndRequestHash(idempotencyKey, requestHash);
@@ -110,5 +125,77 @@ public class IdempotencyFilter extends OncePerRequestFilter {
             throw e;
         }
     }
+    
+    /**
+     * Request wrapper that replays an already-read body.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+                
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+                
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                /**
+                 * The body is already in memory, so the listener is told at once that all of it
+                 * can be read, and then that it has been read.
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+        
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+        
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
 }
 
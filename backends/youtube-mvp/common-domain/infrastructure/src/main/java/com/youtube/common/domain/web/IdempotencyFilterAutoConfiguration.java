@@ -1,10 +1,13 @@
 package com.youtube.common.domain.web;
 
 import com.youtube.common.domain.persistence.idempotency.HttpIdempotencyRepository;
+import com.youtube.common.domain.persistence.idempotency.IdempotencyCacheProperties;
+import com.youtube.common.domain.persistence.idempotency.TieredHttpIdempotencyRepository;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,22 +24,31 @@ import org.springframework.core.Ordered;
  * 
  * <p>The filter is registered with order HIGHEST_PRECEDENCE + 1, so it runs
  * after CorrelationFilter but before other filters.</p>
+ * 
+ * <p>Unless {@code idempotency.cache.enabled=false}, the repository is wrapped in a
+ * {@link TieredHttpIdempotencyRepository} so repeated lookups are served from memory.</p>
  */
 @Configuration
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @ConditionalOnClass(HttpIdempotencyRepository.class)
 @ConditionalOnBean(HttpIdempotencyRepository.class)
+@EnableConfigurationProperties(IdempotencyCacheProperties.class)
 public class IdempotencyFilterAutoConfiguration {
     
     /**
      * Creates the IdempotencyFilter bean.
      * 
      * @param repository the idempotency repository (auto-configured)
+     * @param cacheProperties settings of the in-process cache tier
      * @return configured IdempotencyFilter
      */
     @Bean
     @ConditionalOnMissingBean
-    public IdempotencyFilter idempotencyFilter(HttpIdempotencyRepository repository) {
+    public IdempotencyFilter idempotencyFilter(HttpIdempotencyRepository repository,
+                                               IdempotencyCacheProperties cacheProperties) {
+        if (cacheProperties.isEnabled()) {
+            return new IdempotencyFilter(new TieredHttpIdempotencyRepository(repository, cacheProperties));
+        }
         return new IdempotencyFilter(repository);
     }
     
@@ -0,0 +1,139 @@
+package com.youtube.common.domain.events.outbox;
+
+import com.youtube.common.domain.persistence.entity.OutboxEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Publishes outbox batches through {@link KafkaMessagePublisher} to an embedded KRaft broker
+ * and reads them back: checks keys, headers and per-aggregate ordering.
+ */
+class KafkaMessagePublisherIntegrationTest {
+    
+    private static final String TOPIC = "domain-events";
+    
+    private static EmbeddedKafkaBroker broker;
+    private static Producer<String, String> producer;
+    
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 4, TOPIC);
+        broker.afterPropertiesSet();
+        
+        DomainEventPublisherProperties.Kafka kafka = new DomainEventPublisherProperties.Kafka();
+        kafka.setBootstrapServers(broker.getBrokersAsString());
+        producer = new KafkaProducer<>(KafkaMessagePublisherConfig.producerConfig(kafka));
+    }
+    
+    @AfterAll
+    static void stopBroker() {
+        producer.close();
+        broker.destroy();
+    }
+    
+    @Test
+    void publishBatchDeliversEventsKeyedByAggregateInOrder() {
+        KafkaMessagePublisher publisher = new KafkaMessagePublisher(producer, TOPIC);
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            events.add(event("agg-" + (i % 3), i));
+        }
+        
+        publisher.publishBatch(events);
+        
+        List<ConsumerRecord<String, String>> records = consumeAll(events.size());
+        assertThat(records).hasSize(events.size());
+        
+        ConsumerRecord<String, String> first = records.stream()
+            .filter(r -> r.key().equals("agg-0"))
+            .findFirst()
+            .orElseThrow();
+        assertThat(header(first, "eventType")).isEqualTo("video_published");
+        assertThat(header(first, "aggregateType")).isEqualTo("Video");
+        assertThat(header(first, "aggregateId")).isEqualTo("agg-0");
+        assertThat(header(first, "messageId")).isNotBlank();
+        
+        // Every aggregate's events arrive in the order they were written to the outbox
+        Map<String, List<Integer>> sequenceByKey = records.stream().collect(Collectors.groupingBy(
+            ConsumerRecord::key,
+            Collectors.mapping(r -> Integer.parseInt(r.value().replaceAll("\\D", "")), Collectors.toList())));
+        assertThat(sequenceByKey).hasSize(3);
+        sequenceByKey.values().forEach(sequence -> assertThat(sequence).isSorted());
+    }
+    
+    @Test
+    void publishBatchAsyncCompletesAfterBrokerAcknowledgement() {
+        KafkaMessagePublisher publisher = new KafkaMessagePublisher(producer, TOPIC);
+        OutboxEvent event = event("agg-async", 1);
+        
+        publisher.publishBatchAsync(List.of(event)).join();
+        
+        assertThat(publisher.getBrokerMessageId(event)).isEqualTo(event.getId());
+    }
+    
+    private static List<ConsumerRecord<String, String>> consumeAll(int expected) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "test-" + UUID.randomUUID());
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(config)) {
+            consumer.subscribe(List.of(TOPIC));
+            Instant deadline = Instant.now().plusSeconds(30);
+            while (Instant.now().isBefore(deadline)) {
+                consumer.poll(Duration.ofMillis(200)).forEach(r -> {
+                    if (r.key() != null && r.key().startsWith("agg-") && !r.key().equals("agg-async")) {
+                        records.add(r);
+                    }
+                });
+                if (records.size() >= expected) {
+                    break;
+                }
+            }
+        }
+        return records;
+    }
+    
+    private static String header(ConsumerRecord<String, String> record, String key) {
+        return new String(record.headers().lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+    
+    static OutboxEvent event(String aggregateId, int sequence) {
+        TestOutboxEvent event = new TestOutboxEvent();
+        event.setId(UUID.randomUUID().toString().replace("-", "").substring(0, 26));
+        event.setEventType("video_published");
+        event.setAggregateType("Video");
+        event.setAggregateId(aggregateId);
+        event.setPayloadJson("{\"seq\":" + sequence + "}");
+        event.setCorrelationId(UUID.randomUUID().toString());
+        event.setCreatedAt(Instant.now());
+        return event;
+    }
+    
+    static class TestOutboxEvent extends OutboxEvent {
+    }
+}
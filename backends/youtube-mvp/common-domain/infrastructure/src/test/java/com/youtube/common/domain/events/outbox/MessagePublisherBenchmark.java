@@ -0,0 +1,171 @@
+package com.youtube.common.domain.events.outbox;
+
+import com.youtube.common.domain.persistence.entity.OutboxEvent;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of outbox publishing throughput: Kafka vs. the Service Bus publish pattern.
+ * 
+ * <p>Both backends write to the same embedded Kafka broker so the numbers isolate the publish
+ * pattern rather than network distance. {@code kafka} is {@link KafkaMessagePublisher} driven the
+ * way {@link PipelinedOutboxDispatcher} drives it: events hashed into lanes by partition key, the
+ * lanes running in parallel, and each lane sending one chunk and waiting for its acknowledgement
+ * before sending the next.
+ * {@code serviceBusStandIn} mirrors {@link ServiceBusMessagePublisher#publishBatch}: events grouped by
+ * partition key and one blocking send per group, since the Service Bus SDK has no local emulator.</p>
+ * 
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="com.youtube.common.domain.events.outbox.MessagePublisherBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class MessagePublisherBenchmark {
+    
+    private static final String TOPIC = "bench-events";
+    private static final int EVENTS_PER_OP = 1_000;
+    // OutboxDispatcherProperties defaults
+    private static final int CHUNK_SIZE = 50;
+    private static final int LANES = 4;
+    private static final int AGGREGATES = 64;
+    
+    @Param({"kafka", "serviceBusStandIn"})
+    public String backend;
+    
+    private EmbeddedKafkaBroker broker;
+    private Producer<String, String> producer;
+    private MessagePublisher publisher;
+    private ExecutorService laneExecutor;
+    private List<List<List<OutboxEvent>>> laneChunks;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        broker = new EmbeddedKafkaKraftBroker(1, 8, TOPIC);
+        broker.afterPropertiesSet();
+        
+        DomainEventPublisherProperties.Kafka kafka = new DomainEventPublisherProperties.Kafka();
+        kafka.setBootstrapServers(broker.getBrokersAsString());
+        producer = new KafkaProducer<>(KafkaMessagePublisherConfig.producerConfig(kafka));
+        publisher = "kafka".equals(backend)
+            ? new KafkaMessagePublisher(producer, TOPIC)
+            : new ServiceBusStandIn(producer);
+        
+        List<OutboxEvent> events = new ArrayList<>(EVENTS_PER_OP);
+        for (int i = 0; i < EVENTS_PER_OP; i++) {
+            events.add(KafkaMessagePublisherIntegrationTest.event("agg-" + (i % AGGREGATES), i));
+        }
+        List<List<OutboxEvent>> lanes = new ArrayList<>(LANES);
+        for (int i = 0; i < LANES; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (OutboxEvent event : events) {
+            lanes.get(Math.floorMod(event.getPartitionKey().hashCode(), LANES)).add(event);
+        }
+        laneChunks = new ArrayList<>(LANES);
+        for (List<OutboxEvent> lane : lanes) {
+            List<List<OutboxEvent>> chunks = new ArrayList<>();
+            for (int from = 0; from < lane.size(); from += CHUNK_SIZE) {
+                chunks.add(lane.subList(from, Math.min(from + CHUNK_SIZE, lane.size())));
+            }
+            laneChunks.add(chunks);
+        }
+        laneExecutor = Executors.newFixedThreadPool(LANES);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        laneExecutor.shutdownNow();
+        producer.close();
+        broker.destroy();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_OP)
+    public void publish() {
+        List<CompletableFuture<Void>> lanes = new ArrayList<>(LANES);
+        for (List<List<OutboxEvent>> chunks : laneChunks) {
+            lanes.add(CompletableFuture.runAsync(() -> {
+                for (List<OutboxEvent> chunk : chunks) {
+                    publisher.publishBatchAsync(chunk).join();
+                }
+            }, laneExecutor));
+        }
+        for (CompletableFuture<Void> lane : lanes) {
+            lane.join();
+        }
+    }
+    
+    /**
+     * Service Bus publish pattern on top of a Kafka producer: one blocking round-trip per
+     * partition-key group, like {@code sender.sendMessages(batch)}.
+     */
+    static class ServiceBusStandIn implements MessagePublisher {
+        
+        private final Producer<String, String> producer;
+        
+        ServiceBusStandIn(Producer<String, String> producer) {
+            this.producer = producer;
+        }
+        
+        @Override
+        public void publish(OutboxEvent event) {
+            publishBatch(List.of(event));
+        }
+        
+        @Override
+        public void publishBatch(List<OutboxEvent> events) {
+            Map<String, List<OutboxEvent>> byPartitionKey = new LinkedHashMap<>();
+            for (OutboxEvent event : events) {
+                byPartitionKey.computeIfAbsent(event.getPartitionKey(), k -> new ArrayList<>()).add(event);
+            }
+            try {
+                for (List<OutboxEvent> group : byPartitionKey.values()) {
+                    List<Future<?>> sends = new ArrayList<>(group.size());
+                    for (OutboxEvent event : group) {
+                        sends.add(producer.send(new ProducerRecord<>(TOPIC, event.getPartitionKey(), event.getPayloadJson())));
+                    }
+                    producer.flush();
+                    for (Future<?> send : sends) {
+                        send.get();
+                    }
+                }
+            } catch (Exception e) {
+                throw new MessagePublishException("Stand-in publish failed", e);
+            }
+        }
+        
+        @Override
+        public String getBrokerMessageId(OutboxEvent event) {
+            return event.getId();
+        }
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(MessagePublisherBenchmark.class.getSimpleName())
+            .forks(1)
+            .warmupIterations(2)
+            .measurementIterations(5)
+            .build();
+        
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,207 @@
+package com.youtube.common.domain.events.outbox;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JMH benchmark for the outbox claim path against embedded H2 in PostgreSQL mode (no Testcontainers).
+ * 
+ * <p>Seeds a backlog with the same batch insert used by {@link ClaimingJpaOutboxRepository#append},
+ * then drains it with N concurrent "replicas". Each replica runs the repository's claim statements
+ * ({@code FOR UPDATE SKIP LOCKED} on aggregate heads, the rows queued behind them, then the lease), simulates a broker round-trip and bulk-acknowledges.
+ * With SKIP LOCKED the drain time should drop roughly linearly with replica count; the
+ * {@code blocking} variant uses a plain {@code FOR UPDATE} like {@link JpaOutboxRepository} for comparison.</p>
+ * 
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="com.youtube.common.domain.events.outbox.OutboxClaimBenchmark"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class OutboxClaimBenchmark {
+    
+    private static final String TABLE = "outbox_events";
+    private static final int BACKLOG = 5_000;
+    private static final int CLAIM_SIZE = 100;
+    private static final long BROKER_RTT_MILLIS = 5;
+    
+    @Param({"1", "2", "4", "8"})
+    public int replicas;
+    
+    @Param({"skipLocked", "blocking"})
+    public String claimMode;
+    
+    private String url;
+    private Connection keepAlive;
+    private ExecutorService executor;
+    
+    @Setup(Level.Trial)
+    public void setupDatabase() throws SQLException {
+        url = "jdbc:h2:mem:outbox_" + System.nanoTime() + ";MODE=PostgreSQL;LOCK_TIMEOUT=10000";
+        keepAlive = DriverManager.getConnection(url);
+        try (Statement st = keepAlive.createStatement()) {
+            st.execute("CREATE TABLE " + TABLE + " (" +
+                "id VARCHAR(26) PRIMARY KEY, event_type VARCHAR(200) NOT NULL, aggregate_type VARCHAR(100), " +
+                "aggregate_id VARCHAR(128), payload_json VARCHAR(4000) NOT NULL, correlation_id VARCHAR(64), " +
+                "causation_id VARCHAR(64), traceparent VARCHAR(255), created_at TIMESTAMP NOT NULL, " +
+                "dispatched_at TIMESTAMP, broker_message_id VARCHAR(200), error VARCHAR(4000), " +
+                "attempts INT DEFAULT 0 NOT NULL, next_attempt_at TIMESTAMP, parked_at TIMESTAMP, " +
+                "claimed_by VARCHAR(64), claimed_until TIMESTAMP)");
+            st.execute("CREATE INDEX ix_outbox_pending ON " + TABLE + " (created_at)");
+            st.execute("CREATE INDEX ix_outbox_pending_aggregate ON " + TABLE + " (aggregate_id, created_at, id)");
+        }
+        executor = Executors.newFixedThreadPool(replicas);
+    }
+    
+    @Setup(Level.Invocation)
+    public void seedBacklog() throws SQLException {
+        try (Statement st = keepAlive.createStatement()) {
+            st.execute("DELETE FROM " + TABLE);
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        try (PreparedStatement ps = keepAlive.prepareStatement(OutboxClaimSql.insert(TABLE, "?"))) {
+            for (int i = 0; i < BACKLOG; i++) {
+                ps.setString(1, String.format("%026d", i));
+                ps.setString(2, "video.published");
+                ps.setString(3, "Video");
+                ps.setString(4, "video-" + (i % 500));
+                ps.setString(5, "{\"n\":" + i + "}");
+                ps.setString(6, null);
+                ps.setString(7, null);
+                ps.setString(8, null);
+                ps.setTimestamp(9, now);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        executor.shutdownNow();
+        keepAlive.close();
+    }
+    
+    @Benchmark
+    public int drainBacklog() throws Exception {
+        AtomicInteger dispatched = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int r = 0; r < replicas; r++) {
+            String owner = "replica-" + r;
+            futures.add(executor.submit(() -> {
+                runReplica(owner, dispatched);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return dispatched.get();
+    }
+    
+    private void runReplica(String owner, AtomicInteger dispatched) throws Exception {
+        String select = OutboxClaimSql.selectClaimable(TABLE);
+        if ("blocking".equals(claimMode)) {
+            select = select.replace(" SKIP LOCKED", "");
+        }
+        try (Connection connection = DriverManager.getConnection(url)) {
+            while (true) {
+                List<String> ids = claim(connection, select, owner);
+                if (ids.isEmpty()) {
+                    return;
+                }
+                // Broker publish happens outside the claim transaction, as in the dispatcher
+                Thread.sleep(BROKER_RTT_MILLIS);
+                acknowledge(connection, ids);
+                dispatched.addAndGet(ids.size());
+            }
+        }
+    }
+    
+    private List<String> claim(Connection connection, String select, String owner) throws SQLException {
+        connection.setAutoCommit(false);
+        Instant now = Instant.now();
+        List<String> ids = new ArrayList<>(CLAIM_SIZE);
+        try (PreparedStatement ps = connection.prepareStatement(select)) {
+            ps.setTimestamp(1, Timestamp.from(now));
+            ps.setTimestamp(2, Timestamp.from(now));
+            ps.setInt(3, CLAIM_SIZE);
+            List<String> aggregateIds = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (rs.getString(2) == null) {
+                        ids.add(rs.getString(1));
+                    } else {
+                        aggregateIds.add(rs.getString(2));
+                    }
+                }
+            }
+            if (!aggregateIds.isEmpty() && ids.size() < CLAIM_SIZE) {
+                try (PreparedStatement aggregates = connection.prepareStatement(
+                        OutboxClaimSql.selectAggregates(TABLE, aggregateIds.size()))) {
+                    for (int i = 0; i < aggregateIds.size(); i++) {
+                        aggregates.setString(i + 1, aggregateIds.get(i));
+                    }
+                    aggregates.setInt(aggregateIds.size() + 1, CLAIM_SIZE - ids.size());
+                    try (ResultSet rs = aggregates.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getString(1));
+                        }
+                    }
+                }
+            }
+        }
+        if (!ids.isEmpty()) {
+            try (PreparedStatement ps = connection.prepareStatement(OutboxClaimSql.lease(TABLE, ids.size()))) {
+                ps.setString(1, owner);
+                ps.setTimestamp(2, Timestamp.from(now.plusSeconds(30)));
+                for (int i = 0; i < ids.size(); i++) {
+                    ps.setString(i + 3, ids.get(i));
+                }
+                ps.executeUpdate();
+            }
+        }
+        connection.commit();
+        return ids;
+    }
+    
+    private void acknowledge(Connection connection, List<String> ids) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(OutboxClaimSql.acknowledge(TABLE, ids.size()))) {
+            ps.setTimestamp(1, Timestamp.from(Instant.now()));
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setString(i + 2, ids.get(i));
+            }
+            ps.executeUpdate();
+        }
+        connection.commit();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(OutboxClaimBenchmark.class.getSimpleName())
+            .forks(1)
+            .warmupIterations(2)
+            .measurementIterations(5)
+            .build();
+        
+        new Runner(opt).run();
+    }
+}
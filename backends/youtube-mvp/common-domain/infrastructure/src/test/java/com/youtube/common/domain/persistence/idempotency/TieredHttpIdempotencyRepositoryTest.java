@@ -0,0 +1,110 @@
+package com.youtube.common.domain.persistence.idempotency;
+
+import com.youtube.common.domain.persistence.idempotency.HttpIdempotencyRepository.StoredResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TieredHttpIdempotencyRepositoryTest {
+    
+    private static final byte[] BODY = "{\"id\":\"order-1\"}".getBytes(StandardCharsets.UTF_8);
+    
+    private final HttpIdempotencyRepository delegate = mock(HttpIdempotencyRepository.class);
+    private IdempotencyCacheProperties properties;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyCacheProperties();
+    }
+    
+    @Test
+    void storedResponseIsServedFromMemoryWithoutCallingTheDelegate() {
+        TieredHttpIdempotencyRepository repository = new TieredHttpIdempotencyRepository(delegate, properties);
+        
+        repository.storeResponse("key-1", hash(1), 201, BODY);
+        Optional<StoredResponse> found = repository.findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+        
+        verify(delegate).storeResponse("key-1", hash(1), 201, BODY);
+        verify(delegate, never()).findByIdempotencyKeyAndRequestHash(anyString(), any());
+        assertThat(found).hasValueSatisfying(response -> {
+            assertThat(response.status()).isEqualTo(201);
+            assertThat(response.body()).isEqualTo(BODY);
+        });
+    }
+    
+    @Test
+    void delegateHitIsCachedAndKeyedByHashContent() {
+        when(delegate.findByIdempotencyKeyAndRequestHash("key-1", hash(1)))
+            .thenReturn(Optional.of(new StoredResponse(200, BODY)));
+        TieredHttpIdempotencyRepository repository = new TieredHttpIdempotencyRepository(delegate, properties);
+        
+        repository.findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+        Optional<StoredResponse> second = repository.findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+        Optional<StoredResponse> otherHash = repository.findByIdempotencyKeyAndRequestHash("key-1", hash(2));
+        
+        assertThat(second).isPresent();
+        assertThat(otherHash).isEmpty();
+        verify(delegate, times(1)).findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+    }
+    
+    @Test
+    void missesAreNotRememberedByDefault() {
+        when(delegate.findByIdempotencyKeyAndRequestHash("key-1", hash(1))).thenReturn(Optional.empty());
+        TieredHttpIdempotencyRepository repository = new TieredHttpIdempotencyRepository(delegate, properties);
+        
+        repository.findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+        repository.findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+        
+        verify(delegate, times(2)).findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+    }
+    
+    @Test
+    void rememberedMissIsReplacedByStoredResponse() {
+        properties.setNegativeTtl(Duration.ofMinutes(1));
+        when(delegate.findByIdempotencyKeyAndRequestHash("key-1", hash(1))).thenReturn(Optional.empty());
+        TieredHttpIdempotencyRepository repository = new TieredHttpIdempotencyRepository(delegate, properties);
+        
+        Optional<StoredResponse> first = repository.findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+        Optional<StoredResponse> second = repository.findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+        repository.storeResponse("key-1", hash(1), 201, BODY);
+        Optional<StoredResponse> afterStore = repository.findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+        
+        assertThat(first).isEmpty();
+        assertThat(second).isEmpty();
+        assertThat(afterStore).hasValueSatisfying(response -> assertThat(response.status()).isEqualTo(201));
+        verify(delegate, times(1)).findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+    }
+    
+    @Test
+    void largeBodiesAreOnlyKeptInTheDelegate() {
+        properties.setMaxBodyBytes(4);
+        when(delegate.findByIdempotencyKeyAndRequestHash("key-1", hash(1)))
+            .thenReturn(Optional.of(new StoredResponse(200, BODY)));
+        TieredHttpIdempotencyRepository repository = new TieredHttpIdempotencyRepository(delegate, properties);
+        
+        repository.storeResponse("key-1", hash(1), 200, BODY);
+        Optional<StoredResponse> found = repository.findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+        
+        assertThat(found).isPresent();
+        verify(delegate).storeResponse("key-1", hash(1), 200, BODY);
+        verify(delegate).findByIdempotencyKeyAndRequestHash("key-1", hash(1));
+    }
+    
+    private static byte[] hash(int seed) {
+        byte[] hash = new byte[32];
+        hash[0] = (byte) seed;
+        return hash;
+    }
+}
@@ -0,0 +1,57 @@
+package com.youtube.common.domain.persistence.idempotency.redis;
+
+import com.youtube.common.domain.persistence.idempotency.HttpIdempotencyRepository.StoredResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyValueCodecTest {
+    
+    @Test
+    void encodeRoundTripsStatusAndBody() {
+        byte[] body = "{\"id\":\"order-1\"}".getBytes(StandardCharsets.UTF_8);
+        
+        StoredResponse decoded = IdempotencyValueCodec.decode(IdempotencyValueCodec.encode(201, body));
+        
+        assertThat(decoded.status()).isEqualTo(201);
+        assertThat(decoded.body()).isEqualTo(body);
+    }
+    
+    @Test
+    void encodeKeepsFullStatusRangeAndEmptyBody() {
+        StoredResponse max = IdempotencyValueCodec.decode(IdempotencyValueCodec.encode(65535, new byte[0]));
+        StoredResponse noBody = IdempotencyValueCodec.decode(IdempotencyValueCodec.encode(204, null));
+        
+        assertThat(max.status()).isEqualTo(65535);
+        assertThat(max.hasBody()).isFalse();
+        assertThat(noBody.status()).isEqualTo(204);
+        assertThat(noBody.body()).isEmpty();
+    }
+    
+    @Test
+    void isBinaryTellsLegacyJsonAndCorruptValuesApart() {
+        byte[] legacyJson = "{\"status\":200,\"body\":\"e30=\"}".getBytes(StandardCharsets.UTF_8);
+        
+        assertThat(IdempotencyValueCodec.isBinary(IdempotencyValueCodec.encode(200, null))).isTrue();
+        assertThat(IdempotencyValueCodec.isBinary(legacyJson)).isFalse();
+        assertThat(IdempotencyValueCodec.isBinary(new byte[] {IdempotencyValueCodec.VERSION, 0})).isFalse();
+        assertThat(IdempotencyValueCodec.isBinary(new byte[0])).isFalse();
+        assertThat(IdempotencyValueCodec.isBinary(null)).isFalse();
+    }
+    
+    @Test
+    void decodeRejectsCorruptInput() {
+        byte[] wrongVersion = IdempotencyValueCodec.encode(200, new byte[] {1, 2, 3});
+        wrongVersion[0] = (byte) (IdempotencyValueCodec.VERSION + 1);
+        
+        assertThatThrownBy(() -> IdempotencyValueCodec.decode(wrongVersion))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> IdempotencyValueCodec.decode(new byte[] {IdempotencyValueCodec.VERSION, 0}))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> IdempotencyValueCodec.decode(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,125 @@
+package com.youtube.common.domain.web;
+
+import com.youtube.common.domain.persistence.idempotency.HttpIdempotencyRepository;
+import com.youtube.common.domain.persistence.idempotency.IdempotencyCacheProperties;
+import com.youtube.common.domain.persistence.idempotency.TieredHttpIdempotencyRepository;
+import com.youtube.common.domain.persistence.idempotency.redis.IdempotencyValueCodec;
+import com.youtube.common.domain.utils.Hashing;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the IdempotencyFilter replay (cache hit) path across request body sizes.
+ * 
+ * <p>{@code remote} stands in for Redis without the network: every lookup builds the Base64 key
+ * and decodes the stored binary value, like {@code RedisHttpIdempotencyRepository}.
+ * {@code tiered} puts {@link TieredHttpIdempotencyRepository} in front of it.
+ * {@link #legacySignatureHash} measures the previous String-concatenation hash for comparison.</p>
+ * 
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="com.youtube.common.domain.web.IdempotencyFilterBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class IdempotencyFilterBenchmark {
+    
+    private static final String KEY = "01HZX3K8J6Y5T4R3E2W1Q0P9O8";
+    private static final String URI = "/api/v1/videos";
+    
+    @Param({"256", "4096", "65536"})
+    public int bodyBytes;
+    
+    @Param({"remote", "tiered"})
+    public String store;
+    
+    private byte[] body;
+    private IdempotencyFilter filter;
+    private final FilterChain chain = (request, response) -> {
+        throw new IllegalStateException("Replay path must not reach the chain");
+    };
+    
+    @Setup(Level.Trial)
+    public void setup() throws ServletException, IOException {
+        body = new byte[bodyBytes];
+        Arrays.fill(body, (byte) 'a');
+        
+        HttpIdempotencyRepository repository = new InMemoryRemoteStore();
+        if ("tiered".equals(store)) {
+            repository = new TieredHttpIdempotencyRepository(repository, new IdempotencyCacheProperties());
+        }
+        filter = new IdempotencyFilter(repository);
+        
+        // First request executes and stores the response; benchmark iterations replay it
+        filter.doFilter(request(), new MockHttpServletResponse(), (request, response) -> {
+            response.getOutputStream().write("{\"id\":\"v1\"}".getBytes(StandardCharsets.UTF_8));
+        });
+    }
+    
+    @Benchmark
+    public MockHttpServletResponse replay() throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, chain);
+        return response;
+    }
+    
+    @Benchmark
+    public void legacySignatureHash(Blackhole bh) {
+        String signature = "POST" + "|" + URI + "|" + new String(body, StandardCharsets.UTF_8);
+        bh.consume(Hashing.sha256(signature));
+    }
+    
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", URI);
+        request.addHeader("Idempotency-Key", KEY);
+        request.setContent(body);
+        return request;
+    }
+    
+    /**
+     * Redis stand-in doing the same per-call key and value encoding work.
+     */
+    static class InMemoryRemoteStore implements HttpIdempotencyRepository {
+        
+        private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+        
+        @Override
+        public Optional<StoredResponse> findByIdempotencyKeyAndRequestHash(String key, byte[] hash) {
+            byte[] value = values.get(key + ":" + Base64.getEncoder().encodeToString(hash));
+            return value != null ? Optional.of(IdempotencyValueCodec.decode(value)) : Optional.empty();
+        }
+        
+        @Override
+        public void storeResponse(String key, byte[] requestHash, int status, byte[] body) {
+            values.put(key + ":" + Base64.getEncoder().encodeToString(requestHash),
+                IdempotencyValueCodec.encode(status, body));
+        }
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(IdempotencyFilterBenchmark.class.getSimpleName())
+            .forks(1)
+            .warmupIterations(3)
+            .measurementIterations(5)
+            .build();
+        
+        new Runner(opt).run();
+    }
+}
@@ -5,12 +5,13 @@ import com.youtube.mvp.feeds.domain.model.FeedType;
 import lombok.Builder;
 import lombok.Value;
 
+import java.io.Serializable;
 import java.time.Instant;
 import java.util.List;
 
 @Value
 @Builder
-public class FeedDto {
+public class FeedDto implements Serializable {
     List<FeedItemDto> items;
     Instant lastUpdated;
     String etag;
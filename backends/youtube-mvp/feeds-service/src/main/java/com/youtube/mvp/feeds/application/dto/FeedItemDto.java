@@ -6,11 +6,12 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
 import lombok.Value;
 
+import java.io.Serializable;
 import java.time.Instant;
 
 @Value
 @Builder
-public class FeedItemDto {
+public class FeedItemDto implements Serializable {
     @NotBlank
     String videoId;
     
@@ -7,45 +7,58 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.Locale;
 
 @Slf4j
 @Service
 public class AdSlotService {
     
     private static final int AD_SLOT_INTERVAL = 10; // Inject ad every 10 items
-    private final Random random = new Random();
     
     public List<FeedItem> injectAds(List<FeedItem> items, FeedType feedType) {
+        return injectAds(items, feedType, 0);
+    }
+    
+    /**
+     * Injects ads into one page of a feed. {@code offset} is the position of the first item of
+     * the page in the full feed, so slots stay at the same feed positions across pages: an ad
+     * precedes every organic item whose feed position is a non-zero multiple of the interval.
+     */
+    public List<FeedItem> injectAds(List<FeedItem> items, FeedType feedType, int offset) {
         if (items == null || items.isEmpty()) {
             return items;
         }
         
-        List<FeedItem> result = new ArrayList<>(items);
-        
-        // Inject ads at regular intervals
-        for (int i = AD_SLOT_INTERVAL; i < result.size(); i += AD_SLOT_INTERVAL) {
-            FeedItem ad = createAdItem(i / AD_SLOT_INTERVAL, feedType);
-            result.add(i, ad);
+        List<FeedItem> result = new ArrayList<>(items.size() + items.size() / AD_SLOT_INTERVAL + 1);
+        for (int i = 0; i < items.size(); i++) {
+            int position = offset + i;
+            if (position > 0 && position % AD_SLOT_INTERVAL == 0) {
+                result.add(createAdItem(position / AD_SLOT_INTERVAL, feedType));
+            }
+            result.add(items.get(i));
         }
         
         log.debug("Injected {} ads into feed of type {}", result.size() - items.size(), feedType);
         return result;
     }
     
+    /**
+     * Builds the ad for a slot from the slot and feed type alone, so a page re-rendered for the
+     * same organic content carries the same ads and its ETag still holds.
+     */
     private FeedItem createAdItem(int slotIndex, FeedType feedType) {
         // In production, this would fetch real ad from ad service
-        String adId = "ad-" + slotIndex + "-" + System.currentTimeMillis();
+        String adId = "ad-" + feedType.name().toLowerCase(Locale.ROOT) + "-" + slotIndex;
+        int seed = Math.floorMod(adId.hashCode(), 1000);
         
         return FeedItem.builder()
                 .videoId(adId)
                 .title("Sponsored Ad #" + slotIndex)
-                .channelId("ad-channel-" + random.nextInt(1000))
+                .channelId("ad-channel-" + seed)
                 .channelName("Advertiser")
                 .thumbnailUrl("https://via.placeholder.com/640x480?text=Ad")
-                .publishedAt(java.time.Instant.now())
                 .viewCount(0L)
-                .durationSeconds(15L + random.nextInt(45))
+                .durationSeconds(15L + seed % 45)
                 .isAd(true)
                 .adSlotIndex(slotIndex)
                 .category("AD")
@@ -2,13 +2,28 @@ package com.youtube.mvp.feeds.application.usecase;
 
 import com.youtube.mvp.feeds.domain.model.Feed;
 import com.youtube.mvp.feeds.domain.model.FeedType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.stereotype.Service;
 
 @Service
+@RequiredArgsConstructor
 public class FeedCacheService {
     
+    private final CacheManager cacheManager;
+    
+    /**
+     * Full (un-paged) feed, or {@code null} if not cached. Page slices are cached separately
+     * in {@code feed-pages}.
+     */
+    public Feed getFeed(String userId, FeedType feedType) {
+        Cache cache = cacheManager.getCache("feeds");
+        return cache != null ? cache.get(userId + ":" + feedType, Feed.class) : null;
+    }
+    
     @CachePut(value = "feeds", key = "#userId + ':' + #feedType")
     public Feed cacheFeed(String userId, FeedType feedType, Feed feed) {
         return feed;
@@ -24,4 +39,3 @@ public class FeedCacheService {
         // Clear all cache
     }
 }
-
@@ -0,0 +1,78 @@
+package com.youtube.mvp.feeds.application.usecase;
+
+import com.youtube.mvp.feeds.domain.exception.InvalidPageTokenException;
+import com.youtube.mvp.feeds.domain.model.FeedItem;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Continuation token for feed paging: the position after the last item served plus that
+ * item's ID and publish time, encoded as opaque URL-safe base64.
+ *
+ * <p>If the feed has changed since the token was issued (new uploads at the head, a
+ * regenerated HOME feed), the next page resumes after the last item served rather than at
+ * a raw offset, so items are neither repeated nor skipped.</p>
+ */
+record FeedCursor(int offset, String lastVideoId, long lastPublishedAtMillis) {
+    
+    private static final String VERSION = "v1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    static FeedCursor after(int offset, FeedItem lastItem) {
+        Instant publishedAt = lastItem.getPublishedAt();
+        return new FeedCursor(offset, lastItem.getVideoId(), publishedAt != null ? publishedAt.toEpochMilli() : 0L);
+    }
+    
+    String encode() {
+        String raw = VERSION + "|" + offset + "|" + lastPublishedAtMillis + "|" + lastVideoId;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static FeedCursor decode(String token) {
+        try {
+            String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+            // Video IDs may contain '|', so the ID is always the last field
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new InvalidPageTokenException("Unsupported page token");
+            }
+            int offset = Integer.parseInt(parts[1]);
+            if (offset < 0) {
+                throw new InvalidPageTokenException("Unsupported page token");
+            }
+            return new FeedCursor(offset, parts[3], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageTokenException("Malformed page token", e);
+        }
+    }
+    
+    /**
+     * Index in {@code items} at which the next page starts.
+     */
+    int resolveStart(List<FeedItem> items, boolean timeOrdered) {
+        // Fast path: feed unchanged since the token was issued
+        if (offset > 0 && offset <= items.size() && lastVideoId.equals(items.get(offset - 1).getVideoId())) {
+            return offset;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (lastVideoId.equals(items.get(i).getVideoId())) {
+                return i + 1;
+            }
+        }
+        if (timeOrdered) {
+            // Last item fell out of the window: resume at the first strictly older item
+            for (int i = 0; i < items.size(); i++) {
+                Instant publishedAt = items.get(i).getPublishedAt();
+                if (publishedAt != null && publishedAt.toEpochMilli() < lastPublishedAtMillis) {
+                    return i;
+                }
+            }
+            return items.size();
+        }
+        return Math.min(offset, items.size());
+    }
+}
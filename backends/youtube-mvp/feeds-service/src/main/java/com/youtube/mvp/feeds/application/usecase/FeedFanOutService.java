@@ -0,0 +1,100 @@
+package com.youtube.mvp.feeds.application.usecase;
+
+import com.youtube.mvp.feeds.domain.model.FeedItem;
+import com.youtube.mvp.feeds.domain.repository.SubscriptionFeedStore;
+import com.youtube.mvp.feeds.domain.repository.SubscriptionRepository;
+import com.youtube.mvp.feeds.infrastructure.config.FeedFanOutProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Fan-out-on-write: appends a newly published video to the materialised SUBSCRIPTIONS feed
+ * of every subscriber of its channel.
+ *
+ * <p>Subscribers are split into batches written in parallel on a dedicated executor; the call
+ * returns once every batch is stored, so a failure surfaces to the message consumer and the
+ * event is redelivered (appends are idempotent). Channels above
+ * {@code feeds.fan-out.mega-channel-threshold} subscribers are only marked, and their uploads
+ * are merged into feeds at read time instead.</p>
+ *
+ * <p>Metrics: {@code feeds.fanout.lag} (publish time to fan-out completion),
+ * {@code feeds.fanout.writes} (feeds appended to) and {@code feeds.fanout.mega_channel.skips}.</p>
+ */
+@Slf4j
+@Service
+public class FeedFanOutService {
+    
+    private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionFeedStore subscriptionFeedStore;
+    private final FeedFanOutProperties properties;
+    private final ExecutorService executor;
+    private final Timer fanOutLag;
+    private final Counter feedWrites;
+    private final Counter megaChannelSkips;
+    
+    public FeedFanOutService(SubscriptionRepository subscriptionRepository,
+                             SubscriptionFeedStore subscriptionFeedStore,
+                             FeedFanOutProperties properties,
+                             @Qualifier("feedFanOutExecutor") ExecutorService executor,
+                             MeterRegistry meterRegistry) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.subscriptionFeedStore = subscriptionFeedStore;
+        this.properties = properties;
+        this.executor = executor;
+        this.fanOutLag = Timer.builder("feeds.fanout.lag")
+                .description("Time from video publication until it is in every subscriber feed")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.feedWrites = Counter.builder("feeds.fanout.writes")
+                .description("Subscriber feeds appended to by fan-out")
+                .register(meterRegistry);
+        this.megaChannelSkips = Counter.builder("feeds.fanout.mega_channel.skips")
+                .description("Published videos left to fan-out-on-read because the channel is too large")
+                .register(meterRegistry);
+    }
+    
+    public void fanOut(FeedItem item) {
+        String channelId = item.getChannelId();
+        long subscriberCount = subscriptionRepository.countSubscribers(channelId);
+        
+        if (subscriberCount > properties.getMegaChannelThreshold()) {
+            subscriptionFeedStore.markMegaChannel(channelId);
+            megaChannelSkips.increment();
+            log.info("Channel {} has {} subscribers; videoId={} will be merged at read time",
+                    channelId, subscriberCount, item.getVideoId());
+            return;
+        }
+        
+        List<String> subscribers = subscriptionRepository.findSubscribers(channelId);
+        if (subscribers.isEmpty()) {
+            log.debug("No subscribers found for channelId={}", channelId);
+            return;
+        }
+        
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<CompletableFuture<Void>> batches = new ArrayList<>((subscribers.size() + batchSize - 1) / batchSize);
+        for (int from = 0; from < subscribers.size(); from += batchSize) {
+            List<String> batch = subscribers.subList(from, Math.min(from + batchSize, subscribers.size()));
+            batches.add(CompletableFuture.runAsync(() -> subscriptionFeedStore.append(batch, item), executor));
+        }
+        CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+        
+        feedWrites.increment(subscribers.size());
+        if (item.getPublishedAt() != null) {
+            fanOutLag.record(Duration.between(item.getPublishedAt(), Instant.now()));
+        }
+        log.info("Fan-out completed for videoId={}, appended to {} feeds in {} batches",
+                item.getVideoId(), subscribers.size(), batches.size());
+    }
+}
@@ -2,8 +2,10 @@ package com.youtube.mvp.feeds.application.usecase;
 
 import com.youtube.mvp.feeds.application.dto.FeedDto;
 import com.youtube.mvp.feeds.domain.model.Feed;
+import com.youtube.mvp.feeds.domain.model.FeedItem;
 import com.youtube.mvp.feeds.domain.model.FeedType;
 import com.youtube.mvp.feeds.domain.repository.FeedRepository;
+import com.youtube.mvp.feeds.domain.repository.SubscriptionFeedStore;
 import com.youtube.mvp.feeds.domain.repository.SubscriptionRepository;
 import com.youtube.mvp.feeds.domain.repository.VideoRepository;
 import lombok.RequiredArgsConstructor;
@@ -12,68 +14,113 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Set;
 
+/**
+ * Serves one page of a feed.
+ *
+ * <p>The full feed (up to {@link #FEED_WINDOW} organic items) is loaded or generated once and
+ * cached; each request then slices it using the opaque continuation token from
+ * {@link FeedCursor}. Ads are injected into the returned slice only, and the ETag is a hash of
+ * the slice's content so that an unchanged page revalidates with 304. Rendered pages are cached
+ * in {@code feed-pages}, separately from the full feed.</p>
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GetFeedUseCase {
     
+    /** Organic items generated or read per feed; pages are sliced out of this window. */
+    static final int FEED_WINDOW = 200;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    private static final Comparator<FeedItem> NEWEST_FIRST = Comparator.comparing(
+            FeedItem::getPublishedAt, Comparator.nullsLast(Comparator.reverseOrder()));
+    
     private final FeedRepository feedRepository;
     private final VideoRepository videoRepository;
     private final SubscriptionRepository subscriptionRepository;
     private final FeedCacheService feedCacheService;
     private final AdSlotService adSlotService;
+    private final SubscriptionFeedStore subscriptionFeedStore;
     
     @Transactional(readOnly = true)
-    @Cacheable(value = "feeds", key = "#userId + ':' + #feedType", unless = "#result == null")
+    // SUBSCRIPTIONS is served from the materialised feed, which fan-out updates without evicting this cache
+    @Cacheable(value = "feed-pages", key = "#userId + ':' + #feedType + ':' + #pageSize + ':' + #pageToken",
+            unless = "#result == null",
+            condition = "#feedType != T(com.youtube.mvp.feeds.domain.model.FeedType).SUBSCRIPTIONS")
     public FeedDto execute(String userId, FeedType feedType, Integer pageSize, String pageToken) {
         log.info("Getting feed for userId={}, feedType={}", userId, feedType);
         
-        // Try to get from cache first
+        int size = pageSize != null && pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+        FeedCursor cursor = pageToken != null && !pageToken.isBlank() ? FeedCursor.decode(pageToken) : null;
+        
+        Feed feed = loadFeed(userId, feedType);
+        List<FeedItem> items = feed.getItems() != null ? feed.getItems() : List.of();
+        
+        int start = cursor != null ? cursor.resolveStart(items, feedType == FeedType.SUBSCRIPTIONS) : 0;
+        int end = Math.min(start + size, items.size());
+        List<FeedItem> slice = items.subList(start, end);
+        String nextPageToken = end < items.size() ? FeedCursor.after(end, items.get(end - 1)).encode() : null;
+        
+        Feed page = Feed.builder()
+                .userId(userId)
+                .feedType(feedType)
+                .items(slice.isEmpty() ? slice : adSlotService.injectAds(slice, feedType, start))
+                .lastUpdated(feed.getLastUpdated())
+                .etag(contentEtag(feedType, start, slice, nextPageToken))
+                .totalCount((long) items.size())
+                .pageSize(size)
+                .nextPageToken(nextPageToken)
+                .build();
+        
+        return mapToDto(page);
+    }
+    
+    private Feed loadFeed(String userId, FeedType feedType) {
+        if (feedType != FeedType.SUBSCRIPTIONS) {
+            Feed cached = feedCacheService.getFeed(userId, feedType);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
         Feed feed = feedRepository.findByUserIdAndFeedType(userId, feedType)
                 .orElseGet(() -> {
                     log.info("Cache miss for userId={}, feedType={}. Generating feed.", userId, feedType);
-                    return generateFeed(userId, feedType, pageSize);
+                    return generateFeed(userId, feedType);
                 });
         
-        // Inject ads if needed
-        if (feed.getItems() != null && !feed.getItems().isEmpty()) {
-            List<com.youtube.mvp.feeds.domain.model.FeedItem> itemsWithAds = 
-                    adSlotService.injectAds(feed.getItems(), feedType);
-            
-            feed = Feed.builder()
-                    .userId(feed.getUserId())
-                    .feedType(feed.getFeedType())
-                    .items(itemsWithAds)
-                    .lastUpdated(Instant.now())
-                    .etag(UUID.randomUUID().toString())
-                    .totalCount((long) itemsWithAds.size())
-                    .pageSize(feed.getPageSize())
-                    .nextPageToken(feed.getNextPageToken())
-                    .build();
+        if (feedType != FeedType.SUBSCRIPTIONS) {
+            feedCacheService.cacheFeed(userId, feedType, feed);
         }
-        
-        return mapToDto(feed);
+        return feed;
     }
     
-    private Feed generateFeed(String userId, FeedType feedType, Integer pageSize) {
-        List<com.youtube.mvp.feeds.domain.model.FeedItem> items;
+    private Feed generateFeed(String userId, FeedType feedType) {
+        List<FeedItem> items;
         
         switch (feedType) {
             case HOME -> {
-                items = videoRepository.findRecommendedForUser(userId, pageSize != null ? pageSize : 50);
+                items = videoRepository.findRecommendedForUser(userId, FEED_WINDOW);
             }
             case SUBSCRIPTIONS -> {
                 List<String> subscribedChannels = subscriptionRepository.findSubscribedChannels(userId);
                 items = subscribedChannels.isEmpty() 
                         ? List.of() 
-                        : videoRepository.findByChannelIds(subscribedChannels, pageSize != null ? pageSize : 50);
+                        : subscriptionItems(userId, subscribedChannels, FEED_WINDOW);
             }
             case TRENDING -> {
-                items = videoRepository.findTrending(pageSize != null ? pageSize : 50, null);
+                items = videoRepository.findTrending(FEED_WINDOW, null);
             }
             default -> items = List.of();
         }
@@ -83,13 +130,107 @@ public class GetFeedUseCase {
                 .feedType(feedType)
                 .items(items)
                 .lastUpdated(Instant.now())
-                .etag(UUID.randomUUID().toString())
+                .etag(null)
                 .totalCount((long) items.size())
-                .pageSize(pageSize)
+                .pageSize(FEED_WINDOW)
                 .nextPageToken(null)
                 .build();
     }
     
+    /**
+     * Strong ETag over the organic content of a page. Ads are excluded: {@link AdSlotService}
+     * derives each ad from its slot and the feed type only, so the same organic slice always
+     * renders the same page, ads included.
+     */
+    private static String contentEtag(FeedType feedType, int start, List<FeedItem> slice, String nextPageToken) {
+        MessageDigest digest = sha256();
+        update(digest, feedType.name());
+        update(digest, Integer.toString(start));
+        for (FeedItem item : slice) {
+            update(digest, item.getVideoId());
+            update(digest, item.getPublishedAt() != null ? item.getPublishedAt().toString() : "");
+            update(digest, item.getTitle());
+            update(digest, item.getViewCount() != null ? item.getViewCount().toString() : "");
+        }
+        update(digest, nextPageToken);
+        
+        byte[] hash = digest.digest();
+        char[] etag = new char[34];
+        etag[0] = '"';
+        for (int i = 0; i < 16; i++) {
+            etag[1 + i * 2] = HEX[(hash[i] >> 4) & 0xF];
+            etag[2 + i * 2] = HEX[hash[i] & 0xF];
+        }
+        etag[33] = '"';
+        return new String(etag);
+    }
+    
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Reads the feed materialised by fan-out-on-write and merges in uploads from subscribed
+     * mega-channels, which are not fanned out. Fan-out only adds uploads published after it
+     * started writing to a feed, so on first read the feed is seeded with the full pull query,
+     * which is also merged into that response.
+     */
+    private List<FeedItem> subscriptionItems(String userId, List<String> subscribedChannels, int limit) {
+        List<FeedItem> materialized = subscriptionFeedStore.findRecent(userId, limit);
+        if (!subscriptionFeedStore.isSeeded(userId)) {
+            List<FeedItem> history = new ArrayList<>(videoRepository.findByChannelIds(subscribedChannels, limit));
+            history.sort(NEWEST_FIRST);
+            try {
+                subscriptionFeedStore.seed(userId, history);
+            } catch (RuntimeException e) {
+                log.warn("Failed to seed subscription feed of userId={}, pulling again on next read", userId, e);
+            }
+            return mergeNewestFirst(materialized, history, limit);
+        }
+        
+        Set<String> megaChannels = subscriptionFeedStore.findMegaChannels(subscribedChannels);
+        List<String> pullChannels = subscribedChannels.stream()
+                .filter(megaChannels::contains)
+                .toList();
+        if (pullChannels.isEmpty()) {
+            return materialized;
+        }
+        
+        List<FeedItem> pulled = new ArrayList<>(videoRepository.findByChannelIds(pullChannels, limit));
+        pulled.sort(NEWEST_FIRST);
+        return mergeNewestFirst(materialized, pulled, limit);
+    }
+    
+    private static List<FeedItem> mergeNewestFirst(List<FeedItem> left, List<FeedItem> right, int limit) {
+        List<FeedItem> merged = new ArrayList<>(Math.min(limit, left.size() + right.size()));
+        Set<String> seen = new HashSet<>();
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < left.size() || j < right.size())) {
+            FeedItem next;
+            if (j >= right.size() || (i < left.size() && NEWEST_FIRST.compare(left.get(i), right.get(j)) <= 0)) {
+                next = left.get(i++);
+            } else {
+                next = right.get(j++);
+            }
+            if (seen.add(next.getVideoId())) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+    
     private FeedDto mapToDto(Feed feed) {
         return FeedDto.builder()
                 .items(feed.getItems().stream().map(this::mapToDto).toList())
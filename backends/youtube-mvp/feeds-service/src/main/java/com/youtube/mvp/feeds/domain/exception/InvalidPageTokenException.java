@@ -0,0 +1,11 @@
+package com.youtube.mvp.feeds.domain.exception;
+
+public class InvalidPageTokenException extends FeedException {
+    public InvalidPageTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidPageTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
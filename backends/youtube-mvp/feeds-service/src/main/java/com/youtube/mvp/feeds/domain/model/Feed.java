@@ -3,12 +3,13 @@ package com.youtube.mvp.feeds.domain.model;
 import lombok.Builder;
 import lombok.Value;
 
+import java.io.Serializable;
 import java.time.Instant;
 import java.util.List;
 
 @Value
 @Builder
-public class Feed {
+public class Feed implements Serializable {
     String userId;
     FeedType feedType;
     List<FeedItem> items;
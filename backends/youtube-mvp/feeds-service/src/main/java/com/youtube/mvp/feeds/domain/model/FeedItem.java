@@ -3,11 +3,12 @@ package com.youtube.mvp.feeds.domain.model;
 import lombok.Builder;
 import lombok.Value;
 
+import java.io.Serializable;
 import java.time.Instant;
 
 @Value
 @Builder
-public class FeedItem {
+public class FeedItem implements Serializable {
     String videoId;
     String title;
     String channelId;
@@ -0,0 +1,42 @@
+package com.youtube.mvp.feeds.domain.repository;
+
+import com.youtube.mvp.feeds.domain.model.FeedItem;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Materialised SUBSCRIPTIONS feeds maintained by fan-out-on-write: a bounded, time-ordered
+ * list of items per user.
+ */
+public interface SubscriptionFeedStore {
+    
+    /**
+     * Appends the item to the feed of every given user, dropping the oldest entries beyond the
+     * configured bound. Entries are keyed by video id, so appending the same video again does not
+     * add an entry.
+     */
+    void append(List<String> userIds, FeedItem item);
+    
+    /** Newest first. Empty if the user's feed has not been materialised. */
+    List<FeedItem> findRecent(String userId, int limit);
+    
+    /**
+     * Whether the user's feed holds the uploads from before fan-out started writing to it.
+     * Until then it only has what was fanned out since, and must not replace the pull query.
+     */
+    boolean isSeeded(String userId);
+    
+    /** Adds the items, already published, to the user's feed and marks it seeded. */
+    void seed(String userId, List<FeedItem> items);
+    
+    /**
+     * Records that a channel just published an upload that was not fanned out and must be merged
+     * at read time. A channel stays recorded for as long as feeds keep entries.
+     */
+    void markMegaChannel(String channelId);
+    
+    /** Those of {@code channelIds} that had an upload left to read-time merge within the feed TTL. */
+    Set<String> findMegaChannels(Collection<String> channelIds);
+}
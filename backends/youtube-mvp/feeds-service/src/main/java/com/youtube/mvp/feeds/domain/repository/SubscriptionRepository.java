@@ -6,5 +6,9 @@ public interface SubscriptionRepository {
     List<String> findSubscribedChannels(String userId);
     
     boolean isSubscribed(String userId, String channelId);
+    
+    List<String> findSubscribers(String channelId);
+    
+    long countSubscribers(String channelId);
 }
 
@@ -12,5 +12,10 @@ public interface VideoRepository {
     List<FeedItem> findByChannelIds(List<String> channelIds, int limit);
     
     List<FeedItem> findTrending(int limit, String category);
+    
+    /**
+     * Batched lookup of video cards; unknown IDs are omitted, order is unspecified.
+     */
+    List<FeedItem> findByIds(List<String> videoIds);
 }
 
@@ -0,0 +1,128 @@
+package com.youtube.mvp.feeds.infrastructure.cache;
+
+import com.youtube.mvp.feeds.domain.model.FeedItem;
+import com.youtube.mvp.feeds.infrastructure.config.VideoCardCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded LRU cache of video cards (title, channel, thumbnail, ...) shared by all feeds.
+ *
+ * <p>Stored feeds only hold video IDs; the same popular video appears in millions of feeds but
+ * its card is held once here. The cache is split into independently locked segments so
+ * concurrent readers rarely contend.</p>
+ *
+ * <p>A card is reloaded once it is older than {@code expireAfterWrite}, however often it is
+ * read, so edits to a video and videos that were deleted or made private show up in feeds
+ * within that delay.</p>
+ *
+ * <p>Metrics: {@code feeds.video_cards.requests} tagged {@code result=hit|miss}.</p>
+ */
+@Component
+public class VideoCardCache {
+    
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier nanoClock;
+    private final Counter hits;
+    private final Counter misses;
+    
+    public VideoCardCache(VideoCardCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+    
+    VideoCardCache(VideoCardCacheProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        int segmentCount = Integer.highestOneBit(Math.max(1, properties.getSegments()));
+        int perSegment = Math.max(1, properties.getMaxEntries() / segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+        this.segmentMask = segmentCount - 1;
+        Duration expireAfterWrite = properties.getExpireAfterWrite();
+        this.expireAfterWriteNanos = expireAfterWrite != null ? expireAfterWrite.toNanos() : Long.MAX_VALUE;
+        this.nanoClock = nanoClock;
+        this.hits = Counter.builder("feeds.video_cards.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("feeds.video_cards.requests").tag("result", "miss").register(meterRegistry);
+    }
+    
+    /**
+     * Returns the cards for {@code videoIds}, loading all misses with a single call to
+     * {@code loader}. Videos the loader does not return are absent from the result.
+     */
+    public Map<String, FeedItem> getAll(List<String> videoIds, Function<List<String>, List<FeedItem>> loader) {
+        Map<String, FeedItem> cards = new HashMap<>(videoIds.size() * 2);
+        List<String> missing = new ArrayList<>();
+        long now = nanoClock.getAsLong();
+        for (String videoId : videoIds) {
+            FeedItem card = segmentFor(videoId).get(videoId, now, expireAfterWriteNanos);
+            if (card != null) {
+                cards.put(videoId, card);
+            } else {
+                missing.add(videoId);
+            }
+        }
+        hits.increment(cards.size());
+        misses.increment(missing.size());
+        
+        if (!missing.isEmpty()) {
+            long loadedAt = nanoClock.getAsLong();
+            for (FeedItem card : loader.apply(missing)) {
+                segmentFor(card.getVideoId()).put(card.getVideoId(), card, loadedAt);
+                cards.put(card.getVideoId(), card);
+            }
+        }
+        return cards;
+    }
+    
+    private Segment segmentFor(String videoId) {
+        int hash = videoId.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & segmentMask];
+    }
+    
+    private record Entry(FeedItem card, long loadedAtNanos) {
+    }
+    
+    private static final class Segment {
+        private final LinkedHashMap<String, Entry> entries;
+        
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+        
+        /**
+         * Returns the card unless it is at least {@code maxAgeNanos} old, in which case it is dropped.
+         */
+        synchronized FeedItem get(String videoId, long nowNanos, long maxAgeNanos) {
+            Entry entry = entries.get(videoId);
+            if (entry == null) {
+                return null;
+            }
+            if (nowNanos - entry.loadedAtNanos() >= maxAgeNanos) {
+                entries.remove(videoId);
+                return null;
+            }
+            return entry.card();
+        }
+        
+        synchronized void put(String videoId, FeedItem card, long loadedAtNanos) {
+            entries.put(videoId, new Entry(card, loadedAtNanos));
+        }
+    }
+}
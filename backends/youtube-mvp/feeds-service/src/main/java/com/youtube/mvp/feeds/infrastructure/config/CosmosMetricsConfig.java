@@ -0,0 +1,32 @@
+package com.youtube.mvp.feeds.infrastructure.config;
+
+import com.azure.spring.data.cosmos.config.CosmosConfig;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CosmosMetricsConfig {
+    
+    /**
+     * Replaces the auto-configured {@link CosmosConfig} to record the request charge of every
+     * Cosmos response as {@code feeds.cosmos.request_charge} (RU).
+     */
+    @Bean
+    public CosmosConfig cosmosConfig(MeterRegistry meterRegistry) {
+        DistributionSummary requestCharge = DistributionSummary.builder("feeds.cosmos.request_charge")
+                .description("Request units charged per Cosmos DB operation")
+                .baseUnit("RU")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        
+        return CosmosConfig.builder()
+                .responseDiagnosticsProcessor(diagnostics -> {
+                    if (diagnostics != null && diagnostics.getCosmosResponseStatistics() != null) {
+                        requestCharge.record(diagnostics.getCosmosResponseStatistics().getRequestCharge());
+                    }
+                })
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.youtube.mvp.feeds.infrastructure.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class FeedFanOutConfig {
+    
+    /**
+     * Dedicated pool for fan-out batches, so large fan-outs neither block the common
+     * ForkJoin pool nor compete with request handling.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService feedFanOutExecutor(FeedFanOutProperties properties) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "feed-fanout-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(properties.getExecutorThreads(), threadFactory);
+    }
+}
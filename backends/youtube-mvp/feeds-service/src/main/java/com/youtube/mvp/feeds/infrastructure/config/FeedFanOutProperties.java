@@ -0,0 +1,31 @@
+package com.youtube.mvp.feeds.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for fan-out-on-write of published videos into materialised SUBSCRIPTIONS feeds.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "feeds.fan-out")
+public class FeedFanOutProperties {
+    
+    /** Items kept per user feed; older entries are trimmed on every append. */
+    private int maxItemsPerUser = 500;
+    
+    /** Materialised feeds of users who stop receiving uploads expire after this. */
+    private Duration feedTtl = Duration.ofDays(30);
+    
+    /** Subscribers written per pipelined Redis batch. */
+    private int batchSize = 500;
+    
+    /** Channels with more subscribers than this are not fanned out; readers merge them at query time. */
+    private long megaChannelThreshold = 100_000;
+    
+    /** Worker threads writing fan-out batches. */
+    private int executorThreads = 8;
+}
@@ -27,6 +27,8 @@ public class RedisConfig {
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
                 .withCacheConfiguration("feeds", RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(30)))
+                // Rendered pages of a feed; short-lived so regenerated feeds show up quickly
+                .withCacheConfiguration("feed-pages", RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(1)))
                 .build();
     }
 }
@@ -0,0 +1,25 @@
+package com.youtube.mvp.feeds.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-process cache of video cards used to hydrate stored feeds.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "feeds.video-cards")
+public class VideoCardCacheProperties {
+    
+    /** Cards kept across all users; least recently used cards are evicted beyond this. */
+    private int maxEntries = 100_000;
+    
+    /** Independently locked segments; a power of two. */
+    private int segments = 16;
+    
+    /** How long a card is served before it is reloaded, so video edits and removals reach feeds. */
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+}
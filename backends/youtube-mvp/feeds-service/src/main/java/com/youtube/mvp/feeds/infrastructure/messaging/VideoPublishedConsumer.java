@@ -1,9 +1,7 @@
 package com.youtube.mvp.feeds.infrastructure.messaging;
 
-import com.youtube.mvp.feeds.application.usecase.FeedCacheService;
-import com.youtube.mvp.feeds.domain.model.FeedType;
-import com.youtube.mvp.feeds.domain.repository.FeedRepository;
-import com.youtube.mvp.feeds.domain.repository.SubscriptionRepository;
+import com.youtube.mvp.feeds.application.usecase.FeedFanOutService;
+import com.youtube.mvp.feeds.domain.model.FeedItem;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.azure.servicebus.consumer.ServiceBusMessageListenerContainer;
@@ -13,16 +11,18 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 
-import java.util.List;
+import java.time.Instant;
+import java.time.OffsetDateTime;
 
 @Slf4j
 @Configuration
 @RequiredArgsConstructor
 public class VideoPublishedConsumer {
     
-    private final FeedRepository feedRepository;
-    private final SubscriptionRepository subscriptionRepository;
-    private final FeedCacheService feedCacheService;
+    /** Service Bus enqueued time header, kept on redelivery. */
+    private static final String ENQUEUED_TIME = "azure_service_bus_enqueued_time";
+    
+    private final FeedFanOutService feedFanOutService;
     
     @Bean
     public ServiceBusMessageListenerContainer messageListenerContainer() {
@@ -31,41 +31,36 @@ public class VideoPublishedConsumer {
     
     public void handleVideoPublished(
             @Payload VideoPublishedEvent event,
-            @Header("Idempotency-Key") String idempotencyKey) {
+            @Header("Idempotency-Key") String idempotencyKey,
+            @Header(name = ENQUEUED_TIME, required = false) OffsetDateTime enqueuedTime) {
         
         log.info("Received video.published event: videoId={}, channelId={}, idempotencyKey={}", 
                 event.getVideoId(), event.getChannelId(), idempotencyKey);
         
+        // The feed is ordered by this, so it must be the same on every delivery of the event
+        Instant publishedAt = event.getPublishedAt() != null ? event.getPublishedAt()
+                : enqueuedTime != null ? enqueuedTime.toInstant() : null;
+        if (publishedAt == null) {
+            log.warn("Ignoring video.published event without a timestamp: videoId={}", event.getVideoId());
+            return;
+        }
+        
         try {
-            // Find all users subscribed to this channel
-            List<String> subscribedUserIds = subscriptionRepository.findSubscribedChannels(event.getChannelId());
-            
-            if (subscribedUserIds.isEmpty()) {
-                log.debug("No subscribers found for channelId={}", event.getChannelId());
-                return;
-            }
+            FeedItem item = FeedItem.builder()
+                    .videoId(event.getVideoId())
+                    .title(event.getTitle())
+                    .channelId(event.getChannelId())
+                    .publishedAt(publishedAt)
+                    .category(event.getCategory())
+                    .build();
             
-            // Fan-out: update feeds for all subscribed users
-            subscribedUserIds.parallelStream().forEach(userId -> {
-                updateUserFeed(userId, FeedType.SUBSCRIPTIONS, idempotencyKey);
-            });
-            
-            log.info("Fan-out completed for videoId={}, updated {} user feeds", 
-                    event.getVideoId(), subscribedUserIds.size());
+            // Fan-out-on-write into subscriber feeds (idempotent, so redelivery is safe)
+            feedFanOutService.fanOut(item);
             
         } catch (Exception e) {
             log.error("Error processing video.published event for videoId={}", event.getVideoId(), e);
             throw new RuntimeException("Failed to process video published event", e);
         }
     }
-    
-    private void updateUserFeed(String userId, FeedType feedType, String idempotencyKey) {
-        // Evict cache for this user's feed
-        feedCacheService.evictFeed(userId, feedType);
-        
-        // In production, trigger feed regeneration async
-        log.debug("Evicted feed cache for userId={}, feedType={}, idempotencyKey={}", 
-                userId, feedType, idempotencyKey);
-    }
 }
 
@@ -35,5 +35,27 @@ public class SubscriptionRepositoryAdapter implements SubscriptionRepository {
         log.info("Checking subscription for userId={}, channelId={}", userId, channelId);
         return random.nextBoolean();
     }
+    
+    @Override
+    public List<String> findSubscribers(String channelId) {
+        // In production, this would page through channel-service subscribers
+        log.info("Finding subscribers for channelId={}", channelId);
+        
+        // Mock: derive a stable subscriber set from the channel ID
+        int count = Math.floorMod(channelId.hashCode(), 1000);
+        List<String> subscribers = new java.util.ArrayList<>(count);
+        
+        for (int i = 0; i < count; i++) {
+            subscribers.add("user-" + Math.floorMod(channelId.hashCode() + i * 31, 10_000));
+        }
+        
+        return subscribers;
+    }
+    
+    @Override
+    public long countSubscribers(String channelId) {
+        // In production, this would read the channel's subscriber count
+        return Math.floorMod(channelId.hashCode(), 1000);
+    }
 }
 
@@ -46,6 +46,29 @@ public class VideoRepositoryAdapter implements VideoRepository {
         return generateMockVideos(limit);
     }
     
+    @Override
+    public List<FeedItem> findByIds(List<String> videoIds) {
+        // In production, this would be a single batch call to video-catalog-service
+        log.info("Finding videos by ids, count={}", videoIds.size());
+        List<FeedItem> videos = new ArrayList<>(videoIds.size());
+        for (String videoId : videoIds) {
+            videos.add(FeedItem.builder()
+                    .videoId(videoId)
+                    .title("Sample Video " + videoId)
+                    .channelId("channel-" + random.nextInt(100))
+                    .channelName("Channel " + random.nextInt(100))
+                    .thumbnailUrl("https://via.placeholder.com/640x480?text=" + videoId)
+                    .publishedAt(Instant.now().minusSeconds(random.nextInt(86400)))
+                    .viewCount((long) random.nextInt(1000000))
+                    .durationSeconds((long) (60 + random.nextInt(300)))
+                    .isAd(false)
+                    .adSlotIndex(null)
+                    .category("entertainment")
+                    .build());
+        }
+        return videos;
+    }
+    
     private List<FeedItem> generateMockVideos(int count) {
         List<FeedItem> videos = new ArrayList<>();
         
@@ -4,27 +4,66 @@ import com.azure.spring.data.cosmos.core.CosmosTemplate;
 import com.azure.spring.data.cosmos.core.query.CosmosQuery;
 import com.azure.spring.data.cosmos.core.query.Criteria;
 import com.azure.spring.data.cosmos.core.query.CriteriaType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.youtube.mvp.feeds.domain.model.Feed;
+import com.youtube.mvp.feeds.domain.model.FeedItem;
 import com.youtube.mvp.feeds.domain.model.FeedType;
 import com.youtube.mvp.feeds.domain.model.FeedView;
 import com.youtube.mvp.feeds.domain.repository.FeedRepository;
-import lombok.RequiredArgsConstructor;
+import com.youtube.mvp.feeds.domain.repository.VideoRepository;
+import com.youtube.mvp.feeds.infrastructure.cache.VideoCardCache;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
-import org.springframework.util.StringUtils;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Feeds are stored as packed item references ({@link FeedItemRefCodec}) and hydrated on read
+ * from the shared {@link VideoCardCache}, with all cache misses fetched in one batched lookup.
+ *
+ * <p>Metrics: {@code feeds.cosmos.feed_document.size} (serialised document bytes on write) and
+ * {@code feeds.cosmos.feed_document.items} (items per document read); request charges are
+ * recorded for every Cosmos call by {@code CosmosMetricsConfig}.</p>
+ */
 @Slf4j
 @Repository
-@RequiredArgsConstructor
 public class FeedCosmosRepository implements FeedRepository {
     
     private final CosmosTemplate cosmosTemplate;
+    private final VideoRepository videoRepository;
+    private final VideoCardCache videoCardCache;
+    private final ObjectMapper objectMapper;
+    private final DistributionSummary documentSize;
+    private final DistributionSummary documentItems;
     private static final String CONTAINER_NAME = "feeds";
     private static final String FEED_VIEWS_CONTAINER = "feed-views";
     
+    public FeedCosmosRepository(CosmosTemplate cosmosTemplate,
+                                VideoRepository videoRepository,
+                                VideoCardCache videoCardCache,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.cosmosTemplate = cosmosTemplate;
+        this.videoRepository = videoRepository;
+        this.videoCardCache = videoCardCache;
+        this.objectMapper = objectMapper;
+        this.documentSize = DistributionSummary.builder("feeds.cosmos.feed_document.size")
+                .description("Serialised size of feed documents written to Cosmos DB")
+                .baseUnit("bytes")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.documentItems = DistributionSummary.builder("feeds.cosmos.feed_document.items")
+                .description("Items per feed document read from Cosmos DB")
+                .register(meterRegistry);
+    }
+    
     @Override
     public Optional<Feed> findByUserIdAndFeedType(String userId, FeedType feedType) {
         try {
@@ -49,6 +88,7 @@ public class FeedCosmosRepository implements FeedRepository {
     public void save(Feed feed) {
         try {
             FeedDocument feedDoc = mapToDocument(feed);
+            recordDocumentSize(feedDoc);
             cosmosTemplate.insert(feedDoc);
         } catch (Exception e) {
             log.error("Error saving feed for userId={}, feedType={}", 
@@ -106,7 +146,7 @@ public class FeedCosmosRepository implements FeedRepository {
         return Feed.builder()
                 .userId(doc.getUserId())
                 .feedType(FeedType.valueOf(doc.getFeedType()))
-                .items(mapItemsFromJson(doc))
+                .items(hydrateItems(doc))
                 .lastUpdated(doc.getLastUpdated())
                 .etag(doc.getEtag())
                 .totalCount(doc.getTotalCount())
@@ -120,7 +160,7 @@ public class FeedCosmosRepository implements FeedRepository {
                 .id(feed.getUserId() + ":" + feed.getFeedType().name())
                 .userId(feed.getUserId())
                 .feedType(feed.getFeedType().name())
-                .itemsJson(serializeItems(feed.getItems()))
+                .packedItems(packItems(feed.getItems()))
                 .lastUpdated(feed.getLastUpdated())
                 .etag(feed.getEtag())
                 .totalCount(feed.getTotalCount())
@@ -129,15 +169,55 @@ public class FeedCosmosRepository implements FeedRepository {
                 .build();
     }
     
-    private List<com.youtube.mvp.feeds.domain.model.FeedItem> mapItemsFromJson(FeedDocument doc) {
-        // In production, use Jackson to deserialize
-        // Simplified for this example
-        return doc.getItems() != null ? doc.getItems() : List.of();
+    private List<FeedItem> hydrateItems(FeedDocument doc) {
+        if (doc.getPackedItems() == null) {
+            return doc.getItems() != null ? doc.getItems() : List.of();
+        }
+        
+        List<FeedItemRefCodec.ItemRef> refs = FeedItemRefCodec.decode(doc.getPackedItems());
+        documentItems.record(refs.size());
+        if (refs.isEmpty()) {
+            return List.of();
+        }
+        
+        List<String> videoIds = new ArrayList<>(refs.size());
+        for (FeedItemRefCodec.ItemRef ref : refs) {
+            videoIds.add(ref.videoId());
+        }
+        Map<String, FeedItem> cards = videoCardCache.getAll(videoIds, videoRepository::findByIds);
+        
+        // Keep stored order; videos removed from the catalogue are dropped
+        List<FeedItem> items = new ArrayList<>(refs.size());
+        for (String videoId : videoIds) {
+            FeedItem card = cards.get(videoId);
+            if (card != null) {
+                items.add(card);
+            }
+        }
+        return items;
+    }
+    
+    private static byte[] packItems(List<FeedItem> items) {
+        List<FeedItemRefCodec.ItemRef> refs = new ArrayList<>(items != null ? items.size() : 0);
+        if (items != null) {
+            for (FeedItem item : items) {
+                // Ads are injected per page at read time and never stored
+                if (!item.isAd()) {
+                    Instant publishedAt = item.getPublishedAt();
+                    refs.add(new FeedItemRefCodec.ItemRef(item.getVideoId(),
+                            publishedAt != null ? publishedAt.toEpochMilli() : 0L));
+                }
+            }
+        }
+        return FeedItemRefCodec.encode(refs);
     }
     
-    private String serializeItems(List<com.youtube.mvp.feeds.domain.model.FeedItem> items) {
-        // In production, use Jackson to serialize
-        return ""; // Simplified
+    private void recordDocumentSize(FeedDocument feedDoc) {
+        try {
+            documentSize.record(objectMapper.writeValueAsBytes(feedDoc).length);
+        } catch (JsonProcessingException e) {
+            log.debug("Could not measure feed document size: {}", e.getMessage());
+        }
     }
     
     private FeedView mapViewToDomain(FeedViewDocument doc) {
@@ -25,9 +25,11 @@ public class FeedDocument {
     
     private String feedType;
     
-    private List<com.youtube.mvp.feeds.domain.model.FeedItem> items;
+    /** Item references packed with {@link FeedItemRefCodec}; serialised as base64 by Cosmos. */
+    private byte[] packedItems;
     
-    private String itemsJson; // For serialized items
+    /** Full items of documents written before {@code packedItems}; read only. */
+    private List<com.youtube.mvp.feeds.domain.model.FeedItem> items;
     
     private Instant lastUpdated;
     
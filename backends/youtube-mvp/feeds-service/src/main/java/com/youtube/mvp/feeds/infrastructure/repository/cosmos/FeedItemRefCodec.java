@@ -0,0 +1,148 @@
+package com.youtube.mvp.feeds.infrastructure.repository.cosmos;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packed binary form of the item list stored in a {@link FeedDocument}.
+ *
+ * <p>Only references are stored; titles, thumbnails and channel names are hydrated from the
+ * shared video-card cache on read. Items keep their feed order, which is the ranking, so no
+ * score is stored.</p>
+ *
+ * <p>Layout: {@code [version:1][count:varint]} followed by {@code count} entries of
+ * {@code [idLength:varint][utf8 videoId][publishedAtDelta:zigzag varint]}, where the delta is
+ * in milliseconds from the previous entry (the first entry from zero). Feeds are mostly
+ * ordered by time, so deltas usually fit in 3-5 bytes; a typical entry is under 20 bytes.</p>
+ */
+public final class FeedItemRefCodec {
+    
+    public static final byte VERSION = 1;
+    
+    private FeedItemRefCodec() {
+        // Utility class
+    }
+    
+    /**
+     * A stored feed entry. {@code publishedAtMillis} is 0 when the publish time is unknown.
+     */
+    public record ItemRef(String videoId, long publishedAtMillis) {
+    }
+    
+    public static byte[] encode(List<ItemRef> refs) {
+        Output out = new Output(1 + 5 + refs.size() * 24);
+        out.put(VERSION);
+        out.putVarLong(refs.size());
+        long previous = 0;
+        for (ItemRef ref : refs) {
+            byte[] id = ref.videoId().getBytes(StandardCharsets.UTF_8);
+            out.putVarLong(id.length);
+            out.put(id);
+            long delta = ref.publishedAtMillis() - previous;
+            out.putVarLong((delta << 1) ^ (delta >> 63));
+            previous = ref.publishedAtMillis();
+        }
+        return out.toByteArray();
+    }
+    
+    public static List<ItemRef> decode(byte[] bytes) {
+        Input in = new Input(bytes);
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported feed item encoding version: " + version);
+        }
+        int count = in.getLength();
+        List<ItemRef> refs = new ArrayList<>(count);
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            String videoId = in.getString(in.getLength());
+            long zigzag = in.getVarLong();
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            refs.add(new ItemRef(videoId, previous));
+        }
+        return refs;
+    }
+    
+    private static final class Output {
+        private byte[] buffer;
+        private int position;
+        
+        Output(int initialCapacity) {
+            buffer = new byte[initialCapacity];
+        }
+        
+        void put(byte value) {
+            ensureCapacity(1);
+            buffer[position++] = value;
+        }
+        
+        void put(byte[] values) {
+            ensureCapacity(values.length);
+            System.arraycopy(values, 0, buffer, position, values.length);
+            position += values.length;
+        }
+        
+        void putVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+        
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+        
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+    
+    private static final class Input {
+        private final byte[] buffer;
+        private int position;
+        
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+        
+        byte get() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated feed item encoding");
+            }
+            return buffer[position++];
+        }
+        
+        long getVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = get();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in feed item encoding");
+        }
+        
+        int getLength() {
+            long length = getVarLong();
+            if (length < 0 || length > buffer.length - position) {
+                throw new IllegalArgumentException("Invalid length in feed item encoding: " + length);
+            }
+            return (int) length;
+        }
+        
+        String getString(int length) {
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
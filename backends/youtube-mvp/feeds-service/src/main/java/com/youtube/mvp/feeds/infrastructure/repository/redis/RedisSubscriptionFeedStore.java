@@ -0,0 +1,211 @@
+package com.youtube.mvp.feeds.infrastructure.repository.redis;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtube.mvp.feeds.domain.model.FeedItem;
+import com.youtube.mvp.feeds.domain.repository.SubscriptionFeedStore;
+import com.youtube.mvp.feeds.infrastructure.config.FeedFanOutProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Materialised SUBSCRIPTIONS feeds as one Redis sorted set of video ids per user, scored by
+ * publish time. The item itself is stored once per video, under {@code feed:item:<videoId>},
+ * whatever the number of feeds it is in.
+ *
+ * <p>Members are video ids, so a re-delivered event, even one carrying changed details, does not
+ * create a duplicate. Each append is {@code ZADD} + {@code ZREMRANGEBYRANK} (trim to the newest
+ * {@code maxItemsPerUser}) + {@code EXPIRE}, pipelined across the whole batch of users. Item keys
+ * expire like the feeds; ids whose item has expired are skipped on read.</p>
+ *
+ * <p>A feed is seeded once with the user's history from the pull query; the marker key
+ * {@code feed:seeded:<userId>} expires no later than the feed, so a feed that expired is seeded
+ * again.</p>
+ *
+ * <p>Mega-channels are kept in the sorted set {@code feed:mega-channels:recent}, scored by the
+ * time of their latest upload left to read-time merge. Entries older than the feed TTL are pruned
+ * when a channel is marked and ignored on read, so a channel that falls below the threshold drops
+ * out once its last unfanned upload has aged out of feeds. Reads only look up the reader's own
+ * channels ({@code ZMSCORE}), never the whole set.</p>
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class RedisSubscriptionFeedStore implements SubscriptionFeedStore {
+    
+    private static final String FEED_KEY_PREFIX = "feed:subscriptions:";
+    private static final String ITEM_KEY_PREFIX = "feed:item:";
+    private static final String SEEDED_KEY_PREFIX = "feed:seeded:";
+    private static final String MEGA_CHANNELS_KEY = "feed:mega-channels:recent";
+    
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final FeedFanOutProperties properties;
+    
+    @Override
+    public void append(List<String> userIds, FeedItem item) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        
+        byte[] member = bytes(item.getVideoId());
+        double score = item.getPublishedAt().toEpochMilli();
+        long trimEnd = -(properties.getMaxItemsPerUser() + 1L);
+        long ttlSeconds = properties.getFeedTtl().toSeconds();
+        
+        redisTemplate.opsForValue().set(ITEM_KEY_PREFIX + item.getVideoId(), serialize(item), properties.getFeedTtl());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String userId : userIds) {
+                byte[] key = feedKey(userId);
+                connection.zSetCommands().zAdd(key, score, member);
+                connection.zSetCommands().zRemRange(key, 0, trimEnd);
+                connection.keyCommands().expire(key, ttlSeconds);
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public List<FeedItem> findRecent(String userId, int limit) {
+        Set<String> videoIds = redisTemplate.opsForZSet()
+                .reverseRange(FEED_KEY_PREFIX + userId, 0, limit - 1L);
+        if (videoIds == null || videoIds.isEmpty()) {
+            return List.of();
+        }
+        
+        List<String> stored = redisTemplate.opsForValue()
+                .multiGet(videoIds.stream().map(videoId -> ITEM_KEY_PREFIX + videoId).toList());
+        List<FeedItem> items = new ArrayList<>(videoIds.size());
+        for (String json : stored != null ? stored : List.<String>of()) {
+            FeedItem item = json != null ? deserialize(json) : null;
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+    
+    @Override
+    public boolean isSeeded(String userId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(SEEDED_KEY_PREFIX + userId));
+    }
+    
+    @Override
+    public void seed(String userId, List<FeedItem> items) {
+        byte[] key = feedKey(userId);
+        long trimEnd = -(properties.getMaxItemsPerUser() + 1L);
+        long ttlSeconds = properties.getFeedTtl().toSeconds();
+        
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (FeedItem item : items) {
+                if (item.getPublishedAt() == null) {
+                    continue;
+                }
+                // Fan-out may have stored a newer version of the item already
+                connection.stringCommands().set(bytes(ITEM_KEY_PREFIX + item.getVideoId()), bytes(serialize(item)),
+                        Expiration.seconds(ttlSeconds), RedisStringCommands.SetOption.ifAbsent());
+                connection.zSetCommands().zAdd(key, item.getPublishedAt().toEpochMilli(), bytes(item.getVideoId()));
+            }
+            connection.zSetCommands().zRemRange(key, 0, trimEnd);
+            connection.keyCommands().expire(key, ttlSeconds);
+            connection.stringCommands().set(bytes(SEEDED_KEY_PREFIX + userId), bytes("1"),
+                    Expiration.seconds(ttlSeconds), RedisStringCommands.SetOption.upsert());
+            return null;
+        });
+    }
+    
+    @Override
+    public void markMegaChannel(String channelId) {
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForZSet().add(MEGA_CHANNELS_KEY, channelId, now);
+        redisTemplate.opsForZSet().removeRangeByScore(MEGA_CHANNELS_KEY, Double.NEGATIVE_INFINITY,
+                now - properties.getFeedTtl().toMillis() - 1);
+    }
+    
+    @Override
+    public Set<String> findMegaChannels(Collection<String> channelIds) {
+        if (channelIds.isEmpty()) {
+            return Set.of();
+        }
+        List<String> candidates = List.copyOf(channelIds);
+        List<Double> markedAt = redisTemplate.opsForZSet().score(MEGA_CHANNELS_KEY, candidates.toArray());
+        if (markedAt == null) {
+            return Set.of();
+        }
+        long oldest = System.currentTimeMillis() - properties.getFeedTtl().toMillis();
+        Set<String> channels = new HashSet<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            Double score = markedAt.get(i);
+            if (score != null && score >= oldest) {
+                channels.add(candidates.get(i));
+            }
+        }
+        return channels;
+    }
+    
+    private static byte[] feedKey(String userId) {
+        return bytes(FEED_KEY_PREFIX + userId);
+    }
+    
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private String serialize(FeedItem item) {
+        try {
+            return objectMapper.writeValueAsString(StoredFeedItem.from(item));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize feed item " + item.getVideoId(), e);
+        }
+    }
+    
+    private FeedItem deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, StoredFeedItem.class).toDomain();
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable feed entry: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Stored shape of a feed entry; ad fields are never materialised.
+     */
+    record StoredFeedItem(String videoId, String title, String channelId, String channelName,
+                          String thumbnailUrl, Instant publishedAt, Long viewCount,
+                          Long durationSeconds, String category) {
+        
+        static StoredFeedItem from(FeedItem item) {
+            return new StoredFeedItem(item.getVideoId(), item.getTitle(), item.getChannelId(),
+                    item.getChannelName(), item.getThumbnailUrl(), item.getPublishedAt(),
+                    item.getViewCount(), item.getDurationSeconds(), item.getCategory());
+        }
+        
+        FeedItem toDomain() {
+            return FeedItem.builder()
+                    .videoId(videoId)
+                    .title(title)
+                    .channelId(channelId)
+                    .channelName(channelName)
+                    .thumbnailUrl(thumbnailUrl)
+                    .publishedAt(publishedAt)
+                    .viewCount(viewCount)
+                    .durationSeconds(durationSeconds)
+                    .category(category)
+                    .build();
+        }
+    }
+}
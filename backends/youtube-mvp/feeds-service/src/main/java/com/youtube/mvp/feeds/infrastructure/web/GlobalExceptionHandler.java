@@ -1,5 +1,6 @@
 package com.youtube.mvp.feeds.infrastructure.web;
 
+import com.youtube.mvp.feeds.domain.exception.InvalidPageTokenException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -35,6 +36,18 @@ public class GlobalExceptionHandler implements ProblemHandling {
         return new ResponseEntity<>(problemDetail, HttpStatus.BAD_REQUEST);
     }
     
+    @ExceptionHandler(InvalidPageTokenException.class)
+    public ResponseEntity<Problem> handleInvalidPageToken(InvalidPageTokenException ex) {
+        Problem problem = Problem.builder()
+                .withType(URI.create("https://api.youtube.com/problems/invalid-page-token"))
+                .withTitle("Invalid Page Token")
+                .withStatus(Status.BAD_REQUEST)
+                .withDetail(ex.getMessage())
+                .build();
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(problem);
+    }
+    
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<Problem> handleAccessDenied(AccessDeniedException ex) {
         Problem problem = Problem.builder()
@@ -0,0 +1,50 @@
+package com.youtube.mvp.feeds.application.usecase;
+
+import com.youtube.mvp.feeds.domain.model.FeedItem;
+import com.youtube.mvp.feeds.domain.model.FeedType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdSlotServiceTest {
+    
+    private final AdSlotService adSlotService = new AdSlotService();
+    
+    @Test
+    void testInjectAds_SamePageRendersSameAds() {
+        // Given
+        List<FeedItem> page = items(20);
+        
+        // When
+        List<FeedItem> first = adSlotService.injectAds(page, FeedType.HOME, 10);
+        List<FeedItem> second = new AdSlotService().injectAds(page, FeedType.HOME, 10);
+        
+        // Then
+        assertThat(first).filteredOn(FeedItem::isAd).hasSize(2);
+        assertThat(second).isEqualTo(first);
+    }
+    
+    @Test
+    void testInjectAds_AdsDifferByFeedType() {
+        // Given
+        List<FeedItem> page = items(11);
+        
+        // When
+        FeedItem homeAd = adSlotService.injectAds(page, FeedType.HOME, 0).get(10);
+        FeedItem trendingAd = adSlotService.injectAds(page, FeedType.TRENDING, 0).get(10);
+        
+        // Then
+        assertThat(homeAd.isAd()).isTrue();
+        assertThat(homeAd.getAdSlotIndex()).isEqualTo(1);
+        assertThat(homeAd.getVideoId()).isNotEqualTo(trendingAd.getVideoId());
+    }
+    
+    private static List<FeedItem> items(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> FeedItem.builder().videoId("video-" + i).title("Video " + i).build())
+                .toList();
+    }
+}
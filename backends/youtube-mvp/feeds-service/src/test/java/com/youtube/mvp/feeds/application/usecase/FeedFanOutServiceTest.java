@@ -0,0 +1,93 @@
+package com.youtube.mvp.feeds.application.usecase;
+
+import com.youtube.mvp.feeds.domain.model.FeedItem;
+import com.youtube.mvp.feeds.domain.repository.SubscriptionFeedStore;
+import com.youtube.mvp.feeds.domain.repository.SubscriptionRepository;
+import com.youtube.mvp.feeds.infrastructure.config.FeedFanOutProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeedFanOutServiceTest {
+    
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+    
+    @Mock
+    private SubscriptionFeedStore subscriptionFeedStore;
+    
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FeedFanOutService fanOutService;
+    
+    @BeforeEach
+    void setUp() {
+        FeedFanOutProperties properties = new FeedFanOutProperties();
+        properties.setBatchSize(100);
+        properties.setMegaChannelThreshold(1_000);
+        fanOutService = new FeedFanOutService(subscriptionRepository, subscriptionFeedStore,
+                properties, executor, meterRegistry);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void testFanOut_AppendsToEverySubscriberInBatches() {
+        // Given
+        List<String> subscribers = IntStream.range(0, 250).mapToObj(i -> "user-" + i).toList();
+        when(subscriptionRepository.countSubscribers("channel-1")).thenReturn(250L);
+        when(subscriptionRepository.findSubscribers("channel-1")).thenReturn(subscribers);
+        FeedItem item = item("channel-1");
+        
+        // When
+        fanOutService.fanOut(item);
+        
+        // Then
+        verify(subscriptionFeedStore, times(3)).append(anyList(), eq(item));
+        verify(subscriptionFeedStore).append(subscribers.subList(200, 250), item);
+        assertThat(meterRegistry.get("feeds.fanout.writes").counter().count()).isEqualTo(250.0);
+        assertThat(meterRegistry.get("feeds.fanout.lag").timer().count()).isEqualTo(1);
+    }
+    
+    @Test
+    void testFanOut_MegaChannelIsLeftToReadTimeMerge() {
+        // Given
+        when(subscriptionRepository.countSubscribers("mega-channel")).thenReturn(5_000_000L);
+        
+        // When
+        fanOutService.fanOut(item("mega-channel"));
+        
+        // Then
+        verify(subscriptionFeedStore).markMegaChannel("mega-channel");
+        verify(subscriptionFeedStore, never()).append(anyList(), any());
+        verify(subscriptionRepository, never()).findSubscribers(anyString());
+    }
+    
+    private FeedItem item(String channelId) {
+        return FeedItem.builder()
+                .videoId("video-1")
+                .title("Video 1")
+                .channelId(channelId)
+                .publishedAt(Instant.now().minusSeconds(5))
+                .category("entertainment")
+                .build();
+    }
+}
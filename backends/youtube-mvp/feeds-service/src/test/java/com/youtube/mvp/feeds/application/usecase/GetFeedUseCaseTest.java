@@ -1,9 +1,13 @@
 package com.youtube.mvp.feeds.application.usecase;
 
+import com.youtube.mvp.feeds.application.dto.FeedDto;
+import com.youtube.mvp.feeds.application.dto.FeedItemDto;
+import com.youtube.mvp.feeds.domain.exception.InvalidPageTokenException;
 import com.youtube.mvp.feeds.domain.model.Feed;
 import com.youtube.mvp.feeds.domain.model.FeedItem;
 import com.youtube.mvp.feeds.domain.model.FeedType;
 import com.youtube.mvp.feeds.domain.repository.FeedRepository;
+import com.youtube.mvp.feeds.domain.repository.SubscriptionFeedStore;
 import com.youtube.mvp.feeds.domain.repository.SubscriptionRepository;
 import com.youtube.mvp.feeds.domain.repository.VideoRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,8 +20,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -39,6 +45,9 @@ class GetFeedUseCaseTest {
     @Mock
     private AdSlotService adSlotService;
     
+    @Mock
+    private SubscriptionFeedStore subscriptionFeedStore;
+    
     @InjectMocks
     private GetFeedUseCase getFeedUseCase;
     
@@ -66,7 +75,7 @@ class GetFeedUseCaseTest {
         when(feedRepository.findByUserIdAndFeedType(userId, FeedType.HOME))
                 .thenReturn(Optional.of(cachedFeed));
         
-        when(adSlotService.injectAds(anyList(), eq(FeedType.HOME)))
+        when(adSlotService.injectAds(anyList(), eq(FeedType.HOME), anyInt()))
                 .thenReturn(cachedFeed.getItems());
         
         // When
@@ -78,7 +87,7 @@ class GetFeedUseCaseTest {
         assertThat(result.getTotalCount()).isEqualTo(5L);
         
         verify(feedRepository).findByUserIdAndFeedType(userId, FeedType.HOME);
-        verify(adSlotService).injectAds(anyList(), eq(FeedType.HOME));
+        verify(adSlotService).injectAds(anyList(), eq(FeedType.HOME), anyInt());
         verifyNoMoreInteractions(videoRepository);
     }
     
@@ -89,10 +98,10 @@ class GetFeedUseCaseTest {
                 .thenReturn(Optional.empty());
         
         List<FeedItem> recommendedVideos = createMockFeedItems(50);
-        when(videoRepository.findRecommendedForUser(userId, 50))
+        when(videoRepository.findRecommendedForUser(userId, GetFeedUseCase.FEED_WINDOW))
                 .thenReturn(recommendedVideos);
         
-        when(adSlotService.injectAds(anyList(), eq(FeedType.HOME)))
+        when(adSlotService.injectAds(anyList(), eq(FeedType.HOME), anyInt()))
                 .thenReturn(recommendedVideos);
         
         // When
@@ -102,8 +111,8 @@ class GetFeedUseCaseTest {
         assertThat(result).isNotNull();
         assertThat(result.getItems()).hasSize(50);
         
-        verify(videoRepository).findRecommendedForUser(userId, 50);
-        verify(adSlotService).injectAds(anyList(), eq(FeedType.HOME));
+        verify(videoRepository).findRecommendedForUser(userId, GetFeedUseCase.FEED_WINDOW);
+        verify(adSlotService).injectAds(anyList(), eq(FeedType.HOME), anyInt());
     }
     
     @Test
@@ -116,10 +125,10 @@ class GetFeedUseCaseTest {
                 .thenReturn(List.of("channel-1", "channel-2"));
         
         List<FeedItem> subscriptionVideos = createMockFeedItems(30);
-        when(videoRepository.findByChannelIds(anyList(), eq(50)))
+        when(videoRepository.findByChannelIds(anyList(), eq(GetFeedUseCase.FEED_WINDOW)))
                 .thenReturn(subscriptionVideos);
         
-        when(adSlotService.injectAds(anyList(), eq(FeedType.SUBSCRIPTIONS)))
+        when(adSlotService.injectAds(anyList(), eq(FeedType.SUBSCRIPTIONS), anyInt()))
                 .thenReturn(subscriptionVideos);
         
         // When
@@ -129,7 +138,7 @@ class GetFeedUseCaseTest {
         assertThat(result).isNotNull();
         
         verify(subscriptionRepository).findSubscribedChannels(userId);
-        verify(videoRepository).findByChannelIds(anyList(), eq(50));
+        verify(videoRepository).findByChannelIds(anyList(), eq(GetFeedUseCase.FEED_WINDOW));
     }
     
     @Test
@@ -152,6 +161,64 @@ class GetFeedUseCaseTest {
         verifyNoInteractions(videoRepository);
     }
     
+    @Test
+    void testGetSubscriptionsFeed_MergesMaterializedFeedWithMegaChannels() {
+        // Given
+        when(feedRepository.findByUserIdAndFeedType(userId, FeedType.SUBSCRIPTIONS))
+                .thenReturn(Optional.empty());
+        
+        when(subscriptionRepository.findSubscribedChannels(userId))
+                .thenReturn(List.of("channel-1", "mega-channel"));
+        
+        Instant now = Instant.now();
+        when(subscriptionFeedStore.findRecent(userId, GetFeedUseCase.FEED_WINDOW))
+                .thenReturn(List.of(item("video-1", now.minusSeconds(60)), item("video-3", now.minusSeconds(180))));
+        when(subscriptionFeedStore.isSeeded(userId)).thenReturn(true);
+        when(subscriptionFeedStore.findMegaChannels(List.of("channel-1", "mega-channel")))
+                .thenReturn(Set.of("mega-channel"));
+        when(videoRepository.findByChannelIds(List.of("mega-channel"), GetFeedUseCase.FEED_WINDOW))
+                .thenReturn(List.of(item("video-2", now.minusSeconds(120)), item("video-1", now.minusSeconds(60))));
+        
+        when(adSlotService.injectAds(anyList(), eq(FeedType.SUBSCRIPTIONS), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        var result = getFeedUseCase.execute(userId, FeedType.SUBSCRIPTIONS, 50, null);
+        
+        // Then
+        assertThat(result.getItems())
+                .extracting(item -> item.getVideoId())
+                .containsExactly("video-1", "video-2", "video-3");
+    }
+    
+    @Test
+    void testGetSubscriptionsFeed_SeedsPartialFeedWithPulledHistory() {
+        // Given
+        when(feedRepository.findByUserIdAndFeedType(userId, FeedType.SUBSCRIPTIONS))
+                .thenReturn(Optional.empty());
+        when(subscriptionRepository.findSubscribedChannels(userId))
+                .thenReturn(List.of("channel-1"));
+        
+        Instant now = Instant.now();
+        // Fan-out has only written the latest upload so far
+        when(subscriptionFeedStore.findRecent(userId, GetFeedUseCase.FEED_WINDOW))
+                .thenReturn(List.of(item("video-0", now)));
+        List<FeedItem> history = List.of(item("video-1", now.minusSeconds(60)), item("video-2", now.minusSeconds(120)));
+        when(videoRepository.findByChannelIds(List.of("channel-1"), GetFeedUseCase.FEED_WINDOW))
+                .thenReturn(history);
+        when(adSlotService.injectAds(anyList(), eq(FeedType.SUBSCRIPTIONS), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        var result = getFeedUseCase.execute(userId, FeedType.SUBSCRIPTIONS, 50, null);
+        
+        // Then
+        assertThat(result.getItems())
+                .extracting(FeedItemDto::getVideoId)
+                .containsExactly("video-0", "video-1", "video-2");
+        verify(subscriptionFeedStore).seed(userId, history);
+    }
+    
     @Test
     void testGetTrendingFeed() {
         // Given
@@ -159,10 +226,10 @@ class GetFeedUseCaseTest {
                 .thenReturn(Optional.empty());
         
         List<FeedItem> trendingVideos = createMockFeedItems(50);
-        when(videoRepository.findTrending(50, null))
+        when(videoRepository.findTrending(GetFeedUseCase.FEED_WINDOW, null))
                 .thenReturn(trendingVideos);
         
-        when(adSlotService.injectAds(anyList(), eq(FeedType.TRENDING)))
+        when(adSlotService.injectAds(anyList(), eq(FeedType.TRENDING), anyInt()))
                 .thenReturn(trendingVideos);
         
         // When
@@ -171,8 +238,99 @@ class GetFeedUseCaseTest {
         // Then
         assertThat(result).isNotNull();
         
-        verify(videoRepository).findTrending(50, null);
-        verify(adSlotService).injectAds(anyList(), eq(FeedType.TRENDING));
+        verify(videoRepository).findTrending(GetFeedUseCase.FEED_WINDOW, null);
+        verify(adSlotService).injectAds(anyList(), eq(FeedType.TRENDING), anyInt());
+    }
+    
+    @Test
+    void testGetHomeFeed_PagesWithContinuationToken() {
+        // Given
+        when(feedRepository.findByUserIdAndFeedType(userId, FeedType.HOME))
+                .thenReturn(Optional.empty());
+        when(videoRepository.findRecommendedForUser(userId, GetFeedUseCase.FEED_WINDOW))
+                .thenReturn(createMockFeedItems(25));
+        when(adSlotService.injectAds(anyList(), eq(FeedType.HOME), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        FeedDto first = getFeedUseCase.execute(userId, FeedType.HOME, 10, null);
+        FeedDto second = getFeedUseCase.execute(userId, FeedType.HOME, 10, first.getNextPageToken());
+        FeedDto last = getFeedUseCase.execute(userId, FeedType.HOME, 10, second.getNextPageToken());
+        
+        // Then
+        assertThat(first.getItems()).extracting(FeedItemDto::getVideoId).startsWith("video-0").hasSize(10);
+        assertThat(second.getItems()).extracting(FeedItemDto::getVideoId).startsWith("video-10").hasSize(10);
+        assertThat(last.getItems()).extracting(FeedItemDto::getVideoId).startsWith("video-20").hasSize(5);
+        assertThat(last.getNextPageToken()).isNull();
+        assertThat(first.getTotalCount()).isEqualTo(25L);
+        verify(adSlotService).injectAds(anyList(), eq(FeedType.HOME), eq(10));
+    }
+    
+    @Test
+    void testGetSubscriptionsFeed_ContinuationSurvivesNewUploads() {
+        // Given
+        when(feedRepository.findByUserIdAndFeedType(userId, FeedType.SUBSCRIPTIONS))
+                .thenReturn(Optional.empty());
+        when(subscriptionRepository.findSubscribedChannels(userId))
+                .thenReturn(List.of("channel-1"));
+        when(subscriptionFeedStore.isSeeded(userId)).thenReturn(true);
+        when(subscriptionFeedStore.findMegaChannels(List.of("channel-1")))
+                .thenReturn(Set.of());
+        when(adSlotService.injectAds(anyList(), eq(FeedType.SUBSCRIPTIONS), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Instant now = Instant.now();
+        List<FeedItem> before = List.of(item("video-1", now.minusSeconds(60)), item("video-2", now.minusSeconds(120)),
+                item("video-3", now.minusSeconds(180)));
+        List<FeedItem> after = List.of(item("video-0", now), item("video-1", now.minusSeconds(60)),
+                item("video-2", now.minusSeconds(120)), item("video-3", now.minusSeconds(180)));
+        when(subscriptionFeedStore.findRecent(userId, GetFeedUseCase.FEED_WINDOW))
+                .thenReturn(before, after);
+        
+        // When
+        FeedDto first = getFeedUseCase.execute(userId, FeedType.SUBSCRIPTIONS, 2, null);
+        FeedDto second = getFeedUseCase.execute(userId, FeedType.SUBSCRIPTIONS, 2, first.getNextPageToken());
+        
+        // Then
+        assertThat(first.getItems()).extracting(FeedItemDto::getVideoId).containsExactly("video-1", "video-2");
+        assertThat(second.getItems()).extracting(FeedItemDto::getVideoId).containsExactly("video-3");
+    }
+    
+    @Test
+    void testGetHomeFeed_EtagDependsOnlyOnPageContent() {
+        // Given
+        when(feedRepository.findByUserIdAndFeedType(userId, FeedType.HOME))
+                .thenReturn(Optional.empty());
+        List<FeedItem> videos = createMockFeedItems(5);
+        when(videoRepository.findRecommendedForUser(userId, GetFeedUseCase.FEED_WINDOW))
+                .thenReturn(videos, videos, List.of(videos.get(1), videos.get(0)));
+        when(adSlotService.injectAds(anyList(), eq(FeedType.HOME), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        String etag = getFeedUseCase.execute(userId, FeedType.HOME, 5, null).getEtag();
+        String sameEtag = getFeedUseCase.execute(userId, FeedType.HOME, 5, null).getEtag();
+        String changedEtag = getFeedUseCase.execute(userId, FeedType.HOME, 5, null).getEtag();
+        
+        // Then
+        assertThat(etag).startsWith("\"").endsWith("\"").isEqualTo(sameEtag);
+        assertThat(changedEtag).isNotEqualTo(etag);
+    }
+    
+    @Test
+    void testGetFeed_InvalidPageToken() {
+        assertThatThrownBy(() -> getFeedUseCase.execute(userId, FeedType.HOME, 10, "not-a-token"))
+                .isInstanceOf(InvalidPageTokenException.class);
+        verifyNoInteractions(feedRepository, videoRepository);
+    }
+    
+    private FeedItem item(String videoId, Instant publishedAt) {
+        return FeedItem.builder()
+                .videoId(videoId)
+                .title(videoId)
+                .channelId("channel-1")
+                .publishedAt(publishedAt)
+                .build();
     }
     
     private List<FeedItem> createMockFeedItems(int count) {
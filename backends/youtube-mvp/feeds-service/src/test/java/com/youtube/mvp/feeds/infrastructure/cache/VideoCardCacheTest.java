@@ -0,0 +1,85 @@
+package com.youtube.mvp.feeds.infrastructure.cache;
+
+import com.youtube.mvp.feeds.domain.model.FeedItem;
+import com.youtube.mvp.feeds.infrastructure.config.VideoCardCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VideoCardCacheTest {
+    
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final List<List<String>> loads = new ArrayList<>();
+    private VideoCardCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        VideoCardCacheProperties properties = new VideoCardCacheProperties();
+        properties.setExpireAfterWrite(Duration.ofMinutes(5));
+        cache = new VideoCardCache(properties, new SimpleMeterRegistry(), nanoTime::get);
+    }
+    
+    @Test
+    void testGetAll_FreshCardIsServedFromCache() {
+        // Given
+        cache.getAll(List.of("video-1"), loader("Original title"));
+        nanoTime.addAndGet(Duration.ofMinutes(4).toNanos());
+        
+        // When
+        Map<String, FeedItem> cards = cache.getAll(List.of("video-1"), loader("Edited title"));
+        
+        // Then
+        assertThat(cards.get("video-1").getTitle()).isEqualTo("Original title");
+        assertThat(loads).hasSize(1);
+    }
+    
+    @Test
+    void testGetAll_ExpiredCardIsReloaded() {
+        // Given
+        cache.getAll(List.of("video-1"), loader("Original title"));
+        nanoTime.addAndGet(Duration.ofMinutes(5).toNanos());
+        
+        // When
+        Map<String, FeedItem> cards = cache.getAll(List.of("video-1"), loader("Edited title"));
+        
+        // Then
+        assertThat(cards.get("video-1").getTitle()).isEqualTo("Edited title");
+        assertThat(loads).containsExactly(List.of("video-1"), List.of("video-1"));
+    }
+    
+    @Test
+    void testGetAll_ExpiredCardOfRemovedVideoIsDropped() {
+        // Given
+        cache.getAll(List.of("video-1"), loader("Original title"));
+        nanoTime.addAndGet(Duration.ofMinutes(6).toNanos());
+        
+        // When
+        Map<String, FeedItem> cards = cache.getAll(List.of("video-1"), missing -> {
+            loads.add(missing);
+            return List.of();
+        });
+        
+        // Then
+        assertThat(cards).isEmpty();
+        assertThat(cache.getAll(List.of("video-1"), loader("Republished")).get("video-1").getTitle())
+                .isEqualTo("Republished");
+    }
+    
+    private Function<List<String>, List<FeedItem>> loader(String title) {
+        return videoIds -> {
+            loads.add(videoIds);
+            return videoIds.stream()
+                    .map(videoId -> FeedItem.builder().videoId(videoId).title(title).build())
+                    .toList();
+        };
+    }
+}
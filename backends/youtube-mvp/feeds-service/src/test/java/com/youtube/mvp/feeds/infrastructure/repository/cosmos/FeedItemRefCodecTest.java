@@ -0,0 +1,54 @@
+package com.youtube.mvp.feeds.infrastructure.repository.cosmos;
+
+import com.youtube.mvp.feeds.infrastructure.repository.cosmos.FeedItemRefCodec.ItemRef;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedItemRefCodecTest {
+    
+    @Test
+    void testRoundTrip_PreservesOrderAndTimestamps() {
+        // Given
+        List<ItemRef> refs = List.of(
+                new ItemRef("video-b", 1_700_000_060_000L),
+                new ItemRef("video-a", 1_700_000_000_000L),
+                new ItemRef("video-\u00e9", 1_700_000_120_000L),
+                new ItemRef("video-unknown-time", 0L));
+        
+        // When
+        List<ItemRef> decoded = FeedItemRefCodec.decode(FeedItemRefCodec.encode(refs));
+        
+        // Then
+        assertThat(decoded).isEqualTo(refs);
+    }
+    
+    @Test
+    void testEncode_NewestFirstFeedIsCompact() {
+        // Given
+        long now = 1_700_000_000_000L;
+        List<ItemRef> refs = IntStream.range(0, 500)
+                .mapToObj(i -> new ItemRef("dQw4w9WgXc" + (i % 10), now - i * 3_600_000L))
+                .toList();
+        
+        // When
+        byte[] encoded = FeedItemRefCodec.encode(refs);
+        
+        // Then
+        assertThat(encoded.length).isLessThan(500 * 20);
+        assertThat(FeedItemRefCodec.decode(encoded)).isEqualTo(refs);
+    }
+    
+    @Test
+    void testDecode_RejectsTruncatedInput() {
+        byte[] encoded = FeedItemRefCodec.encode(List.of(new ItemRef("video-1", 1_700_000_000_000L)));
+        
+        assertThatThrownBy(() -> FeedItemRefCodec.decode(Arrays.copyOf(encoded, encoded.length - 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -2,7 +2,9 @@ package com.youtube.identityauthservice.infrastructure.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.youtube.common.domain.events.outbox.ClaimingJpaOutboxRepository;
 import com.youtube.common.domain.events.outbox.JpaOutboxRepository;
+import com.youtube.common.domain.events.outbox.OutboxRetryPolicy;
 import com.youtube.common.domain.persistence.entity.OutboxEvent;
 import com.youtube.identityauthservice.application.services.DeviceFlowService;
 import com.youtube.identityauthservice.application.services.OidcIdTokenVerifier;
@@ -63,8 +65,8 @@ public class AppConfig {
      * This bean implements the OutboxRepository interface required by EventPublisher.
      */
     @Bean
-    public JpaOutboxRepository commonDomainOutboxRepository(EntityManager entityManager) {
-        return new JpaOutboxRepository(entityManager, OutboxEventEntity.class) {
+    public JpaOutboxRepository commonDomainOutboxRepository(EntityManager entityManager, OutboxRetryPolicy retryPolicy) {
+        return new ClaimingJpaOutboxRepository(entityManager, OutboxEventEntity.class, "outbox_events", retryPolicy) {
             @Override
             protected OutboxEvent createOutboxEvent() {
                 return new OutboxEventEntity();
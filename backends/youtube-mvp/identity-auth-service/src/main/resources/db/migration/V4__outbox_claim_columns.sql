@@ -0,0 +1,4 @@
+-- Lease columns for ClaimingJpaOutboxRepository (multi-replica SKIP LOCKED claims)
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(64);
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMPTZ;
+CREATE INDEX IF NOT EXISTS ix_outbox_not_dispatched ON outbox_events (created_at) WHERE dispatched_at IS NULL;
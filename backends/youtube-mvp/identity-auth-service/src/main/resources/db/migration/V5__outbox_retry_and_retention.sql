@@ -0,0 +1,11 @@
+-- Retry bookkeeping and poison-message parking for outbox events
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMPTZ;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS parked_at TIMESTAMPTZ;
+
+-- Hot working set: only dispatchable rows; retention deletes dispatched rows oldest first
+DROP INDEX IF EXISTS ix_outbox_not_dispatched;
+CREATE INDEX IF NOT EXISTS ix_outbox_pending ON outbox_events (created_at) WHERE dispatched_at IS NULL AND parked_at IS NULL;
+CREATE INDEX IF NOT EXISTS ix_outbox_dispatched_at ON outbox_events (dispatched_at) WHERE dispatched_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS ix_inbox_processed_at ON inbox_messages (processed_at) WHERE processed_at IS NOT NULL;
+ALTER TABLE outbox_events SET (fillfactor = 80);
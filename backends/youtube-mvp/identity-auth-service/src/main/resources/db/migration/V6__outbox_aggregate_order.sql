@@ -0,0 +1,2 @@
+-- Claims check for an older pending event of the same aggregate before taking a row
+CREATE INDEX IF NOT EXISTS ix_outbox_pending_aggregate ON outbox_events (aggregate_id, created_at, id) WHERE dispatched_at IS NULL AND parked_at IS NULL;
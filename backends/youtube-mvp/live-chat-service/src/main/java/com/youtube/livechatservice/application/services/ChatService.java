@@ -3,6 +3,7 @@ package com.youtube.livechatservice.application.services;
 import com.youtube.livechatservice.domain.entities.ChatMessage;
 import com.youtube.livechatservice.domain.repositories.ChatMessageRepository;
 import com.youtube.livechatservice.domain.valueobjects.LiveId;
+import com.youtube.livechatservice.infrastructure.messaging.ChatIngestPipeline;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -13,9 +14,13 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ChatService {
     private final ChatMessageRepository chatMessageRepository;
+    private final ChatIngestPipeline chatIngestPipeline;
 
-    public ChatMessage persist(ChatMessage message) {
-        return chatMessageRepository.save(message);
+    /**
+     * Accepts the message for broadcast and write-behind storage; false if it is a duplicate.
+     */
+    public boolean accept(ChatMessage message) {
+        return chatIngestPipeline.accept(message);
     }
 
     public List<ChatMessage> getLatest(LiveId liveId, int limit) {
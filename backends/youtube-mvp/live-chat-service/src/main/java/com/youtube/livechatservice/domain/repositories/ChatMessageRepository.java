@@ -9,6 +9,8 @@ import java.util.Optional;
 
 public interface ChatMessageRepository {
     ChatMessage save(ChatMessage message);
+    /** Saves messages of a single live event in one write to its partition. */
+    void saveAll(List<ChatMessage> messages);
     List<ChatMessage> findRecentByLiveId(LiveId liveId, int limit);
     List<ChatMessage> findByLiveIdSince(LiveId liveId, Instant since, int limit);
     Optional<ChatMessage> findById(String messageId);
@@ -1,16 +1,38 @@
 package com.youtube.livechatservice.infrastructure.external;
 
 import com.youtube.livechatservice.domain.entities.ChatMessage;
+import com.youtube.livechatservice.domain.valueobjects.LiveId;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class RedisServices {
+    private static final String INGEST_STREAM = "chat-ingest";
+    private static final String DEAD_LETTER_STREAM = "chat-ingest-dead";
+    private static final int DEAD_LETTER_MAX_LENGTH = 10_000;
+
     private final StringRedisTemplate redisTemplate;
 
     public boolean tryIdempotency(String key, Duration ttl) {
@@ -18,23 +40,185 @@ public class RedisServices {
         return Boolean.TRUE.equals(set);
     }
 
-    public void pushRecentMessage(String liveId, ChatMessage message, int maxSize, Duration ttl) {
-        String listKey = "recent:" + liveId;
-        redisTemplate.opsForList().leftPush(listKey, serialize(message));
-        redisTemplate.opsForList().trim(listKey, 0, maxSize - 1);
-        redisTemplate.expire(listKey, ttl);
+    public void releaseIdempotency(String key) {
+        redisTemplate.delete("idemp:" + key);
     }
 
-    public List<String> getRecentRaw(String liveId, int limit) {
-        String listKey = "recent:" + liveId;
-        return redisTemplate.opsForList().range(listKey, 0, limit - 1);
+    /**
+     * Appends the message to the live event's stream of recent messages, trimmed to about
+     * {@code maxSize} entries.
+     */
+    public void appendRecentMessage(String liveId, ChatMessage message, int maxSize, Duration ttl) {
+        String streamKey = streamKey(liveId);
+        redisTemplate.opsForStream().add(StreamRecords.newRecord().in(streamKey).ofMap(fields(message)));
+        redisTemplate.opsForStream().trim(streamKey, maxSize, true);
+        redisTemplate.expire(streamKey, ttl);
     }
 
-    private String serialize(ChatMessage m) {
-        return String.join("|",
-                m.getMessageId(), m.getLiveId().getValue(), m.getUserId(), m.getDisplayName(),
-                m.getContent(), String.valueOf(m.getCreatedAt().toEpochMilli()));
+    /**
+     * The latest {@code count} entries of the stream, oldest first.
+     */
+    public List<StreamedMessage> readLatestMessages(String liveId, int count) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                .reverseRange(streamKey(liveId), Range.unbounded(), Limit.limit().count(count));
+        List<StreamedMessage> messages = toMessages(liveId, records);
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    /**
+     * Up to {@code count} entries added after the entry {@code afterId}, oldest first.
+     */
+    public List<StreamedMessage> readMessagesAfter(String liveId, String afterId, int count) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                .range(streamKey(liveId), Range.rightUnbounded(Range.Bound.exclusive(afterId)),
+                        Limit.limit().count(count));
+        return toMessages(liveId, records);
+    }
+
+    /**
+     * Appends an accepted message to the ingest log, the stream that messages wait in until they
+     * are saved to Cosmos DB.
+     */
+    public void appendIngest(ChatMessage message) {
+        redisTemplate.opsForStream().add(StreamRecords.newRecord().in(INGEST_STREAM).ofMap(fields(message)));
+    }
+
+    /**
+     * Creates the consumer group, and the ingest log if needed, unless the group already exists.
+     */
+    public void createIngestGroup(String group) {
+        try {
+            redisTemplate.opsForStream().createGroup(INGEST_STREAM, ReadOffset.from("0-0"), group);
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (String.valueOf(cause.getMessage()).contains("BUSYGROUP")) {
+                    return;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Up to {@code count} ingest log entries not yet delivered to any consumer of the group, now
+     * pending for {@code consumer}. Entries that cannot be read have a null message.
+     */
+    public List<StreamedMessage> readIngest(String group, String consumer, int count) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                Consumer.from(group, consumer),
+                StreamReadOptions.empty().count(count),
+                StreamOffset.create(INGEST_STREAM, ReadOffset.lastConsumed()));
+        return toIngested(records);
+    }
+
+    /**
+     * Up to {@code count} entries delivered to consumers of the group but not yet acknowledged.
+     */
+    public List<PendingMessage> pendingIngest(String group, int count) {
+        List<PendingMessage> pending = new ArrayList<>();
+        redisTemplate.opsForStream().pending(INGEST_STREAM, group, Range.unbounded(), count).forEach(pending::add);
+        return pending;
+    }
+
+    /**
+     * Takes over pending entries idle for at least {@code minIdle}, e.g. those of a stopped pod.
+     */
+    public List<StreamedMessage> claimIngest(String group, String consumer, Duration minIdle, List<String> ids) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().claim(
+                INGEST_STREAM, group, consumer, minIdle, ids.stream().map(RecordId::of).toArray(RecordId[]::new));
+        return toIngested(records);
+    }
+
+    /**
+     * Acknowledges entries and removes them from the ingest log, which therefore only holds
+     * messages still waiting to be saved.
+     */
+    public void acknowledgeIngest(String group, List<String> ids) {
+        String[] recordIds = ids.toArray(String[]::new);
+        redisTemplate.opsForStream().acknowledge(INGEST_STREAM, group, recordIds);
+        redisTemplate.opsForStream().delete(INGEST_STREAM, recordIds);
+    }
+
+    /**
+     * Moves entries, with their fields, from the ingest log to the dead-letter stream, which keeps
+     * about the last {@value #DEAD_LETTER_MAX_LENGTH} of them for inspection or replay.
+     */
+    public void deadLetterIngest(String group, List<String> ids) {
+        for (String id : ids) {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                    .range(INGEST_STREAM, Range.closed(id, id));
+            if (records == null || records.isEmpty()) {
+                continue;
+            }
+            Map<Object, Object> fields = new HashMap<>(records.get(0).getValue());
+            fields.put("ingestId", id);
+            fields.put("deadLetteredAt", Instant.now().toString());
+            redisTemplate.opsForStream().add(StreamRecords.newRecord().in(DEAD_LETTER_STREAM).ofMap(fields));
+        }
+        redisTemplate.opsForStream().trim(DEAD_LETTER_STREAM, DEAD_LETTER_MAX_LENGTH, true);
+        acknowledgeIngest(group, ids);
+    }
+
+    public long ingestBacklog() {
+        Long size = redisTemplate.opsForStream().size(INGEST_STREAM);
+        return size != null ? size : 0;
+    }
+
+    private String streamKey(String liveId) {
+        return "recent-stream:" + liveId;
     }
-}
 
+    private Map<String, String> fields(ChatMessage m) {
+        return Map.of(
+                "messageId", m.getMessageId(),
+                "liveId", m.getLiveId().getValue(),
+                "userId", m.getUserId(),
+                "displayName", m.getDisplayName(),
+                "content", m.getContent(),
+                "createdAt", m.getCreatedAt().toString(),
+                "moderated", String.valueOf(m.isModerated()));
+    }
 
+    private List<StreamedMessage> toMessages(String liveId, List<MapRecord<String, Object, Object>> records) {
+        if (records == null) {
+            return new ArrayList<>();
+        }
+        List<StreamedMessage> messages = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            messages.add(new StreamedMessage(record.getId().getValue(), toMessage(liveId, record.getValue())));
+        }
+        return messages;
+    }
+
+    private List<StreamedMessage> toIngested(List<MapRecord<String, Object, Object>> records) {
+        if (records == null) {
+            return new ArrayList<>();
+        }
+        List<StreamedMessage> messages = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            ChatMessage message = null;
+            try {
+                message = toMessage((String) record.getValue().get("liveId"), record.getValue());
+            } catch (RuntimeException e) {
+                log.warn("Unreadable ingest log entry {}", record.getId(), e);
+            }
+            messages.add(new StreamedMessage(record.getId().getValue(), message));
+        }
+        return messages;
+    }
+
+    private ChatMessage toMessage(String liveId, Map<Object, Object> fields) {
+        return ChatMessage.builder()
+                .messageId((String) fields.get("messageId"))
+                .liveId(LiveId.of(liveId))
+                .userId((String) fields.get("userId"))
+                .displayName((String) fields.get("displayName"))
+                .content((String) fields.get("content"))
+                .createdAt(Instant.parse((String) fields.get("createdAt")))
+                .moderated(Boolean.parseBoolean((String) fields.get("moderated")))
+                .build();
+    }
+
+    public record StreamedMessage(String id, ChatMessage message) {}
+}
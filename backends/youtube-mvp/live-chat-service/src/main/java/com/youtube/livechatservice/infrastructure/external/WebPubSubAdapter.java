@@ -1,27 +1,41 @@
 package com.youtube.livechatservice.infrastructure.external;
 
+import com.azure.messaging.webpubsub.WebPubSubServiceAsyncClient;
 import com.azure.messaging.webpubsub.WebPubSubServiceClient;
 import com.azure.messaging.webpubsub.WebPubSubServiceClientBuilder;
 import com.azure.messaging.webpubsub.models.WebPubSubClientAccessToken;
-import lombok.RequiredArgsConstructor;
+import com.azure.messaging.webpubsub.models.WebPubSubContentType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtube.livechatservice.domain.entities.ChatMessage;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class WebPubSubAdapter {
 
+    private static final String GROUP_PREFIX = "live-";
+
     private final WebPubSubServiceClient client;
+    private final WebPubSubServiceAsyncClient asyncClient;
+    private final ObjectMapper objectMapper;
 
     public WebPubSubAdapter(@Value("${azure.webpubsub.connection-string}") String connectionString,
-                            @Value("${azure.webpubsub.hub:live-chat}") String hub) {
-        this.client = new WebPubSubServiceClientBuilder()
+                            @Value("${azure.webpubsub.hub:live-chat}") String hub,
+                            ObjectMapper objectMapper) {
+        WebPubSubServiceClientBuilder builder = new WebPubSubServiceClientBuilder()
                 .connectionString(connectionString)
-                .hub(hub)
-                .buildClient();
+                .hub(hub);
+        this.client = builder.buildClient();
+        this.asyncClient = builder.buildAsyncClient();
+        this.objectMapper = objectMapper;
     }
 
     public Token issueClientToken(String userId, Duration ttl) {
@@ -30,7 +44,28 @@ public class WebPubSubAdapter {
         return new Token(token.getToken(), exp);
     }
 
+    /**
+     * Sends the message to the live event's group without waiting for Web PubSub. Best effort:
+     * failures are logged, clients still get the message from history.
+     */
+    public void broadcastMessage(ChatMessage message) {
+        String liveId = message.getLiveId().getValue();
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("event", "chatMessage");
+        event.put("liveId", liveId);
+        event.put("messageId", message.getMessageId());
+        event.put("userId", message.getUserId());
+        event.put("displayName", message.getDisplayName());
+        event.put("content", message.getContent());
+        event.put("createdAt", message.getCreatedAt().toString());
+        try {
+            asyncClient.sendToGroup(GROUP_PREFIX + liveId, objectMapper.writeValueAsString(event),
+                            WebPubSubContentType.APPLICATION_JSON)
+                    .subscribe(null, e -> log.warn("Failed to broadcast message {} to live {}", message.getMessageId(), liveId, e));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to broadcast message {} to live {}", message.getMessageId(), liveId, e);
+        }
+    }
+
     public record Token(String token, Instant expiresAt) {}
 }
-
-
@@ -0,0 +1,302 @@
+package com.youtube.livechatservice.infrastructure.messaging;
+
+import com.youtube.livechatservice.domain.entities.ChatMessage;
+import com.youtube.livechatservice.domain.repositories.ChatMessageRepository;
+import com.youtube.livechatservice.infrastructure.external.RedisServices;
+import com.youtube.livechatservice.infrastructure.external.RedisServices.StreamedMessage;
+import com.youtube.livechatservice.infrastructure.external.WebPubSubAdapter;
+import com.youtube.livechatservice.infrastructure.persistence.ChatHistoryCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind ingest of chat messages. A posted message is deduplicated on its client message id,
+ * appended to the ingest log (a Redis stream), added to recent history and broadcast; the request
+ * does not wait for Cosmos DB.
+ *
+ * <p>A writer on every pod reads the log through a consumer group and saves each batch with one
+ * write per live event partition. Entries are acknowledged, and removed from the log, only once
+ * saved; entries left behind by a failed write or a stopped pod are claimed again after
+ * {@code claim-idle}, and moved to the dead-letter stream {@code chat-ingest-dead} after
+ * {@code max-deliveries} attempts. When the log holds {@code max-backlog} messages new ones are
+ * refused with 503.</p>
+ *
+ * <p>Metrics: {@code livechat.ingest.messages} (result=accepted|duplicate),
+ * {@code livechat.ingest.persist.lag}, {@code livechat.ingest.backlog} and
+ * {@code livechat.ingest.dropped} (reason=backlog|failed|malformed).</p>
+ */
+@Slf4j
+@Component
+public class ChatIngestPipeline {
+
+    private static final String CONSUMER_GROUP = "chat-persist";
+    private static final int MAX_BATCHES_PER_DRAIN = 10;
+
+    private final RedisServices redisServices;
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatHistoryCache historyCache;
+    private final WebPubSubAdapter webPubSubAdapter;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final long maxBacklog;
+    private final Duration claimIdle;
+    private final int maxDeliveries;
+    private final Duration dedupeTtl;
+    private final String consumer;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong backlogReadNanos = new AtomicLong(System.nanoTime());
+    private final Counter accepted;
+    private final Counter duplicates;
+    private final Timer persistLag;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chat-ingest-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean groupCreated;
+    private long lastReclaimNanos = System.nanoTime();
+
+    public ChatIngestPipeline(RedisServices redisServices,
+                              ChatMessageRepository chatMessageRepository,
+                              ChatHistoryCache historyCache,
+                              WebPubSubAdapter webPubSubAdapter,
+                              MeterRegistry meterRegistry,
+                              @Value("${livechat.ingest.batch-size:200}") int batchSize,
+                              @Value("${livechat.ingest.poll-interval:100ms}") Duration pollInterval,
+                              @Value("${livechat.ingest.max-backlog:100000}") long maxBacklog,
+                              @Value("${livechat.ingest.claim-idle:30s}") Duration claimIdle,
+                              @Value("${livechat.ingest.max-deliveries:5}") int maxDeliveries,
+                              @Value("${livechat.ingest.dedupe-ttl:10m}") Duration dedupeTtl,
+                              @Value("${HOSTNAME:}") String hostname) {
+        this.redisServices = redisServices;
+        this.chatMessageRepository = chatMessageRepository;
+        this.historyCache = historyCache;
+        this.webPubSubAdapter = webPubSubAdapter;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.max(1, batchSize);
+        this.pollInterval = pollInterval;
+        this.maxBacklog = maxBacklog;
+        this.claimIdle = claimIdle;
+        this.maxDeliveries = Math.max(1, maxDeliveries);
+        this.dedupeTtl = dedupeTtl;
+        this.consumer = hostname.isBlank() ? UUID.randomUUID().toString() : hostname;
+        this.accepted = Counter.builder("livechat.ingest.messages")
+                .tag("result", "accepted")
+                .description("Chat messages accepted for delivery")
+                .register(meterRegistry);
+        this.duplicates = Counter.builder("livechat.ingest.messages")
+                .tag("result", "duplicate")
+                .description("Chat messages ignored because their client message id was already accepted")
+                .register(meterRegistry);
+        this.persistLag = Timer.builder("livechat.ingest.persist.lag")
+                .description("Time from accepting a chat message to saving it in Cosmos DB")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("livechat.ingest.backlog", backlog, AtomicLong::get)
+                .description("Chat messages in the ingest log waiting to be saved, across all pods")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        long interval = pollInterval.toMillis();
+        writer.scheduleWithFixedDelay(this::drain, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        // Unsaved entries stay in the log for the other pods
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Accepts a message for broadcast and storage; returns false if a message with the same id was
+     * already accepted for the live event.
+     *
+     * @throws ResponseStatusException 503 when the ingest log is too far behind
+     */
+    public boolean accept(ChatMessage message) {
+        if (currentBacklog() >= maxBacklog) {
+            dropped("backlog", 1);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Chat is busy, retry shortly");
+        }
+        String dedupeKey = "chat:" + message.getLiveId().getValue() + ":" + message.getMessageId();
+        if (!firstDelivery(dedupeKey, message)) {
+            duplicates.increment();
+            return false;
+        }
+        try {
+            store(message);
+            historyCache.append(message);
+            webPubSubAdapter.broadcastMessage(message);
+        } catch (RuntimeException e) {
+            // Otherwise the client's retry would be answered as a duplicate of a message that was lost
+            releaseDedupe(dedupeKey, message);
+            throw e;
+        }
+        accepted.increment();
+        return true;
+    }
+
+    /**
+     * The ingest log length, read at most once per poll interval so that it stays current while
+     * the writer is failing.
+     */
+    private long currentBacklog() {
+        long now = System.nanoTime();
+        long lastRead = backlogReadNanos.get();
+        if (now - lastRead >= pollInterval.toNanos() && backlogReadNanos.compareAndSet(lastRead, now)) {
+            try {
+                backlog.set(redisServices.ingestBacklog());
+            } catch (RuntimeException e) {
+                // Appends fail as well then, and accepted messages are saved directly
+                log.debug("Failed to read the ingest log length", e);
+                backlog.set(0);
+            }
+        }
+        return backlog.get();
+    }
+
+    private void store(ChatMessage message) {
+        try {
+            redisServices.appendIngest(message);
+        } catch (RuntimeException e) {
+            log.warn("Failed to append message {} to the ingest log, saving it directly", message.getMessageId(), e);
+            chatMessageRepository.save(message);
+            persistLag.record(Duration.between(message.getCreatedAt(), Instant.now()));
+        }
+    }
+
+    private void releaseDedupe(String dedupeKey, ChatMessage message) {
+        try {
+            redisServices.releaseIdempotency(dedupeKey);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release the duplicate check of message {}, retries are ignored until it expires",
+                    message.getMessageId(), e);
+        }
+    }
+
+    private boolean firstDelivery(String dedupeKey, ChatMessage message) {
+        try {
+            return redisServices.tryIdempotency(dedupeKey, dedupeTtl);
+        } catch (RuntimeException e) {
+            // Documents are keyed by message id, so saving a duplicate overwrites the original
+            log.warn("Failed to check message {} for duplicates", message.getMessageId(), e);
+            return true;
+        }
+    }
+
+    /**
+     * Saves what the log holds for this pod, a bounded number of batches per run.
+     */
+    void drain() {
+        try {
+            if (!groupCreated) {
+                redisServices.createIngestGroup(CONSUMER_GROUP);
+                groupCreated = true;
+            }
+            reclaim();
+            for (int batch = 0; batch < MAX_BATCHES_PER_DRAIN; batch++) {
+                List<StreamedMessage> entries = redisServices.readIngest(CONSUMER_GROUP, consumer, batchSize);
+                persist(entries);
+                if (entries.size() < batchSize) {
+                    break;
+                }
+            }
+            backlog.set(redisServices.ingestBacklog());
+            backlogReadNanos.set(System.nanoTime());
+        } catch (Exception e) {
+            // The log or its group may have been removed, e.g. by a Redis failover
+            groupCreated = false;
+            log.error("Failed to drain the chat ingest log", e);
+        }
+    }
+
+    /**
+     * Retries entries that have been pending for longer than {@code claim-idle}, whichever pod
+     * read them, and dead-letters those that have failed too often.
+     */
+    private void reclaim() {
+        long now = System.nanoTime();
+        if (now - lastReclaimNanos < claimIdle.toNanos()) {
+            return;
+        }
+        lastReclaimNanos = now;
+        List<String> stale = new ArrayList<>();
+        List<String> exhausted = new ArrayList<>();
+        for (PendingMessage entry : redisServices.pendingIngest(CONSUMER_GROUP, batchSize)) {
+            if (entry.getElapsedTimeSinceLastDelivery().compareTo(claimIdle) < 0) {
+                continue;
+            }
+            (entry.getTotalDeliveryCount() >= maxDeliveries ? exhausted : stale).add(entry.getIdAsString());
+        }
+        if (!exhausted.isEmpty()) {
+            log.error("Moving {} chat messages that could not be saved after {} attempts to the dead-letter stream: {}",
+                    exhausted.size(), maxDeliveries, exhausted);
+            redisServices.deadLetterIngest(CONSUMER_GROUP, exhausted);
+            dropped("failed", exhausted.size());
+        }
+        if (!stale.isEmpty()) {
+            persist(redisServices.claimIngest(CONSUMER_GROUP, consumer, claimIdle, stale));
+        }
+    }
+
+    private void persist(List<StreamedMessage> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<String, List<StreamedMessage>> byLiveId = new LinkedHashMap<>();
+        List<String> malformed = new ArrayList<>();
+        for (StreamedMessage entry : entries) {
+            if (entry.message() == null) {
+                malformed.add(entry.id());
+            } else {
+                byLiveId.computeIfAbsent(entry.message().getLiveId().getValue(), key -> new ArrayList<>()).add(entry);
+            }
+        }
+        if (!malformed.isEmpty()) {
+            redisServices.acknowledgeIngest(CONSUMER_GROUP, malformed);
+            dropped("malformed", malformed.size());
+        }
+        byLiveId.forEach((liveId, batch) -> {
+            List<ChatMessage> messages = batch.stream().map(StreamedMessage::message).toList();
+            try {
+                chatMessageRepository.saveAll(messages);
+            } catch (RuntimeException e) {
+                log.warn("Failed to save {} messages of live {}, they will be retried", messages.size(), liveId, e);
+                return;
+            }
+            Instant saved = Instant.now();
+            messages.forEach(message -> persistLag.record(Duration.between(message.getCreatedAt(), saved)));
+            redisServices.acknowledgeIngest(CONSUMER_GROUP, batch.stream().map(StreamedMessage::id).toList());
+        });
+    }
+
+    private void dropped(String reason, int count) {
+        meterRegistry.counter("livechat.ingest.dropped", "reason", reason).increment(count);
+    }
+}
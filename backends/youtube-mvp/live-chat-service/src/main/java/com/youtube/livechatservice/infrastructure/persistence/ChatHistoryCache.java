@@ -0,0 +1,237 @@
+package com.youtube.livechatservice.infrastructure.persistence;
+
+import com.youtube.livechatservice.domain.entities.ChatMessage;
+import com.youtube.livechatservice.domain.valueobjects.LiveId;
+import com.youtube.livechatservice.infrastructure.external.RedisServices;
+import com.youtube.livechatservice.infrastructure.external.RedisServices.StreamedMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Recent chat history served from memory. Every accepted message is appended to a per-live-event
+ * Redis stream, and each pod keeps a {@link RecentMessageRing} per live event that it tails from
+ * the stream, so history polls are answered in-process and reflect messages sent through any pod
+ * within about {@code sync-interval}.
+ *
+ * <p>A live event's buffer is loaded on its first read from the stream and, when the stream
+ * holds fewer messages than the buffer, from Cosmos DB once. After that only requests for
+ * history older than the buffer (deep history) go to Cosmos DB. While one request refreshes a
+ * buffer from Redis, concurrent polls are served from its current contents.</p>
+ */
+@Slf4j
+@Component
+public class ChatHistoryCache {
+
+    // Matches findTop1000ByLiveIdOrderByCreatedAtDesc
+    private static final int COSMOS_LOAD_LIMIT = 1000;
+    private static final int MAX_SYNC_READS = 4;
+
+    private final RedisServices redisServices;
+    private final ChatMessageCosmosRepository cosmosRepository;
+    private final int capacity;
+    private final long syncIntervalNanos;
+    private final int maxLiveEvents;
+    private final Duration streamTtl;
+    private final Map<String, LiveHistory> histories = new ConcurrentHashMap<>();
+    private final Counter memoryReads;
+    private final Counter fallbackReads;
+
+    public ChatHistoryCache(RedisServices redisServices,
+                            ChatMessageCosmosRepository cosmosRepository,
+                            @Value("${livechat.history.buffer-size:1000}") int capacity,
+                            @Value("${livechat.history.sync-interval:250ms}") Duration syncInterval,
+                            @Value("${livechat.history.max-live-events:1000}") int maxLiveEvents,
+                            @Value("${livechat.history.stream-ttl:24h}") Duration streamTtl,
+                            MeterRegistry meterRegistry) {
+        this.redisServices = redisServices;
+        this.cosmosRepository = cosmosRepository;
+        this.capacity = Math.max(1, capacity);
+        this.syncIntervalNanos = syncInterval.toNanos();
+        this.maxLiveEvents = Math.max(1, maxLiveEvents);
+        this.streamTtl = streamTtl;
+        this.memoryReads = Counter.builder("livechat.history.reads")
+                .tag("source", "memory")
+                .description("History reads answered from the in-memory buffer")
+                .register(meterRegistry);
+        this.fallbackReads = Counter.builder("livechat.history.reads")
+                .tag("source", "cosmos")
+                .description("History reads that had to query Cosmos DB")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes an accepted message to the other pods and to this pod's buffer, if loaded.
+     * Best effort: a failure leaves the message out of history until it reaches Cosmos DB.
+     */
+    public void append(ChatMessage message) {
+        String liveId = message.getLiveId().getValue();
+        try {
+            redisServices.appendRecentMessage(liveId, message, capacity, streamTtl);
+        } catch (RuntimeException e) {
+            log.warn("Failed to append message {} to the recent stream of {}", message.getMessageId(), liveId, e);
+        }
+        LiveHistory history = histories.get(liveId);
+        if (history != null && history.loaded) {
+            history.ring.add(message);
+        }
+    }
+
+    /**
+     * The latest messages, newest first, or empty if they must be read from Cosmos DB.
+     */
+    public Optional<List<ChatMessage>> latest(LiveId liveId, int limit) {
+        return read(liveId, ring -> ring.latest(limit));
+    }
+
+    /**
+     * Messages created after {@code since}, oldest first, or empty if they must be read from
+     * Cosmos DB.
+     */
+    public Optional<List<ChatMessage>> since(LiveId liveId, Instant since, int limit) {
+        return read(liveId, ring -> ring.since(since, limit));
+    }
+
+    private Optional<List<ChatMessage>> read(LiveId liveId, Function<RecentMessageRing, List<ChatMessage>> query) {
+        List<ChatMessage> messages = null;
+        try {
+            LiveHistory history = history(liveId.getValue());
+            refresh(history);
+            if (history.lastStreamId != null) {
+                messages = query.apply(history.ring);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to read recent history of {} from memory", liveId, e);
+        }
+        (messages != null ? memoryReads : fallbackReads).increment();
+        return Optional.ofNullable(messages);
+    }
+
+    private LiveHistory history(String liveId) {
+        LiveHistory history = histories.get(liveId);
+        if (history == null) {
+            if (histories.size() >= maxLiveEvents) {
+                evictLeastRecentlyRead();
+            }
+            history = histories.computeIfAbsent(liveId, LiveHistory::new);
+        }
+        history.lastReadNanos = System.nanoTime();
+        return history;
+    }
+
+    private void evictLeastRecentlyRead() {
+        histories.values().stream()
+                .min(Comparator.comparingLong(history -> history.lastReadNanos))
+                .ifPresent(history -> histories.remove(history.liveId, history));
+    }
+
+    /**
+     * Loads the buffer on first use; afterwards tails the stream at most once per sync interval,
+     * by a single caller at a time.
+     */
+    private void refresh(LiveHistory history) {
+        if (!history.loaded) {
+            synchronized (history) {
+                if (!history.loaded) {
+                    load(history);
+                    history.lastSyncNanos = System.nanoTime();
+                    history.loaded = true;
+                }
+            }
+            return;
+        }
+        if (System.nanoTime() - history.lastSyncNanos < syncIntervalNanos
+                || !history.syncing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sync(history);
+        } catch (RuntimeException e) {
+            log.warn("Failed to sync recent history of {} from Redis", history.liveId, e);
+        } finally {
+            history.lastSyncNanos = System.nanoTime();
+            history.syncing.set(false);
+        }
+    }
+
+    /**
+     * Fills an empty buffer. If Redis is unavailable the buffer stays unsynced, and unused,
+     * until a later sync manages to load it.
+     */
+    private void load(LiveHistory history) {
+        List<StreamedMessage> streamed;
+        try {
+            streamed = redisServices.readLatestMessages(history.liveId, capacity);
+        } catch (RuntimeException e) {
+            log.warn("Failed to load recent history of {} from Redis", history.liveId, e);
+            return;
+        }
+        if (streamed.size() < capacity) {
+            List<ChatMessageDocument> documents = cosmosRepository.findTop1000ByLiveIdOrderByCreatedAtDesc(history.liveId);
+            history.ring.addAll(documents.stream().map(ChatMessageRepositoryAdapter::toDomain).toList());
+            // A full page may have been cut short by the query limit or by the buffer size
+            if (documents.size() < Math.min(COSMOS_LOAD_LIMIT, capacity)) {
+                history.ring.markComplete();
+            }
+        }
+        history.ring.addAll(messages(streamed));
+        history.lastStreamId = streamed.isEmpty() ? "0-0" : streamed.get(streamed.size() - 1).id();
+    }
+
+    private void sync(LiveHistory history) {
+        if (history.lastStreamId == null) {
+            // Only this pod's messages were added while unsynced
+            history.ring.reset(List.of(), false);
+            load(history);
+            return;
+        }
+        for (int read = 0; read < MAX_SYNC_READS; read++) {
+            List<StreamedMessage> entries = redisServices.readMessagesAfter(history.liveId, history.lastStreamId, capacity);
+            if (entries.isEmpty()) {
+                return;
+            }
+            history.ring.addAll(messages(entries));
+            history.lastStreamId = entries.get(entries.size() - 1).id();
+            if (entries.size() < capacity) {
+                return;
+            }
+        }
+        // More than a buffer's worth behind: entries may have been trimmed, start over from the latest
+        List<StreamedMessage> latest = redisServices.readLatestMessages(history.liveId, capacity);
+        history.ring.reset(messages(latest), false);
+        history.lastStreamId = latest.isEmpty() ? "0-0" : latest.get(latest.size() - 1).id();
+    }
+
+    private static List<ChatMessage> messages(List<StreamedMessage> streamed) {
+        List<ChatMessage> messages = new ArrayList<>(streamed.size());
+        streamed.forEach(entry -> messages.add(entry.message()));
+        return messages;
+    }
+
+    private final class LiveHistory {
+        private final String liveId;
+        private final RecentMessageRing ring = new RecentMessageRing(capacity);
+        private final AtomicBoolean syncing = new AtomicBoolean();
+        private volatile boolean loaded;
+        private volatile String lastStreamId;
+        private volatile long lastSyncNanos;
+        private volatile long lastReadNanos;
+
+        private LiveHistory(String liveId) {
+            this.liveId = liveId;
+        }
+    }
+}
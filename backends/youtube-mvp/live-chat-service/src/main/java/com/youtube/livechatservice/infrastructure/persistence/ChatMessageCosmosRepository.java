@@ -9,6 +9,7 @@ import java.util.List;
 @Repository
 public interface ChatMessageCosmosRepository extends CosmosRepository<ChatMessageDocument, String> {
     List<ChatMessageDocument> findTop200ByLiveIdOrderByCreatedAtDesc(String liveId);
+    List<ChatMessageDocument> findTop1000ByLiveIdOrderByCreatedAtDesc(String liveId);
     List<ChatMessageDocument> findTop200ByLiveIdAndCreatedAtAfterOrderByCreatedAtAsc(String liveId, Instant createdAt);
 }
 
@@ -15,39 +15,50 @@ import java.util.Optional;
 public class ChatMessageRepositoryAdapter implements ChatMessageRepository {
 
     private final ChatMessageCosmosRepository cosmosRepository;
+    private final ChatHistoryCache historyCache;
 
     @Override
     public ChatMessage save(ChatMessage message) {
-        ChatMessageDocument doc = new ChatMessageDocument();
-        doc.setId(message.getMessageId());
-        doc.setLiveId(message.getLiveId().getValue());
-        doc.setUserId(message.getUserId());
-        doc.setDisplayName(message.getDisplayName());
-        doc.setContent(message.getContent());
-        doc.setCreatedAt(message.getCreatedAt());
-        doc.setModerated(message.isModerated());
-        ChatMessageDocument saved = cosmosRepository.save(doc);
-        return toDomain(saved);
+        return toDomain(cosmosRepository.save(toDocument(message)));
+    }
+
+    @Override
+    public void saveAll(List<ChatMessage> messages) {
+        cosmosRepository.saveAll(messages.stream().map(ChatMessageRepositoryAdapter::toDocument).toList());
     }
 
     @Override
     public List<ChatMessage> findRecentByLiveId(LiveId liveId, int limit) {
-        return cosmosRepository.findTop200ByLiveIdOrderByCreatedAtDesc(liveId.getValue())
-                .stream().limit(limit).map(this::toDomain).toList();
+        return historyCache.latest(liveId, limit).orElseGet(() ->
+                cosmosRepository.findTop200ByLiveIdOrderByCreatedAtDesc(liveId.getValue())
+                        .stream().limit(limit).map(ChatMessageRepositoryAdapter::toDomain).toList());
     }
 
     @Override
     public List<ChatMessage> findByLiveIdSince(LiveId liveId, Instant since, int limit) {
-        return cosmosRepository.findTop200ByLiveIdAndCreatedAtAfterOrderByCreatedAtAsc(liveId.getValue(), since)
-                .stream().limit(limit).map(this::toDomain).toList();
+        return historyCache.since(liveId, since, limit).orElseGet(() ->
+                cosmosRepository.findTop200ByLiveIdAndCreatedAtAfterOrderByCreatedAtAsc(liveId.getValue(), since)
+                        .stream().limit(limit).map(ChatMessageRepositoryAdapter::toDomain).toList());
     }
 
     @Override
     public Optional<ChatMessage> findById(String messageId) {
-        return cosmosRepository.findById(messageId).map(this::toDomain);
+        return cosmosRepository.findById(messageId).map(ChatMessageRepositoryAdapter::toDomain);
+    }
+
+    private static ChatMessageDocument toDocument(ChatMessage message) {
+        ChatMessageDocument doc = new ChatMessageDocument();
+        doc.setId(message.getMessageId());
+        doc.setLiveId(message.getLiveId().getValue());
+        doc.setUserId(message.getUserId());
+        doc.setDisplayName(message.getDisplayName());
+        doc.setContent(message.getContent());
+        doc.setCreatedAt(message.getCreatedAt());
+        doc.setModerated(message.isModerated());
+        return doc;
     }
 
-    private ChatMessage toDomain(ChatMessageDocument doc) {
+    static ChatMessage toDomain(ChatMessageDocument doc) {
         return ChatMessage.builder()
                 .messageId(doc.getId())
                 .liveId(LiveId.of(doc.getLiveId()))
@@ -0,0 +1,188 @@
+package com.youtube.livechatservice.infrastructure.persistence;
+
+import com.youtube.livechatservice.domain.entities.ChatMessage;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The most recent messages of one live event, kept sorted by creation time in a fixed-size
+ * circular array. Reads return null when the buffer cannot answer them exactly, i.e. when older
+ * messages it no longer holds (or never loaded) could be part of the answer.
+ */
+final class RecentMessageRing {
+
+    private final ChatMessage[] slots;
+    private final Set<String> ids = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int head;
+    private int size;
+    // Whether the buffer holds every message of the live event, not just the latest ones
+    private boolean complete;
+    // Whether a message was dropped for lack of room since the last reset
+    private boolean truncated;
+
+    RecentMessageRing(int capacity) {
+        this.slots = new ChatMessage[Math.max(1, capacity)];
+    }
+
+    void add(ChatMessage message) {
+        lock.writeLock().lock();
+        try {
+            insert(message);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void addAll(Collection<ChatMessage> messages) {
+        lock.writeLock().lock();
+        try {
+            messages.forEach(this::insert);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contents with the given messages, e.g. after falling too far behind to catch up.
+     */
+    void reset(Collection<ChatMessage> messages, boolean complete) {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(slots, null);
+            ids.clear();
+            head = 0;
+            size = 0;
+            truncated = false;
+            messages.forEach(this::insert);
+            this.complete = complete && !truncated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records that every message of the live event has been added. Ignored once the buffer has
+     * had to drop a message, as it then no longer holds them all.
+     */
+    void markComplete() {
+        lock.writeLock().lock();
+        try {
+            complete = !truncated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The latest {@code limit} messages, newest first, or null if the buffer holds fewer and
+     * older messages may exist.
+     */
+    List<ChatMessage> latest(int limit) {
+        lock.readLock().lock();
+        try {
+            if (size < limit && !complete) {
+                return null;
+            }
+            int count = Math.min(limit, size);
+            List<ChatMessage> result = new ArrayList<>(count);
+            for (int i = size - 1; i >= size - count; i--) {
+                result.add(get(i));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} messages created after {@code since}, oldest first, or null if messages
+     * from that time may have been evicted.
+     */
+    List<ChatMessage> since(Instant since, int limit) {
+        lock.readLock().lock();
+        try {
+            if (!complete && (size == 0 || since.isBefore(get(0).getCreatedAt()))) {
+                return null;
+            }
+            int from = firstAfter(since);
+            int count = Math.min(limit, size - from);
+            List<ChatMessage> result = new ArrayList<>(count);
+            for (int i = from; i < from + count; i++) {
+                result.add(get(i));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(ChatMessage message) {
+        if (message.getCreatedAt() == null || !ids.add(message.getMessageId())) {
+            return;
+        }
+        if (size == slots.length) {
+            complete = false;
+            truncated = true;
+            if (message.getCreatedAt().isBefore(get(0).getCreatedAt())) {
+                // Older than everything kept
+                ids.remove(message.getMessageId());
+                return;
+            }
+            ids.remove(get(0).getMessageId());
+            slots[head] = null;
+            head = (head + 1) % slots.length;
+            size--;
+        }
+        // Messages arrive nearly in order; shift the few newer ones written by skewed clocks
+        int position = size;
+        while (position > 0 && get(position - 1).getCreatedAt().isAfter(message.getCreatedAt())) {
+            set(position, get(position - 1));
+            position--;
+        }
+        set(position, message);
+        size++;
+    }
+
+    /**
+     * Logical index of the first message created after {@code since}, or {@code size} if none.
+     */
+    private int firstAfter(Instant since) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (get(mid).getCreatedAt().isAfter(since)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private ChatMessage get(int index) {
+        return slots[(head + index) % slots.length];
+    }
+
+    private void set(int index, ChatMessage message) {
+        slots[(head + index) % slots.length] = message;
+    }
+}
@@ -43,10 +43,11 @@ public class ChatController {
                 .createdAt(Instant.now())
                 .moderated(false)
                 .build();
-        ChatMessage saved = chatService.persist(message);
+        // Stored asynchronously: 202 once accepted, 200 for a retry of an accepted message
+        boolean accepted = chatService.accept(message);
         HttpHeaders headers = new HttpHeaders();
-        headers.setETag('"' + saved.getMessageId() + '"');
-        return new ResponseEntity<>(MessageResponse.from(saved), headers, HttpStatus.CREATED);
+        headers.setETag('"' + message.getMessageId() + '"');
+        return new ResponseEntity<>(MessageResponse.from(message), headers, accepted ? HttpStatus.ACCEPTED : HttpStatus.OK);
     }
 
     @GetMapping("/history")
@@ -0,0 +1,190 @@
+package com.youtube.livechatservice.infrastructure.messaging;
+
+import com.youtube.livechatservice.domain.entities.ChatMessage;
+import com.youtube.livechatservice.domain.repositories.ChatMessageRepository;
+import com.youtube.livechatservice.domain.valueobjects.LiveId;
+import com.youtube.livechatservice.infrastructure.external.RedisServices;
+import com.youtube.livechatservice.infrastructure.external.RedisServices.StreamedMessage;
+import com.youtube.livechatservice.infrastructure.external.WebPubSubAdapter;
+import com.youtube.livechatservice.infrastructure.persistence.ChatHistoryCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ChatIngestPipelineTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+    private static final String GROUP = "chat-persist";
+    private static final Duration DEDUPE_TTL = Duration.ofMinutes(10);
+
+    private final RedisServices redisServices = mock(RedisServices.class);
+    private final ChatMessageRepository chatMessageRepository = mock(ChatMessageRepository.class);
+    private final ChatHistoryCache historyCache = mock(ChatHistoryCache.class);
+    private final WebPubSubAdapter webPubSubAdapter = mock(WebPubSubAdapter.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ChatIngestPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        when(redisServices.tryIdempotency(anyString(), any())).thenReturn(true);
+        // Batches of 2, backlog limit 10, entries claimable at once and dead-lettered on the 3rd delivery
+        pipeline = new ChatIngestPipeline(redisServices, chatMessageRepository, historyCache, webPubSubAdapter,
+                meterRegistry, 2, Duration.ZERO, 10, Duration.ZERO, 3, DEDUPE_TTL, "pod-1");
+    }
+
+    @Test
+    void accept_newMessage_appendsToLogAndBroadcasts() {
+        ChatMessage message = message("m1", "live-1");
+
+        assertThat(pipeline.accept(message)).isTrue();
+
+        verify(redisServices).tryIdempotency("chat:live-1:m1", DEDUPE_TTL);
+        verify(redisServices).appendIngest(message);
+        verify(historyCache).append(message);
+        verify(webPubSubAdapter).broadcastMessage(message);
+        verifyNoInteractions(chatMessageRepository);
+        assertThat(count("livechat.ingest.messages", "result", "accepted")).isEqualTo(1);
+    }
+
+    @Test
+    void accept_duplicate_returnsFalseWithoutStoring() {
+        when(redisServices.tryIdempotency(anyString(), any())).thenReturn(false);
+
+        assertThat(pipeline.accept(message("m1", "live-1"))).isFalse();
+
+        verify(redisServices, never()).appendIngest(any());
+        verifyNoInteractions(historyCache, webPubSubAdapter);
+        assertThat(count("livechat.ingest.messages", "result", "duplicate")).isEqualTo(1);
+    }
+
+    @Test
+    void accept_backlogFull_refusesWith503() {
+        when(redisServices.ingestBacklog()).thenReturn(10L);
+
+        assertThatThrownBy(() -> pipeline.accept(message("m1", "live-1")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        verify(redisServices, never()).tryIdempotency(anyString(), any());
+        assertThat(count("livechat.ingest.dropped", "reason", "backlog")).isEqualTo(1);
+    }
+
+    @Test
+    void accept_redisDown_savesDirectly() {
+        ChatMessage message = message("m1", "live-1");
+        when(redisServices.ingestBacklog()).thenThrow(new RedisConnectionFailureException("Redis is down"));
+        doThrow(new RedisConnectionFailureException("Redis is down")).when(redisServices).appendIngest(message);
+
+        assertThat(pipeline.accept(message)).isTrue();
+
+        verify(chatMessageRepository).save(message);
+        verify(webPubSubAdapter).broadcastMessage(message);
+    }
+
+    @Test
+    void accept_storageFails_releasesDuplicateCheckAndRethrows() {
+        ChatMessage message = message("m1", "live-1");
+        doThrow(new RedisConnectionFailureException("Redis is down")).when(redisServices).appendIngest(message);
+        when(chatMessageRepository.save(message)).thenThrow(new IllegalStateException("Cosmos DB is down"));
+
+        assertThatThrownBy(() -> pipeline.accept(message)).isInstanceOf(IllegalStateException.class);
+
+        verify(redisServices).releaseIdempotency("chat:live-1:m1");
+        verifyNoInteractions(webPubSubAdapter);
+    }
+
+    @Test
+    void drain_savesOneBatchPerLiveEventAndAcknowledges() {
+        when(redisServices.readIngest(GROUP, "pod-1", 2)).thenReturn(
+                List.of(entry("1-0", message("m1", "live-1")), entry("2-0", message("m2", "live-2"))),
+                List.of());
+
+        pipeline.drain();
+
+        verify(chatMessageRepository).saveAll(List.of(message("m1", "live-1")));
+        verify(chatMessageRepository).saveAll(List.of(message("m2", "live-2")));
+        verify(redisServices).acknowledgeIngest(GROUP, List.of("1-0"));
+        verify(redisServices).acknowledgeIngest(GROUP, List.of("2-0"));
+    }
+
+    @Test
+    void drain_saveFails_leavesEntriesUnacknowledged() {
+        when(redisServices.readIngest(GROUP, "pod-1", 2)).thenReturn(List.of(entry("1-0", message("m1", "live-1"))));
+        doThrow(new IllegalStateException("Cosmos DB is down")).when(chatMessageRepository).saveAll(anyList());
+
+        pipeline.drain();
+
+        verify(redisServices, never()).acknowledgeIngest(anyString(), anyList());
+    }
+
+    @Test
+    void drain_reclaimsIdleEntriesAndDeadLettersExhausted() {
+        when(redisServices.pendingIngest(GROUP, 2)).thenReturn(List.of(pending("1-0", 1), pending("2-0", 3)));
+        when(redisServices.claimIngest(eq(GROUP), eq("pod-1"), any(), eq(List.of("1-0"))))
+                .thenReturn(List.of(entry("1-0", message("m1", "live-1"))));
+
+        pipeline.drain();
+
+        verify(redisServices).deadLetterIngest(GROUP, List.of("2-0"));
+        verify(chatMessageRepository).saveAll(List.of(message("m1", "live-1")));
+        verify(redisServices).acknowledgeIngest(GROUP, List.of("1-0"));
+        assertThat(count("livechat.ingest.dropped", "reason", "failed")).isEqualTo(1);
+    }
+
+    @Test
+    void drain_malformedEntry_isAcknowledgedAndCounted() {
+        when(redisServices.readIngest(GROUP, "pod-1", 2)).thenReturn(List.of(entry("1-0", null)));
+
+        pipeline.drain();
+
+        verify(redisServices).acknowledgeIngest(GROUP, List.of("1-0"));
+        verify(chatMessageRepository, never()).saveAll(anyList());
+        assertThat(count("livechat.ingest.dropped", "reason", "malformed")).isEqualTo(1);
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.counter(name, tag, value).count();
+    }
+
+    private static StreamedMessage entry(String id, ChatMessage message) {
+        return new StreamedMessage(id, message);
+    }
+
+    private static PendingMessage pending(String id, long deliveries) {
+        return new PendingMessage(RecordId.of(id), Consumer.from(GROUP, "pod-2"), Duration.ofMinutes(1), deliveries);
+    }
+
+    private static ChatMessage message(String id, String liveId) {
+        return ChatMessage.builder()
+                .messageId(id)
+                .liveId(LiveId.of(liveId))
+                .userId("u1")
+                .displayName("User")
+                .content("hello")
+                .createdAt(START)
+                .build();
+    }
+}
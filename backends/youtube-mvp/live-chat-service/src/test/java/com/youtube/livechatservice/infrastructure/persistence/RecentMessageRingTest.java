@@ -0,0 +1,85 @@
+package com.youtube.livechatservice.infrastructure.persistence;
+
+import com.youtube.livechatservice.domain.entities.ChatMessage;
+import com.youtube.livechatservice.domain.valueobjects.LiveId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentMessageRingTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void since_servesMessagesAfterTimestampInOrder() {
+        RecentMessageRing ring = new RecentMessageRing(10);
+        ring.markComplete();
+        for (int i = 0; i < 5; i++) {
+            ring.add(message("m" + i, i));
+        }
+
+        List<ChatMessage> messages = ring.since(START.plusSeconds(2), 2);
+
+        assertThat(messages).extracting(ChatMessage::getMessageId).containsExactly("m3", "m4");
+    }
+
+    @Test
+    void add_outOfOrderAndDuplicate_keepsSortedAndDistinct() {
+        RecentMessageRing ring = new RecentMessageRing(10);
+        ring.markComplete();
+        ring.add(message("m1", 1));
+        ring.add(message("m3", 3));
+        ring.add(message("m2", 2));
+        ring.add(message("m3", 3));
+
+        assertThat(ring.latest(10)).extracting(ChatMessage::getMessageId).containsExactly("m3", "m2", "m1");
+    }
+
+    @Test
+    void wrapped_answersOnlyWhatItStillHolds() {
+        RecentMessageRing ring = new RecentMessageRing(3);
+        ring.markComplete();
+        for (int i = 0; i < 5; i++) {
+            ring.add(message("m" + i, i));
+        }
+
+        assertThat(ring.latest(3)).extracting(ChatMessage::getMessageId).containsExactly("m4", "m3", "m2");
+        assertThat(ring.latest(4)).isNull();
+        assertThat(ring.since(START.plusSeconds(2), 10)).extracting(ChatMessage::getMessageId).containsExactly("m3", "m4");
+        assertThat(ring.since(START.plusSeconds(1), 10)).isNull();
+    }
+
+    @Test
+    void markComplete_afterEviction_stillFallsBackForOlderMessages() {
+        RecentMessageRing ring = new RecentMessageRing(3);
+        ring.addAll(List.of(message("m0", 0), message("m1", 1), message("m2", 2), message("m3", 3)));
+        ring.markComplete();
+
+        assertThat(ring.since(START.minusSeconds(1), 10)).isNull();
+        assertThat(ring.latest(4)).isNull();
+        assertThat(ring.latest(3)).extracting(ChatMessage::getMessageId).containsExactly("m3", "m2", "m1");
+    }
+
+    @Test
+    void incomplete_fallsBackWhenFewerThanRequested() {
+        RecentMessageRing ring = new RecentMessageRing(10);
+        ring.add(message("m1", 1));
+
+        assertThat(ring.latest(5)).isNull();
+        assertThat(ring.latest(1)).extracting(ChatMessage::getMessageId).containsExactly("m1");
+    }
+
+    private static ChatMessage message(String id, int second) {
+        return ChatMessage.builder()
+                .messageId(id)
+                .liveId(LiveId.of("live-1"))
+                .userId("u1")
+                .displayName("User")
+                .content("hello | world")
+                .createdAt(START.plusSeconds(second))
+                .build();
+    }
+}
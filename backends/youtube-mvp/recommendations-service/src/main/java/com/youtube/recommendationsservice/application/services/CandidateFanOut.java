@@ -0,0 +1,178 @@
+package com.youtube.recommendationsservice.application.services;
+
+import com.youtube.recommendationsservice.domain.entities.VideoCandidate;
+import com.youtube.recommendationsservice.domain.services.CandidateProvider;
+import com.youtube.recommendationsservice.domain.valueobjects.RecommendationContext;
+import com.youtube.recommendationsservice.domain.valueobjects.UserId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Candidate generation stage: calls every {@link CandidateProvider} concurrently and merges
+ * whatever has returned by the request deadline.
+ *
+ * <p>Each provider has its own timeout and quota (see {@link CandidateFanOutSettings}); the
+ * effective wait for a provider is the earlier of its timeout and the overall deadline, both
+ * measured from the start of the fan-out. Results are merged in provider order (lowest
+ * {@code @Order} first) and deduplicated by video ID as they are consumed, so the first
+ * provider to propose a video wins.</p>
+ *
+ * <p>Metrics, tagged by {@code provider}: {@code recommendations.candidates.provider.latency}
+ * (with {@code outcome} success/error) and {@code recommendations.candidates.provider.timeouts}.</p>
+ */
+@Slf4j
+@Component
+public class CandidateFanOut {
+
+    private final List<ProviderCall> providers;
+    private final CandidateFanOutSettings settings;
+    private final ExecutorService executor;
+
+    public CandidateFanOut(List<CandidateProvider> candidateProviders,
+                           CandidateFanOutSettings settings,
+                           @Qualifier("candidateFanOutExecutor") ExecutorService executor,
+                           MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.executor = executor;
+        this.providers = new ArrayList<>(candidateProviders.size());
+        for (CandidateProvider provider : candidateProviders) {
+            CandidateFanOutSettings.Provider overrides = settings.providers().get(provider.getProviderName());
+            if (overrides != null && !overrides.enabled()) {
+                log.info("Candidate provider {} is disabled", provider.getProviderName());
+                continue;
+            }
+            providers.add(new ProviderCall(provider, overrides, meterRegistry));
+        }
+    }
+
+    public List<VideoCandidate> collect(UserId userId, RecommendationContext context, int count) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + settings.deadline().toNanos();
+
+        List<CompletableFuture<List<VideoCandidate>>> futures = new ArrayList<>(providers.size());
+        for (ProviderCall call : providers) {
+            futures.add(submit(call, userId, context, count));
+        }
+
+        List<VideoCandidate> merged = new ArrayList<>(count * Math.max(1, providers.size()));
+        VideoIdSet seen = new VideoIdSet(count * Math.max(1, providers.size()));
+        for (int i = 0; i < providers.size(); i++) {
+            ProviderCall call = providers.get(i);
+            List<VideoCandidate> candidates = await(call, futures.get(i),
+                Math.min(deadlineNanos, startNanos + call.timeout.toNanos()));
+            if (candidates == null) {
+                continue;
+            }
+
+            int limit = Math.min(candidates.size(), call.quota(count));
+            for (int j = 0; j < limit; j++) {
+                VideoCandidate candidate = candidates.get(j);
+                if (seen.add(candidate.getVideoId().getValue())) {
+                    merged.add(candidate);
+                }
+            }
+            log.debug("Provider {} returned {} candidates", call.provider.getProviderName(), candidates.size());
+        }
+        return merged;
+    }
+
+    private CompletableFuture<List<VideoCandidate>> submit(ProviderCall call, UserId userId,
+                                                           RecommendationContext context, int count) {
+        try {
+            return CompletableFuture.supplyAsync(() -> call.invoke(userId, context, call.quota(count)), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private List<VideoCandidate> await(ProviderCall call, CompletableFuture<List<VideoCandidate>> future,
+                                       long waitUntilNanos) {
+        String name = call.provider.getProviderName();
+        try {
+            long remaining = Math.max(0, waitUntilNanos - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return timeout(call, future);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            log.error("Error getting candidates from provider: {}", name, e.getCause());
+            // Continue with other providers
+            return null;
+        }
+    }
+
+    private List<VideoCandidate> timeout(ProviderCall call, CompletableFuture<List<VideoCandidate>> future) {
+        call.timeouts.increment();
+        // Best effort: a task that has not started yet is skipped, a running one finishes in the background
+        future.cancel(true);
+        log.warn("Candidate provider {} missed its deadline", call.provider.getProviderName());
+        return null;
+    }
+
+    private final class ProviderCall {
+
+        final CandidateProvider provider;
+        final Duration timeout;
+        final Integer quota;
+        final Timer successLatency;
+        final Timer errorLatency;
+        final Counter timeouts;
+
+        ProviderCall(CandidateProvider provider, CandidateFanOutSettings.Provider overrides,
+                     MeterRegistry meterRegistry) {
+            this.provider = provider;
+            this.timeout = overrides != null && overrides.timeout() != null
+                ? overrides.timeout()
+                : settings.defaultTimeout();
+            this.quota = overrides != null ? overrides.quota() : null;
+            this.successLatency = latencyTimer(meterRegistry, "success");
+            this.errorLatency = latencyTimer(meterRegistry, "error");
+            this.timeouts = Counter.builder("recommendations.candidates.provider.timeouts")
+                .description("Candidate provider calls dropped for missing their timeout or the request deadline")
+                .tag("provider", provider.getProviderName())
+                .register(meterRegistry);
+        }
+
+        int quota(int count) {
+            return quota != null ? Math.min(quota, count) : count;
+        }
+
+        List<VideoCandidate> invoke(UserId userId, RecommendationContext context, int count) {
+            long start = System.nanoTime();
+            try {
+                List<VideoCandidate> candidates = provider.getCandidates(userId, context, count);
+                successLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return candidates != null ? candidates : List.of();
+            } catch (RuntimeException e) {
+                errorLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        }
+
+        private Timer latencyTimer(MeterRegistry meterRegistry, String outcome) {
+            return Timer.builder("recommendations.candidates.provider.latency")
+                .description("Latency of one candidate provider call, including calls that miss the deadline")
+                .tag("provider", provider.getProviderName())
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.youtube.recommendationsservice.application.services;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Deadline, timeouts and quotas for {@link CandidateFanOut}.
+ *
+ * @param deadline       overall budget for candidate generation, measured from the start of the fan-out
+ * @param defaultTimeout timeout for providers without an entry in {@code providers}
+ * @param providers      per-provider overrides keyed by {@code CandidateProvider#getProviderName()}
+ */
+public record CandidateFanOutSettings(Duration deadline, Duration defaultTimeout, Map<String, Provider> providers) {
+
+    public CandidateFanOutSettings {
+        providers = Map.copyOf(providers);
+    }
+
+    /**
+     * @param timeout falls back to the fan-out's {@code defaultTimeout} when null
+     * @param quota   maximum candidates taken from the provider; null means the request's candidate count
+     */
+    public record Provider(boolean enabled, Duration timeout, Integer quota) {
+    }
+}
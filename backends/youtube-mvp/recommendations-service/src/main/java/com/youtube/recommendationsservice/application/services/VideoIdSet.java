@@ -0,0 +1,62 @@
+package com.youtube.recommendationsservice.application.services;
+
+/**
+ * Open-addressing (linear probing) set of video ID strings used to dedupe candidates as they
+ * stream in from providers, without boxing entries or building intermediate maps.
+ * Not thread-safe; one instance per request.
+ */
+final class VideoIdSet {
+
+    private String[] table;
+    private int size;
+
+    VideoIdSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.table = new String[capacity];
+    }
+
+    /** Returns {@code true} if the ID was not already present. */
+    boolean add(String id) {
+        if ((size + 1) * 2 > table.length) {
+            resize();
+        }
+        if (insert(table, id)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static boolean insert(String[] slots, String id) {
+        int mask = slots.length - 1;
+        int slot = spread(id.hashCode()) & mask;
+        while (slots[slot] != null) {
+            if (slots[slot].equals(id)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id;
+        return true;
+    }
+
+    private void resize() {
+        String[] grown = new String[table.length << 1];
+        for (String id : table) {
+            if (id != null) {
+                insert(grown, id);
+            }
+        }
+        table = grown;
+    }
+
+    private static int spread(int hash) {
+        // String hashes of similar IDs cluster in the low bits; mix before masking
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
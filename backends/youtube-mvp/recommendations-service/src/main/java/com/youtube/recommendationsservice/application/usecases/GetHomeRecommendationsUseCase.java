@@ -2,9 +2,9 @@ package com.youtube.recommendationsservice.application.usecases;
 
 import com.youtube.recommendationsservice.application.dto.RecommendationRequest;
 import com.youtube.recommendationsservice.application.dto.RecommendationResponse;
+import com.youtube.recommendationsservice.application.services.CandidateFanOut;
 import com.youtube.recommendationsservice.domain.entities.RecommendedItem;
 import com.youtube.recommendationsservice.domain.entities.VideoCandidate;
-import com.youtube.recommendationsservice.domain.services.CandidateProvider;
 import com.youtube.recommendationsservice.domain.services.DiversityService;
 import com.youtube.recommendationsservice.domain.services.RankingService;
 import com.youtube.recommendationsservice.domain.valueobjects.RecommendationContext;
@@ -13,8 +13,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,7 +21,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class GetHomeRecommendationsUseCase {
     
-    private final List<CandidateProvider> candidateProviders;
+    // Ranked items kept per requested item, as headroom for the diversity stage to filter
+    private static final int RANKING_POOL_FACTOR = 3;
+    // Candidates fetched per ranked item kept, so top-K selection has something to drop
+    private static final int CANDIDATE_POOL_FACTOR = 2;
+    
+    private final CandidateFanOut candidateFanOut;
     private final RankingService rankingService;
     private final DiversityService diversityService;
     
@@ -34,15 +37,17 @@ public class GetHomeRecommendationsUseCase {
         RecommendationContext context = buildContext(request);
         
         // Stage 1: Candidate generation
-        List<VideoCandidate> candidates = collectCandidates(userId, context, request.getLimit() * 2);
+        int rankingPool = request.getLimit() * RANKING_POOL_FACTOR;
+        List<VideoCandidate> candidates = candidateFanOut.collect(
+            userId, context, rankingPool * CANDIDATE_POOL_FACTOR);
         log.debug("Collected {} candidates", candidates.size());
         
         if (candidates.isEmpty()) {
             return buildEmptyResponse(request.getUserId(), "home");
         }
         
-        // Stage 2: Ranking
-        List<RecommendedItem> rankedItems = rankingService.rank(candidates, userId, context);
+        // Stage 2: Ranking (top-K only; leaves headroom for the diversity stage to filter)
+        List<RecommendedItem> rankedItems = rankingService.rank(candidates, userId, context, rankingPool);
         
         // Stage 3: Diversity
         List<RecommendedItem> diversifiedItems = diversityService.applyDiversityConstraints(
@@ -58,32 +63,6 @@ public class GetHomeRecommendationsUseCase {
         return buildResponse(finalRecommendations, request, candidates.size());
     }
     
-    private List<VideoCandidate> collectCandidates(UserId userId, RecommendationContext context, int count) {
-        List<VideoCandidate> allCandidates = new ArrayList<>();
-        
-        for (CandidateProvider provider : candidateProviders) {
-            try {
-                List<VideoCandidate> candidates = provider.getCandidates(userId, context, count);
-                allCandidates.addAll(candidates);
-                log.debug("Provider {} returned {} candidates", provider.getProviderName(), candidates.size());
-            } catch (Exception e) {
-                log.error("Error getting candidates from provider: {}", provider.getProviderName(), e);
-                // Continue with other providers
-            }
-        }
-        
-        // Deduplicate by videoId
-        return allCandidates.stream()
-            .collect(Collectors.toMap(
-                VideoCandidate::getVideoId,
-                candidate -> candidate,
-                (existing, replacement) -> existing
-            ))
-            .values()
-            .stream()
-            .collect(Collectors.toList());
-    }
-    
     private RecommendationContext buildContext(RecommendationRequest request) {
         return RecommendationContext.builder()
             .device(request.getDevice())
@@ -46,13 +46,9 @@ public class GetNextUpRecommendationsUseCase {
             return buildEmptyResponse(request.getUserId(), "next-up");
         }
         
-        // Rank candidates
-        List<RecommendedItem> rankedItems = rankingService.rank(candidates, userId, context);
-        
-        // Return top N
-        List<RecommendedItem> finalRecommendations = rankedItems.stream()
-            .limit(request.getLimit())
-            .collect(Collectors.toList());
+        // Rank candidates and keep the top N
+        List<RecommendedItem> finalRecommendations = rankingService.rank(
+            candidates, userId, context, request.getLimit());
         
         return buildResponse(finalRecommendations, request, candidates.size());
     }
@@ -1,5 +1,6 @@
 package com.youtube.recommendationsservice.domain.entities;
 
+import com.youtube.recommendationsservice.domain.valueobjects.Embedding;
 import com.youtube.recommendationsservice.domain.valueobjects.RecommendationScore;
 import com.youtube.recommendationsservice.domain.valueobjects.VideoId;
 import lombok.Builder;
@@ -16,6 +17,8 @@ public class RecommendedItem {
     String reason;
     Instant recommendedAt;
     Map<String, Object> metadata;
+    /** Candidate embedding, carried for similarity-based diversity; may be null. */
+    Embedding embedding;
 
     public static RecommendedItem of(VideoId videoId, RecommendationScore score, String reason) {
         return RecommendedItem.builder()
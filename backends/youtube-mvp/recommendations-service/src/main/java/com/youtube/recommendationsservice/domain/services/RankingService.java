@@ -9,5 +9,14 @@ import java.util.List;
 
 public interface RankingService {
     List<RecommendedItem> rank(List<VideoCandidate> candidates, UserId userId, RecommendationContext context);
+    
+    /**
+     * Ranks candidates and returns only the {@code limit} best, highest score first.
+     */
+    default List<RecommendedItem> rank(List<VideoCandidate> candidates, UserId userId,
+                                       RecommendationContext context, int limit) {
+        List<RecommendedItem> ranked = rank(candidates, userId, context);
+        return ranked.size() > limit ? ranked.subList(0, limit) : ranked;
+    }
 }
 
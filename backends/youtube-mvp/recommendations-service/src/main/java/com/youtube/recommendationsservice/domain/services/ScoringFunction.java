@@ -0,0 +1,21 @@
+package com.youtube.recommendationsservice.domain.services;
+
+import com.youtube.recommendationsservice.domain.entities.VideoCandidate;
+import com.youtube.recommendationsservice.domain.valueobjects.RecommendationContext;
+
+/**
+ * Scores a single candidate for ranking. Implementations are identified by a version so that
+ * ranking experiments can be attributed to the function that produced them.
+ *
+ * <p>Called once per candidate on the ranking hot path: implementations should not allocate
+ * and should not read the clock (use {@code nowEpochMillis}).</p>
+ */
+public interface ScoringFunction {
+    
+    String version();
+    
+    /**
+     * @return score in [0, 1]
+     */
+    double score(VideoCandidate candidate, RecommendationContext context, long nowEpochMillis);
+}
@@ -0,0 +1,92 @@
+package com.youtube.recommendationsservice.domain.valueobjects;
+
+import com.youtube.recommendationsservice.shared.math.VectorKernels;
+
+import java.util.Arrays;
+
+/**
+ * Dense embedding packed into a primitive {@code float[]}.
+ *
+ * <p>Immutable: the array is copied on the way in and out, except through {@link #wrap},
+ * which is reserved for decoders that own a freshly allocated array. The L2 norm is
+ * computed once so cosine scoring costs a single dot product.</p>
+ */
+public final class Embedding {
+    
+    private static final Embedding EMPTY = new Embedding(new float[0]);
+    
+    private final float[] values;
+    private final float norm;
+    
+    private Embedding(float[] values) {
+        this.values = values;
+        this.norm = VectorKernels.norm(values);
+    }
+    
+    public static Embedding of(float... values) {
+        return values.length == 0 ? EMPTY : new Embedding(values.clone());
+    }
+    
+    /**
+     * Creates an embedding backed by the given array without copying it.
+     * The caller must not modify the array afterwards.
+     */
+    public static Embedding wrap(float[] values) {
+        return values.length == 0 ? EMPTY : new Embedding(values);
+    }
+    
+    public static Embedding empty() {
+        return EMPTY;
+    }
+    
+    public int dimension() {
+        return values.length;
+    }
+    
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+    
+    public float get(int index) {
+        return values[index];
+    }
+    
+    public float norm() {
+        return norm;
+    }
+    
+    public float[] toArray() {
+        return values.clone();
+    }
+    
+    public double dot(Embedding other) {
+        return VectorKernels.dot(values, other.values);
+    }
+    
+    /**
+     * Cosine similarity in [-1, 1]; 0 when either embedding is empty or all zeros.
+     */
+    public double cosine(Embedding other) {
+        if (norm == 0f || other.norm == 0f) {
+            return 0.0;
+        }
+        return VectorKernels.dot(values, other.values) / ((double) norm * other.norm);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Embedding other)) return false;
+        return Arrays.equals(values, other.values);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+    
+    @Override
+    public String toString() {
+        return "Embedding(dimension=" + values.length + ")";
+    }
+}
@@ -3,22 +3,31 @@ package com.youtube.recommendationsservice.domain.valueobjects;
 import lombok.Builder;
 import lombok.Value;
 
-import java.util.List;
 import java.util.Map;
 
 @Value
 @Builder
 public class FeatureVector {
-    List<Double> embeddings;
+    Embedding embedding;
     Map<String, Double> categoricalFeatures;
     Map<String, Double> numericalFeatures;
     
     public static FeatureVector empty() {
         return FeatureVector.builder()
-            .embeddings(List.of())
+            .embedding(Embedding.empty())
             .categoricalFeatures(Map.of())
             .numericalFeatures(Map.of())
             .build();
     }
+    
+    /**
+     * Cosine similarity of the two embeddings; 0 if either is missing or dimensions differ.
+     */
+    public double similarityTo(FeatureVector other) {
+        if (other == null || embedding == null || other.embedding == null
+            || embedding.dimension() != other.embedding.dimension()) {
+            return 0.0;
+        }
+        return embedding.cosine(other.embedding);
+    }
 }
-
@@ -0,0 +1,147 @@
+package com.youtube.recommendationsservice.infrastructure.ann;
+
+import com.youtube.recommendationsservice.infrastructure.config.AnnIndexProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Owns the process-wide {@link HnswIndex}: loads it from the snapshot at startup, applies
+ * catalog updates and writes it back on shutdown.
+ *
+ * <p>Once replaced and removed videos make up {@code compactionThreshold} of the graph, the
+ * index is rebuilt from its live vectors on a background thread and swapped in. Updates that
+ * arrive during the rebuild go to the current index and are replayed onto the new one before
+ * the swap.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.recommendations.ann.enabled", havingValue = "true")
+public class AnnIndexManager {
+    
+    private final AnnIndexProperties properties;
+    private final ExecutorService compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ann-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final Object updateLock = new Object();
+    private volatile HnswIndex index;
+    // Updates made while a compaction runs; guarded by updateLock, null when none is running
+    private List<Consumer<HnswIndex>> pendingUpdates;
+    
+    public AnnIndexManager(AnnIndexProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.index = emptyIndex();
+        Gauge.builder("recommendations.ann.index.size", this, manager -> manager.index().size())
+            .description("Number of searchable videos in the ANN index")
+            .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    void load() {
+        Path snapshot = Path.of(properties.getSnapshotPath());
+        if (!Files.exists(snapshot)) {
+            log.warn("ANN snapshot {} not found; starting with an empty index", snapshot);
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            HnswIndex loaded = HnswIndex.loadSnapshot(snapshot);
+            if (loaded.dimension() != properties.getDimension()) {
+                log.error("ANN snapshot dimension {} does not match configured {}; ignoring snapshot",
+                    loaded.dimension(), properties.getDimension());
+                return;
+            }
+            index = loaded;
+            log.info("Loaded ANN snapshot {} with {} videos in {} ms",
+                snapshot, loaded.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load ANN snapshot {}; starting with an empty index", snapshot, e);
+        }
+    }
+    
+    @PreDestroy
+    void save() {
+        compactionExecutor.shutdownNow();
+        if (!properties.isSaveOnShutdown() || index.size() == 0) {
+            return;
+        }
+        Path snapshot = Path.of(properties.getSnapshotPath());
+        try {
+            Files.createDirectories(snapshot.toAbsolutePath().getParent());
+            index.saveSnapshot(snapshot);
+            log.info("Saved ANN snapshot {} with {} videos", snapshot, index.size());
+        } catch (IOException e) {
+            log.warn("Failed to save ANN snapshot {}", snapshot, e);
+        }
+    }
+    
+    public HnswIndex index() {
+        return index;
+    }
+    
+    public void upsert(String videoId, float[] embedding) {
+        apply(target -> target.upsert(videoId, embedding));
+    }
+    
+    public void remove(String videoId) {
+        apply(target -> target.remove(videoId));
+    }
+    
+    private void apply(Consumer<HnswIndex> update) {
+        synchronized (updateLock) {
+            update.accept(index);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        }
+        if (index.tombstoneRatio() >= properties.getCompactionThreshold() && compacting.compareAndSet(false, true)) {
+            compactionExecutor.execute(this::compact);
+        }
+    }
+    
+    void compact() {
+        try {
+            long start = System.nanoTime();
+            HnswIndex current;
+            synchronized (updateLock) {
+                current = index;
+                pendingUpdates = new ArrayList<>();
+            }
+            HnswIndex compacted = current.compact();
+            synchronized (updateLock) {
+                pendingUpdates.forEach(update -> update.accept(compacted));
+                index = compacted;
+            }
+            log.info("Compacted ANN index to {} videos in {} ms",
+                compacted.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("ANN index compaction failed; keeping the current index", e);
+        } finally {
+            synchronized (updateLock) {
+                pendingUpdates = null;
+            }
+            compacting.set(false);
+        }
+    }
+    
+    private HnswIndex emptyIndex() {
+        return new HnswIndex(properties.getDimension(), properties.getM(), properties.getEfConstruction());
+    }
+}
@@ -0,0 +1,517 @@
+package com.youtube.recommendationsservice.infrastructure.ann;
+
+import com.youtube.recommendationsservice.shared.math.VectorKernels;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory HNSW (Hierarchical Navigable Small World) index for cosine similarity.
+ *
+ * <p>Vectors are L2-normalized on insert, so similarity is a plain dot product. Updates
+ * insert a new node and tombstone the old one; tombstoned nodes still route searches but
+ * are never returned. Searches run concurrently under a read lock, inserts take the
+ * write lock. Tombstones are only dropped by {@link #compact}, which builds a new graph from
+ * the live vectors; callers compact once {@link #tombstoneRatio} grows too large.</p>
+ *
+ * <p>Snapshots are written to a temporary file and atomically moved into place, and are
+ * read back through a memory-mapped buffer.</p>
+ */
+public class HnswIndex {
+    
+    private static final int SNAPSHOT_MAGIC = 0x484E5357; // "HNSW"
+    private static final int SNAPSHOT_VERSION = 1;
+    
+    private final int dimension;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final ThreadLocal<VisitedSet> visitedSets = ThreadLocal.withInitial(VisitedSet::new);
+    
+    private final List<float[]> vectors = new ArrayList<>();
+    private final List<String> ids = new ArrayList<>();
+    private final List<int[][]> neighbors = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    private final Map<String, Integer> nodeById = new HashMap<>();
+    
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int tombstones;
+    
+    public HnswIndex(int dimension, int m, int efConstruction) {
+        if (dimension <= 0 || m < 2 || efConstruction < m) {
+            throw new IllegalArgumentException("Invalid HNSW parameters: dimension=" + dimension
+                + ", m=" + m + ", efConstruction=" + efConstruction);
+        }
+        this.dimension = dimension;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(m);
+    }
+    
+    public record Match(String id, float similarity) {}
+    
+    public int dimension() {
+        return dimension;
+    }
+    
+    /**
+     * Number of searchable (non-deleted) vectors.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Fraction of graph nodes that are tombstones; they cost memory and search time but are
+     * never returned.
+     */
+    public double tombstoneRatio() {
+        lock.readLock().lock();
+        try {
+            return vectors.isEmpty() ? 0.0 : (double) tombstones / vectors.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public boolean contains(String id) {
+        lock.readLock().lock();
+        try {
+            return nodeById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Inserts or replaces the vector for an id.
+     */
+    public void upsert(String id, float[] vector) {
+        put(id, normalize(vector));
+    }
+    
+    private void put(String id, float[] normalized) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = nodeById.remove(id);
+            if (previous != null) {
+                deleted.set(previous);
+                tombstones++;
+            }
+            int node = insert(id, normalized);
+            nodeById.put(id, node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodeById.remove(id);
+            if (node == null) {
+                return false;
+            }
+            deleted.set(node);
+            tombstones++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Builds a new index holding only the live vectors, in insertion order. The copy is taken
+     * under the read lock; the rebuild itself does not block searches or updates on this index,
+     * so updates made meanwhile must be applied to the result as well.
+     */
+    public HnswIndex compact() {
+        List<String> liveIds = new ArrayList<>();
+        List<float[]> liveVectors = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int node = 0; node < vectors.size(); node++) {
+                if (!deleted.get(node)) {
+                    liveIds.add(ids.get(node));
+                    liveVectors.add(vectors.get(node));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        HnswIndex compacted = new HnswIndex(dimension, m, efConstruction);
+        for (int i = 0; i < liveIds.size(); i++) {
+            // Already normalized; normalizing again would perturb the stored values
+            compacted.put(liveIds.get(i), liveVectors.get(i));
+        }
+        return compacted;
+    }
+    
+    /**
+     * Approximate top-k by cosine similarity, best first.
+     */
+    public List<Match> search(float[] query, int k, int ef) {
+        float[] q = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return List.of();
+            }
+            int current = entryPoint;
+            for (int level = maxLevel; level > 0; level--) {
+                current = greedyClosest(q, current, level);
+            }
+            // Over-fetch a little so tombstones do not eat into k
+            PriorityQueue<Scored> found = searchLayer(q, current, Math.max(ef, k + Math.min(k, tombstones)), 0);
+            return toMatches(found, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Exact top-k by brute force; used to estimate recall of {@link #search}.
+     */
+    public List<Match> exactSearch(float[] query, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        float[] q = normalize(query);
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Scored> best = new PriorityQueue<>(Comparator.comparingDouble(Scored::similarity));
+            for (int node = 0; node < vectors.size(); node++) {
+                if (deleted.get(node)) {
+                    continue;
+                }
+                float similarity = VectorKernels.dot(q, vectors.get(node));
+                if (best.size() < k) {
+                    best.add(new Scored(node, similarity));
+                } else if (similarity > best.peek().similarity()) {
+                    best.poll();
+                    best.add(new Scored(node, similarity));
+                }
+            }
+            return toMatches(best, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private int insert(String id, float[] vector) {
+        int node = vectors.size();
+        int level = (int) Math.floor(-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        
+        vectors.add(vector);
+        ids.add(id);
+        int[][] layers = new int[level + 1][];
+        Arrays.fill(layers, new int[0]);
+        neighbors.add(layers);
+        
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+        
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(vector, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            PriorityQueue<Scored> candidates = searchLayer(vector, current, efConstruction, l);
+            int maxConnections = l == 0 ? maxM0 : m;
+            List<Scored> selected = bestFirst(candidates, m);
+            
+            int[] links = new int[selected.size()];
+            for (int i = 0; i < links.length; i++) {
+                links[i] = selected.get(i).node();
+            }
+            layers[l] = links;
+            for (int neighbor : links) {
+                connect(neighbor, node, l, maxConnections);
+            }
+            current = selected.get(0).node();
+        }
+        
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+        return node;
+    }
+    
+    private void connect(int from, int to, int level, int maxConnections) {
+        int[][] layers = neighbors.get(from);
+        int[] existing = layers[level];
+        if (existing.length < maxConnections) {
+            int[] grown = Arrays.copyOf(existing, existing.length + 1);
+            grown[existing.length] = to;
+            layers[level] = grown;
+            return;
+        }
+        // Full: keep the closest maxConnections among existing links plus the new one
+        float[] base = vectors.get(from);
+        PriorityQueue<Scored> pool = new PriorityQueue<>(Comparator.comparingDouble(Scored::similarity));
+        pool.add(new Scored(to, VectorKernels.dot(base, vectors.get(to))));
+        for (int neighbor : existing) {
+            pool.add(new Scored(neighbor, VectorKernels.dot(base, vectors.get(neighbor))));
+        }
+        pool.poll();
+        int[] pruned = new int[pool.size()];
+        for (int i = 0; i < pruned.length; i++) {
+            pruned[i] = pool.poll().node();
+        }
+        layers[level] = pruned;
+    }
+    
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float best = VectorKernels.dot(query, vectors.get(current));
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbor : linksAt(current, level)) {
+                float similarity = VectorKernels.dot(query, vectors.get(neighbor));
+                if (similarity > best) {
+                    best = similarity;
+                    current = neighbor;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Standard HNSW layer search; returns a min-heap of up to {@code ef} nearest nodes.
+     */
+    private PriorityQueue<Scored> searchLayer(float[] query, int start, int ef, int level) {
+        VisitedSet visited = visitedSets.get();
+        visited.reset(vectors.size());
+        
+        PriorityQueue<Scored> candidates = new PriorityQueue<>(Comparator.comparingDouble(Scored::similarity).reversed());
+        PriorityQueue<Scored> results = new PriorityQueue<>(Comparator.comparingDouble(Scored::similarity));
+        Scored first = new Scored(start, VectorKernels.dot(query, vectors.get(start)));
+        candidates.add(first);
+        results.add(first);
+        visited.add(start);
+        
+        while (!candidates.isEmpty()) {
+            Scored closest = candidates.poll();
+            if (results.size() >= ef && closest.similarity() < results.peek().similarity()) {
+                break;
+            }
+            for (int neighbor : linksAt(closest.node(), level)) {
+                if (!visited.add(neighbor)) {
+                    continue;
+                }
+                float similarity = VectorKernels.dot(query, vectors.get(neighbor));
+                if (results.size() < ef || similarity > results.peek().similarity()) {
+                    Scored scored = new Scored(neighbor, similarity);
+                    candidates.add(scored);
+                    results.add(scored);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+    
+    private int[] linksAt(int node, int level) {
+        int[][] layers = neighbors.get(node);
+        return level < layers.length ? layers[level] : new int[0];
+    }
+    
+    private static List<Scored> bestFirst(PriorityQueue<Scored> minHeap, int limit) {
+        List<Scored> all = new ArrayList<>(minHeap);
+        all.sort(Comparator.comparingDouble(Scored::similarity).reversed());
+        return all.size() > limit ? all.subList(0, limit) : all;
+    }
+    
+    private List<Match> toMatches(PriorityQueue<Scored> minHeap, int k) {
+        List<Match> matches = new ArrayList<>(k);
+        for (Scored scored : bestFirst(minHeap, minHeap.size())) {
+            if (!deleted.get(scored.node())) {
+                matches.add(new Match(ids.get(scored.node()), scored.similarity()));
+                if (matches.size() == k) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+    
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but got " + vector.length);
+        }
+        float norm = VectorKernels.norm(vector);
+        float[] normalized = new float[vector.length];
+        if (norm > 0f) {
+            for (int i = 0; i < vector.length; i++) {
+                normalized[i] = vector[i] / norm;
+            }
+        }
+        return normalized;
+    }
+    
+    // ---- Snapshots ----
+    
+    /**
+     * Writes the live graph to {@code path} via a temporary file and an atomic move.
+     */
+    public void saveSnapshot(Path path) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        lock.readLock().lock();
+        try (OutputStream file = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(dimension);
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeInt(vectors.size());
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+            for (int node = 0; node < vectors.size(); node++) {
+                byte[] id = ids.get(node).getBytes(StandardCharsets.UTF_8);
+                out.writeShort(id.length);
+                out.write(id);
+                out.writeBoolean(deleted.get(node));
+                for (float value : vectors.get(node)) {
+                    out.writeFloat(value);
+                }
+                int[][] layers = neighbors.get(node);
+                out.writeByte(layers.length);
+                for (int[] links : layers) {
+                    out.writeShort(links.length);
+                    for (int link : links) {
+                        out.writeInt(link);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Loads a snapshot written by {@link #saveSnapshot}, reading it through a memory map.
+     */
+    public static HnswIndex loadSnapshot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+    
+    private static HnswIndex read(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Not an HNSW snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported HNSW snapshot version: " + version);
+        }
+        HnswIndex index = new HnswIndex(buffer.getInt(), buffer.getInt(), buffer.getInt());
+        int count = buffer.getInt();
+        index.entryPoint = buffer.getInt();
+        index.maxLevel = buffer.getInt();
+        
+        for (int node = 0; node < count; node++) {
+            byte[] id = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(id);
+            String key = new String(id, StandardCharsets.UTF_8);
+            boolean isDeleted = buffer.get() != 0;
+            
+            float[] vector = new float[index.dimension];
+            buffer.asFloatBuffer().get(vector);
+            buffer.position(buffer.position() + index.dimension * Float.BYTES);
+            
+            int[][] layers = new int[Byte.toUnsignedInt(buffer.get())][];
+            for (int l = 0; l < layers.length; l++) {
+                int[] links = new int[Short.toUnsignedInt(buffer.getShort())];
+                buffer.asIntBuffer().get(links);
+                buffer.position(buffer.position() + links.length * Integer.BYTES);
+                layers[l] = links;
+            }
+            
+            index.vectors.add(vector);
+            index.ids.add(key);
+            index.neighbors.add(layers);
+            if (isDeleted) {
+                index.deleted.set(node);
+                index.tombstones++;
+            } else {
+                index.nodeById.put(key, node);
+            }
+        }
+        return index;
+    }
+    
+    private record Scored(int node, float similarity) {}
+    
+    /**
+     * Per-thread visited marks reused across searches (generation counter instead of clearing).
+     */
+    private static final class VisitedSet {
+        private int[] marks = new int[0];
+        private int generation;
+        
+        void reset(int capacity) {
+            if (marks.length < capacity) {
+                marks = new int[Math.max(capacity, marks.length * 2)];
+                generation = 0;
+            }
+            generation++;
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+        
+        boolean add(int node) {
+            if (marks[node] == generation) {
+                return false;
+            }
+            marks[node] = generation;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.youtube.recommendationsservice.infrastructure.codec;
+
+import com.youtube.recommendationsservice.domain.valueobjects.Embedding;
+import com.youtube.recommendationsservice.domain.valueobjects.FeatureVector;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary codec for {@link FeatureVector} and {@link Embedding}.
+ *
+ * <p>Embeddings are stored as fixed-width big-endian IEEE-754 floats, 4 bytes per dimension,
+ * with no per-element framing. This is also PostgreSQL's {@code float4send} format, so the
+ * {@code user_features.embedding} column can be produced and read from SQL.</p>
+ *
+ * <p>Feature vector layout:
+ * {@code [version:1][dim:u16][dim x float32][categoricalCount:u16][entries][numericalCount:u16][entries]},
+ * where each map entry is {@code [keyLength:u16][utf8 key][float64 value]}.</p>
+ */
+public final class FeatureVectorCodec {
+    
+    public static final byte VERSION = 1;
+    
+    private FeatureVectorCodec() {
+        // Utility class
+    }
+    
+    public static byte[] encodeEmbedding(Embedding embedding) {
+        byte[] bytes = new byte[embedding.dimension() * Float.BYTES];
+        ByteBuffer.wrap(bytes).asFloatBuffer().put(embedding.toArray());
+        return bytes;
+    }
+    
+    public static Embedding decodeEmbedding(byte[] bytes) {
+        if (bytes.length % Float.BYTES != 0) {
+            throw new IllegalArgumentException("Embedding length is not a multiple of 4: " + bytes.length);
+        }
+        float[] values = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).asFloatBuffer().get(values);
+        return Embedding.wrap(values);
+    }
+    
+    public static byte[] encode(FeatureVector vector) {
+        Embedding embedding = vector.getEmbedding() != null ? vector.getEmbedding() : Embedding.empty();
+        List<byte[]> categoricalKeys = encodeKeys(vector.getCategoricalFeatures());
+        List<byte[]> numericalKeys = encodeKeys(vector.getNumericalFeatures());
+        
+        int size = 1 + 2 + embedding.dimension() * Float.BYTES
+            + 2 + entriesSize(categoricalKeys)
+            + 2 + entriesSize(numericalKeys);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION);
+        buffer.putShort((short) embedding.dimension());
+        buffer.asFloatBuffer().put(embedding.toArray());
+        buffer.position(buffer.position() + embedding.dimension() * Float.BYTES);
+        putEntries(buffer, vector.getCategoricalFeatures(), categoricalKeys);
+        putEntries(buffer, vector.getNumericalFeatures(), numericalKeys);
+        return buffer.array();
+    }
+    
+    public static FeatureVector decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported feature vector encoding version: " + version);
+        }
+        int dimension = Short.toUnsignedInt(buffer.getShort());
+        float[] values = new float[dimension];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + dimension * Float.BYTES);
+        
+        return FeatureVector.builder()
+            .embedding(Embedding.wrap(values))
+            .categoricalFeatures(getEntries(buffer))
+            .numericalFeatures(getEntries(buffer))
+            .build();
+    }
+    
+    private static List<byte[]> encodeKeys(Map<String, Double> features) {
+        if (features == null || features.isEmpty()) {
+            return List.of();
+        }
+        List<byte[]> keys = new ArrayList<>(features.size());
+        for (String key : features.keySet()) {
+            keys.add(key.getBytes(StandardCharsets.UTF_8));
+        }
+        return keys;
+    }
+    
+    private static int entriesSize(List<byte[]> keys) {
+        int size = 0;
+        for (byte[] key : keys) {
+            size += 2 + key.length + Double.BYTES;
+        }
+        return size;
+    }
+    
+    private static void putEntries(ByteBuffer buffer, Map<String, Double> features, List<byte[]> keys) {
+        buffer.putShort((short) keys.size());
+        if (keys.isEmpty()) {
+            return;
+        }
+        // Key bytes were produced in the map's iteration order
+        int i = 0;
+        for (Double value : features.values()) {
+            byte[] key = keys.get(i++);
+            buffer.putShort((short) key.length);
+            buffer.put(key);
+            buffer.putDouble(value != null ? value : 0.0);
+        }
+    }
+    
+    private static Map<String, Double> getEntries(ByteBuffer buffer) {
+        int count = Short.toUnsignedInt(buffer.getShort());
+        if (count == 0) {
+            return Map.of();
+        }
+        Map<String, Double> entries = new LinkedHashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            byte[] key = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(key);
+            entries.put(new String(key, StandardCharsets.UTF_8), buffer.getDouble());
+        }
+        return entries;
+    }
+}
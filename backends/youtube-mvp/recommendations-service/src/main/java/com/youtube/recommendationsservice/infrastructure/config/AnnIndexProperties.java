@@ -0,0 +1,45 @@
+package com.youtube.recommendationsservice.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the embedding ANN (HNSW) candidate index.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.recommendations.ann")
+@Data
+public class AnnIndexProperties {
+    
+    /** Enables AnnCandidateProvider and the catalog event consumer. */
+    private boolean enabled = false;
+    
+    /** Snapshot loaded at startup and rewritten on shutdown; empty index if missing. */
+    private String snapshotPath = "/data/ann/videos.hnsw";
+    
+    /** Whether to write the snapshot back on shutdown so incremental updates survive restarts. */
+    private boolean saveOnShutdown = true;
+    
+    private int dimension = 128;
+    
+    /** HNSW links per node (layer 0 uses 2 * m). */
+    private int m = 16;
+    
+    private int efConstruction = 200;
+    
+    /** Candidate list size during search; higher trades latency for recall. */
+    private int efSearch = 64;
+    
+    /**
+     * Tombstone fraction (replaced or removed videos still in the graph) at which the index is
+     * rebuilt from its live vectors in the background.
+     */
+    private double compactionThreshold = 0.2;
+    
+    /** Fraction of queries re-run by brute force off the request path to estimate recall@k. */
+    private double recallSampleRate = 0.01;
+    
+    /** Service Bus queue carrying catalog (video) events. */
+    private String catalogEventsQueue = "catalog-events";
+}
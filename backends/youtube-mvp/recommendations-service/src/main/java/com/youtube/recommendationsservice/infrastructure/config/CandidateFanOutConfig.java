@@ -0,0 +1,43 @@
+package com.youtube.recommendationsservice.infrastructure.config;
+
+import com.youtube.recommendationsservice.application.services.CandidateFanOutSettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class CandidateFanOutConfig {
+
+    @Bean
+    public CandidateFanOutSettings candidateFanOutSettings(CandidateFanOutProperties properties) {
+        return properties.toSettings();
+    }
+
+    /**
+     * Dedicated pool for candidate provider calls, so slow providers cannot starve request threads.
+     * The queue is bounded and overflow is rejected; the fan-out treats a rejected provider as failed.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService candidateFanOutExecutor(CandidateFanOutProperties properties) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "candidate-fanout-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            properties.getExecutorThreads(), properties.getExecutorThreads(),
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(properties.getExecutorQueueCapacity()),
+            threadFactory,
+            new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,53 @@
+package com.youtube.recommendationsservice.infrastructure.config;
+
+import com.youtube.recommendationsservice.application.services.CandidateFanOutSettings;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the parallel candidate generation stage (one task per {@code CandidateProvider}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.recommendations.candidates")
+@Data
+public class CandidateFanOutProperties {
+
+    /** Overall budget for candidate generation; providers that have not answered by then are dropped. */
+    private Duration deadline = Duration.ofMillis(200);
+
+    /** Timeout for providers without an explicit entry in {@link #providers}. */
+    private Duration defaultTimeout = Duration.ofMillis(150);
+
+    /** Worker threads shared by all provider calls. */
+    private int executorThreads = 32;
+
+    /** Provider calls allowed to wait for a worker before new ones are rejected. */
+    private int executorQueueCapacity = 256;
+
+    /** Per-provider overrides keyed by {@code CandidateProvider#getProviderName()}. */
+    private Map<String, Provider> providers = new HashMap<>();
+
+    public CandidateFanOutSettings toSettings() {
+        Map<String, CandidateFanOutSettings.Provider> overrides = new HashMap<>();
+        providers.forEach((name, provider) -> overrides.put(name,
+            new CandidateFanOutSettings.Provider(provider.isEnabled(), provider.getTimeout(), provider.getQuota())));
+        return new CandidateFanOutSettings(deadline, defaultTimeout, overrides);
+    }
+
+    @Data
+    public static class Provider {
+
+        private boolean enabled = true;
+
+        /** Falls back to {@link CandidateFanOutProperties#getDefaultTimeout()} when unset. */
+        private Duration timeout;
+
+        /** Maximum candidates taken from this provider; unset means the request's candidate count. */
+        private Integer quota;
+    }
+}
@@ -0,0 +1,20 @@
+package com.youtube.recommendationsservice.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the diversity re-ranking stage.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.recommendations.diversity")
+@Data
+public class DiversityProperties {
+    
+    /** Re-order the category-capped items with maximal marginal relevance over embeddings. */
+    private boolean mmrEnabled = false;
+    
+    /** MMR trade-off: 1.0 is pure ranking score, 0.0 is pure dissimilarity to items already picked. */
+    private double mmrLambda = 0.7;
+}
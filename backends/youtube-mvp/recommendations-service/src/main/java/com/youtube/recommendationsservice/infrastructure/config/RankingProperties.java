@@ -0,0 +1,40 @@
+package com.youtube.recommendationsservice.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ranking scoring functions and their assignment to A/B variants.
+ *
+ * <p>Read on every ranking call, so weight changes pushed through App Configuration take
+ * effect on refresh without a redeploy.</p>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.recommendations.ranking")
+@Data
+public class RankingProperties {
+    
+    /** Scoring function version used when the request's variant has no mapping. */
+    private String defaultVersion = "v1";
+    
+    /** A/B test variant to scoring function version. */
+    private Map<String, String> variants = new HashMap<>();
+    
+    /** Scoring function versions and their weights. */
+    private Map<String, Weights> functions = new HashMap<>();
+    
+    @Data
+    public static class Weights {
+        private double recency = 0.3;
+        private double relevance = 0.4;
+        private double popularity = 0.2;
+        private double diversity = 0.1;
+        
+        /** Days for the recency score to decay by a factor of e. */
+        private double recencyDecayDays = 30.0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.youtube.recommendationsservice.infrastructure.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusClientBuilder;
+import com.azure.messaging.servicebus.ServiceBusErrorContext;
+import com.azure.messaging.servicebus.ServiceBusProcessorClient;
+import com.azure.messaging.servicebus.ServiceBusReceivedMessageContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtube.recommendationsservice.infrastructure.ann.AnnIndexManager;
+import com.youtube.recommendationsservice.infrastructure.config.AnnIndexProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies catalog events to the ANN index incrementally.
+ * Listens for video.published, video.updated (upsert when an embedding is present) and video.deleted.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.recommendations.ann.enabled", havingValue = "true")
+public class CatalogEventConsumer implements CommandLineRunner {
+    
+    private final AnnIndexManager indexManager;
+    private final ObjectMapper objectMapper;
+    private final AnnIndexProperties properties;
+    private final String connectionString;
+    private ServiceBusProcessorClient processor;
+    
+    public CatalogEventConsumer(AnnIndexManager indexManager,
+                                ObjectMapper objectMapper,
+                                AnnIndexProperties properties,
+                                @Value("${spring.cloud.azure.servicebus.connection-string:}") String connectionString) {
+        this.indexManager = indexManager;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.connectionString = connectionString;
+    }
+    
+    @Override
+    public void run(String... args) {
+        if (connectionString == null || connectionString.isBlank()) {
+            log.warn("Service Bus connection string not configured; ANN index will not receive catalog updates");
+            return;
+        }
+        processor = new ServiceBusClientBuilder()
+            .connectionString(connectionString)
+            .processor()
+            .queueName(properties.getCatalogEventsQueue())
+            .processMessage(this::onMessage)
+            .processError(this::onError)
+            .buildProcessorClient();
+        processor.start();
+        log.info("Started catalog event consumer on queue {}", properties.getCatalogEventsQueue());
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (processor != null) {
+            log.info("Stopping catalog event consumer");
+            processor.close();
+        }
+    }
+    
+    private void onMessage(ServiceBusReceivedMessageContext context) {
+        try {
+            apply(objectMapper.readTree(context.getMessage().getBody().toBytes()));
+        } catch (Exception e) {
+            log.error("Failed to apply catalog event {}", context.getMessage().getMessageId(), e);
+            throw new RuntimeException("Catalog event processing failed", e);
+        }
+    }
+    
+    void apply(JsonNode event) {
+        String eventType = event.path("eventType").asText("");
+        JsonNode data = event.path("data");
+        String videoId = event.hasNonNull("videoId") ? event.get("videoId").asText() : data.path("videoId").asText(null);
+        if (videoId == null) {
+            log.warn("Ignoring catalog event without videoId: {}", eventType);
+            return;
+        }
+        
+        if ("video.deleted".equalsIgnoreCase(eventType) || "DELETED".equals(eventType)) {
+            indexManager.remove(videoId);
+            log.debug("Removed video {} from ANN index", videoId);
+            return;
+        }
+        
+        JsonNode embedding = data.path("embedding");
+        if (!embedding.isArray() || embedding.isEmpty()) {
+            log.debug("Catalog event {} for video {} carries no embedding; index unchanged", eventType, videoId);
+            return;
+        }
+        float[] vector = new float[embedding.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) embedding.get(i).asDouble();
+        }
+        indexManager.upsert(videoId, vector);
+        log.debug("Upserted video {} into ANN index", videoId);
+    }
+    
+    private void onError(ServiceBusErrorContext context) {
+        log.error("Catalog event consumer error from {}", context.getEntityPath(), context.getException());
+    }
+}
@@ -0,0 +1,23 @@
+package com.youtube.recommendationsservice.infrastructure.persistence;
+
+import com.youtube.recommendationsservice.domain.valueobjects.Embedding;
+import com.youtube.recommendationsservice.infrastructure.codec.FeatureVectorCodec;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores an {@link Embedding} as one packed {@code bytea} value instead of one row per dimension.
+ */
+@Converter
+public class EmbeddingAttributeConverter implements AttributeConverter<Embedding, byte[]> {
+    
+    @Override
+    public byte[] convertToDatabaseColumn(Embedding embedding) {
+        return embedding != null ? FeatureVectorCodec.encodeEmbedding(embedding) : null;
+    }
+    
+    @Override
+    public Embedding convertToEntityAttribute(byte[] bytes) {
+        return bytes != null ? FeatureVectorCodec.decodeEmbedding(bytes) : Embedding.empty();
+    }
+}
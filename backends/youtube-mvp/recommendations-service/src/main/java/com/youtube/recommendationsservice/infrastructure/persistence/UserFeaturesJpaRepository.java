@@ -1,5 +1,6 @@
 package com.youtube.recommendationsservice.infrastructure.persistence;
 
+import com.youtube.recommendationsservice.domain.valueobjects.Embedding;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -19,11 +20,9 @@ public class UserFeaturesJpaRepository {
     @Id
     private String userId;
     
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_feature_embeddings", 
-                     joinColumns = @JoinColumn(name = "userId"))
+    @Convert(converter = EmbeddingAttributeConverter.class)
     @Column(name = "embedding")
-    private List<Double> embeddings;
+    private Embedding embedding;
     
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "user_feature_categorical",
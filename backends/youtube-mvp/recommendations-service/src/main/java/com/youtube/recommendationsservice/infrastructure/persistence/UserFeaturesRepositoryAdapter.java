@@ -36,7 +36,7 @@ public class UserFeaturesRepositoryAdapter implements UserFeaturesRepository {
     
     private UserFeatures toDomain(UserFeaturesJpaRepository entity) {
         FeatureVector featureVector = FeatureVector.builder()
-            .embeddings(entity.getEmbeddings())
+            .embedding(entity.getEmbedding())
             .categoricalFeatures(entity.getCategoricalFeatures())
             .numericalFeatures(entity.getNumericalFeatures())
             .build();
@@ -53,7 +53,7 @@ public class UserFeaturesRepositoryAdapter implements UserFeaturesRepository {
     private UserFeaturesJpaRepository toEntity(UserFeatures userFeatures) {
         UserFeaturesJpaRepository entity = new UserFeaturesJpaRepository();
         entity.setUserId(userFeatures.getUserId().getValue());
-        entity.setEmbeddings(userFeatures.getFeatures().getEmbeddings());
+        entity.setEmbedding(userFeatures.getFeatures().getEmbedding());
         entity.setCategoricalFeatures(userFeatures.getFeatures().getCategoricalFeatures());
         entity.setNumericalFeatures(userFeatures.getFeatures().getNumericalFeatures());
         entity.setRecentlyViewedCategories(userFeatures.getRecentlyViewedCategories());
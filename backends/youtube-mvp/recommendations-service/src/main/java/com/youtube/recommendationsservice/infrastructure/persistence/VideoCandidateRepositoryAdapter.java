@@ -2,6 +2,7 @@ package com.youtube.recommendationsservice.infrastructure.persistence;
 
 import com.youtube.recommendationsservice.domain.entities.VideoCandidate;
 import com.youtube.recommendationsservice.domain.repositories.VideoCandidateRepository;
+import com.youtube.recommendationsservice.domain.valueobjects.Embedding;
 import com.youtube.recommendationsservice.domain.valueobjects.FeatureVector;
 import com.youtube.recommendationsservice.domain.valueobjects.UserId;
 import com.youtube.recommendationsservice.domain.valueobjects.VideoId;
@@ -12,7 +13,10 @@ import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
 import java.util.stream.Collectors;
@@ -23,6 +27,7 @@ import java.util.stream.Collectors;
 public class VideoCandidateRepositoryAdapter implements VideoCandidateRepository {
     
     private final RedisTemplate<String, Object> redisTemplate;
+    private final VideoCandidateCosmosRepository cosmosRepository;
     private static final String CACHE_PREFIX = "video:candidates:";
     
     @Override
@@ -65,8 +70,53 @@ public class VideoCandidateRepositoryAdapter implements VideoCandidateRepository
     
     @Override
     public List<VideoCandidate> findByIds(List<VideoId> videoIds) {
-        // TODO: Implement actual batch lookup from Cosmos DB
-        return List.of();
+        if (videoIds.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<String, VideoCandidateCosmosEntity> byId = new HashMap<>();
+        cosmosRepository.findAllById(videoIds.stream().map(VideoId::getValue).toList())
+            .forEach(entity -> byId.put(entity.getVideoId(), entity));
+        
+        // Keep the caller's order (e.g. ANN similarity order); unknown ids are skipped
+        return videoIds.stream()
+            .map(id -> byId.get(id.getValue()))
+            .filter(Objects::nonNull)
+            .map(this::toDomain)
+            .collect(Collectors.toList());
+    }
+    
+    private VideoCandidate toDomain(VideoCandidateCosmosEntity entity) {
+        Map<String, Double> categorical = new HashMap<>();
+        if (entity.getCategoricalFeatures() != null) {
+            // One-hot encode categorical values
+            entity.getCategoricalFeatures().forEach((key, value) -> categorical.put(key + "_" + value, 1.0));
+        }
+        
+        return VideoCandidate.builder()
+            .videoId(VideoId.from(entity.getVideoId()))
+            .title(entity.getTitle())
+            .category(entity.getCategory())
+            .tags(entity.getTags() != null ? entity.getTags() : List.of())
+            .publishedAt(entity.getPublishedAt() != null ? entity.getPublishedAt() : Instant.now())
+            .features(FeatureVector.builder()
+                .embedding(toEmbedding(entity.getEmbeddings()))
+                .categoricalFeatures(categorical)
+                .numericalFeatures(entity.getNumericalFeatures() != null ? entity.getNumericalFeatures() : Map.of())
+                .build())
+            .metadata(entity.getMetadata() != null ? entity.getMetadata() : Map.of())
+            .build();
+    }
+    
+    private static Embedding toEmbedding(List<Double> values) {
+        if (values == null || values.isEmpty()) {
+            return Embedding.empty();
+        }
+        float[] embedding = new float[values.size()];
+        for (int i = 0; i < embedding.length; i++) {
+            embedding[i] = values.get(i).floatValue();
+        }
+        return Embedding.wrap(embedding);
     }
     
     private List<VideoCandidate> generateMockCandidates(int count) {
@@ -88,7 +138,7 @@ public class VideoCandidateRepositoryAdapter implements VideoCandidateRepository
                 .tags(List.of("tag1", "tag2"))
                 .publishedAt(Instant.now().minusSeconds(random.nextInt(86400 * 30)))
                 .features(FeatureVector.builder()
-                    .embeddings(generateRandomEmbedding(128))
+                    .embedding(generateRandomEmbedding(128, random))
                     .categoricalFeatures(java.util.Map.of("category", category))
                     .numericalFeatures(java.util.Map.of("views", random.nextDouble() * 1000000))
                     .build())
@@ -101,13 +151,12 @@ public class VideoCandidateRepositoryAdapter implements VideoCandidateRepository
         return candidates;
     }
     
-    private List<Double> generateRandomEmbedding(int dimension) {
-        Random random = new Random();
-        List<Double> embedding = new ArrayList<>();
+    private Embedding generateRandomEmbedding(int dimension, Random random) {
+        float[] embedding = new float[dimension];
         for (int i = 0; i < dimension; i++) {
-            embedding.add(random.nextGaussian());
+            embedding[i] = (float) random.nextGaussian();
         }
-        return embedding;
+        return Embedding.wrap(embedding);
     }
 }
 
@@ -0,0 +1,128 @@
+package com.youtube.recommendationsservice.infrastructure.services;
+
+import com.youtube.recommendationsservice.domain.entities.VideoCandidate;
+import com.youtube.recommendationsservice.domain.repositories.VideoCandidateRepository;
+import com.youtube.recommendationsservice.domain.services.CandidateProvider;
+import com.youtube.recommendationsservice.domain.services.FeatureStore;
+import com.youtube.recommendationsservice.domain.valueobjects.Embedding;
+import com.youtube.recommendationsservice.domain.valueobjects.FeatureVector;
+import com.youtube.recommendationsservice.domain.valueobjects.RecommendationContext;
+import com.youtube.recommendationsservice.domain.valueobjects.UserId;
+import com.youtube.recommendationsservice.domain.valueobjects.VideoId;
+import com.youtube.recommendationsservice.infrastructure.ann.AnnIndexManager;
+import com.youtube.recommendationsservice.infrastructure.ann.HnswIndex;
+import com.youtube.recommendationsservice.infrastructure.config.AnnIndexProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Candidate provider backed by the in-process HNSW index over video embeddings.
+ *
+ * <p>Looks up the user's embedding in the {@link FeatureStore}, retrieves the nearest videos
+ * from the index and hydrates them through {@link VideoCandidateRepository#findByIds}.
+ * Users without an embedding get no candidates from this provider.</p>
+ *
+ * <p>Metrics: {@code recommendations.ann.query.latency} (with p99) and
+ * {@code recommendations.ann.recall} (recall@k of sampled queries against brute force,
+ * computed off the request thread).</p>
+ */
+@Slf4j
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "app.recommendations.ann.enabled", havingValue = "true")
+public class AnnCandidateProvider implements CandidateProvider {
+    
+    private final AnnIndexManager indexManager;
+    private final FeatureStore featureStore;
+    private final VideoCandidateRepository videoCandidateRepository;
+    private final AnnIndexProperties properties;
+    private final Timer queryLatency;
+    private final DistributionSummary recall;
+    private final ThreadPoolExecutor recallExecutor;
+    
+    public AnnCandidateProvider(AnnIndexManager indexManager,
+                                FeatureStore featureStore,
+                                VideoCandidateRepository videoCandidateRepository,
+                                AnnIndexProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.indexManager = indexManager;
+        this.featureStore = featureStore;
+        this.videoCandidateRepository = videoCandidateRepository;
+        this.properties = properties;
+        this.queryLatency = Timer.builder("recommendations.ann.query.latency")
+            .description("Latency of one ANN index query")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.recall = DistributionSummary.builder("recommendations.ann.recall")
+            .description("Recall@k of sampled ANN queries against exact search")
+            .register(meterRegistry);
+        // Single background thread; samples are dropped rather than queued without bound
+        this.recallExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), new ThreadPoolExecutor.DiscardPolicy());
+    }
+    
+    @Override
+    public List<VideoCandidate> getCandidates(UserId userId, RecommendationContext context, int count) {
+        Embedding userEmbedding = featureStore.getUserFeatures(userId)
+            .map(FeatureVector::getEmbedding)
+            .orElse(null);
+        if (userEmbedding == null || userEmbedding.isEmpty()) {
+            log.debug("No embedding for user {}; skipping ANN candidates", userId.getValue());
+            return List.of();
+        }
+        
+        HnswIndex index = indexManager.index();
+        if (userEmbedding.dimension() != index.dimension()) {
+            log.warn("User {} embedding dimension {} does not match index dimension {}",
+                userId.getValue(), userEmbedding.dimension(), index.dimension());
+            return List.of();
+        }
+        
+        float[] query = userEmbedding.toArray();
+        long start = System.nanoTime();
+        List<HnswIndex.Match> matches = index.search(query, count, properties.getEfSearch());
+        queryLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        
+        if (ThreadLocalRandom.current().nextDouble() < properties.getRecallSampleRate()) {
+            recallExecutor.execute(() -> recordRecall(index, query, count, matches));
+        }
+        
+        List<VideoId> videoIds = matches.stream().map(match -> VideoId.from(match.id())).toList();
+        return videoCandidateRepository.findByIds(videoIds);
+    }
+    
+    private void recordRecall(HnswIndex index, float[] query, int k, List<HnswIndex.Match> approximate) {
+        List<HnswIndex.Match> exact = index.exactSearch(query, k);
+        if (exact.isEmpty()) {
+            return;
+        }
+        Set<String> found = new HashSet<>();
+        approximate.forEach(match -> found.add(match.id()));
+        long hits = exact.stream().filter(match -> found.contains(match.id())).count();
+        recall.record((double) hits / exact.size());
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        recallExecutor.shutdownNow();
+    }
+    
+    @Override
+    public String getProviderName() {
+        return "ann";
+    }
+}
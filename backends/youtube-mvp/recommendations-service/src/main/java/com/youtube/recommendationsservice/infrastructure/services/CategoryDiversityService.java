@@ -2,16 +2,44 @@ package com.youtube.recommendationsservice.infrastructure.services;
 
 import com.youtube.recommendationsservice.domain.entities.RecommendedItem;
 import com.youtube.recommendationsservice.domain.services.DiversityService;
+import com.youtube.recommendationsservice.domain.valueobjects.Embedding;
+import com.youtube.recommendationsservice.infrastructure.config.DiversityProperties;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Deterministic diversity stage over items already ranked by score.
+ *
+ * <p>A single pass keeps each item unless its category has reached the cap, so the output is
+ * a subsequence of the input: ranking order and the best items of every category are
+ * preserved. Per-category counts live in an {@code int[]} indexed by an interned category ID.</p>
+ *
+ * <p>When {@code app.recommendations.diversity.mmr-enabled} is set, the survivors are then
+ * re-ordered by maximal marginal relevance (MMR) over item embeddings. The top-scored item
+ * always stays first; items without a compatible embedding are treated as dissimilar to
+ * everything. MMR is quadratic in the number of survivors, which is bounded by the ranking limit.</p>
+ */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class CategoryDiversityService implements DiversityService {
     
+    private static final String UNKNOWN_CATEGORY = "unknown";
+    
+    /** Category name to dense ID. Categories come from a fixed taxonomy, so this stays small. */
+    private final Map<String, Integer> categoryIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextCategoryId = new AtomicInteger();
+    
+    private final DiversityProperties properties;
+    
     @Override
     public List<RecommendedItem> applyDiversityConstraints(List<RecommendedItem> items, int maxFromSameCategory) {
         log.debug("Applying diversity constraints, maxFromSameCategory: {}", maxFromSameCategory);
@@ -20,34 +48,85 @@ public class CategoryDiversityService implements DiversityService {
             return items;
         }
         
-        // Group by category
-        Map<String, List<RecommendedItem>> byCategory = items.stream()
-            .collect(Collectors.groupingBy(item -> 
-                item.getMetadata().getOrDefault("category", "unknown").toString()
-            ));
-        
-        List<RecommendedItem> diversified = new ArrayList<>();
-        Map<String, Integer> categoryCount = new HashMap<>();
+        List<RecommendedItem> diversified = capPerCategory(items, maxFromSameCategory);
+        if (properties.isMmrEnabled() && diversified.size() > 2) {
+            diversified = maximalMarginalRelevance(diversified, properties.getMmrLambda());
+        }
         
-        // Create a list of items with their categories shuffled
-        List<RecommendedItem> allItems = new ArrayList<>(items);
-        Collections.shuffle(allItems);
+        log.debug("Diversified from {} to {} items", items.size(), diversified.size());
+        return diversified;
+    }
+    
+    private List<RecommendedItem> capPerCategory(List<RecommendedItem> items, int maxFromSameCategory) {
+        int[] counts = new int[Math.max(16, nextCategoryId.get())];
+        List<RecommendedItem> kept = new ArrayList<>(items.size());
+        for (RecommendedItem item : items) {
+            int id = categoryId(item);
+            if (id >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(id + 1, counts.length * 2));
+            }
+            if (counts[id] < maxFromSameCategory) {
+                counts[id]++;
+                kept.add(item);
+            }
+        }
+        return kept;
+    }
+    
+    private int categoryId(RecommendedItem item) {
+        Map<String, Object> metadata = item.getMetadata();
+        Object category = metadata != null ? metadata.get("category") : null;
+        String name = category != null ? category.toString() : UNKNOWN_CATEGORY;
+        Integer id = categoryIds.get(name);
+        return id != null ? id : categoryIds.computeIfAbsent(name, key -> nextCategoryId.getAndIncrement());
+    }
+    
+    /**
+     * Greedy MMR: repeatedly picks the item maximising
+     * {@code lambda * score - (1 - lambda) * max similarity to the items picked so far}.
+     */
+    private List<RecommendedItem> maximalMarginalRelevance(List<RecommendedItem> items, double lambda) {
+        int n = items.size();
+        double[] scores = new double[n];
+        Embedding[] embeddings = new Embedding[n];
+        for (int i = 0; i < n; i++) {
+            RecommendedItem item = items.get(i);
+            scores[i] = item.getScore().getValue();
+            Embedding embedding = item.getEmbedding();
+            embeddings[i] = embedding != null && !embedding.isEmpty() ? embedding : null;
+        }
         
-        for (RecommendedItem item : allItems) {
-            String category = item.getMetadata().getOrDefault("category", "unknown").toString();
-            categoryCount.putIfAbsent(category, 0);
+        double[] maxSimilarity = new double[n];
+        boolean[] picked = new boolean[n];
+        List<RecommendedItem> reordered = new ArrayList<>(n);
+        for (int round = 0; round < n; round++) {
+            int best = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (picked[i]) {
+                    continue;
+                }
+                double value = lambda * scores[i] - (1.0 - lambda) * maxSimilarity[i];
+                // Strict comparison keeps the earlier (higher-ranked) item on ties
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = i;
+                }
+            }
             
-            if (categoryCount.get(category) < maxFromSameCategory) {
-                diversified.add(item);
-                categoryCount.put(category, categoryCount.get(category) + 1);
+            picked[best] = true;
+            reordered.add(items.get(best));
+            Embedding chosen = embeddings[best];
+            if (chosen == null) {
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                Embedding other = embeddings[i];
+                if (!picked[i] && other != null && other.dimension() == chosen.dimension()) {
+                    maxSimilarity[i] = Math.max(maxSimilarity[i], chosen.cosine(other));
+                }
             }
         }
-        
-        // Sort by score to maintain quality
-        diversified.sort((a, b) -> Double.compare(b.getScore().getValue(), a.getScore().getValue()));
-        
-        log.debug("Diversified from {} to {} items", items.size(), diversified.size());
-        return diversified;
+        return reordered;
     }
 }
-
@@ -1,6 +1,7 @@
 package com.youtube.recommendationsservice.infrastructure.services;
 
 import com.youtube.recommendationsservice.domain.services.FeatureStore;
+import com.youtube.recommendationsservice.infrastructure.codec.FeatureVectorCodec;
 import com.youtube.recommendationsservice.domain.valueobjects.FeatureVector;
 import com.youtube.recommendationsservice.domain.valueobjects.UserId;
 import com.youtube.recommendationsservice.domain.valueobjects.VideoId;
@@ -10,8 +11,6 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
-import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -19,15 +18,14 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class RedisFeatureStore implements FeatureStore {
     
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, byte[]> featureRedisTemplate;
     private static final String USER_PREFIX = "features:user:";
     private static final String VIDEO_PREFIX = "features:video:";
     
     @Override
     public Optional<FeatureVector> getUserFeatures(UserId userId) {
         String key = USER_PREFIX + userId.getValue();
-        @SuppressWarnings("unchecked")
-        FeatureVector features = (FeatureVector) redisTemplate.opsForValue().get(key);
+        FeatureVector features = read(key);
         
         if (features != null) {
             log.debug("Cache hit for user features: {}", userId.getValue());
@@ -41,8 +39,7 @@ public class RedisFeatureStore implements FeatureStore {
     @Override
     public Optional<FeatureVector> getVideoFeatures(VideoId videoId) {
         String key = VIDEO_PREFIX + videoId.getValue();
-        @SuppressWarnings("unchecked")
-        FeatureVector features = (FeatureVector) redisTemplate.opsForValue().get(key);
+        FeatureVector features = read(key);
         
         if (features != null) {
             log.debug("Cache hit for video features: {}", videoId.getValue());
@@ -56,15 +53,29 @@ public class RedisFeatureStore implements FeatureStore {
     @Override
     public void cacheUserFeatures(UserId userId, FeatureVector features) {
         String key = USER_PREFIX + userId.getValue();
-        redisTemplate.opsForValue().set(key, features, Duration.ofHours(24));
+        featureRedisTemplate.opsForValue().set(key, FeatureVectorCodec.encode(features), Duration.ofHours(24));
         log.debug("Cached user features for: {}", userId.getValue());
     }
     
     @Override
     public void cacheVideoFeatures(VideoId videoId, FeatureVector features) {
         String key = VIDEO_PREFIX + videoId.getValue();
-        redisTemplate.opsForValue().set(key, features, Duration.ofHours(24));
+        featureRedisTemplate.opsForValue().set(key, FeatureVectorCodec.encode(features), Duration.ofHours(24));
         log.debug("Cached video features for: {}", videoId.getValue());
     }
+    
+    private FeatureVector read(String key) {
+        byte[] value = featureRedisTemplate.opsForValue().get(key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return FeatureVectorCodec.decode(value);
+        } catch (RuntimeException e) {
+            // Entries written in the old JSON format expire within 24h; treat them as misses
+            log.debug("Ignoring undecodable feature entry {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
 }
 
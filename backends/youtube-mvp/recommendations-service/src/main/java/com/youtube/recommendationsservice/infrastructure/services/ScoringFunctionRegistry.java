@@ -0,0 +1,41 @@
+package com.youtube.recommendationsservice.infrastructure.services;
+
+import com.youtube.recommendationsservice.domain.services.ScoringFunction;
+import com.youtube.recommendationsservice.domain.valueobjects.RecommendationContext;
+import com.youtube.recommendationsservice.infrastructure.config.RankingProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the scoring function for a request from its A/B test variant.
+ *
+ * <p>Weights are looked up in {@link RankingProperties} on every call rather than cached, so
+ * a configuration refresh changes ranking for the next request.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScoringFunctionRegistry {
+    
+    private static final RankingProperties.Weights DEFAULT_WEIGHTS = new RankingProperties.Weights();
+    
+    private final RankingProperties properties;
+    
+    public ScoringFunction resolve(RecommendationContext context) {
+        String version = null;
+        if (context != null && context.getAbTestVariant() != null) {
+            version = properties.getVariants().get(context.getAbTestVariant());
+        }
+        if (version == null) {
+            version = properties.getDefaultVersion();
+        }
+        
+        RankingProperties.Weights weights = properties.getFunctions().get(version);
+        if (weights == null) {
+            log.debug("No weights configured for scoring function {}; using defaults", version);
+            weights = DEFAULT_WEIGHTS;
+        }
+        return new WeightedScoringFunction(version, weights);
+    }
+}
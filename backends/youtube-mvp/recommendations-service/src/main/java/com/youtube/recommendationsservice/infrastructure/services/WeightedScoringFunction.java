@@ -0,0 +1,87 @@
+package com.youtube.recommendationsservice.infrastructure.services;
+
+import com.youtube.recommendationsservice.domain.entities.VideoCandidate;
+import com.youtube.recommendationsservice.domain.services.ScoringFunction;
+import com.youtube.recommendationsservice.domain.valueobjects.RecommendationContext;
+import com.youtube.recommendationsservice.infrastructure.config.RankingProperties;
+
+import java.time.Instant;
+
+/**
+ * Linear blend of recency, relevance, popularity and diversity signals, with weights taken
+ * from {@link RankingProperties.Weights}.
+ */
+public class WeightedScoringFunction implements ScoringFunction {
+    
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    
+    private final String version;
+    private final double recencyWeight;
+    private final double relevanceWeight;
+    private final double popularityWeight;
+    private final double diversityWeight;
+    private final double recencyDecayDays;
+    
+    public WeightedScoringFunction(String version, RankingProperties.Weights weights) {
+        this.version = version;
+        this.recencyWeight = weights.getRecency();
+        this.relevanceWeight = weights.getRelevance();
+        this.popularityWeight = weights.getPopularity();
+        this.diversityWeight = weights.getDiversity();
+        this.recencyDecayDays = weights.getRecencyDecayDays();
+    }
+    
+    @Override
+    public String version() {
+        return version;
+    }
+    
+    @Override
+    public double score(VideoCandidate candidate, RecommendationContext context, long nowEpochMillis) {
+        double finalScore = (recencyScore(candidate, nowEpochMillis) * recencyWeight) +
+                           (relevanceScore(candidate, context) * relevanceWeight) +
+                           (popularityScore(candidate) * popularityWeight) +
+                           (diversityScore(candidate) * diversityWeight);
+        
+        // Ensure score is between 0 and 1
+        return Math.min(Math.max(finalScore, 0.0), 1.0);
+    }
+    
+    private double recencyScore(VideoCandidate candidate, long nowEpochMillis) {
+        Instant publishedAt = candidate.getPublishedAt();
+        if (publishedAt == null) {
+            return 0.0;
+        }
+        long daysOld = (nowEpochMillis - publishedAt.toEpochMilli()) / MILLIS_PER_DAY;
+        return Math.exp(-daysOld / recencyDecayDays); // Decay factor
+    }
+    
+    private double relevanceScore(VideoCandidate candidate, RecommendationContext context) {
+        // Mock relevance based on category and context
+        double score = 0.5; // Base score
+        
+        // Add context-specific relevance
+        if (context.getLanguage() != null && candidate.getMetadata().containsKey("language")) {
+            Object videoLanguage = candidate.getMetadata().get("language");
+            if (context.getLanguage().equals(videoLanguage)) {
+                score += 0.2;
+            }
+        }
+        
+        return Math.min(score, 1.0);
+    }
+    
+    private double popularityScore(VideoCandidate candidate) {
+        // Mock popularity based on metadata
+        Object views = candidate.getMetadata().get("views");
+        if (views instanceof Number number) {
+            return Math.min(number.doubleValue() / 1000000.0, 1.0);
+        }
+        return 0.5;
+    }
+    
+    private double diversityScore(VideoCandidate candidate) {
+        // Encourage diversity in recommendations
+        return 0.5;
+    }
+}
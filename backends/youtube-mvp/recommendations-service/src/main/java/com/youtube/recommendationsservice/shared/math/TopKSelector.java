@@ -0,0 +1,75 @@
+package com.youtube.recommendationsservice.shared.math;
+
+/**
+ * Selects the indexes of the {@code k} highest scores from a primitive score array.
+ *
+ * <p>Keeps a bounded min-heap of indexes, so selection is O(n log k) with a single
+ * {@code int[k]} allocation. Ties are broken by lower index, which makes the result identical
+ * to a stable descending sort truncated to {@code k}.</p>
+ */
+public final class TopKSelector {
+    
+    private TopKSelector() {
+        // Utility class
+    }
+    
+    /**
+     * @return indexes of the best {@code min(k, length)} scores, best first
+     */
+    public static int[] select(double[] scores, int length, int k) {
+        int size = Math.min(k, length);
+        if (size <= 0) {
+            return new int[0];
+        }
+        
+        int[] heap = new int[size];
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+        }
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(heap, i, size, scores);
+        }
+        
+        for (int i = size; i < length; i++) {
+            // heap[0] is the worst survivor; replace it only if candidate i ranks above it
+            if (worse(heap[0], i, scores)) {
+                heap[0] = i;
+                siftDown(heap, 0, size, scores);
+            }
+        }
+        
+        // In-place heapsort: repeatedly move the worst survivor to the end
+        for (int end = size - 1; end > 0; end--) {
+            int worst = heap[0];
+            heap[0] = heap[end];
+            heap[end] = worst;
+            siftDown(heap, 0, end, scores);
+        }
+        return heap;
+    }
+    
+    /** True if index {@code a} ranks below index {@code b}. */
+    private static boolean worse(int a, int b, double[] scores) {
+        double sa = scores[a];
+        double sb = scores[b];
+        return sa < sb || (sa == sb && a > b);
+    }
+    
+    private static void siftDown(int[] heap, int i, int size, double[] scores) {
+        int item = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            int right = child + 1;
+            if (right < size && worse(heap[right], heap[child], scores)) {
+                child = right;
+            }
+            if (!worse(heap[child], item, scores)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = item;
+    }
+}
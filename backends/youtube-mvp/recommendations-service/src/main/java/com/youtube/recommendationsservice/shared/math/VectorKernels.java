@@ -0,0 +1,51 @@
+package com.youtube.recommendationsservice.shared.math;
+
+/**
+ * Dot-product kernels over packed {@code float[]} embeddings.
+ *
+ * <p>A scalar loop with four independent accumulators, which the JIT unrolls and
+ * auto-vectorizes. The incubating Vector API is deliberately not used: it needs
+ * {@code --add-modules jdk.incubator.vector} on every compile and run and warns each time.</p>
+ */
+public final class VectorKernels {
+    
+    private VectorKernels() {
+        // Utility class
+    }
+    
+    public static float dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException(
+                "Embedding dimensions differ: " + a.length + " vs " + b.length);
+        }
+        return scalarDot(a, b, a.length);
+    }
+    
+    public static float norm(float[] a) {
+        return (float) Math.sqrt(scalarDot(a, a, a.length));
+    }
+    
+    public static float cosine(float[] a, float[] b) {
+        float denominator = norm(a) * norm(b);
+        return denominator == 0f ? 0f : dot(a, b) / denominator;
+    }
+    
+    /**
+     * Dot product of the first {@code length} elements.
+     */
+    public static float scalarDot(float[] a, float[] b, int length) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        int upper = length & ~3;
+        for (; i < upper; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+}
@@ -0,0 +1,10 @@
+-- Store user embeddings as one packed value (big-endian float32 per dimension, same as float4send)
+-- instead of one row per dimension in user_feature_embeddings.
+ALTER TABLE user_features ADD COLUMN embedding BYTEA;
+
+-- user_feature_embeddings has no order column, so the dimension order of the stored rows cannot be
+-- recovered: neither ctid nor a key added now reflects the list order Hibernate wrote. Rather than
+-- pack vectors with their dimensions possibly shuffled, existing embeddings are dropped. They load as
+-- empty (the ANN candidate provider skips users without one) until the feature pipeline recomputes
+-- and saves them.
+DROP TABLE user_feature_embeddings;
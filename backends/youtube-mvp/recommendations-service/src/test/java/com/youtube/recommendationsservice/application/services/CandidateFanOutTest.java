@@ -0,0 +1,115 @@
+package com.youtube.recommendationsservice.application.services;
+
+import com.youtube.recommendationsservice.domain.entities.VideoCandidate;
+import com.youtube.recommendationsservice.domain.services.CandidateProvider;
+import com.youtube.recommendationsservice.domain.valueobjects.RecommendationContext;
+import com.youtube.recommendationsservice.domain.valueobjects.UserId;
+import com.youtube.recommendationsservice.domain.valueobjects.VideoId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandidateFanOutTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserId userId = UserId.from("user123");
+    private final RecommendationContext context = RecommendationContext.builder().build();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void collect_ShouldMergeProvidersInOrderAndDeduplicate() {
+        CandidateFanOut fanOut = fanOut(settings(Duration.ofMillis(200), Map.of()),
+            provider("ann", 0, "v1", "v2", "v3"),
+            provider("default", 0, "v2", "v4"));
+
+        List<VideoCandidate> candidates = fanOut.collect(userId, context, 10);
+
+        assertEquals(List.of("v1", "v2", "v3", "v4"), ids(candidates));
+    }
+
+    @Test
+    void collect_ShouldDropProvidersThatMissTheDeadline() {
+        CandidateFanOut fanOut = fanOut(settings(Duration.ofMillis(100), Map.of()),
+            provider("slow", 2_000, "v1"),
+            provider("fast", 0, "v2"));
+
+        long start = System.nanoTime();
+        List<VideoCandidate> candidates = fanOut.collect(userId, context, 10);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(List.of("v2"), ids(candidates));
+        assertTrue(elapsedMillis < 1_000, "fan-out took " + elapsedMillis + " ms");
+        assertEquals(1.0, meterRegistry.get("recommendations.candidates.provider.timeouts")
+            .tag("provider", "slow").counter().count());
+    }
+
+    @Test
+    void collect_ShouldApplyQuotaAndSkipFailingProviders() {
+        CandidateFanOutSettings settings = settings(Duration.ofMillis(200),
+            Map.of("ann", new CandidateFanOutSettings.Provider(true, null, 2)));
+
+        CandidateProvider failing = new CandidateProvider() {
+            @Override
+            public List<VideoCandidate> getCandidates(UserId userId, RecommendationContext context, int count) {
+                throw new IllegalStateException("boom");
+            }
+
+            @Override
+            public String getProviderName() {
+                return "failing";
+            }
+        };
+        CandidateFanOut fanOut = fanOut(settings, failing, provider("ann", 0, "v1", "v2", "v3"));
+
+        assertEquals(List.of("v1", "v2"), ids(fanOut.collect(userId, context, 10)));
+    }
+
+    private CandidateFanOut fanOut(CandidateFanOutSettings settings, CandidateProvider... providers) {
+        return new CandidateFanOut(List.of(providers), settings, executor, meterRegistry);
+    }
+
+    private static CandidateFanOutSettings settings(Duration deadline,
+                                                    Map<String, CandidateFanOutSettings.Provider> providers) {
+        return new CandidateFanOutSettings(deadline, Duration.ofMillis(150), providers);
+    }
+
+    private static CandidateProvider provider(String name, long delayMillis, String... videoIds) {
+        return new CandidateProvider() {
+            @Override
+            public List<VideoCandidate> getCandidates(UserId userId, RecommendationContext context, int count) {
+                if (delayMillis > 0) {
+                    try {
+                        Thread.sleep(delayMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return java.util.Arrays.stream(videoIds)
+                    .map(id -> VideoCandidate.of(VideoId.from(id), id, "music"))
+                    .toList();
+            }
+
+            @Override
+            public String getProviderName() {
+                return name;
+            }
+        };
+    }
+
+    private static List<String> ids(List<VideoCandidate> candidates) {
+        return candidates.stream().map(candidate -> candidate.getVideoId().getValue()).toList();
+    }
+}
@@ -2,11 +2,15 @@ package com.youtube.recommendationsservice.application.usecases;
 
 import com.youtube.recommendationsservice.application.dto.RecommendationRequest;
 import com.youtube.recommendationsservice.application.dto.RecommendationResponse;
+import com.youtube.recommendationsservice.application.services.CandidateFanOut;
+import com.youtube.recommendationsservice.application.services.CandidateFanOutSettings;
 import com.youtube.recommendationsservice.domain.services.CandidateProvider;
 import com.youtube.recommendationsservice.domain.services.DiversityService;
 import com.youtube.recommendationsservice.domain.services.RankingService;
 import com.youtube.recommendationsservice.domain.valueobjects.RecommendationContext;
 import com.youtube.recommendationsservice.domain.valueobjects.UserId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,7 +18,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -35,15 +43,28 @@ class GetHomeRecommendationsUseCaseTest {
     @InjectMocks
     private GetHomeRecommendationsUseCase useCase;
     
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    
     @BeforeEach
     void setUp() {
+        CandidateFanOut candidateFanOut = new CandidateFanOut(
+            List.of(),
+            new CandidateFanOutSettings(Duration.ofMillis(200), Duration.ofMillis(150), Map.of()),
+            executor,
+            new SimpleMeterRegistry()
+        );
         useCase = new GetHomeRecommendationsUseCase(
-            List.of(),  // Will be mocked
+            candidateFanOut,
             rankingService,
             diversityService
         );
     }
     
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
     @Test
     void execute_ShouldReturnRecommendations() {
         // Given
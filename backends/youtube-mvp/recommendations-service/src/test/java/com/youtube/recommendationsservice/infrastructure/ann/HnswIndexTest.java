@@ -0,0 +1,130 @@
+package com.youtube.recommendationsservice.infrastructure.ann;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswIndexTest {
+    
+    private static final int DIMENSION = 32;
+    
+    @Test
+    void search_ShouldReachHighRecallAgainstExactSearch() {
+        Random random = new Random(7);
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 200);
+        for (int i = 0; i < 2_000; i++) {
+            index.upsert("video-" + i, randomVector(random));
+        }
+        
+        int k = 10;
+        int hits = 0;
+        int total = 0;
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomVector(random);
+            Set<String> approximate = ids(index.search(query, k, 64));
+            for (HnswIndex.Match match : index.exactSearch(query, k)) {
+                total++;
+                if (approximate.contains(match.id())) {
+                    hits++;
+                }
+            }
+        }
+        
+        assertTrue((double) hits / total >= 0.9, "recall@10 was " + (double) hits / total);
+    }
+    
+    @Test
+    void upsertAndRemove_ShouldReplaceAndHideVectors() {
+        Random random = new Random(11);
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 32);
+        for (int i = 0; i < 100; i++) {
+            index.upsert("video-" + i, randomVector(random));
+        }
+        float[] target = randomVector(random);
+        
+        index.upsert("video-5", target);
+        assertEquals("video-5", index.search(target, 1, 32).get(0).id());
+        assertEquals(100, index.size());
+        
+        assertTrue(index.remove("video-5"));
+        assertFalse(ids(index.search(target, 10, 32)).contains("video-5"));
+        assertEquals(99, index.size());
+    }
+    
+    @Test
+    void search_WithNonPositiveK_ShouldReturnNothing() {
+        Random random = new Random(13);
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 32);
+        for (int i = 0; i < 10; i++) {
+            index.upsert("video-" + i, randomVector(random));
+        }
+        float[] query = randomVector(random);
+        
+        assertTrue(index.exactSearch(query, 0).isEmpty());
+        assertTrue(index.exactSearch(query, -1).isEmpty());
+        assertTrue(index.search(query, 0, 32).isEmpty());
+    }
+    
+    @Test
+    void compact_ShouldDropTombstonesAndKeepLiveVectors() {
+        Random random = new Random(17);
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 32);
+        for (int i = 0; i < 200; i++) {
+            index.upsert("video-" + i, randomVector(random));
+        }
+        float[] target = randomVector(random);
+        index.upsert("video-7", target);
+        for (int i = 100; i < 200; i++) {
+            index.remove("video-" + i);
+        }
+        assertEquals(101.0 / 201, index.tombstoneRatio(), 1e-9);
+        
+        HnswIndex compacted = index.compact();
+        
+        assertEquals(0.0, compacted.tombstoneRatio());
+        assertEquals(100, compacted.size());
+        assertFalse(compacted.contains("video-150"));
+        assertEquals("video-7", compacted.search(target, 1, 32).get(0).id());
+        assertEquals(index.exactSearch(target, 10), compacted.exactSearch(target, 10));
+    }
+    
+    @Test
+    void snapshot_ShouldRoundTrip(@TempDir Path dir) throws Exception {
+        Random random = new Random(13);
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 32);
+        for (int i = 0; i < 200; i++) {
+            index.upsert("video-" + i, randomVector(random));
+        }
+        index.remove("video-0");
+        float[] query = randomVector(random);
+        
+        Path snapshot = dir.resolve("videos.hnsw");
+        index.saveSnapshot(snapshot);
+        HnswIndex loaded = HnswIndex.loadSnapshot(snapshot);
+        
+        assertEquals(index.size(), loaded.size());
+        assertFalse(loaded.contains("video-0"));
+        assertEquals(index.search(query, 10, 32), loaded.search(query, 10, 32));
+    }
+    
+    private static Set<String> ids(List<HnswIndex.Match> matches) {
+        Set<String> ids = new HashSet<>();
+        matches.forEach(match -> ids.add(match.id()));
+        return ids;
+    }
+    
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
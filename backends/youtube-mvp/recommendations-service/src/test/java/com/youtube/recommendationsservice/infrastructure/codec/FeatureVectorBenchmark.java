@@ -0,0 +1,151 @@
+package com.youtube.recommendationsservice.infrastructure.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtube.recommendationsservice.domain.valueobjects.Embedding;
+import com.youtube.recommendationsservice.domain.valueobjects.FeatureVector;
+import com.youtube.recommendationsservice.shared.math.VectorKernels;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for packed embeddings: Redis encode/decode and scoring.
+ *
+ * <p>{@code json*} benchmarks reproduce the previous representation (boxed {@code List<Double>}
+ * serialized with Jackson); {@code binary*} use {@link FeatureVectorCodec}. Scoring compares a
+ * boxed-list dot product against {@link VectorKernels}.</p>
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="com.youtube.recommendationsservice.infrastructure.codec.FeatureVectorBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class FeatureVectorBenchmark {
+    
+    private static final int CANDIDATES = 500;
+    
+    @Param({"128", "256", "768"})
+    public int dimension;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private FeatureVector vector;
+    private byte[] binary;
+    private LegacyFeatureVector legacy;
+    private byte[] json;
+    
+    private Embedding user;
+    private Embedding[] candidates;
+    private List<Double> boxedUser;
+    private List<List<Double>> boxedCandidates;
+    
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Random random = new Random(42);
+        vector = FeatureVector.builder()
+            .embedding(randomEmbedding(random))
+            .categoricalFeatures(Map.of("category_technology", 1.0))
+            .numericalFeatures(Map.of("views", 125_000.0, "watch_ratio", 0.63))
+            .build();
+        binary = FeatureVectorCodec.encode(vector);
+        legacy = new LegacyFeatureVector(toBoxed(vector.getEmbedding()),
+            vector.getCategoricalFeatures(), vector.getNumericalFeatures());
+        json = objectMapper.writeValueAsBytes(legacy);
+        
+        user = randomEmbedding(random);
+        boxedUser = toBoxed(user);
+        candidates = new Embedding[CANDIDATES];
+        boxedCandidates = new ArrayList<>(CANDIDATES);
+        for (int i = 0; i < CANDIDATES; i++) {
+            candidates[i] = randomEmbedding(random);
+            boxedCandidates.add(toBoxed(candidates[i]));
+        }
+    }
+    
+    @Benchmark
+    public byte[] binaryEncode() {
+        return FeatureVectorCodec.encode(vector);
+    }
+    
+    @Benchmark
+    public FeatureVector binaryDecode() {
+        return FeatureVectorCodec.decode(binary);
+    }
+    
+    @Benchmark
+    public byte[] jsonEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(legacy);
+    }
+    
+    @Benchmark
+    public LegacyFeatureVector jsonDecode() throws Exception {
+        return objectMapper.readValue(json, LegacyFeatureVector.class);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public void scoreBoxedList(Blackhole bh) {
+        for (List<Double> candidate : boxedCandidates) {
+            double dot = 0.0, userNorm = 0.0, candidateNorm = 0.0;
+            for (int i = 0; i < boxedUser.size(); i++) {
+                double u = boxedUser.get(i);
+                double c = candidate.get(i);
+                dot += u * c;
+                userNorm += u * u;
+                candidateNorm += c * c;
+            }
+            bh.consume(dot / Math.sqrt(userNorm * candidateNorm));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(CANDIDATES)
+    public void scorePacked(Blackhole bh) {
+        for (Embedding candidate : candidates) {
+            bh.consume(user.cosine(candidate));
+        }
+    }
+    
+    private Embedding randomEmbedding(Random random) {
+        float[] values = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            values[i] = (float) random.nextGaussian();
+        }
+        return Embedding.wrap(values);
+    }
+    
+    private static List<Double> toBoxed(Embedding embedding) {
+        List<Double> boxed = new ArrayList<>(embedding.dimension());
+        for (int i = 0; i < embedding.dimension(); i++) {
+            boxed.add((double) embedding.get(i));
+        }
+        return boxed;
+    }
+    
+    /**
+     * Shape of the previous JSON-serialized feature vector.
+     */
+    public record LegacyFeatureVector(List<Double> embeddings,
+                                      Map<String, Double> categoricalFeatures,
+                                      Map<String, Double> numericalFeatures) {}
+    
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.include(FeatureVectorBenchmark.class.getSimpleName())
+            .forks(1)
+            .warmupIterations(3)
+            .measurementIterations(5);
+        Options opt = builder.build();
+        
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,65 @@
+package com.youtube.recommendationsservice.infrastructure.codec;
+
+import com.youtube.recommendationsservice.domain.valueobjects.Embedding;
+import com.youtube.recommendationsservice.domain.valueobjects.FeatureVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeatureVectorCodecTest {
+    
+    @Test
+    void encode_ShouldRoundTripEmbeddingAndFeatures() {
+        Map<String, Double> categorical = new LinkedHashMap<>();
+        categorical.put("category:music", 1.0);
+        categorical.put("language:pt-BR", 0.5);
+        Map<String, Double> numerical = new LinkedHashMap<>();
+        numerical.put("watch_time", 1234.5);
+        numerical.put("avg_session_minutes", -0.25);
+        FeatureVector vector = FeatureVector.builder()
+            .embedding(Embedding.of(0.1f, -2.5f, 3.0e-8f, Float.MAX_VALUE, -0.0f))
+            .categoricalFeatures(categorical)
+            .numericalFeatures(numerical)
+            .build();
+        
+        FeatureVector decoded = FeatureVectorCodec.decode(FeatureVectorCodec.encode(vector));
+        
+        assertArrayEquals(vector.getEmbedding().toArray(), decoded.getEmbedding().toArray());
+        assertEquals(categorical, decoded.getCategoricalFeatures());
+        assertEquals(numerical, decoded.getNumericalFeatures());
+        assertEquals(List.copyOf(numerical.keySet()), List.copyOf(decoded.getNumericalFeatures().keySet()));
+    }
+    
+    @Test
+    void encode_WithoutEmbeddingOrFeatures_ShouldDecodeToEmpty() {
+        FeatureVector vector = FeatureVector.builder().build();
+        
+        FeatureVector decoded = FeatureVectorCodec.decode(FeatureVectorCodec.encode(vector));
+        
+        assertTrue(decoded.getEmbedding().isEmpty());
+        assertTrue(decoded.getCategoricalFeatures().isEmpty());
+        assertTrue(decoded.getNumericalFeatures().isEmpty());
+    }
+    
+    @Test
+    void encodeEmbedding_ShouldMatchFloat4SendLayout() {
+        byte[] bytes = FeatureVectorCodec.encodeEmbedding(Embedding.of(1.0f, -2.0f));
+        
+        // Big-endian IEEE-754: 1.0f = 3F800000, -2.0f = C0000000
+        assertArrayEquals(new byte[] {0x3F, (byte) 0x80, 0, 0, (byte) 0xC0, 0, 0, 0}, bytes);
+        assertArrayEquals(new float[] {1.0f, -2.0f}, FeatureVectorCodec.decodeEmbedding(bytes).toArray());
+    }
+    
+    @Test
+    void decode_ShouldRejectUnknownVersionAndTruncatedEmbedding() {
+        byte[] encoded = FeatureVectorCodec.encode(FeatureVector.builder().embedding(Embedding.of(1f)).build());
+        encoded[0] = (byte) (FeatureVectorCodec.VERSION + 1);
+        
+        assertThrows(IllegalArgumentException.class, () -> FeatureVectorCodec.decode(encoded));
+        assertThrows(IllegalArgumentException.class, () -> FeatureVectorCodec.decodeEmbedding(new byte[6]));
+    }
+}
@@ -0,0 +1,62 @@
+package com.youtube.recommendationsservice.infrastructure.services;
+
+import com.youtube.recommendationsservice.domain.entities.RecommendedItem;
+import com.youtube.recommendationsservice.domain.valueobjects.Embedding;
+import com.youtube.recommendationsservice.domain.valueobjects.RecommendationScore;
+import com.youtube.recommendationsservice.domain.valueobjects.VideoId;
+import com.youtube.recommendationsservice.infrastructure.config.DiversityProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryDiversityServiceTest {
+    
+    @Test
+    void applyDiversityConstraints_ShouldCapCategoriesAndKeepRankingOrder() {
+        CategoryDiversityService service = new CategoryDiversityService(new DiversityProperties());
+        List<RecommendedItem> ranked = List.of(
+            item("v1", 0.9, "music", 1f, 0f),
+            item("v2", 0.8, "music", 1f, 0f),
+            item("v3", 0.7, "music", 1f, 0f),
+            item("v4", 0.6, "news", 0f, 1f),
+            item("v5", 0.5, "music", 1f, 0f));
+        
+        List<RecommendedItem> diversified = service.applyDiversityConstraints(ranked, 2);
+        
+        assertEquals(List.of("v1", "v2", "v4"), ids(diversified));
+        assertEquals(diversified, service.applyDiversityConstraints(ranked, 2));
+    }
+    
+    @Test
+    void applyDiversityConstraints_WithMmrShouldPromoteDissimilarItems() {
+        DiversityProperties properties = new DiversityProperties();
+        properties.setMmrEnabled(true);
+        properties.setMmrLambda(0.5);
+        CategoryDiversityService service = new CategoryDiversityService(properties);
+        List<RecommendedItem> ranked = List.of(
+            item("v1", 0.9, "music", 1f, 0f),
+            item("v2", 0.85, "music", 1f, 0f),
+            item("v3", 0.8, "news", 0f, 1f));
+        
+        List<RecommendedItem> diversified = service.applyDiversityConstraints(ranked, 10);
+        
+        assertEquals(List.of("v1", "v3", "v2"), ids(diversified));
+    }
+    
+    private static RecommendedItem item(String id, double score, String category, float... embedding) {
+        return RecommendedItem.builder()
+            .videoId(VideoId.from(id))
+            .score(RecommendationScore.of(score))
+            .reason("test")
+            .metadata(Map.of("category", category))
+            .embedding(Embedding.of(embedding))
+            .build();
+    }
+    
+    private static List<String> ids(List<RecommendedItem> items) {
+        return items.stream().map(item -> item.getVideoId().getValue()).toList();
+    }
+}
@@ -0,0 +1,131 @@
+package com.youtube.recommendationsservice.infrastructure.services;
+
+import com.youtube.recommendationsservice.domain.entities.RecommendedItem;
+import com.youtube.recommendationsservice.domain.valueobjects.Embedding;
+import com.youtube.recommendationsservice.domain.valueobjects.RecommendationScore;
+import com.youtube.recommendationsservice.domain.valueobjects.VideoId;
+import com.youtube.recommendationsservice.infrastructure.config.DiversityProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JMH benchmark for {@link CategoryDiversityService}: the one-pass category cap versus the
+ * previous group/shuffle/sort implementation on large ranked lists.
+ *
+ * <p>{@code mmr} runs the optional embedding re-ranking on the first {@value #MMR_POOL} items
+ * only, which is the pool size the home use case produces; MMR is quadratic and is not meant
+ * for the full list.</p>
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="com.youtube.recommendationsservice.infrastructure.services.DiversityBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DiversityBenchmark {
+    
+    private static final int MMR_POOL = 300;
+    private static final int EMBEDDING_DIMENSION = 128;
+    private static final String[] CATEGORIES = {
+        "music", "gaming", "news", "education", "sports", "comedy", "film", "science"
+    };
+    
+    @Param({"1000", "10000", "100000"})
+    public int itemCount;
+    
+    private CategoryDiversityService cappedOnly;
+    private CategoryDiversityService withMmr;
+    private List<RecommendedItem> items;
+    private List<RecommendedItem> mmrPool;
+    private int maxFromSameCategory;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        cappedOnly = new CategoryDiversityService(new DiversityProperties());
+        DiversityProperties mmrProperties = new DiversityProperties();
+        mmrProperties.setMmrEnabled(true);
+        withMmr = new CategoryDiversityService(mmrProperties);
+        
+        Random random = new Random(42);
+        Instant now = Instant.now();
+        items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            float[] embedding = new float[EMBEDDING_DIMENSION];
+            for (int d = 0; d < EMBEDDING_DIMENSION; d++) {
+                embedding[d] = (float) random.nextGaussian();
+            }
+            items.add(RecommendedItem.builder()
+                .videoId(VideoId.from("video-" + i))
+                // Ranked input: scores descend with position
+                .score(RecommendationScore.of(1.0 - (double) i / itemCount))
+                .reason("Similar content you might enjoy")
+                .recommendedAt(now)
+                .metadata(Map.of(
+                    "category", CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    "title", "Video " + i))
+                .embedding(Embedding.wrap(embedding))
+                .build());
+        }
+        mmrPool = items.subList(0, Math.min(MMR_POOL, itemCount));
+        maxFromSameCategory = itemCount / 3;
+    }
+    
+    @Benchmark
+    public List<RecommendedItem> onePass() {
+        return cappedOnly.applyDiversityConstraints(items, maxFromSameCategory);
+    }
+    
+    @Benchmark
+    public List<RecommendedItem> mmr() {
+        return withMmr.applyDiversityConstraints(mmrPool, MMR_POOL / 3);
+    }
+    
+    /**
+     * Previous implementation: unused grouping, shuffle, two metadata lookups per item and a
+     * final re-sort.
+     */
+    @Benchmark
+    public List<RecommendedItem> shuffleThenSort() {
+        Map<String, List<RecommendedItem>> byCategory = items.stream()
+            .collect(Collectors.groupingBy(item ->
+                item.getMetadata().getOrDefault("category", "unknown").toString()
+            ));
+        
+        List<RecommendedItem> diversified = new ArrayList<>();
+        Map<String, Integer> categoryCount = new HashMap<>();
+        
+        List<RecommendedItem> allItems = new ArrayList<>(items);
+        Collections.shuffle(allItems);
+        
+        for (RecommendedItem item : allItems) {
+            String category = item.getMetadata().getOrDefault("category", "unknown").toString();
+            categoryCount.putIfAbsent(category, 0);
+            
+            if (categoryCount.get(category) < maxFromSameCategory) {
+                diversified.add(item);
+                categoryCount.put(category, categoryCount.get(category) + 1);
+            }
+        }
+        
+        diversified.sort((a, b) -> Double.compare(b.getScore().getValue(), a.getScore().getValue()));
+        return byCategory.isEmpty() ? List.of() : diversified;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(DiversityBenchmark.class.getSimpleName())
+            .forks(1)
+            .warmupIterations(3)
+            .measurementIterations(5)
+            .build();
+        
+        new Runner(opt).run();
+    }
+}
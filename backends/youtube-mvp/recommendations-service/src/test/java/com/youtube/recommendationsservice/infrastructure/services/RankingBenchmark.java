@@ -0,0 +1,116 @@
+package com.youtube.recommendationsservice.infrastructure.services;
+
+import com.youtube.recommendationsservice.domain.entities.RecommendedItem;
+import com.youtube.recommendationsservice.domain.entities.VideoCandidate;
+import com.youtube.recommendationsservice.domain.services.ScoringFunction;
+import com.youtube.recommendationsservice.domain.valueobjects.FeatureVector;
+import com.youtube.recommendationsservice.domain.valueobjects.RecommendationContext;
+import com.youtube.recommendationsservice.domain.valueobjects.RecommendationScore;
+import com.youtube.recommendationsservice.domain.valueobjects.UserId;
+import com.youtube.recommendationsservice.domain.valueobjects.VideoId;
+import com.youtube.recommendationsservice.infrastructure.config.RankingProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JMH benchmark for {@link HybridRankingService}: top-K selection over primitive scores versus
+ * the previous approach of building a {@link RecommendedItem} per candidate and fully sorting.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass="com.youtube.recommendationsservice.infrastructure.services.RankingBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RankingBenchmark {
+    
+    private static final String[] CATEGORIES = {"music", "gaming", "news", "education", "sports"};
+    
+    @Param({"1000", "10000", "100000"})
+    public int candidateCount;
+    
+    @Param({"60"})
+    public int limit;
+    
+    private final UserId userId = UserId.from("user123");
+    private final RecommendationContext context = RecommendationContext.defaultContext();
+    
+    private HybridRankingService rankingService;
+    private ScoringFunction scoringFunction;
+    private List<VideoCandidate> candidates;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        RankingProperties properties = new RankingProperties();
+        rankingService = new HybridRankingService(new ScoringFunctionRegistry(properties));
+        scoringFunction = new WeightedScoringFunction("v1", new RankingProperties.Weights());
+        
+        Random random = new Random(42);
+        Instant now = Instant.now();
+        candidates = new ArrayList<>(candidateCount);
+        for (int i = 0; i < candidateCount; i++) {
+            candidates.add(VideoCandidate.builder()
+                .videoId(VideoId.from("video-" + i))
+                .title("Video " + i)
+                .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                .tags(List.of())
+                .publishedAt(now.minusSeconds(random.nextInt(90 * 86_400)))
+                .features(FeatureVector.empty())
+                .metadata(Map.of(
+                    "views", random.nextInt(2_000_000),
+                    "language", random.nextBoolean() ? "en" : "es"))
+                .build());
+        }
+    }
+    
+    @Benchmark
+    public List<RecommendedItem> topK() {
+        return rankingService.rank(candidates, userId, context, limit);
+    }
+    
+    /**
+     * Previous implementation: one item, metadata map and clock read per candidate, then a full
+     * sort on boxed scores before the caller truncates.
+     */
+    @Benchmark
+    public List<RecommendedItem> fullSort() {
+        return candidates.stream()
+            .map(candidate -> {
+                double score = scoringFunction.score(candidate, context, Instant.now().toEpochMilli());
+                return RecommendedItem.builder()
+                    .videoId(candidate.getVideoId())
+                    .score(RecommendationScore.of(score))
+                    .reason(score > 0.6 ? "Trending in your area" : "Similar content you might enjoy")
+                    .recommendedAt(Instant.now())
+                    .metadata(Map.of(
+                        "category", candidate.getCategory(),
+                        "title", candidate.getTitle()
+                    ))
+                    .build();
+            })
+            .sorted((a, b) -> Double.valueOf(b.getScore().getValue()).compareTo(a.getScore().getValue()))
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(RankingBenchmark.class.getSimpleName())
+            .forks(1)
+            .warmupIterations(3)
+            .measurementIterations(5)
+            .build();
+        
+        new Runner(opt).run();
+    }
+}
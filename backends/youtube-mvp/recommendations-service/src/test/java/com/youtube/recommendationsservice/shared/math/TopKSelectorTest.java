@@ -0,0 +1,70 @@
+package com.youtube.recommendationsservice.shared.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSelectorTest {
+    
+    @Test
+    void select_ShouldReturnBestScoresBestFirst() {
+        double[] scores = {0.2, 0.9, 0.1, 0.7, 0.5};
+        
+        assertArrayEquals(new int[] {1, 3, 4}, TopKSelector.select(scores, scores.length, 3));
+    }
+    
+    @Test
+    void select_WithTies_ShouldPreferLowerIndex() {
+        double[] scores = {0.5, 0.8, 0.5, 0.8, 0.5};
+        
+        assertArrayEquals(new int[] {1, 3, 0}, TopKSelector.select(scores, scores.length, 3));
+        assertArrayEquals(new int[] {1, 3, 0, 2, 4}, TopKSelector.select(scores, scores.length, 5));
+    }
+    
+    @Test
+    void select_WithKGreaterThanLength_ShouldReturnAllSorted() {
+        double[] scores = {0.3, 0.1, 0.4};
+        
+        assertArrayEquals(new int[] {2, 0, 1}, TopKSelector.select(scores, scores.length, 10));
+    }
+    
+    @Test
+    void select_ShouldOnlyConsiderFirstLengthScores() {
+        double[] scores = {0.3, 0.1, 0.4, 0.99};
+        
+        assertArrayEquals(new int[] {2, 0}, TopKSelector.select(scores, 3, 2));
+    }
+    
+    @Test
+    void select_WithNothingToSelect_ShouldReturnEmpty() {
+        assertEquals(0, TopKSelector.select(new double[] {0.5}, 1, 0).length);
+        assertEquals(0, TopKSelector.select(new double[0], 0, 5).length);
+    }
+    
+    @Test
+    void select_ShouldMatchStableDescendingSort() {
+        Random random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            int length = 1 + random.nextInt(200);
+            int k = 1 + random.nextInt(length + 10);
+            // Few distinct values, so ties are common
+            double[] scores = new double[length];
+            for (int i = 0; i < length; i++) {
+                scores[i] = random.nextInt(10) / 10.0;
+            }
+            
+            int[] expected = IntStream.range(0, length)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+            
+            assertArrayEquals(expected, TopKSelector.select(scores, length, k));
+        }
+    }
+}
@@ -10,5 +10,6 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class IndexRebuildRequest {
+    /** Discard the checkpoint of an interrupted rebuild and start over instead of resuming. */
     private Boolean forceRebuild = false;
 }
@@ -0,0 +1,27 @@
+package com.youtube.mvp.search.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexRebuildResponse {
+    private String state;
+    private String targetIndex;
+    private String activeIndex;
+    private Boolean resumed;
+    private Long documentsIndexed;
+    private Long pagesRead;
+    private Double documentsPerSecond;
+    private Integer currentBatchSize;
+    private Long throttledRequests;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -1,8 +1,10 @@
 package com.youtube.mvp.search.application.mapper;
 
+import com.youtube.mvp.search.application.dto.IndexRebuildResponse;
 import com.youtube.mvp.search.application.dto.SearchRequest;
 import com.youtube.mvp.search.application.dto.SearchResponse;
 import com.youtube.mvp.search.application.dto.SuggestionResponse;
+import com.youtube.mvp.search.domain.model.IndexRebuildProgress;
 import com.youtube.mvp.search.domain.model.SearchDocument;
 import com.youtube.mvp.search.domain.model.SearchResult;
 import com.youtube.mvp.search.domain.model.Suggestion;
@@ -50,4 +52,21 @@ public interface SearchMapper {
                 .suggestions(items)
                 .build();
     }
+    
+    default IndexRebuildResponse toRebuildResponse(IndexRebuildProgress progress) {
+        return IndexRebuildResponse.builder()
+                .state(progress.getState() != null ? progress.getState().name() : null)
+                .targetIndex(progress.getTargetIndex())
+                .activeIndex(progress.getActiveIndex())
+                .resumed(progress.getResumed())
+                .documentsIndexed(progress.getDocumentsIndexed())
+                .pagesRead(progress.getPagesRead())
+                .documentsPerSecond(progress.getDocumentsPerSecond())
+                .currentBatchSize(progress.getCurrentBatchSize())
+                .throttledRequests(progress.getThrottledRequests())
+                .startedAt(progress.getStartedAt())
+                .finishedAt(progress.getFinishedAt())
+                .error(progress.getError())
+                .build();
+    }
 }
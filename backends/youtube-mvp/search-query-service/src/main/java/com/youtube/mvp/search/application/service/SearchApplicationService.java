@@ -1,9 +1,12 @@
 package com.youtube.mvp.search.application.service;
 
+import com.youtube.mvp.search.application.dto.IndexRebuildRequest;
+import com.youtube.mvp.search.application.dto.IndexRebuildResponse;
 import com.youtube.mvp.search.application.dto.SearchRequest;
 import com.youtube.mvp.search.application.dto.SearchResponse;
 import com.youtube.mvp.search.application.dto.SuggestionRequest;
 import com.youtube.mvp.search.application.dto.SuggestionResponse;
+import com.youtube.mvp.search.application.mapper.SearchMapper;
 import com.youtube.mvp.search.domain.model.SearchDocument;
 import com.youtube.mvp.search.domain.model.SearchFilter;
 import com.youtube.mvp.search.domain.model.SearchResult;
@@ -15,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -79,12 +83,35 @@ public class SearchApplicationService {
     }
     
     /**
-     * Triggers index rebuild.
+     * Applies a batch of coalesced index updates from messaging.
+     *
+     * @return videoIds of the upserts the index rejected
      */
     @Transactional
-    public void rebuildIndex() {
-        log.info("Starting index rebuild");
-        searchService.rebuildIndex();
-        log.info("Index rebuild completed");
+    public Set<String> applyIndexUpdates(List<SearchDocument> upserts, List<String> deletedVideoIds) {
+        log.debug("Applying index updates: {} upserts, {} deletes", upserts.size(), deletedVideoIds.size());
+        
+        if (!deletedVideoIds.isEmpty()) {
+            searchService.deleteDocuments(deletedVideoIds);
+        }
+        return upserts.isEmpty() ? Set.of() : searchService.upsertDocuments(upserts);
+    }
+    
+    /**
+     * Starts an index rebuild, or reports on the one already running.
+     */
+    @Transactional
+    public IndexRebuildResponse rebuildIndex(IndexRebuildRequest request) {
+        boolean forceRestart = request != null && Boolean.TRUE.equals(request.getForceRebuild());
+        log.info("Starting index rebuild, forceRestart: {}", forceRestart);
+        return searchMapper.toRebuildResponse(searchService.rebuildIndex(forceRestart));
+    }
+    
+    /**
+     * Reports progress and throughput of the current or last index rebuild.
+     */
+    @Transactional(readOnly = true)
+    public IndexRebuildResponse getRebuildStatus() {
+        return searchMapper.toRebuildResponse(searchService.getRebuildProgress());
     }
 }
@@ -0,0 +1,33 @@
+package com.youtube.mvp.search.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Value object describing the state of a search index rebuild.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexRebuildProgress {
+    
+    public enum State { IDLE, RUNNING, COMPLETED, FAILED }
+    
+    private State state;
+    private String targetIndex;
+    private String activeIndex;
+    private Boolean resumed;
+    private Long documentsIndexed;
+    private Long pagesRead;
+    private Double documentsPerSecond;
+    private Integer currentBatchSize;
+    private Long throttledRequests;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -1,11 +1,13 @@
 package com.youtube.mvp.search.domain.service;
 
+import com.youtube.mvp.search.domain.model.IndexRebuildProgress;
 import com.youtube.mvp.search.domain.model.SearchDocument;
 import com.youtube.mvp.search.domain.model.SearchFilter;
 import com.youtube.mvp.search.domain.model.SearchResult;
 import com.youtube.mvp.search.domain.model.Suggestion;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Domain service interface for search operations.
@@ -32,7 +34,25 @@ public interface SearchService {
     void deleteDocument(String videoId);
     
     /**
-     * Rebuilds the entire search index.
+     * Upserts a batch of documents in one request.
+     *
+     * @return videoIds of the documents the index rejected
      */
-    void rebuildIndex();
+    Set<String> upsertDocuments(List<SearchDocument> documents);
+    
+    /**
+     * Deletes a batch of documents in one request.
+     */
+    void deleteDocuments(List<String> videoIds);
+    
+    /**
+     * Starts rebuilding the entire search index in the background, resuming an interrupted
+     * rebuild unless {@code forceRestart}. Returns the progress of the running rebuild.
+     */
+    IndexRebuildProgress rebuildIndex(boolean forceRestart);
+    
+    /**
+     * Progress of the current or last index rebuild.
+     */
+    IndexRebuildProgress getRebuildProgress();
 }
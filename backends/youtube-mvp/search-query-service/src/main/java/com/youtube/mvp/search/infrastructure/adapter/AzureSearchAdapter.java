@@ -4,13 +4,14 @@ import com.azure.search.documents.models.SearchOptions;
 import com.azure.search.documents.models.SearchResults;
 import com.azure.search.documents.models.SuggestOptions;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtube.mvp.search.domain.model.IndexRebuildProgress;
 import com.youtube.mvp.search.domain.model.SearchDocument;
 import com.youtube.mvp.search.domain.model.SearchFilter;
 import com.youtube.mvp.search.domain.model.SearchResult;
 import com.youtube.mvp.search.domain.model.Suggestion;
 import com.youtube.mvp.search.domain.service.SearchService;
 import com.youtube.mvp.search.infrastructure.client.AzureSearchClient;
-import com.youtube.mvp.search.infrastructure.repository.CosmosVideoRepository;
+import com.youtube.mvp.search.infrastructure.rebuild.IndexRebuildPipeline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -27,7 +28,7 @@ import java.util.stream.Collectors;
 public class AzureSearchAdapter implements SearchService {
     
     private final AzureSearchClient azureSearchClient;
-    private final CosmosVideoRepository cosmosVideoRepository;
+    private final IndexRebuildPipeline indexRebuildPipeline;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     @Override
@@ -102,21 +103,37 @@ public class AzureSearchAdapter implements SearchService {
     }
     
     @Override
-    public void rebuildIndex() {
-        log.info("Starting index rebuild...");
-        // This would typically fetch all videos from Cosmos and re-index
-        // For production, this should be done in batches with pagination
-        List<Map<String, Object>> allVideos = cosmosVideoRepository.findAllVideos();
-        
-        int batchSize = 100;
-        for (int i = 0; i < allVideos.size(); i += batchSize) {
-            List<Map<String, Object>> batch = allVideos.subList(i, 
-                    Math.min(i + batchSize, allVideos.size()));
-            azureSearchClient.uploadDocuments(batch);
-            log.info("Indexed batch: {}/{}", i + batch.size(), allVideos.size());
+    public Set<String> upsertDocuments(List<SearchDocument> documents) {
+        List<Map<String, Object>> docMaps = documents.stream()
+                .map(this::documentToMap)
+                .collect(Collectors.toList());
+        List<String> failedKeys = azureSearchClient.uploadDocuments(docMaps);
+        log.debug("Upserted {} documents, {} rejected", documents.size(), failedKeys.size());
+        if (failedKeys.isEmpty()) {
+            return Collections.emptySet();
         }
-        
-        log.info("Index rebuild completed");
+        // documentId is the index key; report the rejected documents by videoId
+        Set<String> failed = new HashSet<>(failedKeys);
+        return documents.stream()
+                .filter(document -> failed.contains(document.getDocumentId()))
+                .map(SearchDocument::getVideoId)
+                .collect(Collectors.toSet());
+    }
+    
+    @Override
+    public void deleteDocuments(List<String> videoIds) {
+        azureSearchClient.deleteDocuments(videoIds);
+        log.debug("Deleted {} documents", videoIds.size());
+    }
+    
+    @Override
+    public IndexRebuildProgress rebuildIndex(boolean forceRestart) {
+        return indexRebuildPipeline.start(forceRestart);
+    }
+    
+    @Override
+    public IndexRebuildProgress getRebuildProgress() {
+        return indexRebuildPipeline.getProgress();
     }
     
     private String buildFilterExpression(SearchFilter filter) {
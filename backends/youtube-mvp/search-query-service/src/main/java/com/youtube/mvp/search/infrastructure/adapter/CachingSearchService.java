@@ -0,0 +1,318 @@
+package com.youtube.mvp.search.infrastructure.adapter;
+
+import com.youtube.mvp.search.domain.model.IndexRebuildProgress;
+import com.youtube.mvp.search.domain.model.SearchDocument;
+import com.youtube.mvp.search.domain.model.SearchFilter;
+import com.youtube.mvp.search.domain.model.SearchResult;
+import com.youtube.mvp.search.domain.model.Suggestion;
+import com.youtube.mvp.search.domain.service.SearchService;
+import com.youtube.mvp.search.infrastructure.configuration.SearchCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * {@link SearchService} decorator caching search result pages in process.
+ *
+ * <p>Entries are keyed on the normalised query (trimmed, lower-cased, whitespace collapsed,
+ * empty meaning {@code *}), the filter, page, page size and sort. Within {@code ttl} a page is
+ * served from memory; for a further {@code staleWhileRevalidate} it is still served while one
+ * background refresh runs. Concurrent misses for the same key share a single backend call.
+ * Normalisation applies to the key only: the backend is sent the query text as the caller
+ * typed it, so its own analysers see the original casing and spacing.</p>
+ *
+ * <p>Index updates passing through the upsert and delete methods evict
+ * every cached page containing that video. Pages a changed video should newly appear in, and
+ * results from a newly swapped-in index, are picked up when their TTL expires.</p>
+ *
+ * <p>Metrics: {@code search.cache.requests} ({@code result=hit|stale|miss}),
+ * {@code search.cache.coalesced} (misses that joined an in-flight call),
+ * {@code search.backend.requests} and {@code search.backend.requests.saved}.</p>
+ */
+@Slf4j
+public class CachingSearchService implements SearchService {
+    
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private final SearchService delegate;
+    private final SearchCacheProperties properties;
+    private final Executor refreshExecutor;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<CacheKey, Entry> entries;
+    private final Map<String, Set<CacheKey>> keysByVideoId = new HashMap<>();
+    private final ConcurrentHashMap<CacheKey, CompletableFuture<SearchResult>> inFlight = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter backendRequests;
+    private final Counter backendRequestsSaved;
+    
+    public CachingSearchService(SearchService delegate, SearchCacheProperties properties,
+                                Executor refreshExecutor, MeterRegistry meterRegistry) {
+        this(delegate, properties, refreshExecutor, meterRegistry, System::nanoTime);
+    }
+    
+    CachingSearchService(SearchService delegate, SearchCacheProperties properties,
+                         Executor refreshExecutor, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.refreshExecutor = refreshExecutor;
+        this.nanoClock = nanoClock;
+        int maxEntries = properties.getMaxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest) {
+                if (size() > maxEntries) {
+                    unindex(eldest.getKey(), eldest.getValue().result());
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = Counter.builder("search.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.staleHits = Counter.builder("search.cache.requests").tag("result", "stale").register(meterRegistry);
+        this.misses = Counter.builder("search.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.coalesced = Counter.builder("search.cache.coalesced")
+                .description("Cache misses served by joining an identical in-flight backend call")
+                .register(meterRegistry);
+        this.backendRequests = Counter.builder("search.backend.requests")
+                .description("Search calls sent to Azure Cognitive Search")
+                .register(meterRegistry);
+        this.backendRequestsSaved = Counter.builder("search.backend.requests.saved")
+                .description("Search calls answered without a backend call of their own")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public SearchResult search(String query, SearchFilter filter, Integer page, Integer pageSize, String sortBy) {
+        if (!properties.isEnabled()) {
+            backendRequests.increment();
+            return delegate.search(query, filter, page, pageSize, sortBy);
+        }
+        
+        CacheKey key = CacheKey.of(query, filter, page, pageSize, sortBy);
+        long now = nanoClock.getAsLong();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        
+        if (entry != null) {
+            long age = now - entry.loadedAtNanos();
+            if (age < properties.getTtl().toNanos()) {
+                hits.increment();
+                backendRequestsSaved.increment();
+                return entry.result();
+            }
+            if (age < properties.getTtl().plus(properties.getStaleWhileRevalidate()).toNanos()) {
+                staleHits.increment();
+                backendRequestsSaved.increment();
+                refreshInBackground(key, query, filter);
+                return entry.result();
+            }
+        }
+        
+        misses.increment();
+        return join(load(key, query, filter, null));
+    }
+    
+    @Override
+    public List<Suggestion> suggest(String prefix, Integer maxResults) {
+        return delegate.suggest(prefix, maxResults);
+    }
+    
+    @Override
+    public void upsertDocument(SearchDocument document) {
+        delegate.upsertDocument(document);
+        invalidateVideo(document.getVideoId());
+    }
+    
+    @Override
+    public void deleteDocument(String videoId) {
+        delegate.deleteDocument(videoId);
+        invalidateVideo(videoId);
+    }
+    
+    @Override
+    public Set<String> upsertDocuments(List<SearchDocument> documents) {
+        Set<String> failed = delegate.upsertDocuments(documents);
+        documents.forEach(document -> invalidateVideo(document.getVideoId()));
+        return failed;
+    }
+    
+    @Override
+    public void deleteDocuments(List<String> videoIds) {
+        delegate.deleteDocuments(videoIds);
+        videoIds.forEach(this::invalidateVideo);
+    }
+    
+    @Override
+    public IndexRebuildProgress rebuildIndex(boolean forceRestart) {
+        return delegate.rebuildIndex(forceRestart);
+    }
+    
+    @Override
+    public IndexRebuildProgress getRebuildProgress() {
+        return delegate.getRebuildProgress();
+    }
+    
+    /**
+     * Evicts every cached page that contains {@code videoId}.
+     */
+    public void invalidateVideo(String videoId) {
+        if (videoId == null) {
+            return;
+        }
+        int evicted = 0;
+        synchronized (entries) {
+            Set<CacheKey> keys = keysByVideoId.remove(videoId);
+            if (keys != null) {
+                for (CacheKey key : keys) {
+                    Entry removed = entries.remove(key);
+                    if (removed != null) {
+                        unindex(key, removed.result());
+                        evicted++;
+                    }
+                }
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} cached search pages containing videoId={}", evicted, videoId);
+        }
+    }
+    
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            keysByVideoId.clear();
+        }
+    }
+    
+    private void refreshInBackground(CacheKey key, String query, SearchFilter filter) {
+        if (inFlight.containsKey(key)) {
+            return;
+        }
+        load(key, query, filter, refreshExecutor).exceptionally(e -> {
+            log.warn("Background refresh of search query '{}' failed, serving stale results: {}",
+                    key.query(), e.getMessage());
+            return null;
+        });
+    }
+    
+    /**
+     * Starts a backend call for {@code key} unless one is already in flight, in which case the
+     * caller joins it. The backend gets the caller's {@code query} as typed; only the cache key is
+     * normalised. With a null executor the call runs on the calling thread.
+     */
+    private CompletableFuture<SearchResult> load(CacheKey key, String query, SearchFilter filter, Executor executor) {
+        CompletableFuture<SearchResult> created = new CompletableFuture<>();
+        CompletableFuture<SearchResult> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            if (executor == null) {
+                coalesced.increment();
+                backendRequestsSaved.increment();
+            }
+            return existing;
+        }
+        
+        Runnable call = () -> {
+            try {
+                backendRequests.increment();
+                SearchResult result = delegate.search(query, filter, key.page(), key.pageSize(), key.sortBy());
+                store(key, result);
+                created.complete(result);
+            } catch (Throwable e) {
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, created);
+            }
+        };
+        if (executor == null) {
+            call.run();
+        } else {
+            try {
+                executor.execute(call);
+            } catch (RuntimeException e) {
+                inFlight.remove(key, created);
+                created.completeExceptionally(e);
+            }
+        }
+        return created;
+    }
+    
+    private void store(CacheKey key, SearchResult result) {
+        Entry entry = new Entry(result, nanoClock.getAsLong());
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                unindex(key, previous.result());
+            }
+            if (result.getDocuments() != null) {
+                for (SearchDocument document : result.getDocuments()) {
+                    keysByVideoId.computeIfAbsent(document.getVideoId(), id -> new HashSet<>(4)).add(key);
+                }
+            }
+        }
+    }
+    
+    /** Caller holds the lock on {@code entries}. */
+    private void unindex(CacheKey key, SearchResult result) {
+        if (result.getDocuments() == null) {
+            return;
+        }
+        for (SearchDocument document : result.getDocuments()) {
+            Set<CacheKey> keys = keysByVideoId.get(document.getVideoId());
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByVideoId.remove(document.getVideoId());
+            }
+        }
+    }
+    
+    private static SearchResult join(CompletableFuture<SearchResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+    
+    private record Entry(SearchResult result, long loadedAtNanos) {
+    }
+    
+    record CacheKey(String query, String filter, int page, int pageSize, String sortBy) {
+        
+        static CacheKey of(String query, SearchFilter filter, Integer page, Integer pageSize, String sortBy) {
+            return new CacheKey(
+                    normalizeQuery(query),
+                    filter != null ? filter.toString() : "",
+                    page != null ? page : 1,
+                    pageSize != null ? pageSize : 20,
+                    sortBy != null && !sortBy.isBlank() ? sortBy.trim().toLowerCase(Locale.ROOT) : "relevance");
+        }
+        
+        static String normalizeQuery(String query) {
+            if (query == null || query.isBlank()) {
+                return "*";
+            }
+            return WHITESPACE.matcher(query.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        }
+    }
+}
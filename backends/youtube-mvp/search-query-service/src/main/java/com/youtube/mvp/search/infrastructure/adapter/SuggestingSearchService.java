@@ -0,0 +1,88 @@
+package com.youtube.mvp.search.infrastructure.adapter;
+
+import com.youtube.mvp.search.domain.model.IndexRebuildProgress;
+import com.youtube.mvp.search.domain.model.SearchDocument;
+import com.youtube.mvp.search.domain.model.SearchFilter;
+import com.youtube.mvp.search.domain.model.SearchResult;
+import com.youtube.mvp.search.domain.model.Suggestion;
+import com.youtube.mvp.search.domain.service.SearchService;
+import com.youtube.mvp.search.infrastructure.suggest.SuggestionEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link SearchService} decorator answering suggest from the in-process
+ * {@link SuggestionEngine}, falling back to the delegate's remote suggester when the local
+ * index has no answer. Every search query is recorded for the next index rebuild.
+ *
+ * <p>Metrics: {@code search.suggest.requests} tagged {@code source=local|remote}.</p>
+ */
+public class SuggestingSearchService implements SearchService {
+    
+    private final SearchService delegate;
+    private final SuggestionEngine suggestionEngine;
+    private final Counter localSuggestions;
+    private final Counter remoteSuggestions;
+    
+    public SuggestingSearchService(SearchService delegate, SuggestionEngine suggestionEngine,
+                                   MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.suggestionEngine = suggestionEngine;
+        this.localSuggestions = Counter.builder("search.suggest.requests").tag("source", "local").register(meterRegistry);
+        this.remoteSuggestions = Counter.builder("search.suggest.requests").tag("source", "remote").register(meterRegistry);
+    }
+    
+    @Override
+    public SearchResult search(String query, SearchFilter filter, Integer page, Integer pageSize, String sortBy) {
+        SearchResult result = delegate.search(query, filter, page, pageSize, sortBy);
+        // Only first pages, so paging through one search does not inflate its popularity
+        if ((page == null || page == 1) && result.getTotalCount() != null && result.getTotalCount() > 0) {
+            suggestionEngine.recordQuery(query);
+        }
+        return result;
+    }
+    
+    @Override
+    public List<Suggestion> suggest(String prefix, Integer maxResults) {
+        List<Suggestion> local = suggestionEngine.suggest(prefix, maxResults != null ? maxResults : 10);
+        if (local != null) {
+            localSuggestions.increment();
+            return local;
+        }
+        remoteSuggestions.increment();
+        return delegate.suggest(prefix, maxResults);
+    }
+    
+    @Override
+    public void upsertDocument(SearchDocument document) {
+        delegate.upsertDocument(document);
+    }
+    
+    @Override
+    public void deleteDocument(String videoId) {
+        delegate.deleteDocument(videoId);
+    }
+    
+    @Override
+    public Set<String> upsertDocuments(List<SearchDocument> documents) {
+        return delegate.upsertDocuments(documents);
+    }
+    
+    @Override
+    public void deleteDocuments(List<String> videoIds) {
+        delegate.deleteDocuments(videoIds);
+    }
+    
+    @Override
+    public IndexRebuildProgress rebuildIndex(boolean forceRestart) {
+        return delegate.rebuildIndex(forceRestart);
+    }
+    
+    @Override
+    public IndexRebuildProgress getRebuildProgress() {
+        return delegate.getRebuildProgress();
+    }
+}
@@ -5,9 +5,9 @@ import com.azure.core.exceptions.HttpResponseException;
 import com.azure.core.http.rest.Response;
 import com.azure.core.util.Context;
 import com.azure.search.documents.SearchClient;
-import com.azure.search.documents.SearchClientBuilder;
 import com.azure.search.documents.indexes.SearchIndexClient;
 import com.azure.search.documents.indexes.SearchIndexClientBuilder;
+import com.azure.search.documents.models.IndexDocumentsOptions;
 import com.azure.search.documents.models.IndexingResult;
 import com.azure.search.documents.models.SearchOptions;
 import com.azure.search.documents.models.SearchResults;
@@ -17,20 +17,33 @@ import com.azure.search.documents.indexes.models.*;
 import com.azure.search.documents.models.IndexingBatch;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtube.mvp.search.infrastructure.repository.IndexStateRepository;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Azure Cognitive Search client wrapper.
+ *
+ * <p>Queries and updates go to the active index named by {@link IndexStateRepository}, falling
+ * back to {@code azure.search.index-name}. While a rebuild runs, updates are also written to
+ * its target index so that changes made during the rebuild are not lost at the swap; a write
+ * that reaches only one of the two is reported as failed so it is retried.</p>
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class AzureSearchClient {
     
+    private static final Set<Integer> THROTTLED_STATUS_CODES = Set.of(429, 503);
+    
     @Value("${azure.search.endpoint}")
     private String searchEndpoint;
     
@@ -40,45 +53,104 @@ public class AzureSearchClient {
     @Value("${azure.search.index-name}")
     private String indexName;
     
-    private SearchClient searchClient;
+    private final IndexStateRepository indexStateRepository;
+    
     private SearchIndexClient indexClient;
+    private final Map<String, SearchClient> searchClients = new ConcurrentHashMap<>();
+    private volatile String activeIndexName;
+    private volatile String rebuildTargetIndex;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     @PostConstruct
     public void init() {
         AzureKeyCredential credential = new AzureKeyCredential(apiKey);
         
-        this.searchClient = new SearchClientBuilder()
-                .endpoint(searchEndpoint)
-                .credential(credential)
-                .indexName(indexName)
-                .buildClient();
-        
         this.indexClient = new SearchIndexClientBuilder()
                 .endpoint(searchEndpoint)
                 .credential(credential)
                 .buildClient();
         
+        this.activeIndexName = indexName;
+        refreshActiveIndex();
         ensureIndexExists();
     }
     
     public void ensureIndexExists() {
+        String name = activeIndexName;
         try {
-            SearchIndex index = indexClient.getIndex(indexName);
-            log.info("Search index '{}' already exists", indexName);
+            indexClient.getIndex(name);
+            log.info("Search index '{}' already exists", name);
         } catch (HttpResponseException e) {
             if (e.getResponse().getStatusCode() == 404) {
-                createSearchIndex();
+                createIndex(name);
             } else {
                 throw e;
             }
         }
     }
     
-    public void createSearchIndex() {
-        log.info("Creating search index: {}", indexName);
+    /**
+     * Picks up an index swap or rebuild started by another instance.
+     */
+    @Scheduled(fixedDelayString = "${search.rebuild.active-index-refresh-interval:PT30S}",
+            initialDelayString = "${search.rebuild.active-index-refresh-interval:PT30S}")
+    public void refreshActiveIndex() {
+        try {
+            indexStateRepository.findActiveIndex().ifPresent(state -> {
+                if (state.getIndexName() != null && !state.getIndexName().equals(activeIndexName)) {
+                    log.info("Active search index changed from '{}' to '{}'", activeIndexName, state.getIndexName());
+                    activeIndexName = state.getIndexName();
+                }
+                rebuildTargetIndex = state.getRebuildTarget();
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not read the active search index, keeping '{}': {}", activeIndexName, e.getMessage());
+        }
+    }
+    
+    /**
+     * Name of the configured index; rebuilt indexes are named after it.
+     */
+    public String getBaseIndexName() {
+        return indexName;
+    }
+    
+    public String getActiveIndexName() {
+        return activeIndexName;
+    }
+    
+    /**
+     * Starts writing updates to {@code targetIndex} as well as the active index.
+     */
+    public void setRebuildTarget(String targetIndex) {
+        this.rebuildTargetIndex = targetIndex;
+    }
+    
+    /**
+     * Switches queries and updates on this instance to {@code name}, ending any dual writes.
+     */
+    public void activateIndex(String name) {
+        log.info("Switching active search index from '{}' to '{}'", activeIndexName, name);
+        this.activeIndexName = name;
+        this.rebuildTargetIndex = null;
+    }
+    
+    public void deleteIndex(String name) {
+        try {
+            indexClient.deleteIndex(name);
+            searchClients.remove(name);
+            log.info("Deleted search index: {}", name);
+        } catch (HttpResponseException e) {
+            if (e.getResponse().getStatusCode() != 404) {
+                throw e;
+            }
+        }
+    }
+    
+    public void createIndex(String name) {
+        log.info("Creating search index: {}", name);
         
-        SearchIndex index = new SearchIndex(indexName)
+        SearchIndex index = new SearchIndex(name)
                 .setFields(Arrays.asList(
                         new SearchField("documentId", SearchFieldDataType.STRING)
                                 .setKey(true)
@@ -156,18 +228,18 @@ public class AzureSearchClient {
                 .setDefaultScoringProfile("views");
         
         indexClient.createOrUpdateIndex(index);
-        log.info("Search index created: {}", indexName);
+        log.info("Search index created: {}", name);
     }
     
     public SearchResults<Map> search(String query, SearchOptions options) {
         try {
-            return searchClient.search(query, options, Context.NONE);
+            return searchClient(activeIndexName).search(query, options, Context.NONE);
         } catch (HttpResponseException e) {
             if (e.getResponse().getStatusCode() == 429) {
                 log.warn("Rate limit exceeded, retrying after delay");
                 try {
                     Thread.sleep(2000);
-                    return searchClient.search(query, options, Context.NONE);
+                    return searchClient(activeIndexName).search(query, options, Context.NONE);
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     throw new RuntimeException("Retry interrupted", ie);
@@ -178,21 +250,97 @@ public class AzureSearchClient {
     }
     
     public SuggestResult suggest(String query, SuggestOptions options) {
-        return searchClient.suggest(query, options, String.class);
+        return searchClient(activeIndexName).suggest(query, options, String.class);
+    }
+    
+    /**
+     * Uploads {@code documents} to the active index (and the rebuild target, if any).
+     *
+     * <p>A document the rebuild target did not take is reported as failed too, so the caller
+     * retries it on both indexes; otherwise the change would be lost at the swap. Uploads are
+     * idempotent, so repeating the write to the active index is harmless.</p>
+     *
+     * @return keys of the documents the active index or the rebuild target rejected
+     */
+    public List<String> uploadDocuments(List<Map<String, Object>> documents) {
+        Set<String> failed = new LinkedHashSet<>(uploadDocuments(activeIndexName, documents));
+        String target = rebuildTargetIndex;
+        if (target != null && !target.equals(activeIndexName)) {
+            try {
+                failed.addAll(uploadDocuments(target, documents));
+            } catch (RuntimeException e) {
+                if (isIndexNotFound(e)) {
+                    log.warn("Rebuild target '{}' no longer exists, skipping it", target);
+                } else {
+                    log.error("Failed to write {} documents to rebuild target '{}'", documents.size(), target, e);
+                    documents.forEach(document -> failed.add(String.valueOf(document.get("documentId"))));
+                }
+            }
+        }
+        return new ArrayList<>(failed);
     }
     
-    public void uploadDocuments(List<Map<String, Object>> documents) {
+    /**
+     * Uploads {@code documents} to {@code indexName} for a bulk load.
+     *
+     * @return the documents the service throttled individually, to be retried
+     * @throws SearchThrottledException if the whole request was throttled
+     */
+    public List<Map<String, Object>> uploadToIndex(String indexName, List<Map<String, Object>> documents) {
+        IndexingBatch<Map<String, Object>> batch = new IndexingBatch<>();
+        documents.forEach(batch::addUploadActions);
+        
+        List<IndexingResult> results;
+        try {
+            results = searchClient(indexName)
+                    .indexDocumentsWithResponse(batch, new IndexDocumentsOptions().setThrowOnAnyError(false), Context.NONE)
+                    .getValue()
+                    .getResults();
+        } catch (HttpResponseException e) {
+            int status = e.getResponse().getStatusCode();
+            if (THROTTLED_STATUS_CODES.contains(status)) {
+                throw new SearchThrottledException("Upload to '" + indexName + "' throttled with status " + status,
+                        retryAfter(e), e);
+            }
+            throw new RuntimeException("Document upload failed", e);
+        }
+        
+        Map<String, Map<String, Object>> byKey = new HashMap<>();
+        for (Map<String, Object> document : documents) {
+            byKey.put(String.valueOf(document.get("documentId")), document);
+        }
+        List<Map<String, Object>> throttled = new ArrayList<>();
+        for (IndexingResult result : results) {
+            if (result.isSucceeded()) {
+                continue;
+            }
+            if (THROTTLED_STATUS_CODES.contains(result.getStatusCode()) && byKey.containsKey(result.getKey())) {
+                throttled.add(byKey.get(result.getKey()));
+            } else {
+                log.error("Failed to index document: {} - {}", result.getKey(), result.getErrorMessage());
+            }
+        }
+        return throttled;
+    }
+    
+    private List<String> uploadDocuments(String indexName, List<Map<String, Object>> documents) {
         try {
             IndexingBatch<Map<String, Object>> batch = new IndexingBatch<>();
             documents.forEach(batch::addUploadActions);
             
-            List<IndexingResult> results = searchClient.indexDocuments(batch, null, Context.NONE).getResults();
+            List<IndexingResult> results = searchClient(indexName)
+                    .indexDocumentsWithResponse(batch, new IndexDocumentsOptions().setThrowOnAnyError(false), Context.NONE)
+                    .getValue()
+                    .getResults();
             
+            List<String> failed = new ArrayList<>();
             for (IndexingResult result : results) {
                 if (!result.isSucceeded()) {
                     log.error("Failed to index document: {} - {}", result.getKey(), result.getErrorMessage());
+                    failed.add(result.getKey());
                 }
             }
+            return failed;
         } catch (HttpResponseException e) {
             if (e.getResponse().getStatusCode() == 429) {
                 log.warn("Rate limit exceeded during document upload");
@@ -214,10 +362,50 @@ public class AzureSearchClient {
         IndexingBatch<Map<String, Object>> batch = new IndexingBatch<>();
         documents.forEach(batch::addDeleteActions);
         
-        searchClient.indexDocuments(batch, null, Context.NONE);
+        searchClient(activeIndexName).indexDocuments(batch, null, Context.NONE);
+        String target = rebuildTargetIndex;
+        if (target != null && !target.equals(activeIndexName)) {
+            // Let a failure propagate so the delete is retried on both indexes; a document left
+            // in the target would reappear at the swap
+            try {
+                searchClient(target).indexDocuments(batch, null, Context.NONE);
+            } catch (RuntimeException e) {
+                if (!isIndexNotFound(e)) {
+                    throw e;
+                }
+                log.warn("Rebuild target '{}' no longer exists, skipping it", target);
+            }
+        }
     }
     
     public Map<String, Object> documentToMap(Object doc) {
         return objectMapper.convertValue(doc, new TypeReference<Map<String, Object>>() {});
     }
+    
+    private SearchClient searchClient(String name) {
+        return searchClients.computeIfAbsent(name, indexClient::getSearchClient);
+    }
+    
+    /**
+     * True if the index was deleted, e.g. the target of a rebuild discarded on another pod
+     * that this pod has not noticed yet.
+     */
+    private static boolean isIndexNotFound(RuntimeException e) {
+        Throwable cause = e instanceof HttpResponseException ? e : e.getCause();
+        return cause instanceof HttpResponseException http
+                && http.getResponse() != null
+                && http.getResponse().getStatusCode() == 404;
+    }
+    
+    private static Duration retryAfter(HttpResponseException e) {
+        String value = e.getResponse().getHeaderValue("Retry-After");
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package com.youtube.mvp.search.infrastructure.client;
+
+import java.time.Duration;
+
+/**
+ * Azure Cognitive Search rejected a request because the service is busy (HTTP 429 or 503).
+ */
+public class SearchThrottledException extends RuntimeException {
+    
+    private final Duration retryAfter;
+    
+    public SearchThrottledException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+    
+    /**
+     * Delay requested by the service, or {@code null} if it did not send one.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
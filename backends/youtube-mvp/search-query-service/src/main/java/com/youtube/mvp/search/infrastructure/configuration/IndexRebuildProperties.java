@@ -0,0 +1,56 @@
+package com.youtube.mvp.search.infrastructure.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the streaming search index rebuild.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "search.rebuild")
+public class IndexRebuildProperties {
+    
+    /** Videos requested per Cosmos DB page; one page is also one checkpoint step. */
+    private int readerPageSize = 1_000;
+    
+    /** Pages buffered between the reader and the uploaders; bounds rebuild memory. */
+    private int queueCapacity = 8;
+    
+    /** Parallel uploaders writing to the new index. */
+    private int uploaderThreads = 4;
+    
+    /** Documents per upload request at the start; adjusted on throttling. */
+    private int initialBatchSize = 500;
+    
+    private int minBatchSize = 50;
+    
+    /** Azure Cognitive Search accepts at most 1000 documents per request. */
+    private int maxBatchSize = 1_000;
+    
+    /** Batch size growth after each successful upload. */
+    private int batchSizeIncrement = 50;
+    
+    /** Throttled attempts per batch before the rebuild fails (and can be resumed). */
+    private int maxRetries = 10;
+    
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    
+    private Duration maxBackoff = Duration.ofSeconds(30);
+    
+    /** Cosmos DB container holding the active index pointer and rebuild checkpoint. */
+    private String stateContainerName = "search-index-state";
+    
+    /**
+     * How long a pod holds the rebuild lease without renewing it. The lease is renewed after
+     * every page, so this must exceed the time to index one page including throttling back-off;
+     * a rebuild on a pod that dies can be restarted elsewhere once it expires.
+     */
+    private Duration leaseDuration = Duration.ofMinutes(5);
+    
+    /** How often each pod re-reads the active index pointer written by a rebuild on another pod. */
+    private Duration activeIndexRefreshInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,37 @@
+package com.youtube.mvp.search.infrastructure.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the Service Bus consumer applying index update events in batches.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "search.index-updates")
+public class IndexUpdateProperties {
+    
+    /** Messages requested per Service Bus receive call. */
+    private int maxMessagesPerReceive = 100;
+    
+    /** How long to keep collecting after the first message of a batch, so bursts for one video merge. */
+    private Duration coalesceWindow = Duration.ofMillis(500);
+    
+    /** Messages held before a flush regardless of the window; bounds lock time and memory. */
+    private int maxPendingMessages = 2_000;
+    
+    /** Documents per index request; Azure Cognitive Search accepts at most 1000. */
+    private int maxDocumentsPerRequest = 1_000;
+    
+    /** Index requests sent in parallel when a flush spans several requests. */
+    private int flushThreads = 4;
+    
+    /** Wait for the first message of a batch when the queue is idle. */
+    private Duration receiveWait = Duration.ofSeconds(30);
+    
+    /** Videos whose last applied update version is remembered to skip stale redeliveries. */
+    private int appliedVersionsMaxEntries = 100_000;
+}
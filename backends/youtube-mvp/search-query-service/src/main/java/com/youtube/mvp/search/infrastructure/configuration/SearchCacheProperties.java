@@ -0,0 +1,31 @@
+package com.youtube.mvp.search.infrastructure.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the local search result cache in front of Azure Cognitive Search.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "search.cache")
+public class SearchCacheProperties {
+    
+    /** When false every search goes to the backend. */
+    private boolean enabled = true;
+    
+    /** Results younger than this are served without contacting the backend. */
+    private Duration ttl = Duration.ofSeconds(30);
+    
+    /** After the TTL, results are still served for this long while a background refresh runs. */
+    private Duration staleWhileRevalidate = Duration.ofSeconds(60);
+    
+    /** Cached result pages; least recently used pages are evicted beyond this. */
+    private int maxEntries = 10_000;
+    
+    /** Threads running background refreshes of stale entries. */
+    private int refreshThreads = 4;
+}
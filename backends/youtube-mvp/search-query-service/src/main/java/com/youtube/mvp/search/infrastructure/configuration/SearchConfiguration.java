@@ -2,17 +2,88 @@ package com.youtube.mvp.search.infrastructure.configuration;
 
 import com.youtube.mvp.search.domain.service.SearchService;
 import com.youtube.mvp.search.infrastructure.adapter.AzureSearchAdapter;
-import com.youtube.mvp.search.infrastructure.client.AzureSearchClient;
-import com.youtube.mvp.search.infrastructure.repository.CosmosVideoRepository;
+import com.youtube.mvp.search.infrastructure.adapter.CachingSearchService;
+import com.youtube.mvp.search.infrastructure.adapter.SuggestingSearchService;
+import com.youtube.mvp.search.infrastructure.suggest.SuggestionEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
+@EnableScheduling
 public class SearchConfiguration {
     
+    /**
+     * The search service used by the application: Azure Cognitive Search behind the local
+     * result cache, with suggest answered from the in-process index. Queries are recorded for
+     * suggestions before the cache so that cache hits count too.
+     */
     @Bean
-    public SearchService searchService(AzureSearchClient azureSearchClient, 
-                                        CosmosVideoRepository cosmosVideoRepository) {
-        return new AzureSearchAdapter(azureSearchClient, cosmosVideoRepository);
+    @Primary
+    public SearchService searchService(AzureSearchAdapter azureSearchAdapter,
+                                        SearchCacheProperties searchCacheProperties,
+                                        @Qualifier("searchCacheRefreshExecutor") ExecutorService searchCacheRefreshExecutor,
+                                        SuggestionEngine suggestionEngine,
+                                        MeterRegistry meterRegistry) {
+        SearchService cached = new CachingSearchService(azureSearchAdapter, searchCacheProperties,
+                searchCacheRefreshExecutor, meterRegistry);
+        return new SuggestingSearchService(cached, suggestionEngine, meterRegistry);
+    }
+    
+    /**
+     * Background refreshes of stale cache entries. Bounded and rejecting: when full, a stale
+     * entry is simply served again and refreshed by a later request.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService searchCacheRefreshExecutor(SearchCacheProperties searchCacheProperties) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "search-cache-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        int threads = searchCacheProperties.getRefreshThreads();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 64), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    /**
+     * Parallel index requests of one index update flush. The consumer waits for every request
+     * of a flush, so at most {@code flushThreads} are ever queued.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService indexUpdateFlushExecutor(IndexUpdateProperties indexUpdateProperties) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "search-index-update-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(Math.max(1, indexUpdateProperties.getFlushThreads()), threadFactory);
+    }
+    
+    /**
+     * Index rebuild threads: one reader feeding the configured number of uploaders.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService indexRebuildExecutor(IndexRebuildProperties indexRebuildProperties) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "search-index-rebuild-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(Math.max(1, indexRebuildProperties.getUploaderThreads()) + 1, threadFactory);
     }
 }
@@ -0,0 +1,46 @@
+package com.youtube.mvp.search.infrastructure.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-process autocomplete index.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "search.suggest")
+public class SuggestProperties {
+    
+    /** When false every suggest call goes to Azure Cognitive Search. */
+    private boolean enabled = true;
+    
+    /** Delay between the end of one index rebuild and the start of the next. */
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+    
+    /**
+     * Most viewed video titles loaded on each rebuild. Bounds the Cosmos DB read and the index
+     * size however large the catalogue grows; titles beyond it are left to the remote suggester.
+     */
+    private int maxTitles = 50_000;
+    
+    /** Suggestions precomputed per trie node; larger requests fall back to the remote suggester. */
+    private int topK = 10;
+    
+    /** Maximum Levenshtein distance for fuzzy matching; 0 disables it. */
+    private int maxEdits = 1;
+    
+    /** Prefixes shorter than this are matched exactly only. */
+    private int minFuzzyPrefixLength = 4;
+    
+    /** Distinct queries remembered between rebuilds. */
+    private int queryLogMaxEntries = 100_000;
+    
+    /** Queries searched fewer times than this are not suggested. */
+    private int minQueryCount = 3;
+    
+    /** Popularity of one search relative to one video view. */
+    private long queryWeight = 1_000;
+}
@@ -0,0 +1,94 @@
+package com.youtube.mvp.search.infrastructure.messaging;
+
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.youtube.mvp.search.domain.model.SearchDocument;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index updates received within one coalescing window, merged per video.
+ *
+ * <p>For each video the newest update wins, ordered by event time and then by Service Bus
+ * sequence number; a delete wins over any upsert in the same window, so a video deleted while
+ * updates for it are still in flight is not re-indexed. Every message is kept so that it can be
+ * settled once the merged update for its video is committed.</p>
+ */
+final class IndexUpdateBatch {
+    
+    private final Map<String, VideoUpdates> updates = new LinkedHashMap<>();
+    private int messageCount;
+    
+    /**
+     * A parsed update. {@code document} is null for deletes; {@code eventTimeMillis} is when the
+     * change happened, used for ordering and freshness lag.
+     */
+    record Update(String videoId, boolean delete, SearchDocument document, long eventTimeMillis,
+                  long sequenceNumber, ServiceBusReceivedMessage message) {
+        
+        Version version() {
+            return new Version(eventTimeMillis, sequenceNumber);
+        }
+    }
+    
+    /**
+     * When an update happened, ordered by event time and then by sequence number; kept without
+     * the document or the message. Delete precedence is not part of it, as it only holds within
+     * one window.
+     */
+    record Version(long eventTimeMillis, long sequenceNumber) {
+        
+        boolean isNewerThan(Version other) {
+            if (eventTimeMillis != other.eventTimeMillis()) {
+                return eventTimeMillis > other.eventTimeMillis();
+            }
+            return sequenceNumber > other.sequenceNumber();
+        }
+    }
+    
+    static final class VideoUpdates {
+        private Update winner;
+        private final List<ServiceBusReceivedMessage> messages = new ArrayList<>(1);
+        
+        Update winner() {
+            return winner;
+        }
+        
+        List<ServiceBusReceivedMessage> messages() {
+            return messages;
+        }
+        
+        void add(Update update) {
+            messages.add(update.message());
+            if (winner == null || supersedes(update, winner)) {
+                winner = update;
+            }
+        }
+        
+        private static boolean supersedes(Update candidate, Update current) {
+            if (candidate.delete() != current.delete()) {
+                return candidate.delete();
+            }
+            return candidate.version().isNewerThan(current.version());
+        }
+    }
+    
+    void add(Update update) {
+        updates.computeIfAbsent(update.videoId(), id -> new VideoUpdates()).add(update);
+        messageCount++;
+    }
+    
+    boolean isEmpty() {
+        return messageCount == 0;
+    }
+    
+    int messageCount() {
+        return messageCount;
+    }
+    
+    Map<String, VideoUpdates> byVideo() {
+        return updates;
+    }
+}
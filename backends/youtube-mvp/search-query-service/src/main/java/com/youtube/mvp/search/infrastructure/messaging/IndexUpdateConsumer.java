@@ -2,53 +2,116 @@ package com.youtube.mvp.search.infrastructure.messaging;
 
 import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
 import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azure.messaging.servicebus.models.DeadLetterOptions;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.youtube.mvp.search.application.service.SearchApplicationService;
 import com.youtube.mvp.search.domain.model.SearchDocument;
-import lombok.RequiredArgsConstructor;
+import com.youtube.mvp.search.infrastructure.configuration.IndexUpdateProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service Bus consumer for index update events.
  * Listens for video.published, video.updated, video.deleted events.
+ *
+ * <p>Messages are received in batches and held for a short coalescing window, during which
+ * updates for the same video are merged by {@link IndexUpdateBatch}. The merged updates are
+ * written in requests of up to {@code maxDocumentsPerRequest} documents, sent in parallel when
+ * a flush needs several. A message is completed only after the update for its video is
+ * committed to the index, and abandoned (to be redelivered) otherwise; malformed messages are
+ * dead-lettered.</p>
+ *
+ * <p>An abandoned message can come back after a newer update for its video was committed by a
+ * later batch. The version of the last update applied per video is therefore remembered (up to
+ * {@code appliedVersionsMaxEntries} videos, least recently applied evicted first), and an update
+ * whose event time and sequence number are not newer is completed without being written. A delete
+ * only wins over upserts of its own window here, so a video republished after a delete is indexed
+ * again. The versions live in this
+ * instance only; a redelivery picked up by another instance is not checked.</p>
+ *
+ * <p>Metrics: {@code search.index.freshness.lag} (event time to index commit),
+ * {@code search.index.updates.received}, {@code search.index.updates.coalesced},
+ * {@code search.index.updates.stale} and {@code search.index.updates.batch.size}.</p>
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class IndexUpdateConsumer implements CommandLineRunner {
     
     private final ServiceBusReceiverClient receiverClient;
     private final SearchApplicationService searchApplicationService;
     private final ObjectMapper objectMapper;
+    private final IndexUpdateProperties properties;
+    private final ExecutorService flushExecutor;
     private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final Timer freshnessLag;
+    private final Counter received;
+    private final Counter coalesced;
+    private final Counter stale;
+    private final DistributionSummary batchSize;
+    /** Only touched by the consuming thread, in {@link #flush}. */
+    private final Map<String, IndexUpdateBatch.Version> appliedVersions;
     private volatile boolean running = false;
     
+    public IndexUpdateConsumer(ServiceBusReceiverClient receiverClient,
+                               SearchApplicationService searchApplicationService,
+                               ObjectMapper objectMapper,
+                               IndexUpdateProperties properties,
+                               @Qualifier("indexUpdateFlushExecutor") ExecutorService flushExecutor,
+                               MeterRegistry meterRegistry) {
+        this.receiverClient = receiverClient;
+        this.searchApplicationService = searchApplicationService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.flushExecutor = flushExecutor;
+        this.freshnessLag = Timer.builder("search.index.freshness.lag")
+                .description("Time from a video change to its update being committed to the search index")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.received = Counter.builder("search.index.updates.received")
+                .description("Index update messages received")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("search.index.updates.coalesced")
+                .description("Index update messages merged into another update for the same video")
+                .register(meterRegistry);
+        this.stale = Counter.builder("search.index.updates.stale")
+                .description("Index updates skipped because a newer update for the video was already applied")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("search.index.updates.batch.size")
+                .description("Distinct videos written per flush")
+                .register(meterRegistry);
+        int maxEntries = Math.max(1, properties.getAppliedVersionsMaxEntries());
+        this.appliedVersions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IndexUpdateBatch.Version> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+    
     @Override
     public void run(String... args) throws Exception {
         log.info("Starting index update consumer");
         running = true;
         
-        executorService.submit(() -> {
-            while (running) {
-                try {
-                    ServiceBusReceivedMessage message = receiverClient.receiveMessage(Duration.ofSeconds(30));
-                    
-                    if (message != null) {
-                        processMessage(message);
-                        receiverClient.completeMessage(message);
-                    }
-                } catch (Exception e) {
-                    log.error("Error consuming message", e);
-                }
-            }
-        });
+        executorService.submit(this::consume);
     }
     
     public void stop() {
@@ -57,40 +120,173 @@ public class IndexUpdateConsumer implements CommandLineRunner {
         executorService.shutdown();
     }
     
-    private void processMessage(ServiceBusReceivedMessage message) {
+    private void consume() {
+        IndexUpdateBatch batch = new IndexUpdateBatch();
+        long windowStart = 0;
+        while (running) {
+            try {
+                Duration wait = properties.getReceiveWait();
+                if (!batch.isEmpty()) {
+                    long remaining = properties.getCoalesceWindow().toNanos() - (System.nanoTime() - windowStart);
+                    wait = Duration.ofNanos(Math.max(TimeUnit.MILLISECONDS.toNanos(1), remaining));
+                }
+                int room = Math.max(1, Math.min(properties.getMaxMessagesPerReceive(),
+                        properties.getMaxPendingMessages() - batch.messageCount()));
+                for (ServiceBusReceivedMessage message : receiverClient.receiveMessages(room, wait)) {
+                    if (batch.isEmpty()) {
+                        windowStart = System.nanoTime();
+                    }
+                    add(batch, message);
+                }
+                
+                boolean windowElapsed = System.nanoTime() - windowStart >= properties.getCoalesceWindow().toNanos();
+                if (!batch.isEmpty() && (windowElapsed || batch.messageCount() >= properties.getMaxPendingMessages())) {
+                    flush(batch);
+                    batch = new IndexUpdateBatch();
+                }
+            } catch (Exception e) {
+                log.error("Error consuming messages", e);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+    
+    void add(IndexUpdateBatch batch, ServiceBusReceivedMessage message) {
+        received.increment();
         try {
-            String messageBody = message.getBody().toString();
-            Map<String, Object> event = objectMapper.readValue(messageBody, Map.class);
-            
-            String eventType = (String) event.get("eventType");
-            String videoId = (String) event.get("videoId");
-            
-            log.info("Processing index update: eventType={}, videoId={}", eventType, videoId);
-            
-            if ("DELETED".equals(eventType)) {
-                // Delete from index
-                searchApplicationService.handleIndexUpdate(
-                        SearchDocument.builder().videoId(videoId).build(),
-                        "DELETED"
-                );
+            batch.add(parse(message));
+        } catch (Exception e) {
+            log.error("Dead-lettering malformed index update message {}", message.getMessageId(), e);
+            receiverClient.deadLetterMessage(message, new DeadLetterOptions()
+                    .setDeadLetterReason("MalformedIndexUpdate")
+                    .setDeadLetterErrorDescription(String.valueOf(e.getMessage())));
+        }
+    }
+    
+    /**
+     * Writes the merged updates and settles every message of the batch: completed if the
+     * update for its video was committed or is older than the one already applied, abandoned
+     * otherwise.
+     */
+    void flush(IndexUpdateBatch batch) {
+        Map<String, IndexUpdateBatch.VideoUpdates> byVideo = batch.byVideo();
+        coalesced.increment(batch.messageCount() - byVideo.size());
+        batchSize.record(byVideo.size());
+        
+        List<IndexUpdateBatch.Update> winners = new ArrayList<>(byVideo.size());
+        Set<String> superseded = new HashSet<>();
+        for (IndexUpdateBatch.VideoUpdates updates : byVideo.values()) {
+            IndexUpdateBatch.Update winner = updates.winner();
+            IndexUpdateBatch.Version applied = appliedVersions.get(winner.videoId());
+            if (applied != null && !winner.version().isNewerThan(applied)) {
+                superseded.add(winner.videoId());
             } else {
-                // Upsert to index
-                SearchDocument document = buildSearchDocument(event);
-                searchApplicationService.handleIndexUpdate(document, eventType);
+                winners.add(winner);
             }
-            
+        }
+        if (!superseded.isEmpty()) {
+            stale.increment(superseded.size());
+            log.info("Skipping {} index updates older than the last applied for their video", superseded.size());
+        }
+        int chunkSize = Math.max(1, properties.getMaxDocumentsPerRequest());
+        List<CompletableFuture<Set<String>>> requests = new ArrayList<>();
+        for (int from = 0; from < winners.size(); from += chunkSize) {
+            List<IndexUpdateBatch.Update> chunk = winners.subList(from, Math.min(from + chunkSize, winners.size()));
+            requests.add(CompletableFuture.supplyAsync(() -> write(chunk), flushExecutor));
+        }
+        
+        Set<String> failed = new HashSet<>();
+        for (CompletableFuture<Set<String>> request : requests) {
+            failed.addAll(request.join());
+        }
+        
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, IndexUpdateBatch.VideoUpdates> entry : byVideo.entrySet()) {
+            boolean committed = !failed.contains(entry.getKey());
+            if (committed && !superseded.contains(entry.getKey())) {
+                IndexUpdateBatch.Update winner = entry.getValue().winner();
+                appliedVersions.put(winner.videoId(), winner.version());
+                freshnessLag.record(Math.max(0, now - winner.eventTimeMillis()), TimeUnit.MILLISECONDS);
+            }
+            for (ServiceBusReceivedMessage message : entry.getValue().messages()) {
+                settle(message, committed);
+            }
+        }
+        log.info("Flushed {} index update messages as {} documents, {} failed",
+                batch.messageCount(), winners.size(), failed.size());
+    }
+    
+    /**
+     * Writes one request's worth of updates; returns the videoIds that were not committed.
+     */
+    private Set<String> write(List<IndexUpdateBatch.Update> chunk) {
+        List<SearchDocument> upserts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (IndexUpdateBatch.Update update : chunk) {
+            if (update.delete()) {
+                deletes.add(update.videoId());
+            } else {
+                upserts.add(update.document());
+            }
+        }
+        try {
+            return searchApplicationService.applyIndexUpdates(upserts, deletes);
         } catch (Exception e) {
-            log.error("Failed to process index update message", e);
-            throw new RuntimeException("Message processing failed", e);
+            log.error("Failed to write {} index updates, messages will be redelivered", chunk.size(), e);
+            Set<String> all = new HashSet<>();
+            chunk.forEach(update -> all.add(update.videoId()));
+            return all;
         }
     }
     
+    private void settle(ServiceBusReceivedMessage message, boolean committed) {
+        try {
+            if (committed) {
+                receiverClient.completeMessage(message);
+            } else {
+                receiverClient.abandonMessage(message);
+            }
+        } catch (Exception e) {
+            // The lock has expired or the link dropped; the broker redelivers the message
+            log.warn("Failed to settle index update message {}: {}", message.getMessageId(), e.getMessage());
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private IndexUpdateBatch.Update parse(ServiceBusReceivedMessage message) throws Exception {
+        String messageBody = message.getBody().toString();
+        Map<String, Object> event = objectMapper.readValue(messageBody, Map.class);
+        
+        String eventType = (String) event.get("eventType");
+        String videoId = (String) event.get("videoId");
+        if (videoId == null || videoId.isBlank()) {
+            throw new IllegalArgumentException("Index update without videoId");
+        }
+        
+        Long timestamp = getLongValue(event.get("timestamp"));
+        long eventTime = timestamp != null ? timestamp
+                : message.getEnqueuedTime() != null ? message.getEnqueuedTime().toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        
+        log.debug("Received index update: eventType={}, videoId={}", eventType, videoId);
+        
+        boolean delete = "DELETED".equals(eventType);
+        SearchDocument document = delete ? null : buildSearchDocument(videoId, event);
+        return new IndexUpdateBatch.Update(videoId, delete, document, eventTime, message.getSequenceNumber(), message);
+    }
+    
     @SuppressWarnings("unchecked")
-    private SearchDocument buildSearchDocument(Map<String, Object> event) {
+    private SearchDocument buildSearchDocument(String videoId, Map<String, Object> event) {
         Map<String, Object> data = (Map<String, Object>) event.get("data");
+        if (data == null) {
+            throw new IllegalArgumentException("Index update for " + videoId + " without data");
+        }
         
         return SearchDocument.builder()
-                .videoId((String) data.get("videoId"))
+                .documentId(videoId)
+                .videoId(videoId)
                 .title((String) data.get("title"))
                 .description((String) data.get("description"))
                 .channelName((String) data.get("channelName"))
@@ -0,0 +1,56 @@
+package com.youtube.mvp.search.infrastructure.rebuild;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Upload batch size shared by all rebuild uploaders, adjusted from the service's throttling
+ * responses: additive increase after every accepted batch, multiplicative decrease after every
+ * throttled one (AIMD), so the uploaders converge on the throughput the service can sustain.
+ */
+final class AdaptiveBatchSizer {
+    
+    private final int minSize;
+    private final int maxSize;
+    private final int increment;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private int size;
+    
+    AdaptiveBatchSizer(int initialSize, int minSize, int maxSize, int increment,
+                       Duration initialBackoff, Duration maxBackoff) {
+        this.minSize = Math.max(1, minSize);
+        this.maxSize = Math.max(this.minSize, maxSize);
+        this.increment = Math.max(1, increment);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.size = Math.min(this.maxSize, Math.max(this.minSize, initialSize));
+    }
+    
+    synchronized int current() {
+        return size;
+    }
+    
+    synchronized void onSuccess() {
+        size = Math.min(maxSize, size + increment);
+    }
+    
+    synchronized void onThrottled() {
+        size = Math.max(minSize, size / 2);
+    }
+    
+    /**
+     * Delay before retry {@code attempt} (0-based): exponential with jitter, capped at
+     * {@code maxBackoff}, and never shorter than the service's {@code Retry-After}.
+     */
+    Duration backoff(int attempt, Duration retryAfter) {
+        long cap = maxBackoff.toMillis();
+        long exponential = initialBackoff.toMillis() << Math.min(attempt, 20);
+        long millis = Math.min(cap, exponential);
+        millis = millis / 2 + ThreadLocalRandom.current().nextLong(millis / 2 + 1);
+        if (retryAfter != null) {
+            millis = Math.max(millis, retryAfter.toMillis());
+        }
+        return Duration.ofMillis(millis);
+    }
+}
@@ -0,0 +1,489 @@
+package com.youtube.mvp.search.infrastructure.rebuild;
+
+import com.youtube.mvp.search.domain.model.IndexRebuildProgress;
+import com.youtube.mvp.search.infrastructure.client.AzureSearchClient;
+import com.youtube.mvp.search.infrastructure.client.SearchThrottledException;
+import com.youtube.mvp.search.infrastructure.configuration.IndexRebuildProperties;
+import com.youtube.mvp.search.infrastructure.repository.CosmosVideoRepository;
+import com.youtube.mvp.search.infrastructure.repository.IndexStateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds the search index from Cosmos DB into a new index and swaps it in when complete.
+ *
+ * <p>A reader streams the videos container page by page into a bounded queue, so memory is
+ * bounded by {@code queueCapacity} pages however large the catalogue is. Parallel uploaders
+ * take pages off the queue and send them in batches sized by {@link AdaptiveBatchSizer}, backing
+ * off when the service throttles.</p>
+ *
+ * <p>After each page whose documents, and those of every page before it, are indexed, the
+ * Cosmos continuation token is saved as a checkpoint; a rebuild interrupted by a crash or a
+ * failure resumes from it into the same target index. When the last page is indexed the
+ * active index pointer is moved to the new index (blue/green); the previous index is kept for
+ * rollback. Updates arriving during the rebuild are written to both indexes.</p>
+ *
+ * <p>A rebuild runs on one pod at a time: {@link #start} takes the lease on the state document
+ * first, and the lease is renewed after every page. A run that loses its lease stops before
+ * the swap.</p>
+ *
+ * <p>Metrics: {@code search.rebuild.documents}, {@code search.rebuild.throttled} and
+ * {@code search.rebuild.batch.size}.</p>
+ */
+@Slf4j
+@Component
+public class IndexRebuildPipeline {
+    
+    private static final String VIDEOS_QUERY = "SELECT * FROM c";
+    private static final DateTimeFormatter INDEX_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final Set<String> INDEX_FIELDS = Set.of(
+            "videoId", "title", "description", "channelName", "channelId", "category", "tags",
+            "viewCount", "likeCount", "duration", "thumbnailUrl", "publishedAt", "language",
+            "quality", "relevanceScore");
+    private static final Page END = new Page(-1, List.of(), null);
+    
+    private final CosmosVideoRepository cosmosVideoRepository;
+    private final AzureSearchClient azureSearchClient;
+    private final IndexStateRepository indexStateRepository;
+    private final IndexRebuildProperties properties;
+    private final ExecutorService executor;
+    private final Counter documentsIndexed;
+    private final Counter throttledRequests;
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile Run run;
+    
+    public IndexRebuildPipeline(CosmosVideoRepository cosmosVideoRepository,
+                                AzureSearchClient azureSearchClient,
+                                IndexStateRepository indexStateRepository,
+                                IndexRebuildProperties properties,
+                                @Qualifier("indexRebuildExecutor") ExecutorService executor,
+                                MeterRegistry meterRegistry) {
+        this.cosmosVideoRepository = cosmosVideoRepository;
+        this.azureSearchClient = azureSearchClient;
+        this.indexStateRepository = indexStateRepository;
+        this.properties = properties;
+        this.executor = executor;
+        this.documentsIndexed = Counter.builder("search.rebuild.documents")
+                .description("Documents written to the index being rebuilt")
+                .register(meterRegistry);
+        this.throttledRequests = Counter.builder("search.rebuild.throttled")
+                .description("Rebuild upload requests throttled by Azure Cognitive Search")
+                .register(meterRegistry);
+        Gauge.builder("search.rebuild.batch.size", this, pipeline -> {
+                    Run current = pipeline.run;
+                    return current != null ? current.sizer.current() : 0;
+                })
+                .description("Current adaptive upload batch size")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Starts a rebuild in the background, resuming from the last checkpoint unless
+     * {@code forceRestart}. If a rebuild is already running on this or another instance,
+     * returns its progress instead.
+     */
+    public synchronized IndexRebuildProgress start(boolean forceRestart) {
+        Run current = run;
+        if (current != null && current.state == IndexRebuildProgress.State.RUNNING) {
+            log.info("Index rebuild into '{}' already running", current.targetIndex);
+            return current.progress();
+        }
+        
+        Optional<IndexStateRepository.RebuildLease> lease =
+                indexStateRepository.tryAcquireLease(instanceId, properties.getLeaseDuration());
+        if (lease.isEmpty()) {
+            log.info("Index rebuild already running on another instance");
+            return IndexRebuildProgress.builder()
+                    .state(IndexRebuildProgress.State.RUNNING)
+                    .targetIndex(indexStateRepository.findCheckpoint()
+                            .map(IndexStateRepository.RebuildCheckpoint::getTargetIndex)
+                            .orElse(null))
+                    .activeIndex(azureSearchClient.getActiveIndexName())
+                    .build();
+        }
+        try {
+            return startRun(forceRestart, lease.get());
+        } catch (RuntimeException e) {
+            indexStateRepository.releaseLease(lease.get());
+            throw e;
+        }
+    }
+    
+    private IndexRebuildProgress startRun(boolean forceRestart, IndexStateRepository.RebuildLease lease) {
+        String activeIndex = azureSearchClient.getActiveIndexName();
+        Optional<IndexStateRepository.RebuildCheckpoint> checkpoint = indexStateRepository.findCheckpoint();
+        if (forceRestart && checkpoint.isPresent()) {
+            discard(checkpoint.get(), activeIndex);
+            checkpoint = Optional.empty();
+        }
+        
+        Instant now = Instant.now();
+        Run next;
+        String continuationToken;
+        if (checkpoint.isPresent()) {
+            IndexStateRepository.RebuildCheckpoint resumeFrom = checkpoint.get();
+            next = new Run(resumeFrom.getTargetIndex(), activeIndex, true, resumeFrom.getStartedAt(),
+                    valueOf(resumeFrom.getDocumentsIndexed()), valueOf(resumeFrom.getPagesRead()), newSizer(), lease);
+            continuationToken = resumeFrom.getContinuationToken();
+            log.info("Resuming index rebuild into '{}' after {} documents",
+                    next.targetIndex, resumeFrom.getDocumentsIndexed());
+        } else {
+            String targetIndex = azureSearchClient.getBaseIndexName() + "-" + INDEX_SUFFIX.format(now);
+            azureSearchClient.createIndex(targetIndex);
+            next = new Run(targetIndex, activeIndex, false, now, 0, 0, newSizer(), lease);
+            continuationToken = null;
+            log.info("Starting index rebuild into '{}'", targetIndex);
+        }
+        
+        indexStateRepository.saveActiveIndex(IndexStateRepository.ActiveIndex.builder()
+                .indexName(activeIndex)
+                .rebuildTarget(next.targetIndex)
+                .updatedAt(now)
+                .build());
+        azureSearchClient.setRebuildTarget(next.targetIndex);
+        
+        run = next;
+        executor.execute(() -> execute(next, continuationToken));
+        return next.progress();
+    }
+    
+    public IndexRebuildProgress getProgress() {
+        Run current = run;
+        if (current == null) {
+            return IndexRebuildProgress.builder()
+                    .state(IndexRebuildProgress.State.IDLE)
+                    .activeIndex(azureSearchClient.getActiveIndexName())
+                    .build();
+        }
+        return current.progress();
+    }
+    
+    private void execute(Run current, String continuationToken) {
+        try {
+            rebuild(current, continuationToken);
+        } finally {
+            try {
+                indexStateRepository.releaseLease(current.lease);
+            } catch (RuntimeException e) {
+                log.warn("Could not release the rebuild lease; it expires in {}", properties.getLeaseDuration(), e);
+            }
+        }
+    }
+    
+    private void rebuild(Run current, String continuationToken) {
+        int uploaders = Math.max(1, properties.getUploaderThreads());
+        BlockingQueue<Page> queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        CountDownLatch finished = new CountDownLatch(uploaders);
+        CheckpointTracker tracker = new CheckpointTracker(current);
+        for (int i = 0; i < uploaders; i++) {
+            executor.execute(() -> {
+                try {
+                    upload(current, queue, tracker);
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        
+        try {
+            try {
+                long sequence = 0;
+                for (CosmosVideoRepository.VideoPage page : cosmosVideoRepository.readPages(
+                        VIDEOS_QUERY, continuationToken, properties.getReaderPageSize())) {
+                    if (current.failure != null) {
+                        break;
+                    }
+                    queue.put(new Page(sequence++, toIndexDocuments(page.videos()), page.continuationToken()));
+                }
+            } catch (RuntimeException e) {
+                current.fail(e);
+            } finally {
+                for (int i = 0; i < uploaders; i++) {
+                    queue.put(END);
+                }
+            }
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            current.fail(e);
+        }
+        
+        if (current.failure != null) {
+            current.finish(IndexRebuildProgress.State.FAILED);
+            log.error("Index rebuild into '{}' failed after {} documents; it will resume from the last checkpoint",
+                    current.targetIndex, current.documents.get(), current.failure);
+            return;
+        }
+        
+        try {
+            swap(current);
+            current.finish(IndexRebuildProgress.State.COMPLETED);
+            log.info("Index rebuild completed: {} documents in '{}', now active", current.documents.get(),
+                    current.targetIndex);
+        } catch (RuntimeException e) {
+            current.fail(e);
+            current.finish(IndexRebuildProgress.State.FAILED);
+            log.error("Index rebuild into '{}' finished but the swap failed", current.targetIndex, e);
+        }
+    }
+    
+    /**
+     * Uploads pages until the end marker. After a failure anywhere in the run, remaining pages
+     * are drained without uploading so the reader is never left blocked on a full queue.
+     */
+    private void upload(Run current, BlockingQueue<Page> queue, CheckpointTracker tracker) {
+        try {
+            while (true) {
+                Page page = queue.take();
+                if (page == END) {
+                    return;
+                }
+                if (current.failure != null) {
+                    continue;
+                }
+                try {
+                    uploadPage(current, page.documents());
+                    tracker.completed(page);
+                } catch (RuntimeException e) {
+                    current.fail(e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            current.fail(e);
+        }
+    }
+    
+    private void uploadPage(Run current, List<Map<String, Object>> documents) throws InterruptedException {
+        List<Map<String, Object>> remaining = documents;
+        int attempt = 0;
+        while (!remaining.isEmpty()) {
+            int size = Math.min(current.sizer.current(), remaining.size());
+            List<Map<String, Object>> batch = remaining.subList(0, size);
+            List<Map<String, Object>> rest = remaining.subList(size, remaining.size());
+            
+            List<Map<String, Object>> throttled;
+            Duration retryAfter = null;
+            try {
+                throttled = azureSearchClient.uploadToIndex(current.targetIndex, batch);
+            } catch (SearchThrottledException e) {
+                throttled = batch;
+                retryAfter = e.getRetryAfter();
+            }
+            
+            int indexed = size - throttled.size();
+            current.documents.addAndGet(indexed);
+            documentsIndexed.increment(indexed);
+            if (throttled.isEmpty()) {
+                current.sizer.onSuccess();
+                attempt = 0;
+                remaining = rest;
+                continue;
+            }
+            
+            current.throttled.incrementAndGet();
+            throttledRequests.increment();
+            current.sizer.onThrottled();
+            if (++attempt > properties.getMaxRetries()) {
+                throw new IllegalStateException("Upload to '" + current.targetIndex + "' still throttled after "
+                        + properties.getMaxRetries() + " retries");
+            }
+            // Retry the throttled documents first, re-split at the reduced batch size
+            List<Map<String, Object>> retry = new ArrayList<>(throttled.size() + rest.size());
+            retry.addAll(throttled);
+            retry.addAll(rest);
+            remaining = retry;
+            Thread.sleep(current.sizer.backoff(attempt - 1, retryAfter).toMillis());
+        }
+    }
+    
+    private void swap(Run current) {
+        renewLease(current);
+        indexStateRepository.saveActiveIndex(IndexStateRepository.ActiveIndex.builder()
+                .indexName(current.targetIndex)
+                .rebuildTarget(null)
+                .updatedAt(Instant.now())
+                .build());
+        indexStateRepository.deleteCheckpoint();
+        azureSearchClient.activateIndex(current.targetIndex);
+        log.info("Previous search index '{}' kept for rollback", current.activeIndex);
+    }
+    
+    /**
+     * Fails the run if its lease has been taken over, so two pods never write checkpoints or
+     * swap the index concurrently.
+     */
+    private void renewLease(Run current) {
+        if (!indexStateRepository.renewLease(current.lease, properties.getLeaseDuration())) {
+            throw new IllegalStateException("Lost the rebuild lease for '" + current.targetIndex + "'");
+        }
+    }
+    
+    private void discard(IndexStateRepository.RebuildCheckpoint checkpoint, String activeIndex) {
+        log.info("Discarding checkpoint of the rebuild into '{}'", checkpoint.getTargetIndex());
+        indexStateRepository.deleteCheckpoint();
+        if (checkpoint.getTargetIndex() != null && !checkpoint.getTargetIndex().equals(activeIndex)) {
+            azureSearchClient.deleteIndex(checkpoint.getTargetIndex());
+        }
+    }
+    
+    /**
+     * Keeps only the fields of the index; Cosmos system properties ({@code _rid}, {@code _ts}, ...)
+     * would make the service reject the document.
+     */
+    static List<Map<String, Object>> toIndexDocuments(List<Map<String, Object>> videos) {
+        List<Map<String, Object>> documents = new ArrayList<>(videos.size());
+        for (Map<String, Object> video : videos) {
+            Object videoId = video.get("videoId") != null ? video.get("videoId") : video.get("id");
+            if (videoId == null) {
+                continue;
+            }
+            Map<String, Object> document = new HashMap<>();
+            for (String field : INDEX_FIELDS) {
+                Object value = video.get(field);
+                if (value != null) {
+                    document.put(field, value);
+                }
+            }
+            document.put("documentId", videoId.toString());
+            document.put("videoId", videoId.toString());
+            documents.add(document);
+        }
+        return documents;
+    }
+    
+    private AdaptiveBatchSizer newSizer() {
+        return new AdaptiveBatchSizer(properties.getInitialBatchSize(), properties.getMinBatchSize(),
+                properties.getMaxBatchSize(), properties.getBatchSizeIncrement(),
+                properties.getInitialBackoff(), properties.getMaxBackoff());
+    }
+    
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+    
+    private record Page(long sequence, List<Map<String, Object>> documents, String continuationToken) {
+    }
+    
+    /**
+     * Advances the checkpoint over pages completed out of order by the parallel uploaders, so
+     * that it only ever points past pages that are fully indexed.
+     */
+    private final class CheckpointTracker {
+        private final Run current;
+        private final TreeMap<Long, Page> completed = new TreeMap<>();
+        private long nextSequence;
+        
+        CheckpointTracker(Run current) {
+            this.current = current;
+        }
+        
+        synchronized void completed(Page page) {
+            completed.put(page.sequence(), page);
+            Page last = null;
+            while (!completed.isEmpty() && completed.firstKey() == nextSequence) {
+                last = completed.pollFirstEntry().getValue();
+                nextSequence++;
+                current.pages.incrementAndGet();
+            }
+            if (last != null) {
+                renewLease(current);
+            }
+            // The last page has no continuation token; the swap follows and deletes the checkpoint
+            if (last != null && last.continuationToken() != null) {
+                indexStateRepository.saveCheckpoint(IndexStateRepository.RebuildCheckpoint.builder()
+                        .targetIndex(current.targetIndex)
+                        .continuationToken(last.continuationToken())
+                        .documentsIndexed(current.documents.get())
+                        .pagesRead(current.pages.get())
+                        .startedAt(current.startedAt)
+                        .updatedAt(Instant.now())
+                        .build());
+            }
+        }
+    }
+    
+    private static final class Run {
+        final String targetIndex;
+        final String activeIndex;
+        final boolean resumed;
+        final Instant startedAt;
+        final Instant resumedAt = Instant.now();
+        final long resumedDocuments;
+        final AtomicLong documents;
+        final AtomicLong pages;
+        final AtomicLong throttled = new AtomicLong();
+        final AdaptiveBatchSizer sizer;
+        final IndexStateRepository.RebuildLease lease;
+        volatile IndexRebuildProgress.State state = IndexRebuildProgress.State.RUNNING;
+        volatile Throwable failure;
+        volatile Instant finishedAt;
+        
+        Run(String targetIndex, String activeIndex, boolean resumed, Instant startedAt,
+            long documents, long pages, AdaptiveBatchSizer sizer, IndexStateRepository.RebuildLease lease) {
+            this.targetIndex = targetIndex;
+            this.activeIndex = activeIndex;
+            this.resumed = resumed;
+            this.startedAt = startedAt != null ? startedAt : resumedAt;
+            this.resumedDocuments = documents;
+            this.documents = new AtomicLong(documents);
+            this.pages = new AtomicLong(pages);
+            this.sizer = sizer;
+            this.lease = lease;
+        }
+        
+        void fail(Throwable e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        
+        void finish(IndexRebuildProgress.State finalState) {
+            finishedAt = Instant.now();
+            state = finalState;
+        }
+        
+        IndexRebuildProgress progress() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(0.001, Duration.between(resumedAt, end).toMillis() / 1000.0);
+            Throwable error = failure;
+            return IndexRebuildProgress.builder()
+                    .state(state)
+                    .targetIndex(targetIndex)
+                    .activeIndex(state == IndexRebuildProgress.State.COMPLETED ? targetIndex : activeIndex)
+                    .resumed(resumed)
+                    .documentsIndexed(documents.get())
+                    .pagesRead(pages.get())
+                    .documentsPerSecond((documents.get() - resumedDocuments) / seconds)
+                    .currentBatchSize(sizer.current())
+                    .throttledRequests(throttled.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error != null ? error.getMessage() : null)
+                    .build();
+        }
+    }
+}
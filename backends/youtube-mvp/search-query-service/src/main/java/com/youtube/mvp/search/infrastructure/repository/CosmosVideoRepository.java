@@ -4,7 +4,6 @@ import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosContainer;
 import com.azure.cosmos.CosmosDatabase;
 import com.azure.cosmos.models.*;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,7 +21,6 @@ import java.util.*;
 public class CosmosVideoRepository {
     
     private final CosmosClient cosmosClient;
-    private final ObjectMapper objectMapper;
     
     @Value("${azure.cosmos.database-name}")
     private String databaseName;
@@ -52,18 +50,31 @@ public class CosmosVideoRepository {
         }
     }
     
-    public List<Map<String, Object>> findAllVideos() {
-        List<Map<String, Object>> videos = new ArrayList<>();
-        String query = "SELECT * FROM c";
-        
-        SqlQuerySpec querySpec = new SqlQuerySpec(query);
-        FeedResponse<Map> results = container.queryItems(querySpec, Map.class).getIterableByPage();
-        
-        for (FeedResponse<Map> page : results) {
-            page.getResults().forEach(item -> videos.add(objectMapper.convertValue(item, Map.class)));
-        }
-        
-        return videos;
+    /**
+     * Streams the result of {@code sql} one Cosmos page at a time, starting after
+     * {@code continuationToken} (or at the beginning if null). Pages are fetched lazily as the
+     * iterable is consumed, so memory is bounded by the page size.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Iterable<VideoPage> readPages(String sql, String continuationToken, int pageSize) {
+        Iterable<FeedResponse<Map>> pages = container
+                .queryItems(new SqlQuerySpec(sql), new CosmosQueryRequestOptions(), Map.class)
+                .iterableByPage(continuationToken, pageSize);
+        return () -> {
+            Iterator<FeedResponse<Map>> iterator = pages.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+                
+                @Override
+                public VideoPage next() {
+                    FeedResponse<Map> page = iterator.next();
+                    return new VideoPage((List) page.getResults(), page.getContinuationToken(), page.getRequestCharge());
+                }
+            };
+        };
     }
     
     public void upsertVideo(Map<String, Object> video) {
@@ -73,4 +84,11 @@ public class CosmosVideoRepository {
     public void deleteVideo(String videoId) {
         container.deleteItem(videoId, new PartitionKey(videoId));
     }
+    
+    /**
+     * One page of query results. {@code continuationToken} resumes after this page and is null
+     * on the last one.
+     */
+    public record VideoPage(List<Map<String, Object>> videos, String continuationToken, double requestCharge) {
+    }
 }
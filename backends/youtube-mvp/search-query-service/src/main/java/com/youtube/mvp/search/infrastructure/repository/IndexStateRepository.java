@@ -0,0 +1,223 @@
+package com.youtube.mvp.search.infrastructure.repository;
+
+import com.azure.cosmos.CosmosClient;
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.CosmosItemResponse;
+import com.azure.cosmos.models.PartitionKey;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.youtube.mvp.search.infrastructure.configuration.IndexRebuildProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Persists which physical search index is live and the checkpoint of a running rebuild.
+ *
+ * <p>Queries and index updates go to the index named by the {@code active-index} document, so a
+ * rebuild into a new index becomes visible to every pod with one write (blue/green swap).</p>
+ *
+ * <p>Only one pod may rebuild at a time: it holds the {@code rebuild-lease} document, taken and
+ * renewed with etag-conditional writes so that two pods racing for it cannot both win.</p>
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class IndexStateRepository {
+    
+    private static final String ACTIVE_INDEX_ID = "active-index";
+    private static final String CHECKPOINT_ID = "rebuild-checkpoint";
+    private static final String LEASE_ID = "rebuild-lease";
+    
+    private final CosmosClient cosmosClient;
+    private final IndexRebuildProperties properties;
+    
+    @Value("${azure.cosmos.database-name}")
+    private String databaseName;
+    
+    private CosmosContainer container;
+    
+    @PostConstruct
+    public void init() {
+        this.container = cosmosClient.getDatabase(databaseName).getContainer(properties.getStateContainerName());
+    }
+    
+    public Optional<ActiveIndex> findActiveIndex() {
+        return read(ACTIVE_INDEX_ID, ActiveIndex.class);
+    }
+    
+    public void saveActiveIndex(ActiveIndex activeIndex) {
+        activeIndex.setId(ACTIVE_INDEX_ID);
+        container.upsertItem(activeIndex);
+    }
+    
+    public Optional<RebuildCheckpoint> findCheckpoint() {
+        return read(CHECKPOINT_ID, RebuildCheckpoint.class);
+    }
+    
+    public void saveCheckpoint(RebuildCheckpoint checkpoint) {
+        checkpoint.setId(CHECKPOINT_ID);
+        container.upsertItem(checkpoint);
+    }
+    
+    public void deleteCheckpoint() {
+        try {
+            container.deleteItem(CHECKPOINT_ID, new PartitionKey(CHECKPOINT_ID), null);
+        } catch (CosmosException e) {
+            if (e.getStatusCode() != 404) {
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * Takes the rebuild lease for {@code owner} if it is free, expired or already held by
+     * {@code owner}.
+     *
+     * @return the lease, or empty if another owner holds it or won the race for it
+     */
+    public Optional<RebuildLease> tryAcquireLease(String owner, Duration duration) {
+        Instant now = Instant.now();
+        RebuildLease lease = RebuildLease.builder()
+                .id(LEASE_ID)
+                .owner(owner)
+                .expiresAt(now.plus(duration))
+                .build();
+        try {
+            CosmosItemResponse<RebuildLease> current = container.readItem(LEASE_ID, new PartitionKey(LEASE_ID),
+                    RebuildLease.class);
+            RebuildLease held = current.getItem();
+            if (!owner.equals(held.getOwner()) && held.getExpiresAt() != null && held.getExpiresAt().isAfter(now)) {
+                return Optional.empty();
+            }
+            lease.setEtag(container.replaceItem(lease, LEASE_ID, new PartitionKey(LEASE_ID),
+                    new CosmosItemRequestOptions().setIfMatchETag(current.getETag())).getETag());
+            return Optional.of(lease);
+        } catch (CosmosException e) {
+            if (e.getStatusCode() == 412) {
+                return Optional.empty();
+            }
+            if (e.getStatusCode() != 404) {
+                throw e;
+            }
+        }
+        try {
+            lease.setEtag(container.createItem(lease).getETag());
+            return Optional.of(lease);
+        } catch (CosmosException e) {
+            if (e.getStatusCode() == 409) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Extends a lease held by this pod.
+     *
+     * @return false if the lease was lost: it expired and another owner took it
+     */
+    public boolean renewLease(RebuildLease lease, Duration duration) {
+        RebuildLease renewed = RebuildLease.builder()
+                .id(LEASE_ID)
+                .owner(lease.getOwner())
+                .expiresAt(Instant.now().plus(duration))
+                .build();
+        try {
+            lease.setEtag(container.replaceItem(renewed, LEASE_ID, new PartitionKey(LEASE_ID),
+                    new CosmosItemRequestOptions().setIfMatchETag(lease.getEtag())).getETag());
+            lease.setExpiresAt(renewed.getExpiresAt());
+            return true;
+        } catch (CosmosException e) {
+            if (e.getStatusCode() == 412 || e.getStatusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Gives up a lease held by this pod; does nothing if it has already been taken over.
+     */
+    public void releaseLease(RebuildLease lease) {
+        try {
+            container.deleteItem(LEASE_ID, new PartitionKey(LEASE_ID),
+                    new CosmosItemRequestOptions().setIfMatchETag(lease.getEtag()));
+        } catch (CosmosException e) {
+            if (e.getStatusCode() != 412 && e.getStatusCode() != 404) {
+                throw e;
+            }
+        }
+    }
+    
+    private <T> Optional<T> read(String id, Class<T> type) {
+        try {
+            return Optional.ofNullable(container.readItem(id, new PartitionKey(id), type).getItem());
+        } catch (CosmosException e) {
+            if (e.getStatusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * The live index, and the index being rebuilt (if any) so that incremental updates are
+     * written to both while the rebuild runs.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ActiveIndex {
+        private String id;
+        private String indexName;
+        private String rebuildTarget;
+        private Instant updatedAt;
+    }
+    
+    /**
+     * Resume point of a rebuild: the Cosmos continuation token after the last page whose
+     * documents, and those of every page before it, are in the target index.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RebuildCheckpoint {
+        private String id;
+        private String targetIndex;
+        private String continuationToken;
+        private Long documentsIndexed;
+        private Long pagesRead;
+        private Instant startedAt;
+        private Instant updatedAt;
+    }
+    
+    /**
+     * Marks the pod running the rebuild. The etag of the last write is kept out of the
+     * document and used to make the next write conditional.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RebuildLease {
+        private String id;
+        private String owner;
+        private Instant expiresAt;
+        @JsonIgnore
+        private String etag;
+    }
+}
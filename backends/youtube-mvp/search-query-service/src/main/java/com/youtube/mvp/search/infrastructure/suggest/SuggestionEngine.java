@@ -0,0 +1,161 @@
+package com.youtube.mvp.search.infrastructure.suggest;
+
+import com.youtube.mvp.search.domain.model.Suggestion;
+import com.youtube.mvp.search.infrastructure.configuration.SuggestProperties;
+import com.youtube.mvp.search.infrastructure.repository.CosmosVideoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves autocomplete from an in-memory {@link SuggestionIndex} of popular video titles and
+ * search queries.
+ *
+ * <p>The index is rebuilt periodically from the {@code maxTitles} most viewed videos (titles
+ * weighted by views) and the queries searched since startup (counts halved on every rebuild,
+ * so stale queries fade out), then published with a single reference swap; lookups never see a partial index.</p>
+ *
+ * <p>Metrics: {@code search.suggest.local.latency}, {@code search.suggest.index.size} and
+ * {@code search.suggest.index.rebuild}.</p>
+ */
+@Slf4j
+@Component
+public class SuggestionEngine {
+    
+    private static final String TITLES_QUERY = "SELECT TOP %d c.title, c.viewCount FROM c ORDER BY c.viewCount DESC";
+    private static final int TITLES_PAGE_SIZE = 1_000;
+    
+    private final CosmosVideoRepository cosmosVideoRepository;
+    private final SuggestProperties properties;
+    private final AtomicReference<SuggestionIndex> snapshot = new AtomicReference<>();
+    private final ConcurrentHashMap<String, LongAdder> queryCounts = new ConcurrentHashMap<>();
+    private final Timer lookupLatency;
+    private final Timer rebuildDuration;
+    
+    public SuggestionEngine(CosmosVideoRepository cosmosVideoRepository,
+                            SuggestProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.cosmosVideoRepository = cosmosVideoRepository;
+        this.properties = properties;
+        this.lookupLatency = Timer.builder("search.suggest.local.latency")
+                .description("Latency of suggest lookups served from the in-memory index")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rebuildDuration = Timer.builder("search.suggest.index.rebuild")
+                .description("Time to rebuild the suggestion index")
+                .register(meterRegistry);
+        Gauge.builder("search.suggest.index.size", snapshot, ref -> ref.get() != null ? ref.get().size() : 0)
+                .description("Phrases in the current suggestion index")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Suggestions for {@code prefix}, or {@code null} if the local index cannot answer and the
+     * caller should use the remote suggester.
+     */
+    public List<Suggestion> suggest(String prefix, int maxResults) {
+        SuggestionIndex index = snapshot.get();
+        if (!properties.isEnabled() || index == null || prefix == null || maxResults > properties.getTopK()) {
+            return null;
+        }
+        
+        long start = System.nanoTime();
+        boolean fuzzy = properties.getMaxEdits() > 0 && prefix.strip().length() >= properties.getMinFuzzyPrefixLength();
+        List<SuggestionIndex.Match> matches = fuzzy
+                ? index.lookupFuzzy(prefix, maxResults, properties.getMaxEdits())
+                : index.lookup(prefix, maxResults);
+        lookupLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        
+        if (matches.isEmpty()) {
+            return null;
+        }
+        List<Suggestion> suggestions = new ArrayList<>(matches.size());
+        for (SuggestionIndex.Match match : matches) {
+            suggestions.add(Suggestion.builder()
+                    .text(match.text())
+                    .score((int) Math.min(Integer.MAX_VALUE, match.weight()))
+                    .build());
+        }
+        return suggestions;
+    }
+    
+    /**
+     * Counts a searched query towards the next rebuild.
+     */
+    public void recordQuery(String query) {
+        if (query == null || query.isBlank() || query.length() > 100) {
+            return;
+        }
+        String key = SuggestionIndex.normalize(query);
+        LongAdder count = queryCounts.get(key);
+        if (count == null) {
+            if (queryCounts.size() >= properties.getQueryLogMaxEntries()) {
+                return;
+            }
+            count = queryCounts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        count.increment();
+    }
+    
+    @Scheduled(initialDelay = 0, fixedDelayString = "${search.suggest.rebuild-interval:PT10M}")
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            rebuildDuration.record(() -> {
+                List<SuggestionIndex.Entry> entries = new ArrayList<>();
+                addTitles(entries);
+                addQueries(entries);
+                SuggestionIndex index = SuggestionIndex.build(entries, properties.getTopK());
+                snapshot.set(index);
+                log.info("Suggestion index rebuilt with {} phrases", index.size());
+            });
+        } catch (RuntimeException e) {
+            log.error("Suggestion index rebuild failed; keeping the previous index", e);
+        }
+    }
+    
+    private void addTitles(List<SuggestionIndex.Entry> entries) {
+        String query = String.format(TITLES_QUERY, Math.max(1, properties.getMaxTitles()));
+        int pageSize = Math.min(TITLES_PAGE_SIZE, Math.max(1, properties.getMaxTitles()));
+        for (CosmosVideoRepository.VideoPage page : cosmosVideoRepository.readPages(query, null, pageSize)) {
+            for (Map<String, Object> video : page.videos()) {
+                if (video.get("title") instanceof String title) {
+                    long views = video.get("viewCount") instanceof Number number ? number.longValue() : 0L;
+                    entries.add(new SuggestionIndex.Entry(title, Math.max(1L, views)));
+                }
+            }
+        }
+    }
+    
+    private void addQueries(List<SuggestionIndex.Entry> entries) {
+        Iterator<Map.Entry<String, LongAdder>> iterator = queryCounts.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, LongAdder> entry = iterator.next();
+            long count = entry.getValue().sum();
+            if (count >= properties.getMinQueryCount()) {
+                entries.add(new SuggestionIndex.Entry(entry.getKey(), count * properties.getQueryWeight()));
+            }
+            // Exponential decay: halve every count, forget queries that reach zero
+            long decayed = count / 2;
+            if (decayed == 0) {
+                iterator.remove();
+            } else {
+                entry.getValue().add(-(count - decayed));
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.youtube.mvp.search.infrastructure.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable radix trie over suggestion phrases with the top-K phrases precomputed at every node.
+ *
+ * <p>A prefix lookup walks at most {@code prefix.length()} characters and returns the node's
+ * precomputed list, so its cost does not depend on how many phrases share the prefix. Phrases
+ * are matched on their normalised form (lower-cased, whitespace collapsed) and returned in
+ * their most popular original spelling.</p>
+ *
+ * <p>Fuzzy lookup finds every trie position within a bounded Levenshtein distance of the
+ * prefix, computing one edit-distance row per trie character and pruning branches whose whole
+ * row exceeds the bound.</p>
+ */
+public final class SuggestionIndex {
+    
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int[] NONE = new int[0];
+    
+    private final String[] texts;
+    private final long[] weights;
+    private final Node root;
+    
+    private SuggestionIndex(String[] texts, long[] weights, Node root) {
+        this.texts = texts;
+        this.weights = weights;
+        this.root = root;
+    }
+    
+    /**
+     * A phrase to index. Weights of phrases with the same normalised form are added up.
+     */
+    public record Entry(String text, long weight) {
+    }
+    
+    /**
+     * A returned suggestion; {@code edits} is 0 for exact prefix matches.
+     */
+    public record Match(String text, long weight, int edits) {
+    }
+    
+    public static String normalize(String text) {
+        return WHITESPACE.matcher(text.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Like {@link #normalize} but keeps one trailing space, so "java " does not match "javascript".
+     */
+    static String normalizePrefix(String prefix) {
+        return WHITESPACE.matcher(prefix.stripLeading()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+    
+    public static SuggestionIndex build(List<Entry> entries, int topK) {
+        Map<String, Phrase> phrases = new HashMap<>(entries.size() * 2);
+        for (Entry entry : entries) {
+            if (entry.text() == null || entry.text().isBlank() || entry.weight() <= 0) {
+                continue;
+            }
+            String key = normalize(entry.text());
+            Phrase phrase = phrases.computeIfAbsent(key, Phrase::new);
+            phrase.total += entry.weight();
+            if (entry.weight() > phrase.bestSpellingWeight) {
+                phrase.bestSpellingWeight = entry.weight();
+                phrase.text = entry.text().trim();
+            }
+        }
+        
+        String[] keys = phrases.keySet().toArray(String[]::new);
+        Arrays.sort(keys);
+        String[] texts = new String[keys.length];
+        long[] weights = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            Phrase phrase = phrases.get(keys[i]);
+            texts[i] = phrase.text;
+            weights[i] = phrase.total;
+        }
+        
+        Node root = keys.length == 0
+                ? new Node("", new char[0], new Node[0], NONE)
+                : new Builder(keys, weights, Math.max(1, topK)).build(0, keys.length, 0);
+        return new SuggestionIndex(texts, weights, root);
+    }
+    
+    public int size() {
+        return texts.length;
+    }
+    
+    /**
+     * Most popular phrases starting with {@code prefix}, best first.
+     */
+    public List<Match> lookup(String prefix, int limit) {
+        String query = normalizePrefix(prefix);
+        Node node = root;
+        int position = 0;
+        while (true) {
+            String label = node.label;
+            for (int i = 0; i < label.length(); i++) {
+                if (position == query.length()) {
+                    return matches(node.top, limit, 0);
+                }
+                if (query.charAt(position++) != label.charAt(i)) {
+                    return List.of();
+                }
+            }
+            if (position == query.length()) {
+                return matches(node.top, limit, 0);
+            }
+            node = node.child(query.charAt(position));
+            if (node == null) {
+                return List.of();
+            }
+        }
+    }
+    
+    /**
+     * Exact prefix matches first, then phrases whose prefix is within {@code maxEdits} edits of
+     * {@code prefix}, each group ordered by popularity.
+     */
+    public List<Match> lookupFuzzy(String prefix, int limit, int maxEdits) {
+        List<Match> exact = lookup(prefix, limit);
+        if (exact.size() >= limit || maxEdits <= 0) {
+            return exact;
+        }
+        
+        String query = normalizePrefix(prefix);
+        int[] firstRow = new int[query.length() + 1];
+        for (int j = 0; j <= query.length(); j++) {
+            firstRow[j] = j;
+        }
+        int[] best = new int[texts.length];
+        Arrays.fill(best, Integer.MAX_VALUE);
+        Set<Integer> candidates = new LinkedHashSet<>();
+        collectFuzzy(root, query, firstRow, maxEdits, best, candidates);
+        
+        List<Match> result = new ArrayList<>(limit);
+        Set<String> seen = new LinkedHashSet<>();
+        for (Match match : exact) {
+            result.add(match);
+            seen.add(match.text());
+        }
+        candidates.stream()
+                .sorted((a, b) -> best[a] != best[b] ? Integer.compare(best[a], best[b]) : Long.compare(weights[b], weights[a]))
+                .filter(index -> !seen.contains(texts[index]))
+                .limit(limit - result.size())
+                .forEach(index -> result.add(new Match(texts[index], weights[index], best[index])));
+        return result;
+    }
+    
+    private void collectFuzzy(Node node, String query, int[] row, int maxEdits, int[] best, Set<Integer> candidates) {
+        int m = query.length();
+        String label = node.label;
+        for (int i = 0; i < label.length(); i++) {
+            char c = label.charAt(i);
+            int[] next = new int[m + 1];
+            next[0] = row[0] + 1;
+            int rowMin = next[0];
+            for (int j = 1; j <= m; j++) {
+                int substitution = row[j - 1] + (query.charAt(j - 1) == c ? 0 : 1);
+                next[j] = Math.min(substitution, Math.min(row[j] + 1, next[j - 1] + 1));
+                rowMin = Math.min(rowMin, next[j]);
+            }
+            if (rowMin > maxEdits) {
+                return;
+            }
+            row = next;
+            if (row[m] <= maxEdits) {
+                // The whole prefix is matched here, so is every phrase below this node
+                addCandidates(node, row[m], best, candidates);
+                return;
+            }
+        }
+        if (row[m] <= maxEdits) {
+            addCandidates(node, row[m], best, candidates);
+            return;
+        }
+        for (Node child : node.children) {
+            collectFuzzy(child, query, row, maxEdits, best, candidates);
+        }
+    }
+    
+    private static void addCandidates(Node node, int edits, int[] best, Set<Integer> candidates) {
+        for (int index : node.top) {
+            best[index] = Math.min(best[index], edits);
+            candidates.add(index);
+        }
+    }
+    
+    private List<Match> matches(int[] top, int limit, int edits) {
+        int count = Math.min(limit, top.length);
+        List<Match> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new Match(texts[top[i]], weights[top[i]], edits));
+        }
+        return result;
+    }
+    
+    private static final class Phrase {
+        String text;
+        long total;
+        long bestSpellingWeight;
+        
+        Phrase(String key) {
+            this.text = key;
+        }
+    }
+    
+    private static final class Node {
+        final String label;
+        final char[] childChars;
+        final Node[] children;
+        final int[] top;
+        
+        Node(String label, char[] childChars, Node[] children, int[] top) {
+            this.label = label;
+            this.childChars = childChars;
+            this.children = children;
+            this.top = top;
+        }
+        
+        Node child(char c) {
+            int index = Arrays.binarySearch(childChars, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+    
+    /**
+     * Builds the trie from the sorted keys: every node covers a contiguous key range sharing a
+     * prefix, so children are found by splitting the range on the next character.
+     */
+    private static final class Builder {
+        private final String[] keys;
+        private final long[] weights;
+        private final int topK;
+        
+        Builder(String[] keys, long[] weights, int topK) {
+            this.keys = keys;
+            this.weights = weights;
+            this.topK = topK;
+        }
+        
+        Node build(int from, int to, int depth) {
+            int end = depth + commonPrefixLength(keys[from], keys[to - 1], depth);
+            String label = keys[from].substring(depth, end);
+            
+            List<Character> childChars = new ArrayList<>();
+            List<Node> children = new ArrayList<>();
+            int start = from;
+            boolean terminal = keys[from].length() == end;
+            if (terminal) {
+                start++;
+            }
+            while (start < to) {
+                char c = keys[start].charAt(end);
+                int stop = start + 1;
+                while (stop < to && keys[stop].charAt(end) == c) {
+                    stop++;
+                }
+                childChars.add(c);
+                children.add(build(start, stop, end));
+                start = stop;
+            }
+            
+            char[] chars = new char[childChars.size()];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = childChars.get(i);
+            }
+            return new Node(label, chars, children.toArray(Node[]::new), top(terminal ? from : -1, children));
+        }
+        
+        private int[] top(int terminal, List<Node> children) {
+            int candidateCount = terminal >= 0 ? 1 : 0;
+            for (Node child : children) {
+                candidateCount += child.top.length;
+            }
+            int[] candidates = new int[candidateCount];
+            int n = 0;
+            if (terminal >= 0) {
+                candidates[n++] = terminal;
+            }
+            for (Node child : children) {
+                System.arraycopy(child.top, 0, candidates, n, child.top.length);
+                n += child.top.length;
+            }
+            // Candidate lists are at most (children + 1) * topK long; a sort is cheap here
+            Integer[] boxed = Arrays.stream(candidates).boxed().toArray(Integer[]::new);
+            Arrays.sort(boxed, (a, b) -> weights[a] != weights[b] ? Long.compare(weights[b], weights[a]) : Integer.compare(a, b));
+            int[] top = new int[Math.min(topK, boxed.length)];
+            for (int i = 0; i < top.length; i++) {
+                top[i] = boxed[i];
+            }
+            return top;
+        }
+        
+        private static int commonPrefixLength(String first, String last, int from) {
+            int max = Math.min(first.length(), last.length());
+            int i = from;
+            while (i < max && first.charAt(i) == last.charAt(i)) {
+                i++;
+            }
+            return i - from;
+        }
+    }
+}
@@ -79,7 +79,7 @@ public class SearchController {
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(
             summary = "Rebuild search index",
-            description = "Rebuilds the entire search index from source data (admin only)",
+            description = "Rebuilds the entire search index from source data in the background, resuming an interrupted rebuild unless forceRebuild is set (admin only)",
             responses = {
                     @ApiResponse(responseCode = "202", description = "Rebuild started"),
                     @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content),
@@ -87,12 +87,27 @@ public class SearchController {
             },
             security = @SecurityRequirement(name = "BearerAuth")
     )
-    public ResponseEntity<Void> rebuildIndex(@Valid @RequestBody(required = false) IndexRebuildRequest request) {
+    public ResponseEntity<IndexRebuildResponse> rebuildIndex(@Valid @RequestBody(required = false) IndexRebuildRequest request) {
         log.info("Index rebuild requested");
         
-        searchApplicationService.rebuildIndex();
+        IndexRebuildResponse response = searchApplicationService.rebuildIndex(request);
         
-        return ResponseEntity.accepted().build();
+        return ResponseEntity.accepted().body(response);
+    }
+    
+    @GetMapping("/index/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Index rebuild status",
+            description = "Progress and throughput of the current or last index rebuild (admin only)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Rebuild status retrieved"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content)
+            },
+            security = @SecurityRequirement(name = "BearerAuth")
+    )
+    public ResponseEntity<IndexRebuildResponse> getRebuildStatus() {
+        return ResponseEntity.ok(searchApplicationService.getRebuildStatus());
     }
     
     private String generateETag(SearchResponse response) {
@@ -1,10 +1,13 @@
 package com.youtube.mvp.search.application.service;
 
+import com.youtube.mvp.search.application.dto.IndexRebuildRequest;
+import com.youtube.mvp.search.application.dto.IndexRebuildResponse;
 import com.youtube.mvp.search.application.dto.SearchRequest;
 import com.youtube.mvp.search.application.dto.SearchResponse;
 import com.youtube.mvp.search.application.dto.SuggestionRequest;
 import com.youtube.mvp.search.application.dto.SuggestionResponse;
 import com.youtube.mvp.search.application.mapper.SearchMapper;
+import com.youtube.mvp.search.domain.model.IndexRebuildProgress;
 import com.youtube.mvp.search.domain.model.SearchDocument;
 import com.youtube.mvp.search.domain.model.SearchFilter;
 import com.youtube.mvp.search.domain.model.SearchResult;
@@ -137,11 +140,29 @@ class SearchApplicationServiceTest {
     
     @Test
     void rebuildIndex_ShouldCallService() {
+        // Given
+        IndexRebuildProgress progress = IndexRebuildProgress.builder()
+                .state(IndexRebuildProgress.State.RUNNING)
+                .build();
+        IndexRebuildResponse response = IndexRebuildResponse.builder().state("RUNNING").build();
+        when(searchService.rebuildIndex(true)).thenReturn(progress);
+        when(searchMapper.toRebuildResponse(progress)).thenReturn(response);
+        
+        // When
+        IndexRebuildResponse result = service.rebuildIndex(IndexRebuildRequest.builder().forceRebuild(true).build());
+        
+        // Then
+        assertThat(result).isSameAs(response);
+        verify(searchService).rebuildIndex(true);
+    }
+    
+    @Test
+    void rebuildIndex_WithoutRequest_ShouldResume() {
         // When
-        service.rebuildIndex();
+        service.rebuildIndex(null);
         
         // Then
-        verify(searchService).rebuildIndex();
+        verify(searchService).rebuildIndex(false);
     }
     
     private SearchDocument createTestDocument() {
@@ -3,10 +3,11 @@ package com.youtube.mvp.search.infrastructure.adapter;
 import com.azure.search.documents.models.SearchOptions;
 import com.azure.search.documents.models.SearchResults;
 import com.azure.search.documents.models.SuggestResult;
+import com.youtube.mvp.search.domain.model.IndexRebuildProgress;
 import com.youtube.mvp.search.domain.model.SearchDocument;
 import com.youtube.mvp.search.domain.model.SearchFilter;
 import com.youtube.mvp.search.infrastructure.client.AzureSearchClient;
-import com.youtube.mvp.search.infrastructure.repository.CosmosVideoRepository;
+import com.youtube.mvp.search.infrastructure.rebuild.IndexRebuildPipeline;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -26,7 +27,7 @@ class AzureSearchAdapterTest {
     private AzureSearchClient azureSearchClient;
     
     @Mock
-    private CosmosVideoRepository cosmosVideoRepository;
+    private IndexRebuildPipeline indexRebuildPipeline;
     
     @InjectMocks
     private AzureSearchAdapter adapter;
@@ -88,6 +89,23 @@ class AzureSearchAdapterTest {
         verify(azureSearchClient).uploadDocuments(anyList());
     }
     
+    @Test
+    void upsertDocuments_ShouldSendOneRequestAndReportRejectedVideos() {
+        // Given
+        List<SearchDocument> documents = Arrays.asList(
+                SearchDocument.builder().documentId("video-1").videoId("video-1").build(),
+                SearchDocument.builder().documentId("video-2").videoId("video-2").build()
+        );
+        when(azureSearchClient.uploadDocuments(anyList())).thenReturn(List.of("video-2"));
+        
+        // When
+        Set<String> rejected = adapter.upsertDocuments(documents);
+        
+        // Then
+        assertThat(rejected).containsExactly("video-2");
+        verify(azureSearchClient, times(1)).uploadDocuments(argThat(list -> list.size() == 2));
+    }
+    
     @Test
     void deleteDocument_ShouldCallAzureSearch() {
         // Given
@@ -101,28 +119,20 @@ class AzureSearchAdapterTest {
     }
     
     @Test
-    void rebuildIndex_ShouldFetchAllVideosAndIndex() {
+    void rebuildIndex_ShouldStartPipeline() {
         // Given
-        List<Map<String, Object>> videos = Arrays.asList(
-                createVideoMap("video-1"),
-                createVideoMap("video-2")
-        );
-        
-        when(cosmosVideoRepository.findAllVideos()).thenReturn(videos);
+        IndexRebuildProgress progress = IndexRebuildProgress.builder()
+                .state(IndexRebuildProgress.State.RUNNING)
+                .targetIndex("video-search-index-20240101-000000")
+                .build();
+        when(indexRebuildPipeline.start(true)).thenReturn(progress);
         
         // When
-        adapter.rebuildIndex();
+        IndexRebuildProgress result = adapter.rebuildIndex(true);
         
         // Then
-        verify(cosmosVideoRepository).findAllVideos();
-        verify(azureSearchClient, atLeastOnce()).uploadDocuments(anyList());
-    }
-    
-    private Map<String, Object> createVideoMap(String videoId) {
-        Map<String, Object> video = new HashMap<>();
-        video.put("videoId", videoId);
-        video.put("title", "Test Video");
-        video.put("description", "Test Description");
-        return video;
+        assertThat(result).isSameAs(progress);
+        verify(indexRebuildPipeline).start(true);
+        verifyNoInteractions(azureSearchClient);
     }
 }
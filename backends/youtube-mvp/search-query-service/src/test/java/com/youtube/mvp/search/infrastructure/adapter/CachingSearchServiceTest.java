@@ -0,0 +1,181 @@
+package com.youtube.mvp.search.infrastructure.adapter;
+
+import com.youtube.mvp.search.domain.model.SearchDocument;
+import com.youtube.mvp.search.domain.model.SearchFilter;
+import com.youtube.mvp.search.domain.model.SearchResult;
+import com.youtube.mvp.search.domain.service.SearchService;
+import com.youtube.mvp.search.infrastructure.configuration.SearchCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingSearchServiceTest {
+    
+    @Mock
+    private SearchService delegate;
+    
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CachingSearchService cache;
+    
+    @BeforeEach
+    void setUp() {
+        SearchCacheProperties properties = new SearchCacheProperties();
+        properties.setTtl(Duration.ofSeconds(30));
+        properties.setStaleWhileRevalidate(Duration.ofSeconds(60));
+        // Refreshes run inline so the test can observe them
+        cache = new CachingSearchService(delegate, properties, Runnable::run, meterRegistry, clock::get);
+    }
+    
+    @Test
+    void search_EquivalentQueriesShouldHitCache() {
+        // Given
+        SearchResult result = result("video-1");
+        when(delegate.search(eq("Java  Tutorial"), any(), eq(1), eq(20), eq("relevance"))).thenReturn(result);
+        
+        // When
+        SearchResult first = cache.search("Java  Tutorial", filter(), 1, 20, null);
+        SearchResult second = cache.search(" java tutorial ", filter(), 1, 20, "Relevance");
+        
+        // Then
+        assertThat(first).isSameAs(result);
+        assertThat(second).isSameAs(result);
+        verify(delegate, times(1)).search(anyString(), any(), anyInt(), anyInt(), anyString());
+        assertThat(meterRegistry.get("search.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1.0);
+    }
+    
+    @Test
+    void search_DifferentFiltersShouldNotShareEntries() {
+        // Given
+        when(delegate.search(anyString(), any(), anyInt(), anyInt(), anyString())).thenReturn(result("video-1"));
+        
+        // When
+        cache.search("java", filter(), 1, 20, "relevance");
+        cache.search("java", SearchFilter.builder().category("music").build(), 1, 20, "relevance");
+        cache.search("java", filter(), 2, 20, "relevance");
+        
+        // Then
+        verify(delegate, times(3)).search(anyString(), any(), anyInt(), anyInt(), anyString());
+    }
+    
+    @Test
+    void search_StaleEntryShouldBeServedAndRefreshed() {
+        // Given
+        SearchResult stale = result("video-1");
+        SearchResult fresh = result("video-2");
+        when(delegate.search(anyString(), any(), anyInt(), anyInt(), anyString())).thenReturn(stale, fresh);
+        cache.search("java", filter(), 1, 20, "relevance");
+        
+        // When
+        clock.addAndGet(Duration.ofSeconds(45).toNanos());
+        SearchResult served = cache.search("java", filter(), 1, 20, "relevance");
+        SearchResult afterRefresh = cache.search("java", filter(), 1, 20, "relevance");
+        
+        // Then
+        assertThat(served).isSameAs(stale);
+        assertThat(afterRefresh).isSameAs(fresh);
+        verify(delegate, times(2)).search(anyString(), any(), anyInt(), anyInt(), anyString());
+    }
+    
+    @Test
+    void search_ExpiredEntryShouldBeReloaded() {
+        // Given
+        when(delegate.search(anyString(), any(), anyInt(), anyInt(), anyString()))
+                .thenReturn(result("video-1"), result("video-2"));
+        cache.search("java", filter(), 1, 20, "relevance");
+        
+        // When
+        clock.addAndGet(Duration.ofSeconds(120).toNanos());
+        SearchResult reloaded = cache.search("java", filter(), 1, 20, "relevance");
+        
+        // Then
+        assertThat(reloaded.getDocuments()).extracting(SearchDocument::getVideoId).containsExactly("video-2");
+    }
+    
+    @Test
+    void search_ConcurrentMissesShouldShareOneBackendCall() throws Exception {
+        // Given
+        CountDownLatch backendEntered = new CountDownLatch(1);
+        CountDownLatch releaseBackend = new CountDownLatch(1);
+        when(delegate.search(anyString(), any(), anyInt(), anyInt(), anyString())).thenAnswer(invocation -> {
+            backendEntered.countDown();
+            releaseBackend.await(5, TimeUnit.SECONDS);
+            return result("video-1");
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        
+        try {
+            // When
+            Future<SearchResult> leader = callers.submit(() -> cache.search("trending", filter(), 1, 20, "relevance"));
+            assertThat(backendEntered.await(5, TimeUnit.SECONDS)).isTrue();
+            List<Future<SearchResult>> followers = List.of(
+                    callers.submit(() -> cache.search("trending", filter(), 1, 20, "relevance")),
+                    callers.submit(() -> cache.search("trending", filter(), 1, 20, "relevance")));
+            while (meterRegistry.get("search.cache.coalesced").counter().count() < 2) {
+                Thread.onSpinWait();
+            }
+            releaseBackend.countDown();
+            
+            // Then
+            SearchResult expected = leader.get(5, TimeUnit.SECONDS);
+            for (Future<SearchResult> follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(expected);
+            }
+            verify(delegate, times(1)).search(anyString(), any(), anyInt(), anyInt(), anyString());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+    
+    @Test
+    void upsertDocument_ShouldEvictPagesContainingVideo() {
+        // Given
+        when(delegate.search(anyString(), any(), anyInt(), anyInt(), anyString()))
+                .thenReturn(result("video-1", "video-2"), result("video-3"), result("video-1"));
+        cache.search("java", filter(), 1, 20, "relevance");
+        cache.search("python", filter(), 1, 20, "relevance");
+        
+        // When
+        cache.upsertDocument(SearchDocument.builder().videoId("video-2").build());
+        cache.search("java", filter(), 1, 20, "relevance");
+        cache.search("python", filter(), 1, 20, "relevance");
+        
+        // Then
+        verify(delegate).upsertDocument(any());
+        verify(delegate, times(2)).search(eq("java"), any(), anyInt(), anyInt(), anyString());
+        verify(delegate, times(1)).search(eq("python"), any(), anyInt(), anyInt(), anyString());
+    }
+    
+    private static SearchFilter filter() {
+        return SearchFilter.builder().language("en").build();
+    }
+    
+    private static SearchResult result(String... videoIds) {
+        return SearchResult.builder()
+                .documents(java.util.Arrays.stream(videoIds)
+                        .map(id -> SearchDocument.builder().videoId(id).build())
+                        .toList())
+                .totalCount((long) videoIds.length)
+                .page(1)
+                .pageSize(20)
+                .hasMore(false)
+                .build();
+    }
+}
@@ -84,4 +84,37 @@ class AzureSearchClientTest {
         // Then
         wireMockServer.verify(postRequestedFor(urlPathEqualTo("/docs/test-index/docs/index")));
     }
+    
+    @Test
+    void uploadDocuments_WhenRebuildTargetRejectsWrite_ShouldReportDocumentFailed() {
+        // Given
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("documentId", "doc1");
+        doc.put("title", "Test");
+        
+        stubFor(post(urlPathEqualTo("/docs/test-index/docs/index"))
+                .withQueryParam("api-version", equalTo("2023-11-01"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"value\":[{\"key\":\"doc1\",\"status\":true}]}")));
+        stubFor(post(urlPathEqualTo("/docs/test-index-rebuild/docs/index"))
+                .withQueryParam("api-version", equalTo("2023-11-01"))
+                .willReturn(aResponse()
+                        .withStatus(400)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"error\":{\"code\":\"InvalidRequest\",\"message\":\"Bad request\"}}")));
+        azureSearchClient.setRebuildTarget("test-index-rebuild");
+        
+        try {
+            // When
+            List<String> failed = azureSearchClient.uploadDocuments(List.of(doc));
+            
+            // Then
+            assertThat(failed).containsExactly("doc1");
+            wireMockServer.verify(postRequestedFor(urlPathEqualTo("/docs/test-index-rebuild/docs/index")));
+        } finally {
+            azureSearchClient.setRebuildTarget(null);
+        }
+    }
 }
@@ -1,20 +1,30 @@
 package com.youtube.mvp.search.infrastructure.messaging;
 
+import com.azure.core.util.BinaryData;
 import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
 import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azure.messaging.servicebus.models.DeadLetterOptions;
 import com.youtube.mvp.search.application.service.SearchApplicationService;
 import com.youtube.mvp.search.domain.model.SearchDocument;
+import com.youtube.mvp.search.infrastructure.configuration.IndexUpdateProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -27,62 +37,231 @@ class IndexUpdateConsumerTest {
     @Mock
     private SearchApplicationService searchApplicationService;
     
-    @Mock
-    private ObjectMapper objectMapper;
-    
-    @InjectMocks
+    private final AtomicLong sequence = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IndexUpdateProperties properties;
+    private ExecutorService flushExecutor;
     private IndexUpdateConsumer consumer;
     
+    @BeforeEach
+    void setUp() {
+        properties = new IndexUpdateProperties();
+        flushExecutor = Executors.newFixedThreadPool(2);
+        consumer = new IndexUpdateConsumer(receiverClient, searchApplicationService, new ObjectMapper(),
+                properties, flushExecutor, meterRegistry);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        flushExecutor.shutdownNow();
+    }
+    
     @Test
-    void processMessage_PublishedEvent_ShouldCallUpsert() throws Exception {
+    void flush_UpdatesForSameVideo_ShouldWriteNewestOnceAndCompleteAll() {
         // Given
-        String eventJson = """
-                {
-                    "eventType": "PUBLISHED",
-                    "videoId": "video-1",
-                    "data": {
-                        "videoId": "video-1",
-                        "title": "Test Video",
-                        "description": "Test Description"
-                    }
-                }
-                """;
+        ServiceBusReceivedMessage first = message(updated("video-1", "First", 1000L));
+        ServiceBusReceivedMessage newest = message(updated("video-1", "Newest", 3000L));
+        ServiceBusReceivedMessage late = message(updated("video-1", "Delivered late", 2000L));
+        when(searchApplicationService.applyIndexUpdates(anyList(), anyList())).thenReturn(Set.of());
+        
+        // When
+        IndexUpdateBatch batch = new IndexUpdateBatch();
+        consumer.add(batch, first);
+        consumer.add(batch, newest);
+        consumer.add(batch, late);
+        consumer.flush(batch);
+        
+        // Then
+        ArgumentCaptor<List<SearchDocument>> upserts = ArgumentCaptor.forClass(List.class);
+        verify(searchApplicationService).applyIndexUpdates(upserts.capture(), eq(List.of()));
+        assertThat(upserts.getValue()).singleElement()
+                .satisfies(document -> {
+                    assertThat(document.getTitle()).isEqualTo("Newest");
+                    assertThat(document.getDocumentId()).isEqualTo("video-1");
+                });
+        verify(receiverClient).completeMessage(first);
+        verify(receiverClient).completeMessage(newest);
+        verify(receiverClient).completeMessage(late);
+        assertThat(meterRegistry.counter("search.index.updates.coalesced").count()).isEqualTo(2.0);
+    }
+    
+    @Test
+    void flush_DeleteWithLaterUpdate_ShouldDelete() {
+        // Given
+        ServiceBusReceivedMessage delete = message("""
+                {"eventType": "DELETED", "videoId": "video-1", "timestamp": 1000}
+                """);
+        ServiceBusReceivedMessage update = message(updated("video-1", "Still here?", 5000L));
+        when(searchApplicationService.applyIndexUpdates(anyList(), anyList())).thenReturn(Set.of());
+        
+        // When
+        IndexUpdateBatch batch = new IndexUpdateBatch();
+        consumer.add(batch, delete);
+        consumer.add(batch, update);
+        consumer.flush(batch);
         
-        ServiceBusReceivedMessage message = createMockMessage(eventJson);
+        // Then
+        verify(searchApplicationService).applyIndexUpdates(List.of(), List.of("video-1"));
+        verify(receiverClient).completeMessage(delete);
+        verify(receiverClient).completeMessage(update);
+    }
+    
+    @Test
+    void flush_RejectedDocument_ShouldAbandonOnlyItsMessages() {
+        // Given
+        ServiceBusReceivedMessage accepted = message(updated("video-1", "Accepted", 1000L));
+        ServiceBusReceivedMessage rejected = message(updated("video-2", "Rejected", 1000L));
+        when(searchApplicationService.applyIndexUpdates(anyList(), anyList())).thenReturn(Set.of("video-2"));
         
         // When
-        consumer.processMessage(message);
+        IndexUpdateBatch batch = new IndexUpdateBatch();
+        consumer.add(batch, accepted);
+        consumer.add(batch, rejected);
+        consumer.flush(batch);
         
         // Then
-        verify(searchApplicationService).handleIndexUpdate(any(SearchDocument.class), eq("PUBLISHED"));
-        verify(receiverClient).completeMessage(message);
+        verify(receiverClient).completeMessage(accepted);
+        verify(receiverClient).abandonMessage(rejected);
+        verify(receiverClient, never()).completeMessage(rejected);
     }
     
     @Test
-    void processMessage_DeletedEvent_ShouldCallDelete() throws Exception {
+    void flush_MoreVideosThanRequestLimit_ShouldSplitRequests() {
         // Given
-        String eventJson = """
-                {
-                    "eventType": "DELETED",
-                    "videoId": "video-1"
-                }
-                """;
+        properties.setMaxDocumentsPerRequest(2);
+        // Requests run in parallel; fail the one carrying video-3
+        when(searchApplicationService.applyIndexUpdates(anyList(), anyList())).thenAnswer(invocation -> {
+            List<SearchDocument> upserts = invocation.getArgument(0);
+            if (upserts.stream().anyMatch(document -> "video-3".equals(document.getVideoId()))) {
+                throw new RuntimeException("Document upload failed");
+            }
+            return Set.of();
+        });
+        
+        // When
+        IndexUpdateBatch batch = new IndexUpdateBatch();
+        for (int i = 1; i <= 3; i++) {
+            consumer.add(batch, message(updated("video-" + i, "Video " + i, 1000L)));
+        }
+        consumer.flush(batch);
+        
+        // Then
+        verify(searchApplicationService, times(2)).applyIndexUpdates(anyList(), anyList());
+        verify(receiverClient, times(1)).abandonMessage(any());
+        verify(receiverClient, times(2)).completeMessage(any());
+        assertThat(meterRegistry.timer("search.index.freshness.lag").count()).isEqualTo(2L);
+    }
+    
+    @Test
+    void flush_RedeliveredUpdateOlderThanApplied_ShouldCompleteWithoutWriting() {
+        // Given
+        ServiceBusReceivedMessage older = message(updated("video-1", "Older", 1000L));
+        ServiceBusReceivedMessage newer = message(updated("video-1", "Newer", 2000L));
+        when(searchApplicationService.applyIndexUpdates(anyList(), anyList()))
+                .thenReturn(Set.of("video-1"))
+                .thenReturn(Set.of());
+        IndexUpdateBatch first = new IndexUpdateBatch();
+        consumer.add(first, older);
+        consumer.flush(first);
+        IndexUpdateBatch second = new IndexUpdateBatch();
+        consumer.add(second, newer);
+        consumer.flush(second);
+        
+        // When
+        IndexUpdateBatch redelivered = new IndexUpdateBatch();
+        consumer.add(redelivered, older);
+        consumer.flush(redelivered);
+        
+        // Then
+        verify(searchApplicationService, times(2)).applyIndexUpdates(anyList(), anyList());
+        verify(receiverClient).abandonMessage(older);
+        verify(receiverClient).completeMessage(older);
+        verify(receiverClient).completeMessage(newer);
+        assertThat(meterRegistry.counter("search.index.updates.stale").count()).isEqualTo(1.0);
+    }
+    
+    @Test
+    void flush_UpsertNewerThanAppliedDelete_ShouldWrite() {
+        // Given
+        ServiceBusReceivedMessage delete = message("""
+                {"eventType": "DELETED", "videoId": "video-1", "timestamp": 1000}
+                """);
+        ServiceBusReceivedMessage republished = message(updated("video-1", "Republished", 2000L));
+        when(searchApplicationService.applyIndexUpdates(anyList(), anyList())).thenReturn(Set.of());
+        IndexUpdateBatch first = new IndexUpdateBatch();
+        consumer.add(first, delete);
+        consumer.flush(first);
+        
+        // When
+        IndexUpdateBatch second = new IndexUpdateBatch();
+        consumer.add(second, republished);
+        consumer.flush(second);
+        
+        // Then
+        ArgumentCaptor<List<SearchDocument>> upserts = ArgumentCaptor.forClass(List.class);
+        verify(searchApplicationService, times(2)).applyIndexUpdates(upserts.capture(), anyList());
+        assertThat(upserts.getAllValues().get(1)).singleElement()
+                .satisfies(document -> assertThat(document.getTitle()).isEqualTo("Republished"));
+        verify(receiverClient).completeMessage(republished);
+        assertThat(meterRegistry.counter("search.index.updates.stale").count()).isZero();
+    }
+    
+    @Test
+    void flush_RedeliveredUpdateNeverApplied_ShouldWrite() {
+        // Given
+        ServiceBusReceivedMessage update = message(updated("video-1", "Retried", 1000L));
+        when(searchApplicationService.applyIndexUpdates(anyList(), anyList()))
+                .thenReturn(Set.of("video-1"))
+                .thenReturn(Set.of());
+        IndexUpdateBatch first = new IndexUpdateBatch();
+        consumer.add(first, update);
+        consumer.flush(first);
+        
+        // When
+        IndexUpdateBatch redelivered = new IndexUpdateBatch();
+        consumer.add(redelivered, update);
+        consumer.flush(redelivered);
         
-        ServiceBusReceivedMessage message = createMockMessage(eventJson);
+        // Then
+        verify(searchApplicationService, times(2)).applyIndexUpdates(anyList(), anyList());
+        verify(receiverClient).completeMessage(update);
+        assertThat(meterRegistry.counter("search.index.updates.stale").count()).isZero();
+    }
+    
+    @Test
+    void add_MalformedMessage_ShouldDeadLetter() {
+        // Given
+        ServiceBusReceivedMessage malformed = message("{\"eventType\": \"UPDATED\"}");
         
         // When
-        consumer.processMessage(message);
+        IndexUpdateBatch batch = new IndexUpdateBatch();
+        consumer.add(batch, malformed);
         
         // Then
-        verify(searchApplicationService).handleIndexUpdate(any(SearchDocument.class), eq("DELETED"));
+        assertThat(batch.isEmpty()).isTrue();
+        verify(receiverClient).deadLetterMessage(eq(malformed), any(DeadLetterOptions.class));
+    }
+    
+    private static String updated(String videoId, String title, long timestamp) {
+        return """
+                {
+                    "eventType": "UPDATED",
+                    "videoId": "%s",
+                    "timestamp": %d,
+                    "data": {
+                        "videoId": "%s",
+                        "title": "%s"
+                    }
+                }
+                """.formatted(videoId, timestamp, videoId, title);
     }
     
-    private ServiceBusReceivedMessage createMockMessage(String body) {
+    private ServiceBusReceivedMessage message(String body) {
         ServiceBusReceivedMessage message = mock(ServiceBusReceivedMessage.class);
-        when(message.getBody()).thenReturn(body.getBytes(StandardCharsets.UTF_8));
-        when(message.getMessageId()).thenReturn("msg-1");
-        when(message.getSequenceNumber()).thenReturn(1L);
-        when(message.getEnqueuedTime()).thenReturn(OffsetDateTime.now());
+        lenient().when(message.getBody()).thenReturn(BinaryData.fromString(body));
+        lenient().when(message.getMessageId()).thenReturn("msg-" + sequence.incrementAndGet());
+        lenient().when(message.getSequenceNumber()).thenReturn(sequence.get());
+        lenient().when(message.getEnqueuedTime()).thenReturn(OffsetDateTime.now());
         return message;
     }
 }
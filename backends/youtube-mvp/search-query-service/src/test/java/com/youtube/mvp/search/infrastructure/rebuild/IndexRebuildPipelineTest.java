@@ -0,0 +1,261 @@
+package com.youtube.mvp.search.infrastructure.rebuild;
+
+import com.youtube.mvp.search.domain.model.IndexRebuildProgress;
+import com.youtube.mvp.search.infrastructure.client.AzureSearchClient;
+import com.youtube.mvp.search.infrastructure.client.SearchThrottledException;
+import com.youtube.mvp.search.infrastructure.configuration.IndexRebuildProperties;
+import com.youtube.mvp.search.infrastructure.repository.CosmosVideoRepository;
+import com.youtube.mvp.search.infrastructure.repository.IndexStateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndexRebuildPipelineTest {
+    
+    @Mock
+    private CosmosVideoRepository cosmosVideoRepository;
+    
+    @Mock
+    private AzureSearchClient azureSearchClient;
+    
+    @Mock
+    private IndexStateRepository indexStateRepository;
+    
+    private ExecutorService executor;
+    private IndexRebuildPipeline pipeline;
+    
+    @BeforeEach
+    void setUp() {
+        IndexRebuildProperties properties = new IndexRebuildProperties();
+        // One uploader keeps checkpoint order deterministic
+        properties.setUploaderThreads(1);
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(5));
+        executor = Executors.newFixedThreadPool(2);
+        pipeline = new IndexRebuildPipeline(cosmosVideoRepository, azureSearchClient, indexStateRepository,
+                properties, executor, new SimpleMeterRegistry());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void start_ShouldIndexAllPagesRetryThrottledBatchAndSwap() throws Exception {
+        // Given
+        givenLeaseAcquired();
+        when(azureSearchClient.getActiveIndexName()).thenReturn("videos");
+        when(indexStateRepository.findCheckpoint()).thenReturn(Optional.empty());
+        when(azureSearchClient.getBaseIndexName()).thenReturn("videos");
+        when(cosmosVideoRepository.readPages(anyString(), isNull(), anyInt())).thenReturn(List.of(
+                page("t1", "video-1", "video-2"),
+                page("t2", "video-3", "video-4"),
+                page(null, "video-5")));
+        when(azureSearchClient.uploadToIndex(anyString(), anyList()))
+                .thenThrow(new SearchThrottledException("busy", Duration.ZERO, null))
+                .thenReturn(List.of());
+        
+        // When
+        pipeline.start(false);
+        IndexRebuildProgress progress = awaitFinished();
+        
+        // Then
+        assertThat(progress.getState()).isEqualTo(IndexRebuildProgress.State.COMPLETED);
+        assertThat(progress.getDocumentsIndexed()).isEqualTo(5L);
+        assertThat(progress.getPagesRead()).isEqualTo(3L);
+        assertThat(progress.getThrottledRequests()).isEqualTo(1L);
+        assertThat(progress.getTargetIndex()).startsWith("videos-");
+        assertThat(progress.getActiveIndex()).isEqualTo(progress.getTargetIndex());
+        
+        verify(azureSearchClient).createIndex(progress.getTargetIndex());
+        verify(azureSearchClient).setRebuildTarget(progress.getTargetIndex());
+        verify(azureSearchClient).activateIndex(progress.getTargetIndex());
+        verify(indexStateRepository).deleteCheckpoint();
+        verify(indexStateRepository).releaseLease(any());
+        
+        ArgumentCaptor<IndexStateRepository.RebuildCheckpoint> checkpoints =
+                ArgumentCaptor.forClass(IndexStateRepository.RebuildCheckpoint.class);
+        verify(indexStateRepository, times(2)).saveCheckpoint(checkpoints.capture());
+        assertThat(checkpoints.getAllValues())
+                .extracting(IndexStateRepository.RebuildCheckpoint::getContinuationToken)
+                .containsExactly("t1", "t2");
+        
+        ArgumentCaptor<IndexStateRepository.ActiveIndex> activeIndexes =
+                ArgumentCaptor.forClass(IndexStateRepository.ActiveIndex.class);
+        verify(indexStateRepository, times(2)).saveActiveIndex(activeIndexes.capture());
+        assertThat(activeIndexes.getAllValues().get(0).getRebuildTarget()).isEqualTo(progress.getTargetIndex());
+        assertThat(activeIndexes.getAllValues().get(1).getIndexName()).isEqualTo(progress.getTargetIndex());
+        assertThat(activeIndexes.getAllValues().get(1).getRebuildTarget()).isNull();
+    }
+    
+    @Test
+    void start_WithCheckpoint_ShouldResumeIntoSameIndex() throws Exception {
+        // Given
+        givenLeaseAcquired();
+        when(azureSearchClient.getActiveIndexName()).thenReturn("videos");
+        when(indexStateRepository.findCheckpoint()).thenReturn(Optional.of(IndexStateRepository.RebuildCheckpoint.builder()
+                .targetIndex("videos-20240101-000000")
+                .continuationToken("t1")
+                .documentsIndexed(2L)
+                .pagesRead(1L)
+                .build()));
+        when(cosmosVideoRepository.readPages(anyString(), eq("t1"), anyInt()))
+                .thenReturn(List.of(page(null, "video-3")));
+        when(azureSearchClient.uploadToIndex(eq("videos-20240101-000000"), anyList())).thenReturn(List.of());
+        
+        // When
+        IndexRebuildProgress started = pipeline.start(false);
+        IndexRebuildProgress progress = awaitFinished();
+        
+        // Then
+        assertThat(started.getResumed()).isTrue();
+        assertThat(progress.getState()).isEqualTo(IndexRebuildProgress.State.COMPLETED);
+        assertThat(progress.getDocumentsIndexed()).isEqualTo(3L);
+        verify(azureSearchClient, never()).createIndex(anyString());
+        verify(azureSearchClient).activateIndex("videos-20240101-000000");
+    }
+    
+    @Test
+    void start_WhenUploadFails_ShouldKeepCheckpointAndReportFailure() throws Exception {
+        // Given
+        givenLeaseAcquired();
+        when(azureSearchClient.getActiveIndexName()).thenReturn("videos");
+        when(indexStateRepository.findCheckpoint()).thenReturn(Optional.empty());
+        when(azureSearchClient.getBaseIndexName()).thenReturn("videos");
+        when(cosmosVideoRepository.readPages(anyString(), isNull(), anyInt()))
+                .thenReturn(List.of(page("t1", "video-1"), page(null, "video-2")));
+        when(azureSearchClient.uploadToIndex(anyString(), anyList()))
+                .thenReturn(List.of())
+                .thenThrow(new RuntimeException("Document upload failed"));
+        
+        // When
+        pipeline.start(false);
+        IndexRebuildProgress progress = awaitFinished();
+        
+        // Then
+        assertThat(progress.getState()).isEqualTo(IndexRebuildProgress.State.FAILED);
+        assertThat(progress.getError()).isEqualTo("Document upload failed");
+        verify(indexStateRepository).saveCheckpoint(any());
+        verify(indexStateRepository, never()).deleteCheckpoint();
+        verify(azureSearchClient, never()).activateIndex(anyString());
+    }
+    
+    @Test
+    void start_WhenLeaseLost_ShouldNotSwap() throws Exception {
+        // Given
+        givenLeaseAcquired();
+        when(indexStateRepository.renewLease(any(), any())).thenReturn(false);
+        when(azureSearchClient.getActiveIndexName()).thenReturn("videos");
+        when(indexStateRepository.findCheckpoint()).thenReturn(Optional.empty());
+        when(azureSearchClient.getBaseIndexName()).thenReturn("videos");
+        when(cosmosVideoRepository.readPages(anyString(), isNull(), anyInt()))
+                .thenReturn(List.of(page("t1", "video-1"), page(null, "video-2")));
+        when(azureSearchClient.uploadToIndex(anyString(), anyList())).thenReturn(List.of());
+        
+        // When
+        pipeline.start(false);
+        IndexRebuildProgress progress = awaitFinished();
+        
+        // Then
+        assertThat(progress.getState()).isEqualTo(IndexRebuildProgress.State.FAILED);
+        assertThat(progress.getError()).startsWith("Lost the rebuild lease");
+        verify(indexStateRepository, never()).saveCheckpoint(any());
+        verify(azureSearchClient, never()).activateIndex(anyString());
+    }
+    
+    @Test
+    void start_WhenLeaseHeldElsewhere_ShouldNotStartRebuild() {
+        // Given
+        when(indexStateRepository.tryAcquireLease(anyString(), any())).thenReturn(Optional.empty());
+        when(indexStateRepository.findCheckpoint()).thenReturn(Optional.of(IndexStateRepository.RebuildCheckpoint.builder()
+                .targetIndex("videos-20240101-000000")
+                .build()));
+        when(azureSearchClient.getActiveIndexName()).thenReturn("videos");
+        
+        // When
+        IndexRebuildProgress progress = pipeline.start(true);
+        
+        // Then
+        assertThat(progress.getState()).isEqualTo(IndexRebuildProgress.State.RUNNING);
+        assertThat(progress.getTargetIndex()).isEqualTo("videos-20240101-000000");
+        verify(indexStateRepository, never()).deleteCheckpoint();
+        verify(azureSearchClient, never()).createIndex(anyString());
+        verifyNoInteractions(cosmosVideoRepository);
+    }
+    
+    @Test
+    void toIndexDocuments_ShouldKeepOnlyIndexFields() {
+        // Given
+        Map<String, Object> video = Map.of("id", "video-1", "title", "Java", "_rid", "abc", "_ts", 1700000000);
+        
+        // When
+        List<Map<String, Object>> documents = IndexRebuildPipeline.toIndexDocuments(List.of(video));
+        
+        // Then
+        assertThat(documents).hasSize(1);
+        assertThat(documents.get(0)).containsOnlyKeys("documentId", "videoId", "title");
+        assertThat(documents.get(0)).containsEntry("documentId", "video-1");
+    }
+    
+    @Test
+    void adaptiveBatchSizer_ShouldHalveOnThrottleAndGrowOnSuccess() {
+        // Given
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(400, 50, 1000, 50,
+                Duration.ofSeconds(1), Duration.ofSeconds(30));
+        
+        // When
+        sizer.onThrottled();
+        sizer.onThrottled();
+        int throttled = sizer.current();
+        sizer.onSuccess();
+        
+        // Then
+        assertThat(throttled).isEqualTo(100);
+        assertThat(sizer.current()).isEqualTo(150);
+        assertThat(sizer.backoff(0, Duration.ofSeconds(10))).isEqualTo(Duration.ofSeconds(10));
+        assertThat(sizer.backoff(10, null)).isLessThanOrEqualTo(Duration.ofSeconds(30));
+    }
+    
+    private void givenLeaseAcquired() {
+        when(indexStateRepository.tryAcquireLease(anyString(), any())).thenReturn(Optional.of(
+                IndexStateRepository.RebuildLease.builder().owner("pod-1").build()));
+        lenient().when(indexStateRepository.renewLease(any(), any())).thenReturn(true);
+    }
+    
+    private IndexRebuildProgress awaitFinished() throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            IndexRebuildProgress progress = pipeline.getProgress();
+            if (progress.getState() != IndexRebuildProgress.State.RUNNING) {
+                return progress;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Rebuild did not finish");
+    }
+    
+    private static CosmosVideoRepository.VideoPage page(String continuationToken, String... videoIds) {
+        List<Map<String, Object>> videos = Arrays.stream(videoIds)
+                .map(id -> Map.<String, Object>of("id", id, "title", "Video " + id))
+                .toList();
+        return new CosmosVideoRepository.VideoPage(videos, continuationToken, 1.0);
+    }
+}
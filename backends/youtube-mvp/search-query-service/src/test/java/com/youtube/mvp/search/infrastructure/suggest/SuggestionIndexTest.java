@@ -0,0 +1,80 @@
+package com.youtube.mvp.search.infrastructure.suggest;
+
+import com.youtube.mvp.search.infrastructure.suggest.SuggestionIndex.Entry;
+import com.youtube.mvp.search.infrastructure.suggest.SuggestionIndex.Match;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionIndexTest {
+    
+    private final SuggestionIndex index = SuggestionIndex.build(List.of(
+            new Entry("Java Tutorial", 100),
+            new Entry("java  tutorial", 5),
+            new Entry("JavaScript crash course", 300),
+            new Entry("java", 50),
+            new Entry("python basics", 80),
+            new Entry("jazz music", 90)), 10);
+    
+    @Test
+    void lookup_ShouldReturnMostPopularPhrasesForPrefix() {
+        assertThat(index.lookup("Jav", 10))
+                .extracting(Match::text)
+                .containsExactly("JavaScript crash course", "Java Tutorial", "java");
+        assertThat(index.lookup("ja", 2))
+                .extracting(Match::text)
+                .containsExactly("JavaScript crash course", "Java Tutorial");
+    }
+    
+    @Test
+    void lookup_ShouldMergeSpellingsAndRespectWordBoundary() {
+        assertThat(index.lookup("java ", 10))
+                .containsExactly(new Match("Java Tutorial", 105, 0));
+        assertThat(index.lookup("rust", 10)).isEmpty();
+    }
+    
+    @Test
+    void lookupFuzzy_ShouldTolerateTyposAfterExactMatches() {
+        assertThat(index.lookupFuzzy("pyhton", 10, 2))
+                .containsExactly(new Match("python basics", 80, 2));
+        assertThat(index.lookupFuzzy("jaza", 10, 1))
+                .extracting(Match::text)
+                .contains("jazz music", "JavaScript crash course");
+    }
+    
+    @Test
+    void lookup_ShouldMatchBruteForceTopK() {
+        Random random = new Random(7);
+        List<Entry> entries = new ArrayList<>();
+        Map<String, Long> totals = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = 0, length = 1 + random.nextInt(8); j < length; j++) {
+                text.append("abc d".charAt(random.nextInt(5)));
+            }
+            long weight = 1 + random.nextInt(1_000_000);
+            entries.add(new Entry(text.toString(), weight));
+            if (!text.toString().isBlank()) {
+                totals.merge(SuggestionIndex.normalize(text.toString()), weight, Long::sum);
+            }
+        }
+        SuggestionIndex randomIndex = SuggestionIndex.build(entries, 5);
+        
+        for (String prefix : List.of("a", "ab", "b c", "dd", "cab", "c ")) {
+            List<Long> expected = totals.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(prefix))
+                    .map(Map.Entry::getValue)
+                    .sorted(Comparator.reverseOrder())
+                    .limit(5)
+                    .toList();
+            assertThat(randomIndex.lookup(prefix, 5)).extracting(Match::weight).isEqualTo(expected);
+        }
+    }
+}
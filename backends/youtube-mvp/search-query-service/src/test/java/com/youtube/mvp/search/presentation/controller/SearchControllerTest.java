@@ -1,6 +1,7 @@
 package com.youtube.mvp.search.presentation.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtube.mvp.search.application.dto.IndexRebuildResponse;
 import com.youtube.mvp.search.application.dto.SearchRequest;
 import com.youtube.mvp.search.application.dto.SearchResponse;
 import com.youtube.mvp.search.application.dto.SuggestionRequest;
@@ -98,11 +99,32 @@ class SearchControllerTest {
     @Test
     @WithMockUser(roles = "ADMIN")
     void rebuildIndex_Admin_ShouldReturn202() throws Exception {
+        when(searchApplicationService.rebuildIndex(any())).thenReturn(IndexRebuildResponse.builder()
+                .state("RUNNING")
+                .targetIndex("video-search-index-20240101-000000")
+                .build());
+        
         mockMvc.perform(post("/api/v1/index/rebuild")
                         .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"forceRebuild\":true}"))
-                .andExpect(status().isAccepted());
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getRebuildStatus_Admin_ShouldReturnProgress() throws Exception {
+        when(searchApplicationService.getRebuildStatus()).thenReturn(IndexRebuildResponse.builder()
+                .state("RUNNING")
+                .documentsIndexed(12000L)
+                .documentsPerSecond(850.0)
+                .build());
+        
+        mockMvc.perform(get("/api/v1/index/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.documentsIndexed").value(12000))
+                .andExpect(jsonPath("$.documentsPerSecond").value(850.0));
     }
     
     @Test
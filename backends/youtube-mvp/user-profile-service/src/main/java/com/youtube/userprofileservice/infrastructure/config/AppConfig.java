@@ -2,7 +2,9 @@ package com.youtube.userprofileservice.infrastructure.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.youtube.common.domain.events.outbox.ClaimingJpaOutboxRepository;
 import com.youtube.common.domain.events.outbox.JpaOutboxRepository;
+import com.youtube.common.domain.events.outbox.OutboxRetryPolicy;
 import com.youtube.common.domain.persistence.entity.OutboxEvent;
 import com.youtube.userprofileservice.infrastructure.persistence.entity.OutboxEventEntity;
 import jakarta.persistence.EntityManager;
@@ -21,14 +23,17 @@ public class AppConfig {
      * This bean implements the OutboxRepository interface required by EventPublisher.
      * 
      * <p>The transactional outbox pattern ensures reliable event publishing by storing
-     * events in the database within the same transaction as domain changes.</p>
+     * events in the database within the same transaction as domain changes.
+     * The claiming variant batch-inserts events and lets several pods drain the
+     * outbox concurrently (see V4__Add_outbox_claim_columns.sql).</p>
      * 
      * @param entityManager the JPA EntityManager
+     * @param retryPolicy the retry policy bound from {@code outbox.retry.*}
      * @return configured JpaOutboxRepository instance
      */
     @Bean
-    public JpaOutboxRepository commonDomainOutboxRepository(EntityManager entityManager) {
-        return new JpaOutboxRepository(entityManager, OutboxEventEntity.class) {
+    public JpaOutboxRepository commonDomainOutboxRepository(EntityManager entityManager, OutboxRetryPolicy retryPolicy) {
+        return new ClaimingJpaOutboxRepository(entityManager, OutboxEventEntity.class, "user_profile.outbox_events", retryPolicy) {
             @Override
             protected OutboxEvent createOutboxEvent() {
                 return new OutboxEventEntity();
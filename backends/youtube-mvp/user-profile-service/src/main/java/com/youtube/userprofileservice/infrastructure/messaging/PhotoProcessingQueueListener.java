@@ -3,7 +3,7 @@ package com.youtube.userprofileservice.infrastructure.messaging;
 import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
 import com.azure.messaging.servicebus.ServiceBusReceiverClient;
 import com.azure.messaging.servicebus.ServiceBusClientBuilder;
-import com.youtube.common.domain.events.EventProcessor;
+import com.youtube.common.domain.events.BatchEventProcessor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -12,12 +12,16 @@ import org.springframework.stereotype.Component;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 /**
- * Listens to the photo processing queue and processes uploaded photos using EventProcessor.
- * EventProcessor provides inbox idempotency, transaction management, and event routing.
+ * Listens to the photo processing queue and processes uploaded photos using BatchEventProcessor.
+ * Messages are received in batches; BatchEventProcessor dedupes each batch against the inbox in
+ * one lookup and runs EventProcessor (inbox idempotency, transaction management, event routing)
+ * concurrently across different photos.
  */
 @Slf4j
 @Component
@@ -25,15 +29,18 @@ import java.util.concurrent.Executors;
 public class PhotoProcessingQueueListener {
     
     private final ServiceBusReceiverClient receiverClient;
-    private final EventProcessor eventProcessor;
+    private final BatchEventProcessor batchEventProcessor;
+    private final int batchSize;
     private final ExecutorService executorService = Executors.newSingleThreadExecutor();
     private volatile boolean running = false;
     
     public PhotoProcessingQueueListener(
             @Value("${azure.servicebus.connection-string:}") String serviceBusConnectionString,
             @Value("${azure.servicebus.queue-name:photo-processing}") String queueName,
-            EventProcessor eventProcessor) {
-        this.eventProcessor = eventProcessor;
+            @Value("${app.photo-processing.batch-size:32}") int batchSize,
+            BatchEventProcessor batchEventProcessor) {
+        this.batchEventProcessor = batchEventProcessor;
+        this.batchSize = batchSize;
         
         if (serviceBusConnectionString == null || serviceBusConnectionString.isBlank()) {
             log.warn("Service Bus connection string not configured - photo processing queue listener disabled");
@@ -61,18 +68,19 @@ public class PhotoProcessingQueueListener {
         executorService.submit(() -> {
             while (running) {
                 try {
-                    // Receive messages (up to 1 at a time)
-                    Iterable<ServiceBusReceivedMessage> messages = receiverClient.receiveMessages(1, Duration.ofSeconds(30));
+                    // Receive a batch of messages
+                    List<ServiceBusReceivedMessage> messages = new ArrayList<>(batchSize);
+                    receiverClient.receiveMessages(batchSize, Duration.ofSeconds(30)).forEach(messages::add);
+                    if (messages.isEmpty()) {
+                        continue;
+                    }
                     
-                    for (ServiceBusReceivedMessage message : messages) {
-                        try {
-                            // Use EventProcessor for inbox idempotency, transaction management, and event routing
-                            eventProcessor.process(message);
-                            receiverClient.complete(message);
-                        } catch (Exception e) {
-                            log.error("Error processing message, abandoning", e);
-                            receiverClient.abandon(message);
-                        }
+                    // Settle only after the batch has been processed
+                    BatchEventProcessor.BatchResult result = batchEventProcessor.process(messages);
+                    result.completed().forEach(receiverClient::complete);
+                    if (!result.failed().isEmpty()) {
+                        log.error("Abandoning {} photo processing messages after failures", result.failed().size());
+                        result.failed().forEach(receiverClient::abandon);
                     }
                 } catch (Exception e) {
                     log.error("Error receiving messages from queue", e);
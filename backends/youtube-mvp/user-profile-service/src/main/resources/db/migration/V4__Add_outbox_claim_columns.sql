@@ -0,0 +1,15 @@
+-- User Profile Service Database Schema
+-- Migration: V4__Add_outbox_claim_columns.sql
+
+-- Lease columns used by ClaimingJpaOutboxRepository so several dispatcher
+-- replicas can claim disjoint slices of the outbox (SELECT ... FOR UPDATE SKIP LOCKED)
+ALTER TABLE user_profile.outbox_events ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(64);
+ALTER TABLE user_profile.outbox_events ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMPTZ;
+
+-- Partial index on pending rows (kept small: dispatched rows drop out of it)
+CREATE INDEX IF NOT EXISTS ix_outbox_not_dispatched
+    ON user_profile.outbox_events (created_at)
+    WHERE dispatched_at IS NULL;
+
+COMMENT ON COLUMN user_profile.outbox_events.claimed_by IS 'Dispatcher replica holding the lease on this row';
+COMMENT ON COLUMN user_profile.outbox_events.claimed_until IS 'Lease expiry; row may be claimed again after this time';
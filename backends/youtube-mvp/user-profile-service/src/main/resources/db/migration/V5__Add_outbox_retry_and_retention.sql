@@ -0,0 +1,25 @@
+-- User Profile Service Database Schema
+-- Migration: V5__Add_outbox_retry_and_retention.sql
+
+-- Retry bookkeeping and poison-message parking for outbox events
+ALTER TABLE user_profile.outbox_events ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE user_profile.outbox_events ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMPTZ;
+ALTER TABLE user_profile.outbox_events ADD COLUMN IF NOT EXISTS parked_at TIMESTAMPTZ;
+
+-- Hot working set: only dispatchable rows (parked and dispatched rows drop out)
+DROP INDEX IF EXISTS user_profile.ix_outbox_not_dispatched;
+CREATE INDEX IF NOT EXISTS ix_outbox_pending
+    ON user_profile.outbox_events (created_at)
+    WHERE dispatched_at IS NULL AND parked_at IS NULL;
+
+-- Retention job deletes dispatched rows oldest first
+CREATE INDEX IF NOT EXISTS ix_outbox_dispatched_at
+    ON user_profile.outbox_events (dispatched_at)
+    WHERE dispatched_at IS NOT NULL;
+
+-- Leave room on each page so dispatch/claim updates stay HOT (no index churn)
+ALTER TABLE user_profile.outbox_events SET (fillfactor = 80);
+
+COMMENT ON COLUMN user_profile.outbox_events.attempts IS 'Number of failed dispatch attempts';
+COMMENT ON COLUMN user_profile.outbox_events.next_attempt_at IS 'Earliest time of the next dispatch attempt (exponential backoff)';
+COMMENT ON COLUMN user_profile.outbox_events.parked_at IS 'Timestamp when the event was parked as a poison message';
@@ -0,0 +1,8 @@
+-- User Profile Service Database Schema
+-- Migration: V6__Add_outbox_aggregate_order_index.sql
+
+-- Claims check for an older pending event of the same aggregate before taking a row,
+-- so a later event never overtakes one that is leased or backing off
+CREATE INDEX IF NOT EXISTS ix_outbox_pending_aggregate
+    ON user_profile.outbox_events (aggregate_id, created_at, id)
+    WHERE dispatched_at IS NULL AND parked_at IS NULL;